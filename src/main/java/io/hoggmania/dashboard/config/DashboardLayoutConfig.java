@@ -1,9 +1,13 @@
 package io.hoggmania.dashboard.config;
 
+import io.quarkus.qute.TemplateData;
+
 /**
  * Configuration constants for dashboard layout and styling.
  * All layout dimensions and spacing values are defined here for easy customization.
+ * Templates read them through the {@code layout} namespace, e.g. {@code {layout:NAME_BASELINE_Y}}.
  */
+@TemplateData(namespace = "layout")
 public final class DashboardLayoutConfig {
     
     private DashboardLayoutConfig() {
@@ -56,6 +60,24 @@ public final class DashboardLayoutConfig {
     // Text positioning within boxes
     public static final float TEXT_LEFT_X = 12f;
     public static final float ICON_POS_X_OFFSET = 20f;
+    public static final int NAME_BASELINE_Y = 22;
+    public static final int NAME_LINE_HEIGHT = 14;
+    public static final int CAPABILITY_BASELINE_Y = 40;
+    public static final int CAPABILITY_LINE_HEIGHT = 12;
+    
+    // Initiatives badge, inset from the bottom-right corner of a box
+    public static final int BADGE_INSET_X = 10;
+    public static final int BADGE_INSET_Y = 12;
+    public static final int BADGE_TEXT_INSET_Y = 8;
+    public static final int BADGE_RADIUS = 12;
+    
+    // Header icons
+    public static final int HEADER_ICON_X = 18;
+    public static final int TITLE_ICON_Y = 13;
+    public static final int TITLE_ICON_SIZE = 18;
+    public static final int SECTION_ICON_SIZE = 16;
+    public static final int DOMAIN_ICON_X = 6;
+    public static final int DOMAIN_ICON_SIZE = 14;
     
     // Legend
     public static final int LEGEND_HEIGHT = 90;
@@ -67,14 +89,30 @@ public final class DashboardLayoutConfig {
     public static final int LEGEND_STATUS_START_X = 0;
     public static final int LEGEND_MATURITY_START_X = 720;
     
+    // Legend row offset inside the legend box, item offset inside the row, and swatch size
+    public static final int LEGEND_ROW_X = 10;
+    public static final int LEGEND_ROW_Y = 35;
+    public static final int LEGEND_SWATCH_Y = 15;
+    public static final int LEGEND_SWATCH_WIDTH = 40;
+    public static final int LEGEND_SWATCH_HEIGHT = 30;
+    
     // Title bar
     public static final float MAIN_TITLE_Y = 10f;
     public static final float MAIN_TITLE_HEIGHT = 35f;
     public static final float MAIN_TITLE_BORDER_RADIUS = 4f;
     
+    // Title text baselines (absolute)
+    public static final int TITLE_TEXT_Y = 33;
+    public static final int GOVERNANCE_TEXT_Y = 68;
+    
     // Section title bars
     public static final float SECTION_TITLE_BORDER_RADIUS = 3f;
     
+    // Section title text baseline and icon top, relative to the bar top
+    public static final int SECTION_TEXT_OFFSET_Y = 18;
+    public static final int SECTION_ICON_OFFSET_Y = 3;
+    public static final int DOMAIN_HEADER_TEXT_OFFSET_Y = 15;
+    
     /**
      * Calculates the box width based on available canvas width.
      * 
@@ -0,0 +1,11 @@
+package io.hoggmania.dashboard.exception;
+
+/**
+ * Raised when the time budget of a request runs out before the work it needs could be done.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package io.hoggmania.dashboard.exception;
 
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
@@ -23,8 +24,11 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
 
     @Override
     public Response toResponse(Exception exception) {
-        // Log the full exception for diagnostics during tests
-        Log.error("Unhandled exception in request processing", exception);
+        if (exception instanceof RequestCancelledException) {
+            // The client is gone; nobody will read the response
+            Log.debugf("Request to %s abandoned: %s", uriInfo != null ? uriInfo.getPath() : "", exception.getMessage());
+            return Response.status(499, "Client Closed Request").build();
+        }
         boolean wantsHtml = false;
         String path = uriInfo != null && uriInfo.getPath() != null ? uriInfo.getPath() : "";
         if (path.startsWith("ui") || path.startsWith("/ui")) {
@@ -42,7 +46,47 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
         Response.ResponseBuilder builder;
         String title;
         String msg;
+        // Expected outcomes are logged without a stack trace; only unexpected failures get one
+        if (exception instanceof JiraUnavailableException unavailable) {
+            Log.warnf("Request to %s rejected: %s", path, exception.getMessage());
+            builder = Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", Math.max(1, unavailable.getRetryAfter().toSeconds()));
+            title = "Jira Unavailable";
+            msg = exception.getMessage();
+            return wantsHtml ? builder.entity(buildHtml(title, msg)).type(MediaType.TEXT_HTML).build()
+                    : builder.entity(new ErrorResponse(title, msg)).build();
+        }
+
+        if (exception instanceof ServiceBusyException busy) {
+            Log.warnf("Request to %s rejected: %s", path, exception.getMessage());
+            builder = Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", Math.max(1, busy.getRetryAfter().toSeconds()));
+            title = "Service Busy";
+            msg = exception.getMessage();
+            return wantsHtml ? builder.entity(buildHtml(title, msg)).type(MediaType.TEXT_HTML).build()
+                    : builder.entity(new ErrorResponse(title, msg)).build();
+        }
+
+        if (exception instanceof NotFoundException) {
+            Log.debugf("Request to %s not found: %s", path, exception.getMessage());
+            builder = Response.status(Response.Status.NOT_FOUND);
+            title = "Not Found";
+            msg = exception.getMessage();
+            return wantsHtml ? builder.entity(buildHtml(title, msg)).type(MediaType.TEXT_HTML).build()
+                    : builder.entity(new ErrorResponse(title, msg)).build();
+        }
+
+        if (exception instanceof DeadlineExceededException) {
+            Log.warnf("Request to %s timed out: %s", path, exception.getMessage());
+            builder = Response.status(Response.Status.GATEWAY_TIMEOUT);
+            title = "Deadline Exceeded";
+            msg = exception.getMessage();
+            return wantsHtml ? builder.entity(buildHtml(title, msg)).type(MediaType.TEXT_HTML).build()
+                    : builder.entity(new ErrorResponse(title, msg)).build();
+        }
+
         if (exception instanceof ValidationException) {
+            Log.debugf("Request to %s failed validation: %s", path, exception.getMessage());
             builder = Response.status(Response.Status.BAD_REQUEST);
             title = "Validation Error";
             msg = exception.getMessage();
@@ -51,6 +95,7 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
         }
         
         if (exception instanceof JsonMappingException || exception instanceof JsonProcessingException) {
+            Log.debugf("Request to %s had invalid JSON: %s", path, exception.getMessage());
             builder = Response.status(Response.Status.BAD_REQUEST);
             title = "JSON Parsing Error";
             msg = "Invalid JSON format: " + exception.getMessage();
@@ -59,6 +104,7 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
         }
         
         if (exception instanceof IllegalArgumentException) {
+            Log.debugf("Request to %s had an invalid argument: %s", path, exception.getMessage());
             builder = Response.status(Response.Status.BAD_REQUEST);
             title = "Invalid Argument";
             msg = exception.getMessage();
@@ -67,6 +113,7 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
         }
         
         // Generic server error for unexpected exceptions
+        Log.error("Unhandled exception in request processing", exception);
         builder = Response.status(Response.Status.INTERNAL_SERVER_ERROR);
         title = "Internal Server Error";
         msg = "An unexpected error occurred";
@@ -0,0 +1,20 @@
+package io.hoggmania.dashboard.exception;
+
+import java.time.Duration;
+
+/**
+ * Raised when calls to a Jira instance are short-circuited because it is considered unavailable.
+ */
+public class JiraUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public JiraUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter == null ? Duration.ZERO : retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package io.hoggmania.dashboard.exception;
+
+/**
+ * Raised when work is abandoned because the client that requested it is no longer waiting.
+ */
+public class RequestCancelledException extends RuntimeException {
+
+    public RequestCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package io.hoggmania.dashboard.exception;
+
+import java.time.Duration;
+
+/**
+ * Raised when a local queue is full and new work cannot be accepted right now.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter == null ? Duration.ZERO : retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
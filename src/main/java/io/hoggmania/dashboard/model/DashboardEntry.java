@@ -0,0 +1,16 @@
+package io.hoggmania.dashboard.model;
+
+/**
+ * A dashboard payload stored in the registry, with the URLs it is served from.
+ */
+public class DashboardEntry {
+    public String id;
+    public boolean named; // stored under a name (mutable) rather than its content hash (immutable)
+    public String etag;
+    public String updatedAt; // ISO-8601
+    public String svgUrl;
+    public String pngUrl;
+    public String initiativesUrl;
+
+    public DashboardEntry() {}
+}
@@ -0,0 +1,128 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Geometry of a rendered dashboard, for clients that draw it themselves.
+ *
+ * <p>All coordinates are absolute, in the units of the SVG {@code viewBox}. Text is plain
+ * (not XML-escaped) and already wrapped into lines. Absent values are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardLayout {
+
+    /** Axis-aligned rectangle. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Box {
+        public float x;
+        public float y;
+        public float width;
+        public float height;
+
+        public Box() {}
+
+        public Box(float x, float y, float width, float height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /** Title bar of the dashboard, a section or a domain; the text is centred on (textX, textY). */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Header {
+        public String title;
+        public String href;
+        public String icon;
+        public Box box;
+        public Box iconBox; // null without an icon
+        public float textX;
+        public float textY;
+
+        public Header() {}
+    }
+
+    /** One component box with its wrapped text and initiatives badge. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Component {
+        public String id; // id of the component's <g> element in the SVG
+        public String domain; // null for governance components
+        public float x;
+        public float y;
+        public String capabilityColor; // top-left triangle
+        public String maturityColor; // background
+        public String border;
+        public Boolean doubleBorder; // null when false
+        public String icon;
+        public Float iconX; // relative to the box; null without an icon
+        public float textX; // relative to the box
+        public String textAnchor;
+        public List<String> nameLines;
+        public String nameHref;
+        public List<String> capabilityLines;
+        public String capabilityHref;
+        public Integer initiatives; // null when no badge is drawn
+        public String initiativeHref;
+        public Boolean initiativeNewTab;
+        public String initiativeStroke; // colour, or url(#id) of an entry in ragGradients
+
+        public Component() {}
+    }
+
+    /** A colour key in the legend. */
+    public static class LegendEntry {
+        public String label;
+        public String color;
+        public Box swatch;
+
+        public LegendEntry() {}
+
+        public LegendEntry(String label, String color, Box swatch) {
+            this.label = label;
+            this.color = color;
+            this.swatch = swatch;
+        }
+    }
+
+    public static class Legend {
+        public Box box;
+        public List<LegendEntry> status = new ArrayList<>();
+        public List<LegendEntry> maturity = new ArrayList<>();
+
+        public Legend() {}
+    }
+
+    /** Size of every component box and position of the badge inside it. */
+    public static class ComponentMetrics {
+        public float width;
+        public float height;
+        public float badgeX;
+        public float badgeY;
+        public float badgeRadius;
+        public float nameY;
+        public float nameLineHeight;
+        public float capabilityY;
+        public float capabilityLineHeight;
+
+        public ComponentMetrics() {}
+    }
+
+    public float width; // viewBox width
+    public float height; // viewBox height
+    public float widthMm;
+    public float heightMm;
+    public ComponentMetrics box;
+    public Header title;
+    public Header governance;
+    public Header capabilities;
+    public List<Header> domains = new ArrayList<>();
+    public List<Component> components = new ArrayList<>();
+    public List<RenderPlan.Gradient> ragGradients = new ArrayList<>();
+    public Legend legend;
+
+    public DashboardLayout() {}
+}
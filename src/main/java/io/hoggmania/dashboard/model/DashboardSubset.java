@@ -0,0 +1,136 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.util.LinkText;
+
+/**
+ * The part of a dashboard to render: everything, one section, or one capability domain.
+ *
+ * <p>A subset is applied to the payload before layout, so only the selected components are laid
+ * out and drawn and the canvas height shrinks to fit them. The title bar and legend are kept.
+ */
+public final class DashboardSubset {
+
+    public static final String GOVERNANCE = "governance";
+    public static final String CAPABILITIES = "capabilities";
+
+    /** The whole dashboard. */
+    public static final DashboardSubset ALL = new DashboardSubset(null, null);
+
+    private final String section; // null for both sections
+    private final String domain; // label of the selected domain, null for all domains
+
+    private DashboardSubset(String section, String domain) {
+        this.section = section;
+        this.domain = domain;
+    }
+
+    /**
+     * Parses the {@code section} and {@code domain} request parameters.
+     *
+     * @param section "governance", "capabilities", or blank for both
+     * @param domain label of a capability domain, or blank for all; implies the capabilities section
+     * @return the subset
+     * @throws ValidationException if the section is unknown or a domain is combined with governance
+     */
+    public static DashboardSubset of(String section, String domain) {
+        String selectedSection = section == null || section.isBlank() ? null : section.trim().toLowerCase(Locale.ROOT);
+        String selectedDomain = domain == null || domain.isBlank() ? null : domain.trim();
+        if (selectedSection != null && !GOVERNANCE.equals(selectedSection) && !CAPABILITIES.equals(selectedSection)) {
+            throw new ValidationException("Unknown section: " + section + ". Must be one of: governance, capabilities");
+        }
+        if (selectedDomain != null) {
+            if (GOVERNANCE.equals(selectedSection)) {
+                throw new ValidationException("A domain can only be selected from the capabilities section");
+            }
+            selectedSection = CAPABILITIES;
+        }
+        return selectedSection == null ? ALL : new DashboardSubset(selectedSection, selectedDomain);
+    }
+
+    /**
+     * Checks whether this subset is the whole dashboard.
+     */
+    public boolean isAll() {
+        return section == null;
+    }
+
+    /**
+     * Derives the render key of this subset of a payload, so subsets are cached apart from the
+     * whole dashboard and from each other.
+     *
+     * @param contentHash the content hash of the payload
+     * @return the content hash for the whole dashboard, or the hash with the subset appended
+     */
+    public String key(String contentHash) {
+        if (isAll()) {
+            return contentHash;
+        }
+        return contentHash + "|" + section + (domain != null ? "|" + domain.toLowerCase(Locale.ROOT) : "");
+    }
+
+    /**
+     * Applies this subset to a payload. The payload itself is not modified.
+     *
+     * @param esa the full payload
+     * @return a payload holding only the selected part, or {@code esa} for the whole dashboard
+     * @throws ValidationException if the selected section or domain is not in the payload
+     */
+    public ESA apply(ESA esa) {
+        if (isAll()) {
+            return esa;
+        }
+        ESA subset = new ESA();
+        subset.title = esa.title;
+        subset.icon = esa.icon;
+        subset.attributes = esa.attributes;
+        if (GOVERNANCE.equals(section)) {
+            if (esa.governance == null) {
+                throw new ValidationException("The payload has no governance section");
+            }
+            subset.governance = esa.governance;
+            return subset;
+        }
+        if (esa.capabilities == null) {
+            throw new ValidationException("The payload has no capabilities section");
+        }
+        if (domain == null) {
+            subset.capabilities = esa.capabilities;
+            return subset;
+        }
+        List<Domain> selected = new ArrayList<>(1);
+        if (esa.capabilities.domains != null) {
+            for (Domain candidate : esa.capabilities.domains) {
+                if (candidate != null && domain.equalsIgnoreCase(label(candidate.domain))) {
+                    selected.add(candidate);
+                }
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new ValidationException("Unknown domain: " + domain);
+        }
+        Capabilities capabilities = new Capabilities();
+        capabilities.title = esa.capabilities.title;
+        capabilities.icon = esa.capabilities.icon;
+        capabilities.domains = selected;
+        subset.capabilities = capabilities;
+        return subset;
+    }
+
+    /**
+     * Gets the text of a domain name without a trailing {@code [url]} link.
+     */
+    private static String label(String name) {
+        String text = LinkText.parse(name).text;
+        return text == null ? "" : text.trim();
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "all" : section + (domain != null ? ":" + domain : "");
+    }
+}
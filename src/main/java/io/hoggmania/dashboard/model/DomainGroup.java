@@ -2,6 +2,9 @@ package io.hoggmania.dashboard.model;
 
 import java.util.List;
 
+import io.quarkus.qute.TemplateData;
+
+@TemplateData
 public class DomainGroup {
     public String domainName;
     public String icon; // optional icon to render next to domain heading
@@ -23,6 +26,23 @@ public class DomainGroup {
         this.items = items;
     }
 
+    /**
+     * Copies another group along with its items; the item list becomes unmodifiable.
+     */
+    public DomainGroup(DomainGroup other) {
+        this.domainName = other.domainName;
+        this.icon = other.icon;
+        this.domainHref = other.domainHref;
+        this.items = other.items == null ? null : other.items.stream().map(RenderItem::new).toList();
+        this.headerX = other.headerX;
+        this.headerY = other.headerY;
+        this.headerTextY = other.headerTextY;
+        this.headerIconY = other.headerIconY;
+        this.headerWidth = other.headerWidth;
+        this.headerTextX = other.headerTextX;
+        this.showHeader = other.showHeader;
+    }
+
     @Override
     public String toString() {
         return "DomainGroup [domainName=" + domainName + ", icon=" + icon + ", headerX=" + headerX
@@ -21,8 +21,9 @@ public class ESA {
     }
 
 
-        /**
-     * Validates the ESA model structure and required fields
+    /**
+     * Validates the ESA model structure and required fields.
+     * {@code RenderPlanCompiler} calls this before laying out a model.
      */
     public static void validateESA(ESA root) {
         if (root == null) {
@@ -60,8 +61,12 @@ public class ESA {
     
     /**
      * Validates individual component items
+     *
+     * @param comp the component
+     * @param section where the component sits, used in error messages (e.g. "governance")
+     * @param index the position of the component within the section
      */
-    private static void validateComponent(ComponentItem comp, String section, int index) {
+    public static void validateComponent(ComponentItem comp, String section, int index) {
         if (comp == null) {
             throw new ValidationException("Component at " + section + "[" + index + "] cannot be null");
         }
@@ -0,0 +1,72 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structured difference between two ESA payloads.
+ */
+public class EsaDelta {
+
+    public enum Change {
+        ADDED,
+        REMOVED,
+        MOVED, // capability component that now sits in another domain (may also have field changes)
+        CHANGED
+    }
+
+    /** A field whose value differs; values are rendered as strings, null when absent. */
+    public static class FieldChange {
+        public String field;
+        public String before;
+        public String after;
+
+        public FieldChange() {}
+
+        public FieldChange(String field, String before, String after) {
+            this.field = field;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    /** An initiative added to, removed from or changed on a component. */
+    public static class InitiativeChange {
+        public Change change;
+        public String key;
+        public String summary;
+        public List<FieldChange> fields = new ArrayList<>();
+
+        public InitiativeChange() {}
+    }
+
+    /** A domain present in both versions whose heading or position differs. */
+    public static class DomainChange {
+        public String domain;
+        public List<FieldChange> fields = new ArrayList<>();
+
+        public DomainChange() {}
+    }
+
+    /** A component that differs between the two versions. */
+    public static class ComponentChange {
+        public Change change;
+        public String section; // "governance" or "capabilities"
+        public String name;
+        public String fromDomain; // capabilities only; null for added components
+        public String toDomain; // capabilities only; null for removed components
+        public List<FieldChange> fields = new ArrayList<>();
+        public List<InitiativeChange> initiatives = new ArrayList<>();
+
+        public ComponentChange() {}
+    }
+
+    public boolean identical;
+    public List<FieldChange> fields = new ArrayList<>(); // dashboard-level fields such as the title
+    public List<String> domainsAdded = new ArrayList<>();
+    public List<String> domainsRemoved = new ArrayList<>();
+    public List<DomainChange> domainsChanged = new ArrayList<>();
+    public List<ComponentChange> components = new ArrayList<>();
+
+    public EsaDelta() {}
+}
@@ -0,0 +1,15 @@
+package io.hoggmania.dashboard.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Two ESA versions to compare, each given inline or as the id of a stored snapshot.
+ */
+public class EsaDiffRequest {
+    public JsonNode before; // ESA JSON
+    public JsonNode after;
+    public String beforeId; // id of a stored dashboard or job
+    public String afterId;
+
+    public EsaDiffRequest() {}
+}
@@ -1,8 +1,11 @@
 package io.hoggmania.dashboard.model;
 
+import io.quarkus.qute.TemplateData;
+
 /**
  * Flattened initiative data used by the initiatives render template.
  */
+@TemplateData
 public class InitiativeRow {
     public final String capability;
     public final String component;
@@ -0,0 +1,19 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.Map;
+
+/**
+ * Progress snapshot of a running Jira import, streamed as the {@code progress} event.
+ */
+public class JiraImportProgress {
+    public int fetched; // issues fetched so far
+    public int discovered; // linked issues found so far (grows while the hierarchy is walked)
+    public Map<String, Integer> fetchedByLevel; // e.g., "components" -> 42
+    public Map<String, Integer> discoveredByLevel;
+    public int capacityWaits; // Jira calls that had to wait for a rate-limit permit or slot
+    public long waitedMs; // total time spent waiting for capacity
+    public long elapsedMs;
+    public Long etaMs; // estimate for the issues discovered so far; null until one issue was fetched
+
+    public JiraImportProgress() {}
+}
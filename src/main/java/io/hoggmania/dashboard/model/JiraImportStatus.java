@@ -0,0 +1,26 @@
+package io.hoggmania.dashboard.model;
+
+/**
+ * Status of an asynchronous Jira import.
+ */
+public class JiraImportStatus {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    public String id;
+    public State state;
+    public String rootKey;
+    public String startedAt; // ISO-8601
+    public String finishedAt; // ISO-8601, null while running
+    public String message; // failure reason, if any
+    public String eventsUrl;
+    public JiraImportProgress progress;
+    public ESA result; // present once completed
+
+    public JiraImportStatus() {}
+}
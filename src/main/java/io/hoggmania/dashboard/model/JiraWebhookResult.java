@@ -0,0 +1,18 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a Jira webhook delivery: which issues and ESA roots were affected and what was dropped.
+ */
+public class JiraWebhookResult {
+    public String event; // webhookEvent of the delivery, e.g. "jira:issue_updated"
+    public List<String> issueKeys; // issues named by the event
+    public List<String> roots; // ESA roots whose last build included one of them
+    public int invalidatedIssues; // cached issue snapshots removed
+    public int invalidatedRenders; // pre-rendered dashboards marked stale (served until rebuilt)
+    public int invalidatedJobs; // finished Jira import jobs no longer reused
+    public List<String> refreshing; // roots queued for a background refresh
+
+    public JiraWebhookResult() {}
+}
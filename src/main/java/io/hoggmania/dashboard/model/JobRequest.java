@@ -0,0 +1,14 @@
+package io.hoggmania.dashboard.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Submission of an asynchronous render or import job.
+ */
+public class JobRequest {
+    public String type; // svg, png, initiatives or jira-esa
+    public JsonNode payload; // ESA JSON for the render types
+    public JiraEsaRequest jira; // import parameters for jira-esa
+
+    public JobRequest() {}
+}
@@ -0,0 +1,61 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.Locale;
+
+/**
+ * Status of an asynchronous render or import job.
+ */
+public class JobStatus {
+
+    public enum Type {
+        SVG("image/svg+xml"),
+        PNG("image/png"),
+        INITIATIVES("text/html"),
+        JIRA_ESA("application/json");
+
+        private final String contentType;
+
+        Type(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        /**
+         * Parses a job type as written in requests, e.g. {@code png} or {@code jira-esa}.
+         *
+         * @return the type, or null if the name is not a known type
+         */
+        public static Type parse(String name) {
+            if (name == null) {
+                return null;
+            }
+            try {
+                return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    public String id;
+    public Type type;
+    public State state;
+    public String submittedAt; // ISO-8601
+    public String startedAt; // ISO-8601, null while queued
+    public String finishedAt; // ISO-8601, null until succeeded or failed
+    public String message; // failure reason, if any
+    public String contentType; // media type of the result
+    public String resultUrl;
+
+    public JobStatus() {}
+}
@@ -0,0 +1,19 @@
+package io.hoggmania.dashboard.model;
+
+/**
+ * Pre-rendering state of one configured ESA root.
+ */
+public class PrerenderedRoot {
+    public String rootKey;
+    public String title; // ESA title of the latest render
+    public String renderedAt; // ISO-8601, null until the first successful render
+    public String lastAttemptAt; // ISO-8601
+    public String lastError; // message of the latest failed attempt, cleared on success
+    public boolean partial; // latest render has unfetched components
+    public boolean stale; // Jira changed since the latest render; it is served until the rebuild completes
+    public String svgUrl;
+    public String pngUrl;
+    public String initiativesUrl;
+
+    public PrerenderedRoot() {}
+}
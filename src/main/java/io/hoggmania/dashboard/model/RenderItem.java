@@ -1,5 +1,8 @@
 package io.hoggmania.dashboard.model;
 
+import io.quarkus.qute.TemplateData;
+
+@TemplateData
 public class RenderItem {
     public float x;
     public float y;
@@ -8,9 +11,9 @@ public class RenderItem {
     public String domain;
     public String fill; // deprecated - use capabilityColor/maturityColor
     public String border;
-    public String capabilityColor; // top-left gradient color
-    public String maturityColor;   // bottom-right gradient color
-    public String gradientId;      // unique gradient identifier
+    public String capabilityColor; // top-left triangle
+    public String maturityColor;   // background
+    public String elementId;       // stable id of the component's <g> element, e.g. "cmp_gov_0"
     public int initiatives; // if >0 display count badge
     public boolean showInitiatives;
     public boolean doubleBorder; // if true, render double border
@@ -29,7 +32,7 @@ public class RenderItem {
     public RenderItem() {}
 
     public RenderItem(float x, float y, String name, String capability, String domain, 
-                      String capabilityColor, String maturityColor, String gradientId,
+                      String capabilityColor, String maturityColor,
                       String border, boolean doubleBorder, String iconId) {
         this.x = x;
         this.y = y;
@@ -39,7 +42,6 @@ public class RenderItem {
         this.fill = capabilityColor; // backward compat
         this.capabilityColor = capabilityColor;
         this.maturityColor = maturityColor;
-        this.gradientId = gradientId;
         this.border = border;
         this.initiatives = 0;
         this.showInitiatives = false;
@@ -57,6 +59,36 @@ public class RenderItem {
         this.initiativeStroke = "#FFFFFF";
     }
 
+    /**
+     * Copies another item. The line lists are shared, as the compiler only hands out unmodifiable ones.
+     */
+    public RenderItem(RenderItem other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.name = other.name;
+        this.capability = other.capability;
+        this.domain = other.domain;
+        this.fill = other.fill;
+        this.border = other.border;
+        this.capabilityColor = other.capabilityColor;
+        this.maturityColor = other.maturityColor;
+        this.elementId = other.elementId;
+        this.initiatives = other.initiatives;
+        this.showInitiatives = other.showInitiatives;
+        this.doubleBorder = other.doubleBorder;
+        this.iconId = other.iconId;
+        this.nameHref = other.nameHref;
+        this.capabilityHref = other.capabilityHref;
+        this.initiativeHref = other.initiativeHref;
+        this.initiativeNewTab = other.initiativeNewTab;
+        this.nameLines = other.nameLines;
+        this.capabilityLines = other.capabilityLines;
+        this.textX = other.textX;
+        this.textAnchor = other.textAnchor;
+        this.iconX = other.iconX;
+        this.initiativeStroke = other.initiativeStroke;
+    }
+
     public boolean hasInitiatives() {
         return initiatives > 0;
     }
@@ -0,0 +1,94 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.hoggmania.dashboard.config.DashboardLayoutConfig;
+
+/**
+ * A validated, laid out ESA dashboard, ready to be written as SVG, PNG or an initiatives page.
+ *
+ * <p>Plans are compiled once per payload and shared between renders and threads. A plan keeps its
+ * own copies of the items and groups it is built from, in unmodifiable lists, so later changes to
+ * the originals do not reach it; the copies still have public fields, which renderers only read.
+ * Text held by the plan is already wrapped and escaped for SVG, except {@link #initiativesTitle}
+ * and the initiative rows, which the HTML template escapes.
+ */
+public class RenderPlan {
+
+    /**
+     * Title, link and icon of the dashboard or one of its sections.
+     */
+    public static class Header {
+        public final String title; // XML-escaped; null if the section has no title
+        public final String href;
+        public final String iconId;
+
+        public Header(String title, String href, String iconId) {
+            this.title = title;
+            this.href = href;
+            this.iconId = iconId;
+        }
+    }
+
+    /**
+     * A gradient definition shared by every initiatives badge with the same RAG sequence: the
+     * vertical ring around the badge with one band per RAG letter.
+     */
+    public static class Gradient {
+        public final String id;
+        public final List<GradientStop> stops;
+
+        public Gradient(String id, List<GradientStop> stops) {
+            this.id = id;
+            this.stops = Collections.unmodifiableList(new ArrayList<>(stops));
+        }
+    }
+
+    public static class GradientStop {
+        public final float offset;
+        public final String color;
+
+        public GradientStop(float offset, String color) {
+            this.offset = offset;
+            this.color = color;
+        }
+    }
+
+    public final Header dashboard;
+    public final Header governance; // null if the payload has no governance section
+    public final Header capabilities; // null if the payload has no capabilities section
+    public final String initiativesTitle; // plain text title of the initiatives page
+    public final List<RenderItem> governanceItems;
+    public final List<DomainGroup> domainGroups;
+    public final List<Gradient> initiativeGradients; // one per initiative RAG sequence in use
+    public final List<String> iconIds; // icon symbols referenced by the dashboard, in first-use order
+    public final List<InitiativeRow> initiativeRows;
+    public final float capabilitiesHeaderY;
+    public final float boxW;
+    public final float boxH;
+    public final float canvasWidth;
+    public final int legendY;
+    public final int svgHeight;
+
+    public RenderPlan(Header dashboard, Header governance, Header capabilities, String initiativesTitle,
+            List<RenderItem> governanceItems, List<DomainGroup> domainGroups, List<Gradient> initiativeGradients, List<String> iconIds, List<InitiativeRow> initiativeRows,
+            float capabilitiesHeaderY, float boxW, int legendY) {
+        this.dashboard = dashboard;
+        this.governance = governance;
+        this.capabilities = capabilities;
+        this.initiativesTitle = initiativesTitle;
+        this.governanceItems = governanceItems.stream().map(RenderItem::new).toList();
+        this.domainGroups = domainGroups.stream().map(DomainGroup::new).toList();
+        this.initiativeGradients = Collections.unmodifiableList(new ArrayList<>(initiativeGradients));
+        this.iconIds = Collections.unmodifiableList(new ArrayList<>(iconIds));
+        this.initiativeRows = Collections.unmodifiableList(new ArrayList<>(initiativeRows));
+        this.capabilitiesHeaderY = capabilitiesHeaderY;
+        this.boxW = boxW;
+        this.boxH = DashboardLayoutConfig.BOX_HEIGHT;
+        this.canvasWidth = DashboardLayoutConfig.DEFAULT_CANVAS_WIDTH;
+        this.legendY = legendY;
+        this.svgHeight = legendY + DashboardLayoutConfig.LEGEND_HEIGHT + DashboardLayoutConfig.BOTTOM_MARGIN;
+    }
+}
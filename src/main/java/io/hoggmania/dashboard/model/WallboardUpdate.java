@@ -0,0 +1,17 @@
+package io.hoggmania.dashboard.model;
+
+import java.util.Map;
+
+/**
+ * Change pushed to wallboards subscribed to a pre-rendered root.
+ * Either {@code svg} (full document) or {@code elements} (changed component groups) is set.
+ */
+public class WallboardUpdate {
+    public String rootKey;
+    public String version; // content hash of the SVG after this update
+    public String previousVersion; // version the element updates apply to; null for full documents
+    public String svg;
+    public Map<String, String> elements; // component <g> id -> replacement markup
+
+    public WallboardUpdate() {}
+}
@@ -0,0 +1,54 @@
+package io.hoggmania.dashboard.resource;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.AttributePair;
+import io.hoggmania.dashboard.util.StringUtils;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts name/value pairs from request bodies into ordered maps.
+ */
+final class AttributePairs {
+
+    private AttributePairs() {
+    }
+
+    /**
+     * Converts attribute pairs, keeping the last value for repeated names.
+     *
+     * @throws ValidationException if a name is blank
+     */
+    static Map<String, String> attributes(List<AttributePair> attributes) {
+        return toMap(attributes, "Attribute");
+    }
+
+    /**
+     * Converts extra Jira header pairs, keeping the last value for repeated names.
+     *
+     * @throws ValidationException if a name is blank
+     */
+    static Map<String, String> headers(List<AttributePair> headers) {
+        return toMap(headers, "Header");
+    }
+
+    private static Map<String, String> toMap(List<AttributePair> pairs, String label) {
+        if (pairs == null || pairs.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> normalized = new LinkedHashMap<>();
+        for (AttributePair pair : pairs) {
+            if (pair == null) {
+                continue;
+            }
+            String name = pair.name != null ? pair.name.trim() : "";
+            if (StringUtils.isBlank(name)) {
+                throw new ValidationException(label + " name cannot be blank.");
+            }
+            String value = pair.value == null ? "" : pair.value;
+            normalized.put(name, value);
+        }
+        return normalized;
+    }
+}
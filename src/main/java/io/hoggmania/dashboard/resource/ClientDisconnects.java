@@ -0,0 +1,36 @@
+package io.hoggmania.dashboard.resource;
+
+import io.hoggmania.dashboard.service.JiraRequestContext;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Ties the lifetime of Jira work to the HTTP exchange that asked for it.
+ */
+final class ClientDisconnects {
+
+    private ClientDisconnects() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Cancels the context when the client closes the connection before the response was sent,
+     * e.g., a closed browser tab or an API client giving up after its own timeout.
+     *
+     * @param request the current HTTP request (may be null outside of an HTTP exchange)
+     * @param context the context to cancel
+     * @return the same context
+     */
+    static JiraRequestContext cancelOnDisconnect(HttpServerRequest request, JiraRequestContext context) {
+        if (request == null) {
+            return context;
+        }
+        HttpServerResponse response = request.response();
+        response.closeHandler(ignored -> {
+            if (!response.ended()) {
+                context.cancel();
+            }
+        });
+        return context;
+    }
+}
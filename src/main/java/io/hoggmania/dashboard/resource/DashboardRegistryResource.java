@@ -0,0 +1,204 @@
+package io.hoggmania.dashboard.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hoggmania.dashboard.model.DashboardEntry;
+import io.hoggmania.dashboard.service.DashboardRegistry;
+import io.hoggmania.dashboard.util.CompressedContent;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/api/v1/dashboards")
+@Tag(name = "Dashboards", description = "Store ESA payloads and fetch their renders with cacheable GET requests")
+public class DashboardRegistryResource {
+
+    private static final String BASE = "/api/v1/dashboards/";
+    private static final String REVALIDATE = "no-cache, must-revalidate";
+
+    @Inject
+    DashboardRegistry registry;
+
+    @ConfigProperty(name = "dashboards.max-age-seconds", defaultValue = "86400")
+    long maxAgeSeconds;
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Store a dashboard", description = "Stores the ESA payload under its content hash. "
+            + "Renders of a content-hash id never change and may be cached by browsers and CDNs.")
+    @APIResponse(responseCode = "201", description = "Dashboard stored",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = DashboardEntry.class)))
+    public Response create(JsonNode payload) {
+        DashboardRegistry.Entry entry = registry.create(payload);
+        return Response.created(URI.create(BASE + entry.getId())).entity(describe(entry)).build();
+    }
+
+    @PUT
+    @Path("/{name}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Store a named dashboard", description = "Stores or replaces the ESA payload under a name "
+            + "(letters, digits, '_' and '-'). Clients revalidate renders of named dashboards with If-None-Match.")
+    public DashboardEntry put(@PathParam("name") String name, JsonNode payload) {
+        return describe(registry.put(name, payload));
+    }
+
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get a stored payload", description = "Returns the stored ESA JSON.")
+    public Response payload(@PathParam("id") String id, @Context Request request) throws Exception {
+        return cacheable(lookup(id), request, null, null);
+    }
+
+    @GET
+    @Path("/{id: [A-Za-z0-9_-]+}.svg")
+    @Produces("image/svg+xml")
+    @Operation(summary = "Stored dashboard as SVG")
+    @APIResponse(responseCode = "200", description = "SVG image", content = @Content(mediaType = "image/svg+xml"))
+    @APIResponse(responseCode = "304", description = "Not modified since the tag in If-None-Match")
+    public Response svg(@PathParam("id") String id, @Context Request request, @Context HttpHeaders headers)
+            throws Exception {
+        return cacheable(lookup(id), request, headers, DashboardRegistry.Format.SVG);
+    }
+
+    @GET
+    @Path("/{id: [A-Za-z0-9_-]+}.svgz")
+    @Produces(Encodings.SVG)
+    @Operation(summary = "Stored dashboard as SVGZ", description = "The SVG as a gzip-compressed .svgz download.")
+    @APIResponse(responseCode = "200", description = "Gzip-compressed SVG image", content = @Content(mediaType = "image/svg+xml"))
+    @APIResponse(responseCode = "304", description = "Not modified since the tag in If-None-Match")
+    public Response svgz(@PathParam("id") String id, @Context Request request) throws Exception {
+        DashboardRegistry.Entry entry = lookup(id);
+        EntityTag tag = renderTag(entry, "svgz");
+        String cacheControl = cacheControl(entry);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
+        }
+        return Encodings.svgz(registry.render(entry, DashboardRegistry.Format.SVG), entry.getId())
+                .tag(tag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .lastModified(Date.from(entry.getUpdatedAt()))
+                .build();
+    }
+
+    @GET
+    @Path("/{id: [A-Za-z0-9_-]+}.png")
+    @Produces("image/png")
+    @Operation(summary = "Stored dashboard as PNG")
+    @APIResponse(responseCode = "200", description = "PNG image", content = @Content(mediaType = "image/png"))
+    @APIResponse(responseCode = "304", description = "Not modified since the tag in If-None-Match")
+    public Response png(@PathParam("id") String id, @Context Request request) throws Exception {
+        return cacheable(lookup(id), request, null, DashboardRegistry.Format.PNG);
+    }
+
+    @GET
+    @Path("/{id}/initiatives")
+    @Produces(MediaType.TEXT_HTML)
+    @Operation(summary = "Stored dashboard initiatives page")
+    public Response initiatives(@PathParam("id") String id, @Context Request request, @Context HttpHeaders headers)
+            throws Exception {
+        return cacheable(lookup(id), request, headers, DashboardRegistry.Format.INITIATIVES);
+    }
+
+    @DELETE
+    @Path("/{name}")
+    @Operation(summary = "Delete a named dashboard")
+    public Response delete(@PathParam("name") String name) {
+        if (!registry.delete(name)) {
+            throw new NotFoundException("Unknown dashboard: " + name);
+        }
+        return Response.noContent().build();
+    }
+
+    private DashboardRegistry.Entry lookup(String id) {
+        DashboardRegistry.Entry entry = registry.get(id);
+        if (entry == null) {
+            throw new NotFoundException("Unknown dashboard: " + id);
+        }
+        return entry;
+    }
+
+    /**
+     * Builds a conditional response for a stored dashboard.
+     *
+     * @param headers the request headers, or null to never send a gzip variant
+     * @param format the render format, or null for the stored payload itself
+     */
+    private Response cacheable(DashboardRegistry.Entry entry, Request request, HttpHeaders headers,
+            DashboardRegistry.Format format) throws Exception {
+        boolean gzip = format != null && format.isCompressible() && headers != null
+                && CompressedContent.acceptsGzip(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        // One tag per representation, so a cached SVG never satisfies a conditional PNG request
+        // and a gzip body never satisfies a client that asked for the identity encoding
+        String suffix = format == null ? "json" : format.name().toLowerCase(Locale.ENGLISH);
+        if (gzip) {
+            suffix += "-" + Encodings.GZIP;
+        }
+        EntityTag tag = format == null ? tag(entry, suffix) : renderTag(entry, suffix);
+        String cacheControl = cacheControl(entry);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
+        }
+        Response.ResponseBuilder builder = format == null
+                ? Response.ok(entry.getPayload(), MediaType.APPLICATION_JSON)
+                : Encodings.ok(registry.render(entry, format), format.contentType(), gzip);
+        return builder.tag(tag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .lastModified(Date.from(entry.getUpdatedAt()))
+                .build();
+    }
+
+    private static EntityTag tag(DashboardRegistry.Entry entry, String suffix) {
+        return new EntityTag(entry.getEtag().substring(0, 32) + "-" + suffix);
+    }
+
+    /**
+     * Tags a render. Renders also depend on the renderer, icon mode and sprite version, so the tag
+     * changes with them even though the stored content does not.
+     */
+    private EntityTag renderTag(DashboardRegistry.Entry entry, String suffix) {
+        return tag(entry, registry.renderVariant() + "-" + suffix);
+    }
+
+    private String cacheControl(DashboardRegistry.Entry entry) {
+        return entry.isNamed() ? REVALIDATE : "public, max-age=" + maxAgeSeconds + ", immutable";
+    }
+
+    private static DashboardEntry describe(DashboardRegistry.Entry entry) {
+        DashboardEntry result = new DashboardEntry();
+        result.id = entry.getId();
+        result.named = entry.isNamed();
+        result.etag = entry.getEtag();
+        result.updatedAt = entry.getUpdatedAt().toString();
+        result.svgUrl = BASE + entry.getId() + ".svg";
+        result.pngUrl = BASE + entry.getId() + ".png";
+        result.initiativesUrl = BASE + entry.getId() + "/initiatives";
+        return result;
+    }
+}
@@ -2,16 +2,27 @@ package io.hoggmania.dashboard.resource;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hoggmania.dashboard.model.DashboardLayout;
+import io.hoggmania.dashboard.model.DashboardSubset;
 import io.hoggmania.dashboard.model.ESA;
-import io.hoggmania.dashboard.service.SvgService;
+import io.hoggmania.dashboard.model.EsaDelta;
+import io.hoggmania.dashboard.model.EsaDiffRequest;
+import io.hoggmania.dashboard.service.DashboardLayoutService;
+import io.hoggmania.dashboard.service.DashboardRegistry;
+import io.hoggmania.dashboard.service.EsaDiffService;
+import io.hoggmania.dashboard.service.JobService;
+import io.hoggmania.dashboard.service.RenderCoalescer;
 import io.hoggmania.dashboard.service.InitiativesPageService;
 import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.util.CompressedContent;
 import io.quarkus.logging.Log;
-import io.quarkus.qute.Location;
-import io.quarkus.qute.Template;
+import io.quarkus.qute.CheckedTemplate;
+import io.quarkus.qute.TemplateInstance;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.Base64;
@@ -21,6 +32,7 @@ import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
@@ -152,9 +164,6 @@ public class DashboardResource {
         "  }\n" +
         "}";
 
-    @Inject
-    SvgService svgService;
-
     @Inject
     InitiativesPageService initiativesPageService;
 
@@ -162,14 +171,31 @@ public class DashboardResource {
     ObjectMapper mapper;
 
     @Inject
-    @Location("preview.html.qute")
-    Template previewTemplate;
+    EsaDiffService esaDiffService;
+
+    @Inject
+    JobService jobService;
+
+    @Inject
+    DashboardRegistry dashboardRegistry;
+
+    @Inject
+    RenderCoalescer renderCoalescer;
+
+    @Inject
+    DashboardLayoutService dashboardLayoutService;
+
+    /** templates/preview.html.qute: the SVG inline next to its PNG conversion. */
+    @CheckedTemplate(basePath = "", defaultName = CheckedTemplate.HYPHENATED_ELEMENT_NAME)
+    record Preview(String svg, String pngBase64) implements TemplateInstance {}
 
     @POST
     @Path("/svg")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces("image/svg+xml")
-    @Operation(summary = "Render SVG", description = "Renders an SVG dashboard using the provided JSON model")
+    @Operation(summary = "Render SVG", description = "Renders an SVG dashboard using the provided JSON model. "
+            + "With section or domain, only that part is laid out and drawn on a canvas sized to fit it. "
+            + "Sent gzip-encoded when the client accepts it.")
     @APIResponse(responseCode = "200", description = "SVG image", content = @Content(mediaType = "image/svg+xml"))
     public Response svg(
             @RequestBody(required = true,
@@ -182,23 +208,51 @@ public class DashboardResource {
                             value = SAMPLE_PAYLOAD)
                     }
                 )
-            ) JsonNode model) {
+            ) JsonNode model,
+            @Parameter(description = "Render only this section: governance or capabilities") @QueryParam("section") String section,
+            @Parameter(description = "Render only this capability domain, by label") @QueryParam("domain") String domain,
+            @Context HttpHeaders headers) {
         // Validate input
         if (model == null || model.isNull()) {
             throw new ValidationException("Request body cannot be null or empty");
         }
         
         // Parse full JSON into ESA root DTO first
-        ESA esa = mapper.convertValue(model, ESA.class);
-        String svg = svgService.renderSvg(esa);
-        return Response.ok(svg).build();
+        DashboardSubset subset = DashboardSubset.of(section, domain);
+        ESA esa = subset.apply(mapper.convertValue(model, ESA.class));
+        CompressedContent svg = renderCoalescer.svgContent(subset.key(renderCoalescer.contentHash(model)), esa);
+        return Encodings.ok(svg, Encodings.SVG, headers).build();
+    }
+
+    @POST
+    @Path("/svgz")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(Encodings.SVG)
+    @Operation(summary = "Download SVGZ", description = "Renders the SVG dashboard as a gzip-compressed .svgz file")
+    @APIResponse(responseCode = "200", description = "Gzip-compressed SVG image", content = @Content(mediaType = "image/svg+xml"))
+    public Response svgz(
+            @RequestBody(required = true,
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = ESA.class)
+                )
+            ) JsonNode model,
+            @Parameter(description = "Render only this section: governance or capabilities") @QueryParam("section") String section,
+            @Parameter(description = "Render only this capability domain, by label") @QueryParam("domain") String domain) {
+        if (model == null || model.isNull()) {
+            throw new ValidationException("Request body cannot be null or empty");
+        }
+        DashboardSubset subset = DashboardSubset.of(section, domain);
+        ESA esa = subset.apply(mapper.convertValue(model, ESA.class));
+        return Encodings.svgz(renderCoalescer.svgContent(subset.key(renderCoalescer.contentHash(model)), esa), "dashboard").build();
     }
 
     @POST
     @Path("/png")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces("image/png")
-    @Operation(summary = "Render PNG", description = "Renders a PNG by first generating an SVG then converting via Batik")
+    @Operation(summary = "Render PNG", description = "Renders a PNG by first generating an SVG then converting via Batik. "
+            + "With section or domain, only that part is laid out and rasterised.")
     @APIResponse(responseCode = "200", description = "PNG image", content = @Content(mediaType = "image/png"))
     public Response png(
             @RequestBody(required = true,
@@ -211,16 +265,18 @@ public class DashboardResource {
                             value = SAMPLE_PAYLOAD)
                     }
                 )
-            ) JsonNode model) throws Exception {
+            ) JsonNode model,
+            @Parameter(description = "Render only this section: governance or capabilities") @QueryParam("section") String section,
+            @Parameter(description = "Render only this capability domain, by label") @QueryParam("domain") String domain) throws Exception {
         // Validate input
         if (model == null || model.isNull()) {
             throw new ValidationException("Request body cannot be null or empty");
         }
         
         // Parse full JSON into ESA root DTO first
-        ESA esa = mapper.convertValue(model, ESA.class);
-        String svg = svgService.renderSvg(esa);
-        byte[] png = svgService.renderPngFromSvg(svg, 150f);
+        DashboardSubset subset = DashboardSubset.of(section, domain);
+        ESA esa = subset.apply(mapper.convertValue(model, ESA.class));
+        byte[] png = renderCoalescer.png(subset.key(renderCoalescer.contentHash(model)), esa, 150f);
         return Response.ok(png).build();
     }
 
@@ -241,7 +297,7 @@ public class DashboardResource {
                             value = SAMPLE_PAYLOAD)
                     }
                 )
-            ) JsonNode model) throws Exception {
+            ) JsonNode model, @Context HttpHeaders headers) throws Exception {
         // Validate input
         if (model == null || model.isNull()) {
             throw new ValidationException("Request body cannot be null or empty");
@@ -249,16 +305,14 @@ public class DashboardResource {
 
         // Parse full JSON into ESA root DTO first
         ESA esa = mapper.convertValue(model, ESA.class);
-        String svg = svgService.renderSvg(esa);
-        byte[] png = svgService.renderPngFromSvg(svg, 150f);
-        String pngBase64 = Base64.getEncoder().encodeToString(png);
-        
-        String html = previewTemplate
-            .data("svg", svg)
-            .data("pngBase64", pngBase64)
-            .render();
-        
-        return Response.ok(html).build();
+        String contentHash = renderCoalescer.contentHash(model);
+        CompressedContent html = renderCoalescer.artifact("preview", contentHash, () -> {
+            String svg = renderCoalescer.svg(contentHash, esa);
+            byte[] png = renderCoalescer.png(contentHash, esa, 150f);
+            String pngBase64 = Base64.getEncoder().encodeToString(png);
+            return CompressedContent.of(new Preview(svg, pngBase64).render());
+        });
+        return Encodings.ok(html, Encodings.HTML, headers).build();
     }
 
     @POST
@@ -278,18 +332,90 @@ public class DashboardResource {
                             value = SAMPLE_PAYLOAD)
                     }
                 )
-            ) JsonNode model) {
+            ) JsonNode model, @Context HttpHeaders headers) {
         if (model == null || model.isNull()) {
             throw new ValidationException("Request body cannot be null or empty");
         }
         ESA esa = mapper.convertValue(model, ESA.class);
-        String payloadRaw = null;
-        try {
-            payloadRaw = mapper.writeValueAsString(model);
-        } catch (Exception e) {
-            Log.warn("Failed to serialize payload for display", e);
+        String contentHash = renderCoalescer.contentHash(model);
+        CompressedContent html = renderCoalescer.artifact("initiatives", contentHash, () -> {
+            String payloadRaw = null;
+            try {
+                payloadRaw = mapper.writeValueAsString(model);
+            } catch (Exception e) {
+                Log.warn("Failed to serialize payload for display", e);
+            }
+            return CompressedContent.of(
+                    initiativesPageService.renderInitiativesPage(renderCoalescer.plan(contentHash, esa), payloadRaw));
+        });
+        return Encodings.ok(html, Encodings.HTML, headers).build();
+    }
+
+    @POST
+    @Path("/layout")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Compute layout", description = "Returns the geometry of the dashboard as JSON: canvas size, "
+            + "header bars, component boxes with wrapped text, initiative badges and legend positions. Nothing is "
+            + "rendered, so clients can draw the dashboard themselves. Sent gzip-encoded when the client accepts it.")
+    @APIResponse(responseCode = "200", description = "Dashboard geometry",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = DashboardLayout.class)))
+    public Response layout(
+            @RequestBody(required = true,
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = ESA.class),
+                    examples = {
+                        @ExampleObject(name = "sample",
+                            description = "Sample hierarchical payload with nested initiatives",
+                            value = SAMPLE_PAYLOAD)
+                    }
+                )
+            ) JsonNode model, @Context HttpHeaders headers) {
+        if (model == null || model.isNull()) {
+            throw new ValidationException("Request body cannot be null or empty");
+        }
+        ESA esa = mapper.convertValue(model, ESA.class);
+        String contentHash = renderCoalescer.contentHash(model);
+        CompressedContent json = renderCoalescer.artifact("layout", contentHash, () -> CompressedContent.of(
+                mapper.writeValueAsBytes(dashboardLayoutService.layout(renderCoalescer.plan(contentHash, esa)))));
+        return Encodings.ok(json, MediaType.APPLICATION_JSON, headers).build();
+    }
+
+    @POST
+    @Path("/diff")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Compare two ESA versions", description = "Returns the components added, removed or moved "
+            + "between domains, their status/maturity/RAG and other field changes, and initiative changes. Each side is "
+            + "given inline (before/after) or as the id of a stored dashboard or job (beforeId/afterId).")
+    @APIResponse(responseCode = "200", description = "Structured delta",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = EsaDelta.class)))
+    public EsaDelta diff(EsaDiffRequest request) {
+        if (request == null) {
+            throw new ValidationException("Request body cannot be null or empty");
+        }
+        ESA before = resolveVersion("before", request.before, request.beforeId);
+        ESA after = resolveVersion("after", request.after, request.afterId);
+        return esaDiffService.diff(before, after);
+    }
+
+    private ESA resolveVersion(String side, JsonNode inline, String id) {
+        boolean hasInline = inline != null && !inline.isNull();
+        boolean hasId = id != null && !id.isBlank();
+        if (hasInline == hasId) {
+            throw new ValidationException("Provide either \"" + side + "\" or \"" + side + "Id\".");
+        }
+        if (hasInline) {
+            return mapper.convertValue(inline, ESA.class);
+        }
+        ESA esa = dashboardRegistry.esa(id.trim());
+        if (esa == null) {
+            esa = jobService.esa(id.trim());
+        }
+        if (esa == null) {
+            throw new NotFoundException("Unknown snapshot: " + id);
         }
-        String html = initiativesPageService.renderInitiativesPage(esa, payloadRaw);
-        return Response.ok(html).build();
+        return esa;
     }
 }
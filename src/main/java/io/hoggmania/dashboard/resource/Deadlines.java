@@ -0,0 +1,56 @@
+package io.hoggmania.dashboard.resource;
+
+import java.time.Duration;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.util.StringUtils;
+
+/**
+ * Parsing of the optional per-request time budget ({@code deadlineMs}) for Jira backed endpoints.
+ */
+final class Deadlines {
+
+    /** Response header telling clients whether the ESA contains placeholders. */
+    static final String PARTIAL_HEADER = "X-ESA-Partial";
+
+    private static final long MAX_DEADLINE_MS = Duration.ofMinutes(10).toMillis();
+
+    private Deadlines() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Converts a deadline in milliseconds into a time budget.
+     *
+     * @param deadlineMs the requested budget, or null for none
+     * @return the budget, or null if none was requested
+     * @throws ValidationException if the value is not positive or unreasonably large
+     */
+    static Duration parse(Long deadlineMs) {
+        if (deadlineMs == null) {
+            return null;
+        }
+        if (deadlineMs <= 0 || deadlineMs > MAX_DEADLINE_MS) {
+            throw new ValidationException("deadlineMs must be between 1 and " + MAX_DEADLINE_MS + ".");
+        }
+        return Duration.ofMillis(deadlineMs);
+    }
+
+    /**
+     * Parses a deadline entered in a form field.
+     *
+     * @param raw the form value (blank means no deadline)
+     * @return the budget, or null if none was requested
+     * @throws ValidationException if the value is not a valid number of milliseconds
+     */
+    static Duration parse(String raw) {
+        if (StringUtils.isBlank(raw)) {
+            return null;
+        }
+        try {
+            return parse(Long.valueOf(raw.trim()));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("deadlineMs must be a whole number of milliseconds.");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.hoggmania.dashboard.resource;
+
+import io.hoggmania.dashboard.util.CompressedContent;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Content negotiation between the raw and gzip variants of a rendered body.
+ */
+final class Encodings {
+
+    static final String GZIP = "gzip";
+    static final String SVG = "image/svg+xml";
+    static final String HTML = "text/html;charset=UTF-8";
+
+    private Encodings() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Decides whether to send the gzip variant of a body.
+     *
+     * @param content the body
+     * @param headers the request headers
+     * @return true if the client accepts gzip and the body is worth compressing
+     */
+    static boolean useGzip(CompressedContent content, HttpHeaders headers) {
+        return content.isCompressible()
+                && CompressedContent.acceptsGzip(headers != null ? headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING) : null);
+    }
+
+    /**
+     * Builds a 200 response with the variant of a body the client accepts.
+     *
+     * @param content the body
+     * @param type the media type of the unencoded body
+     * @param gzip whether to send the gzip variant, see {@link #useGzip}
+     * @return the response builder, to which callers may add caching headers
+     */
+    static Response.ResponseBuilder ok(CompressedContent content, String type, boolean gzip) {
+        Response.ResponseBuilder builder = Response.ok(gzip ? content.gzip() : content.raw(), type);
+        if (gzip || content.isCompressible()) {
+            builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return builder;
+    }
+
+    /**
+     * Builds a 200 response with the variant of a body the client accepts.
+     *
+     * @param content the body
+     * @param type the media type of the unencoded body
+     * @param headers the request headers
+     * @return the response builder
+     */
+    static Response.ResponseBuilder ok(CompressedContent content, String type, HttpHeaders headers) {
+        return ok(content, type, useGzip(content, headers));
+    }
+
+    /**
+     * Builds an SVGZ download: the gzip bytes as a file, without a {@code Content-Encoding}.
+     *
+     * @param content the SVG
+     * @param fileName the download name without extension
+     * @return the response builder
+     */
+    static Response.ResponseBuilder svgz(CompressedContent content, String fileName) {
+        return Response.ok(content.gzip(), SVG)
+                .header("Content-Disposition", "attachment; filename=" + fileName + ".svgz");
+    }
+}
@@ -0,0 +1,65 @@
+package io.hoggmania.dashboard.resource;
+
+import io.hoggmania.dashboard.util.SvgIcons;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import java.net.URI;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/api/v1/icons")
+@Tag(name = "Icons", description = "Icon sprite referenced by dashboards rendered with dashboard.svg.icons=external")
+public class IconSpriteResource {
+
+    private static final String SVG = "image/svg+xml";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache, must-revalidate";
+    private static final EntityTag TAG = new EntityTag(SvgIcons.VERSION);
+
+    @GET
+    @Path("/icons-{version: [0-9a-f]+}.svg")
+    @Produces(SVG)
+    @Operation(summary = "Versioned icon sprite", description = "The sprite for the given content version. "
+            + "A version never changes, so it may be cached for a year. Earlier versions, still referenced by "
+            + "dashboards rendered before an upgrade, redirect to the current one, which keeps their symbol ids.")
+    @APIResponse(responseCode = "200", description = "The sprite", content = @Content(mediaType = SVG))
+    @APIResponse(responseCode = "307", description = "Earlier version; redirects to the current sprite")
+    public Response versioned(@PathParam("version") String version, @Context Request request) {
+        if (!SvgIcons.VERSION.equals(version)) {
+            // Not cached, so the redirect follows the sprite through later upgrades
+            return Response.temporaryRedirect(URI.create("/api/v1/icons/icons-" + SvgIcons.VERSION + ".svg"))
+                    .header(HttpHeaders.CACHE_CONTROL, REVALIDATE)
+                    .build();
+        }
+        return sprite(request, IMMUTABLE);
+    }
+
+    @GET
+    @Path("/icons.svg")
+    @Produces(SVG)
+    @Operation(summary = "Current icon sprite", description = "The current sprite; clients revalidate with If-None-Match.")
+    public Response current(@Context Request request) {
+        return sprite(request, REVALIDATE);
+    }
+
+    private static Response sprite(Request request, String cacheControl) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(TAG);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
+        }
+        return Response.ok(SvgIcons.SPRITE, SVG)
+                .tag(TAG)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .build();
+    }
+}
@@ -1,27 +1,43 @@
 package io.hoggmania.dashboard.resource;
 
 import io.hoggmania.dashboard.exception.ValidationException;
-import io.hoggmania.dashboard.model.AttributePair;
 import io.hoggmania.dashboard.model.ESA;
 import io.hoggmania.dashboard.model.JiraEsaRequest;
+import io.hoggmania.dashboard.model.JiraImportStatus;
+import io.hoggmania.dashboard.model.JiraWebhookResult;
+import io.hoggmania.dashboard.service.JiraImportService;
 import io.hoggmania.dashboard.service.JiraPayloadService;
+import io.hoggmania.dashboard.service.JiraRequestContext;
+import io.hoggmania.dashboard.service.JiraWebhookService;
 import io.hoggmania.dashboard.util.StringUtils;
 import io.hoggmania.dashboard.util.UrlUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import java.util.LinkedHashMap;
-import java.util.List;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.io.IOException;
+import java.net.URI;
 import java.util.Map;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
@@ -46,6 +62,15 @@ public class JiraEsaResource {
     @Inject
     JiraPayloadService jiraPayloadService;
 
+    @Inject
+    JiraImportService jiraImportService;
+
+    @Inject
+    JiraWebhookService jiraWebhookService;
+
+    @Inject
+    ObjectMapper mapper;
+
     @POST
     @Path("/esa")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -61,7 +86,10 @@ public class JiraEsaResource {
                             mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = JiraEsaRequest.class),
                             examples = @ExampleObject(name = "request", value = SAMPLE_REQUEST)))
-            JiraEsaRequest request) {
+            JiraEsaRequest request,
+            @Parameter(description = "Optional time budget in milliseconds; when it runs out a partial ESA is returned")
+            @QueryParam("deadlineMs") Long deadlineMs,
+            @Context HttpServerRequest httpRequest) {
         if (request == null) {
             throw new ValidationException("Request body cannot be null.");
         }
@@ -71,50 +99,101 @@ public class JiraEsaResource {
                 ? UrlUtils.inferBaseUrl(jiraUrl)
                 : request.jiraBase;
 
-        Map<String, String> headers = normalizeHeaders(request.headers);
-        ESA esa = jiraPayloadService.buildFromUrl(jiraBase, jiraUrl, request.jiraToken, headers);
-        Map<String, String> attributes = normalizeAttributes(request.attributes);
-        if (!attributes.isEmpty()) {
-            esa.attributes = attributes;
+        Map<String, String> headers = AttributePairs.headers(request.headers);
+        JiraRequestContext context = ClientDisconnects.cancelOnDisconnect(httpRequest,
+                JiraRequestContext.forToken(JiraRequestContext.Priority.API, request.jiraToken)
+                        .withDeadline(Deadlines.parse(deadlineMs)));
+        ESA esa = jiraPayloadService.buildFromUrl(jiraBase, jiraUrl, request.jiraToken, headers, context);
+        JiraPayloadService.withAttributes(esa, AttributePairs.attributes(request.attributes));
+        return Response.ok(esa).header(Deadlines.PARTIAL_HEADER, JiraPayloadService.isPartial(esa)).build();
+    }
+
+    @POST
+    @Path("/imports")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Start a Jira import", description = "Starts building the ESA JSON in the background. "
+            + "Progress and completed sections are streamed from the returned eventsUrl. "
+            + "Starting the same root again with the same token, headers and attributes while it is being imported "
+            + "returns the running import.")
+    @APIResponse(
+            responseCode = "202",
+            description = "Import accepted",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = JiraImportStatus.class)))
+    public Response startImport(
+            @RequestBody(required = true,
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = JiraEsaRequest.class),
+                            examples = @ExampleObject(name = "request", value = SAMPLE_REQUEST)))
+            JiraEsaRequest request) {
+        if (request == null) {
+            throw new ValidationException("Request body cannot be null.");
+        }
+        String jiraBase = StringUtils.isBlank(request.jiraBase)
+                ? UrlUtils.inferBaseUrl(request.jiraUrl)
+                : request.jiraBase;
+        JiraImportStatus status = jiraImportService.start(jiraBase, request.jiraUrl, request.jiraToken,
+                AttributePairs.headers(request.headers), AttributePairs.attributes(request.attributes));
+        return Response.accepted(status).location(URI.create("/api/v1/jira/imports/" + status.id)).build();
+    }
+
+    @GET
+    @Path("/imports/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get a Jira import", description = "Returns the import status, progress and, once completed, the ESA JSON.")
+    public JiraImportStatus importStatus(@PathParam("id") String id) {
+        JiraImportStatus status = jiraImportService.status(id);
+        if (status == null) {
+            throw new NotFoundException("Unknown import: " + id);
         }
-        return Response.ok(esa).build();
+        return status;
     }
 
-    private Map<String, String> normalizeAttributes(List<AttributePair> attributes) {
-        if (attributes == null || attributes.isEmpty()) {
-            return Map.of();
+    @GET
+    @Path("/imports/{id}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Stream Jira import progress", description = "Server-Sent Events: progress, governance, domain, "
+            + "and finally complete, failed or cancelled. Events that already happened are replayed on connect.")
+    public void importEvents(@PathParam("id") String id, @Context SseEventSink sink, @Context Sse sse) {
+        // Nothing has been sent on the sink yet, so an unknown id still gets a plain 404
+        if (!jiraImportService.subscribe(id, sink, sse)) {
+            throw new NotFoundException("Unknown import: " + id);
         }
-        Map<String, String> normalized = new LinkedHashMap<>();
-        for (AttributePair pair : attributes) {
-            if (pair == null) {
-                continue;
-            }
-            String name = pair.name != null ? pair.name.trim() : "";
-            if (StringUtils.isBlank(name)) {
-                throw new ValidationException("Attribute name cannot be blank.");
-            }
-            String value = pair.value == null ? "" : pair.value;
-            normalized.put(name, value);
+    }
+
+    @DELETE
+    @Path("/imports/{id}")
+    @Operation(summary = "Cancel a Jira import", description = "Aborts the import and its outstanding Jira requests.")
+    public Response cancelImport(@PathParam("id") String id) {
+        if (!jiraImportService.cancel(id)) {
+            throw new NotFoundException("Unknown import: " + id);
         }
-        return normalized;
+        return Response.noContent().build();
     }
 
-    private Map<String, String> normalizeHeaders(List<AttributePair> headers) {
-        if (headers == null || headers.isEmpty()) {
-            return Map.of();
+    @POST
+    @Path("/webhook")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Receive a Jira webhook", description = "Accepts issue updated/created/deleted and issue link "
+            + "created/deleted events, drops cached issues and reusable import jobs of the ESA roots that include the "
+            + "issue, and marks their pre-rendered dashboards stale (still served) until a queued refresh replaces them. "
+            + "The body must be signed with jira.webhook.secret in the " + JiraWebhookService.SIGNATURE_HEADER
+            + " header; without a secret, deliveries are rejected unless jira.webhook.allow-unsigned is set.")
+    @APIResponse(
+            responseCode = "202",
+            description = "Event processed",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = JiraWebhookResult.class)))
+    @APIResponse(responseCode = "401", description = "Missing or invalid signature, or no secret configured")
+    public Response webhook(byte[] body,
+            @HeaderParam(JiraWebhookService.SIGNATURE_HEADER) String signature) throws IOException {
+        if (body == null || body.length == 0) {
+            throw new ValidationException("Request body cannot be null.");
         }
-        Map<String, String> normalized = new LinkedHashMap<>();
-        for (AttributePair pair : headers) {
-            if (pair == null) {
-                continue;
-            }
-            String name = pair.name != null ? pair.name.trim() : "";
-            if (StringUtils.isBlank(name)) {
-                throw new ValidationException("Header name cannot be blank.");
-            }
-            String value = pair.value == null ? "" : pair.value;
-            normalized.put(name, value);
+        if (!jiraWebhookService.verify(body, signature)) {
+            return Response.status(Response.Status.UNAUTHORIZED).build();
         }
-        return normalized;
+        return Response.accepted(jiraWebhookService.handle(mapper.readTree(body))).build();
     }
 }
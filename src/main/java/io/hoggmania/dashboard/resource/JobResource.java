@@ -0,0 +1,118 @@
+package io.hoggmania.dashboard.resource;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.JobRequest;
+import io.hoggmania.dashboard.model.JobStatus;
+import io.hoggmania.dashboard.service.JobService;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.hoggmania.dashboard.util.UrlUtils;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.net.URI;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/api/v1/jobs")
+@Tag(name = "Jobs", description = "Run renders and Jira imports asynchronously")
+public class JobResource {
+
+    private static final String SAMPLE_REQUEST = "{\n" +
+            "  \"type\": \"png\",\n" +
+            "  \"payload\": {\n" +
+            "    \"title\": \"Application Security\",\n" +
+            "    \"governance\": {\"title\": \"Governance\", \"components\": []},\n" +
+            "    \"capabilities\": {\"title\": \"Capabilities\", \"domains\": []}\n" +
+            "  }\n" +
+            "}";
+
+    @Inject
+    JobService jobService;
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Submit a job", description = "Queues an svg, png or initiatives render of the ESA payload, "
+            + "or a jira-esa import using the same fields as POST /api/v1/jira/esa under \"jira\". "
+            + "Submitting an identical render while an earlier job for it is pending or succeeded returns that job; "
+            + "an identical jira-esa import is only joined while the earlier one is still queued or running.")
+    @APIResponse(
+            responseCode = "202",
+            description = "Job accepted",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = JobStatus.class)))
+    public Response submit(
+            @RequestBody(required = true,
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = JobRequest.class),
+                            examples = @ExampleObject(name = "request", value = SAMPLE_REQUEST)))
+            JobRequest request) {
+        if (request == null) {
+            throw new ValidationException("Request body cannot be null.");
+        }
+        JobStatus.Type type = JobStatus.Type.parse(request.type);
+        if (type == null) {
+            throw new ValidationException("Job type must be one of svg, png, initiatives or jira-esa.");
+        }
+        JobStatus status;
+        if (type == JobStatus.Type.JIRA_ESA) {
+            if (request.jira == null) {
+                throw new ValidationException("Field \"jira\" is required for jira-esa jobs.");
+            }
+            String jiraBase = StringUtils.isBlank(request.jira.jiraBase)
+                    ? UrlUtils.inferBaseUrl(request.jira.jiraUrl)
+                    : request.jira.jiraBase;
+            status = jobService.submitJiraImport(jiraBase, request.jira.jiraUrl, request.jira.jiraToken,
+                    AttributePairs.headers(request.jira.headers), AttributePairs.attributes(request.jira.attributes));
+        } else {
+            status = jobService.submitRender(type, request.payload);
+        }
+        return Response.accepted(status).location(URI.create("/api/v1/jobs/" + status.id)).build();
+    }
+
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get a job", description = "Returns the job status.")
+    public JobStatus status(@PathParam("id") String id) {
+        JobStatus status = jobService.status(id);
+        if (status == null) {
+            throw new NotFoundException("Unknown job: " + id);
+        }
+        return status;
+    }
+
+    @GET
+    @Path("/{id}/result")
+    @Operation(summary = "Get a job result", description = "Returns the rendered image, HTML page or ESA JSON once the job "
+            + "has succeeded; 202 with the job status while it is pending and 409 if it failed.")
+    @APIResponse(responseCode = "200", description = "Job output in the job's content type")
+    public Response result(@PathParam("id") String id) {
+        JobStatus status = status(id);
+        switch (status.state) {
+            case SUCCEEDED:
+                byte[] output = jobService.result(id);
+                if (output == null) {
+                    throw new NotFoundException("Result of job " + id + " is no longer available.");
+                }
+                return Response.ok(output, status.contentType).build();
+            case FAILED:
+                return Response.status(Response.Status.CONFLICT).entity(status).type(MediaType.APPLICATION_JSON).build();
+            default:
+                return Response.accepted(status).type(MediaType.APPLICATION_JSON).header("Retry-After", 1).build();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.hoggmania.dashboard.resource;
+
+import io.hoggmania.dashboard.model.PrerenderedRoot;
+import io.hoggmania.dashboard.service.PrerenderService;
+import io.hoggmania.dashboard.service.WallboardService;
+import io.hoggmania.dashboard.util.CompressedContent;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/api/v1/prerendered")
+@Tag(name = "Pre-rendered", description = "Latest renders of the ESA roots configured under prerender.roots")
+public class PrerenderResource {
+
+    @Inject
+    PrerenderService prerenderService;
+
+    @Inject
+    WallboardService wallboardService;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "List pre-rendered roots", description = "Configured roots with the time of their latest render and the last error, if any.")
+    public List<PrerenderedRoot> list() {
+        return prerenderService.list();
+    }
+
+    @GET
+    @Path("/{rootKey}/svg")
+    @Produces("image/svg+xml")
+    @Operation(summary = "Pre-rendered SVG", description = "Latest SVG render of the root.")
+    @APIResponse(responseCode = "200", description = "SVG image", content = @Content(mediaType = "image/svg+xml"))
+    public Response svg(@PathParam("rootKey") String rootKey, @Context HttpHeaders headers) {
+        return artifact(rootKey, PrerenderService.Snapshot::getSvg, Encodings.SVG, headers);
+    }
+
+    @GET
+    @Path("/{rootKey}/png")
+    @Produces("image/png")
+    @Operation(summary = "Pre-rendered PNG", description = "Latest PNG render of the root.")
+    @APIResponse(responseCode = "200", description = "PNG image", content = @Content(mediaType = "image/png"))
+    public Response png(@PathParam("rootKey") String rootKey) {
+        return artifact(rootKey, PrerenderService.Snapshot::getPng, "image/png", null);
+    }
+
+    @GET
+    @Path("/{rootKey}/initiatives")
+    @Produces(MediaType.TEXT_HTML)
+    @Operation(summary = "Pre-rendered initiatives page", description = "Latest initiatives page of the root.")
+    public Response initiatives(@PathParam("rootKey") String rootKey, @Context HttpHeaders headers) {
+        return artifact(rootKey, PrerenderService.Snapshot::getInitiativesHtml, Encodings.HTML, headers);
+    }
+
+    @GET
+    @Path("/{rootKey}/esa")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Pre-rendered ESA JSON", description = "ESA JSON the latest renders were made from.")
+    public Response esa(@PathParam("rootKey") String rootKey, @Context HttpHeaders headers) {
+        return artifact(rootKey, PrerenderService.Snapshot::getEsaJson, MediaType.APPLICATION_JSON, headers);
+    }
+
+    @GET
+    @Path("/{rootKey}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Subscribe a wallboard", description = "Server-Sent Events: an svg event with the current "
+            + "dashboard on connect, then only when a refresh changed it: components (changed component groups by "
+            + "element id, applying to previousVersion) or svg (full document).")
+    public void events(@PathParam("rootKey") String rootKey, @Context SseEventSink sink, @Context Sse sse) {
+        // Nothing has been sent on the sink yet, so an unconfigured root still gets a plain 404
+        if (!prerenderService.isConfigured(rootKey)) {
+            throw new NotFoundException("Root is not pre-rendered: " + rootKey);
+        }
+        wallboardService.subscribe(rootKey, sink, sse);
+    }
+
+    private Response artifact(String rootKey, Function<PrerenderService.Snapshot, CompressedContent> content,
+            String type, HttpHeaders headers) {
+        PrerenderService.Snapshot snapshot = prerenderService.snapshot(rootKey);
+        if (snapshot == null) {
+            throw new NotFoundException("No pre-rendered dashboard for " + rootKey + ".");
+        }
+        return Encodings.ok(content.apply(snapshot), type, headers)
+                .lastModified(Date.from(snapshot.getRenderedAt()))
+                .build();
+    }
+}
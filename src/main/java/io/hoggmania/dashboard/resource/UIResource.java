@@ -1,17 +1,24 @@
 package io.hoggmania.dashboard.resource;
 
 import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.RenderPlan;
 import io.hoggmania.dashboard.service.SvgService;
 import io.hoggmania.dashboard.service.InitiativesPageService;
 import io.hoggmania.dashboard.service.JiraDiscoveryService;
 import io.hoggmania.dashboard.service.JiraPayloadService;
+import io.hoggmania.dashboard.service.JiraRequestContext;
+import io.hoggmania.dashboard.service.RenderCoalescer;
+import io.hoggmania.dashboard.service.RenderPlanCompiler;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hoggmania.dashboard.exception.RequestCancelledException;
 import io.hoggmania.dashboard.exception.ValidationException;
 import io.hoggmania.dashboard.model.JiraRootIssue;
+import io.hoggmania.dashboard.util.CompressedContent;
 import io.hoggmania.dashboard.util.StringUtils;
-import io.quarkus.qute.Location;
-import io.quarkus.qute.Template;
+import io.quarkus.qute.CheckedTemplate;
 import io.quarkus.qute.TemplateInstance;
+import io.vertx.core.http.HttpServerRequest;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
@@ -21,6 +28,8 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.LinkedHashMap;
@@ -38,19 +47,26 @@ public class UIResource {
     InitiativesPageService initiativesPageService;
 
     @Inject
-    ObjectMapper objectMapper;
+    RenderPlanCompiler renderPlanCompiler;
 
     @Inject
-    @Location("ui-form.html.qute")
-    Template formTemplate;
+    RenderCoalescer renderCoalescer;
 
     @Inject
-    @Location("ui-result.html.qute")
-    Template resultTemplate;
+    ObjectMapper objectMapper;
 
-    @Inject
-    @Location("jira-form.html.qute")
-    Template jiraTemplate;
+    /** templates/ui-form.html.qute: the payload editor, with an error message after a failed render. */
+    @CheckedTemplate(basePath = "", defaultName = CheckedTemplate.HYPHENATED_ELEMENT_NAME)
+    record UiForm(String message, String payload) implements TemplateInstance {}
+
+    /** templates/ui-result.html.qute: the rendered dashboard and initiatives fragment, both inserted raw. */
+    @CheckedTemplate(basePath = "", defaultName = CheckedTemplate.HYPHENATED_ELEMENT_NAME)
+    record UiResult(String svg, String initiatives, String payload) implements TemplateInstance {}
+
+    /** templates/jira-form.html.qute */
+    @CheckedTemplate(basePath = "", defaultName = CheckedTemplate.HYPHENATED_ELEMENT_NAME)
+    record JiraForm(String message, String payload, String jiraUrl, String jiraBase, String jiraHeaders,
+            List<JiraRootIssue> rootIssues, String selectedRootKey, String deadlineMs) implements TemplateInstance {}
 
     @Inject
     JiraPayloadService jiraPayloadService;
@@ -61,8 +77,7 @@ public class UIResource {
     @GET
     @Produces(MediaType.TEXT_HTML)
     public Response form() {
-        TemplateInstance ti = formTemplate.data("message", null).data("payload", "");
-        String html = ti.render();
+        String html = new UiForm(null, "").render();
         return Response.ok(html).type(MediaType.TEXT_HTML).build();
     }
 
@@ -80,19 +95,14 @@ public class UIResource {
     public Response render(@FormParam("payload") String payload) {
         try {
             ESA esa = objectMapper.readValue(payload, ESA.class);
-            String svg = svgService.renderSvg(esa);
-            String initiatives = initiativesPageService.renderInitiativesFragment(esa);
-            TemplateInstance ti = resultTemplate
-                .data("svg", svg)
-                .data("initiatives", initiatives)
-                .data("payload", payload)
-                .data("error", null);
-            String html = ti.render();
+            RenderPlan plan = renderPlanCompiler.compile(esa);
+            String svg = svgService.renderSvg(plan);
+            String initiatives = initiativesPageService.renderInitiativesFragment(plan);
+            String html = new UiResult(svg, initiatives, payload).render();
             return Response.ok(html).type(MediaType.TEXT_HTML).build();
         } catch (Exception e) {
             String error = e.getMessage();
-            TemplateInstance ti = formTemplate.data("message", error).data("payload", payload == null ? "" : payload);
-            String html = ti.render();
+            String html = new UiForm(error, payload == null ? "" : payload).render();
             return Response.status(Response.Status.BAD_REQUEST).entity(html).type(MediaType.TEXT_HTML).build();
         }
     }
@@ -104,19 +114,14 @@ public class UIResource {
     public Response renderText(String payload) {
         try {
             ESA esa = objectMapper.readValue(payload, ESA.class);
-            String svg = svgService.renderSvg(esa);
-            String initiatives = initiativesPageService.renderInitiativesFragment(esa);
-            TemplateInstance ti = resultTemplate
-                .data("svg", svg)
-                .data("initiatives", initiatives)
-                .data("payload", payload)
-                .data("error", null);
-            String html = ti.render();
+            RenderPlan plan = renderPlanCompiler.compile(esa);
+            String svg = svgService.renderSvg(plan);
+            String initiatives = initiativesPageService.renderInitiativesFragment(plan);
+            String html = new UiResult(svg, initiatives, payload).render();
             return Response.ok(html).type(MediaType.TEXT_HTML).build();
         } catch (Exception e) {
             String error = e.getMessage();
-            TemplateInstance ti = formTemplate.data("message", error).data("payload", payload == null ? "" : payload);
-            String html = ti.render();
+            String html = new UiForm(error, payload == null ? "" : payload).render();
             return Response.status(Response.Status.BAD_REQUEST).entity(html).type(MediaType.TEXT_HTML).build();
         }
     }
@@ -125,15 +130,7 @@ public class UIResource {
     @Path("/jira")
     @Produces(MediaType.TEXT_HTML)
     public Response jiraForm() {
-        String html = jiraTemplate
-                .data("message", null)
-                .data("payload", null)
-                .data("jiraUrl", "")
-                .data("jiraBase", "")
-                .data("jiraHeaders", "")
-                .data("rootIssues", null)
-                .data("selectedRootKey", "")
-                .render();
+        String html = new JiraForm(null, null, "", "", "", null, "", null).render();
         return Response.ok(html).type(MediaType.TEXT_HTML).build();
     }
 
@@ -145,31 +142,31 @@ public class UIResource {
                                  @FormParam("jiraUrl") String jiraUrl,
                                  @FormParam("jiraToken") String jiraToken,
                                  @FormParam("jiraHeaders") String jiraHeaders,
-                                 @FormParam("jiraRootKey") String jiraRootKey) {
+                                 @FormParam("jiraRootKey") String jiraRootKey,
+                                 @Context HttpServerRequest httpRequest) {
+        JiraRequestContext context = ClientDisconnects.cancelOnDisconnect(httpRequest, interactive(jiraToken));
         try {
             Map<String, String> headers = parseHeaders(jiraHeaders);
-            List<JiraRootIssue> roots = jiraDiscoveryService.findEsaRootIssues(jiraBase, jiraToken, headers);
+            List<JiraRootIssue> roots = jiraDiscoveryService.findEsaRootIssues(jiraBase, jiraToken, headers, context);
             String message = roots.isEmpty() ? "No ESA-Root issues found." : null;
-            String html = jiraTemplate
-                    .data("message", message)
-                    .data("payload", null)
-                    .data("jiraUrl", jiraUrl == null ? "" : jiraUrl)
-                    .data("jiraBase", jiraBase == null ? "" : jiraBase)
-                    .data("jiraHeaders", jiraHeaders == null ? "" : jiraHeaders)
-                    .data("rootIssues", roots)
-                    .data("selectedRootKey", jiraRootKey == null ? "" : jiraRootKey)
-                    .render();
+            String html = new JiraForm(message, null,
+                    jiraUrl == null ? "" : jiraUrl,
+                    jiraBase == null ? "" : jiraBase,
+                    jiraHeaders == null ? "" : jiraHeaders,
+                    roots,
+                    jiraRootKey == null ? "" : jiraRootKey,
+                    null).render();
             return Response.ok(html).type(MediaType.TEXT_HTML).build();
+        } catch (RequestCancelledException e) {
+            throw e;
         } catch (Exception e) {
-            String html = jiraTemplate
-                    .data("message", e.getMessage())
-                    .data("payload", null)
-                    .data("jiraUrl", jiraUrl == null ? "" : jiraUrl)
-                    .data("jiraBase", jiraBase == null ? "" : jiraBase)
-                    .data("jiraHeaders", jiraHeaders == null ? "" : jiraHeaders)
-                    .data("rootIssues", null)
-                    .data("selectedRootKey", jiraRootKey == null ? "" : jiraRootKey)
-                    .render();
+            String html = new JiraForm(e.getMessage(), null,
+                    jiraUrl == null ? "" : jiraUrl,
+                    jiraBase == null ? "" : jiraBase,
+                    jiraHeaders == null ? "" : jiraHeaders,
+                    null,
+                    jiraRootKey == null ? "" : jiraRootKey,
+                    null).render();
             return Response.status(Response.Status.BAD_REQUEST).entity(html).type(MediaType.TEXT_HTML).build();
         }
     }
@@ -182,34 +179,36 @@ public class UIResource {
                                  @FormParam("jiraUrl") String jiraUrl,
                                  @FormParam("jiraToken") String jiraToken,
                                  @FormParam("jiraHeaders") String jiraHeaders,
-                                 @FormParam("jiraRootKey") String jiraRootKey) {
+                                 @FormParam("jiraRootKey") String jiraRootKey,
+                                 @FormParam("deadlineMs") String deadlineMs,
+                                 @Context HttpServerRequest httpRequest) {
+        JiraRequestContext context = ClientDisconnects.cancelOnDisconnect(httpRequest, interactive(jiraToken));
         try {
+            context.withDeadline(Deadlines.parse(deadlineMs));
             Map<String, String> headers = parseHeaders(jiraHeaders);
-            List<JiraRootIssue> roots = jiraDiscoveryService.findEsaRootIssues(jiraBase, jiraToken, headers);
+            List<JiraRootIssue> roots = jiraDiscoveryService.findEsaRootIssues(jiraBase, jiraToken, headers, context);
             String resolvedJiraUrl = StringUtils.isBlank(jiraRootKey) ? jiraUrl : jiraRootKey;
-            ESA esa = jiraPayloadService.buildFromUrl(jiraBase, resolvedJiraUrl, jiraToken, headers);
+            ESA esa = jiraPayloadService.buildFromUrl(jiraBase, resolvedJiraUrl, jiraToken, headers, context);
             String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(esa);
-            String html = jiraTemplate
-                    .data("message", null)
-                    .data("payload", json)
-                    .data("jiraUrl", jiraUrl)
-                    .data("jiraBase", jiraBase)
-                    .data("jiraHeaders", jiraHeaders)
-                    .data("rootIssues", roots)
-                    .data("selectedRootKey", jiraRootKey == null ? "" : jiraRootKey)
-                    .render();
+            String message = JiraPayloadService.isPartial(esa)
+                    ? "Deadline reached: " + esa.attributes.get(JiraPayloadService.UNFETCHED_ATTRIBUTE)
+                            + " linked issues could not be fetched in time and are shown as placeholders."
+                    : null;
+            String html = new JiraForm(message, json, jiraUrl, jiraBase, jiraHeaders, roots,
+                    jiraRootKey == null ? "" : jiraRootKey,
+                    deadlineMs == null ? "" : deadlineMs).render();
             return Response.ok(html).type(MediaType.TEXT_HTML).build();
+        } catch (RequestCancelledException e) {
+            throw e;
         } catch (Exception e) {
-            String html = jiraTemplate
-                    .data("message", e.getMessage())
-                    .data("payload", null)
-                    .data("jiraUrl", jiraUrl == null ? "" : jiraUrl)
-                    .data("jiraBase", jiraBase == null ? "" : jiraBase)
-                    .data("jiraHeaders", jiraHeaders == null ? "" : jiraHeaders)
-                    .data("rootIssues", jiraBase == null || jiraToken == null ? null
-                            : jiraDiscoveryService.findEsaRootIssues(jiraBase, jiraToken, parseHeaders(jiraHeaders)))
-                    .data("selectedRootKey", jiraRootKey == null ? "" : jiraRootKey)
-                    .render();
+            String html = new JiraForm(e.getMessage(), null,
+                    jiraUrl == null ? "" : jiraUrl,
+                    jiraBase == null ? "" : jiraBase,
+                    jiraHeaders == null ? "" : jiraHeaders,
+                    jiraBase == null || jiraToken == null || context.isExpired() ? null
+                            : jiraDiscoveryService.findEsaRootIssues(jiraBase, jiraToken, parseHeaders(jiraHeaders), context),
+                    jiraRootKey == null ? "" : jiraRootKey,
+                    deadlineMs == null ? "" : deadlineMs).render();
             return Response.status(Response.Status.BAD_REQUEST).entity(html).type(MediaType.TEXT_HTML).build();
         }
     }
@@ -225,8 +224,7 @@ public class UIResource {
             return Response.ok(html).type(MediaType.TEXT_HTML).build();
         } catch (Exception e) {
             String error = e.getMessage();
-            TemplateInstance ti = formTemplate.data("message", error).data("payload", payload == null ? "" : payload);
-            String html = ti.render();
+            String html = new UiForm(error, payload == null ? "" : payload).render();
             return Response.status(Response.Status.BAD_REQUEST).entity(html).type(MediaType.TEXT_HTML).build();
         }
     }
@@ -235,11 +233,12 @@ public class UIResource {
     @Path("/svg")
     @Consumes(MediaType.TEXT_PLAIN)
     @Produces("image/svg+xml")
-    public Response downloadSvg(String payload) {
+    public Response downloadSvg(String payload, @Context HttpHeaders headers) {
         try {
-            ESA esa = objectMapper.readValue(payload, ESA.class);
-            String svg = svgService.renderSvg(esa);
-            return Response.ok(svg)
+            JsonNode model = objectMapper.readTree(payload);
+            ESA esa = objectMapper.treeToValue(model, ESA.class);
+            CompressedContent svg = renderCoalescer.svgContent(renderCoalescer.contentHash(model), esa);
+            return Encodings.ok(svg, Encodings.SVG, headers)
                     .header("Content-Disposition", "attachment; filename=dashboard.svg")
                     .build();
         } catch (Exception e) {
@@ -250,6 +249,10 @@ public class UIResource {
         }
     }
 
+    private static JiraRequestContext interactive(String jiraToken) {
+        return JiraRequestContext.forToken(JiraRequestContext.Priority.INTERACTIVE, jiraToken);
+    }
+
     private Map<String, String> parseHeaders(String raw) {
         if (StringUtils.isBlank(raw)) {
             return Map.of();
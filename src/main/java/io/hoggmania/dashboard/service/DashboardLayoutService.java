@@ -0,0 +1,188 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.hoggmania.dashboard.config.DashboardLayoutConfig;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.DashboardLayout;
+import io.hoggmania.dashboard.model.DomainGroup;
+import io.hoggmania.dashboard.model.RenderItem;
+import io.hoggmania.dashboard.model.RenderPlan;
+import io.hoggmania.dashboard.util.StringUtils;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Extracts the geometry of a {@link RenderPlan} without writing any SVG.
+ *
+ * <p>Positions are the ones the SVG renderers draw, made absolute where the SVG nests them
+ * in translated groups; component text stays relative to its box.
+ */
+@ApplicationScoped
+public class DashboardLayoutService {
+
+    /**
+     * Builds the layout of a compiled plan.
+     *
+     * @param plan the render plan
+     * @return the layout; text is unescaped
+     */
+    public DashboardLayout layout(RenderPlan plan) {
+        DashboardLayout layout = new DashboardLayout();
+        float margin = DashboardLayoutConfig.LEFT_MARGIN;
+        float barWidth = plan.canvasWidth - 2 * margin;
+        float center = (int) (plan.canvasWidth / 2f);
+
+        layout.width = (int) plan.canvasWidth;
+        layout.height = plan.svgHeight;
+        layout.widthMm = DashboardLayoutConfig.A4_WIDTH_MM;
+        layout.heightMm = plan.svgHeight * (DashboardLayoutConfig.A4_WIDTH_MM / plan.canvasWidth);
+        layout.box = metrics(plan);
+
+        layout.title = header(plan.dashboard.title != null ? plan.dashboard.title : "Dashboard", plan.dashboard.href,
+                new DashboardLayout.Box(margin, DashboardLayoutConfig.MAIN_TITLE_Y, barWidth, DashboardLayoutConfig.MAIN_TITLE_HEIGHT),
+                center, DashboardLayoutConfig.TITLE_TEXT_Y);
+        if (plan.dashboard.iconId != null) {
+            layout.title.icon = plan.dashboard.iconId;
+            layout.title.iconBox = new DashboardLayout.Box(DashboardLayoutConfig.HEADER_ICON_X, DashboardLayoutConfig.TITLE_ICON_Y,
+                    DashboardLayoutConfig.TITLE_ICON_SIZE, DashboardLayoutConfig.TITLE_ICON_SIZE);
+        }
+
+        if (plan.governance != null && plan.governance.title != null) {
+            layout.governance = header(plan.governance.title, plan.governance.href,
+                    new DashboardLayout.Box(margin, DashboardLayoutConfig.GOVERNANCE_HEADER_Y, barWidth,
+                            DashboardLayoutConfig.GOVERNANCE_HEADER_HEIGHT),
+                    center, DashboardLayoutConfig.GOVERNANCE_TEXT_Y);
+        }
+        for (RenderItem item : plan.governanceItems) {
+            layout.components.add(component(item, null));
+        }
+
+        if (plan.capabilities != null && plan.capabilities.title != null) {
+            float headerY = (int) plan.capabilitiesHeaderY;
+            layout.capabilities = header(plan.capabilities.title, plan.capabilities.href,
+                    new DashboardLayout.Box(margin, headerY, barWidth, DashboardLayoutConfig.GOVERNANCE_HEADER_HEIGHT),
+                    center, (int) (plan.capabilitiesHeaderY + DashboardLayoutConfig.SECTION_TEXT_OFFSET_Y));
+            if (plan.capabilities.iconId != null) {
+                layout.capabilities.icon = plan.capabilities.iconId;
+                layout.capabilities.iconBox = new DashboardLayout.Box(DashboardLayoutConfig.HEADER_ICON_X,
+                        (int) (plan.capabilitiesHeaderY + DashboardLayoutConfig.SECTION_ICON_OFFSET_Y), DashboardLayoutConfig.SECTION_ICON_SIZE,
+                        DashboardLayoutConfig.SECTION_ICON_SIZE);
+            }
+        }
+        for (DomainGroup domain : plan.domainGroups) {
+            if (!domain.items.isEmpty() && domain.showHeader) {
+                layout.domains.add(domainHeader(domain));
+            }
+            String domainName = StringUtils.unescapeXml(domain.domainName);
+            for (RenderItem item : domain.items) {
+                layout.components.add(component(item, domainName));
+            }
+        }
+
+        layout.ragGradients.addAll(plan.initiativeGradients);
+        layout.legend = legend(plan, margin, barWidth);
+        return layout;
+    }
+
+    private static DashboardLayout.ComponentMetrics metrics(RenderPlan plan) {
+        int boxW = (int) plan.boxW;
+        int boxH = (int) plan.boxH;
+        DashboardLayout.ComponentMetrics metrics = new DashboardLayout.ComponentMetrics();
+        metrics.width = boxW;
+        metrics.height = boxH;
+        metrics.badgeX = boxW - DashboardLayoutConfig.BADGE_INSET_X;
+        metrics.badgeY = boxH - DashboardLayoutConfig.BADGE_INSET_Y;
+        metrics.badgeRadius = DashboardLayoutConfig.BADGE_RADIUS;
+        metrics.nameY = DashboardLayoutConfig.NAME_BASELINE_Y;
+        metrics.nameLineHeight = DashboardLayoutConfig.NAME_LINE_HEIGHT;
+        metrics.capabilityY = DashboardLayoutConfig.CAPABILITY_BASELINE_Y;
+        metrics.capabilityLineHeight = DashboardLayoutConfig.CAPABILITY_LINE_HEIGHT;
+        return metrics;
+    }
+
+    private static DashboardLayout.Header header(String title, String href, DashboardLayout.Box box, float textX, float textY) {
+        DashboardLayout.Header header = new DashboardLayout.Header();
+        header.title = StringUtils.unescapeXml(title);
+        header.href = href;
+        header.box = box;
+        header.textX = textX;
+        header.textY = textY;
+        return header;
+    }
+
+    private static DashboardLayout.Header domainHeader(DomainGroup domain) {
+        DashboardLayout.Header header = header(domain.domainName, domain.domainHref,
+                new DashboardLayout.Box(domain.headerX, domain.headerY, domain.headerWidth, DashboardLayoutConfig.HEADER_HEIGHT),
+                domain.headerX + domain.headerTextX, domain.headerTextY);
+        if (domain.icon != null) {
+            header.icon = domain.icon;
+            header.iconBox = new DashboardLayout.Box(domain.headerX + DashboardLayoutConfig.DOMAIN_ICON_X, domain.headerIconY,
+                    DashboardLayoutConfig.DOMAIN_ICON_SIZE, DashboardLayoutConfig.DOMAIN_ICON_SIZE);
+        }
+        return header;
+    }
+
+    private static DashboardLayout.Component component(RenderItem item, String domain) {
+        DashboardLayout.Component component = new DashboardLayout.Component();
+        component.id = item.elementId;
+        component.domain = domain;
+        component.x = item.x;
+        component.y = item.y;
+        component.capabilityColor = item.capabilityColor;
+        component.maturityColor = item.maturityColor;
+        component.border = item.border;
+        component.doubleBorder = item.doubleBorder ? Boolean.TRUE : null;
+        if (item.iconId != null) {
+            component.icon = item.iconId;
+            component.iconX = item.iconX;
+        }
+        component.textX = item.textX;
+        component.textAnchor = item.textAnchor;
+        component.nameLines = unescape(item.nameLines);
+        component.nameHref = item.nameHref;
+        component.capabilityLines = unescape(item.capabilityLines);
+        component.capabilityHref = item.capabilityHref;
+        if (item.showInitiatives) {
+            component.initiatives = item.initiatives;
+            component.initiativeHref = item.initiativeHref;
+            component.initiativeNewTab = item.initiativeHref != null ? item.initiativeNewTab : null;
+            component.initiativeStroke = item.initiativeStroke;
+        }
+        return component;
+    }
+
+    private static List<String> unescape(List<String> lines) {
+        if (lines == null) {
+            return List.of();
+        }
+        List<String> plain = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            plain.add(StringUtils.unescapeXml(line));
+        }
+        return plain;
+    }
+
+    private static DashboardLayout.Legend legend(RenderPlan plan, float margin, float barWidth) {
+        DashboardLayout.Legend legend = new DashboardLayout.Legend();
+        legend.box = new DashboardLayout.Box(margin, plan.legendY, barWidth, DashboardLayoutConfig.LEGEND_HEIGHT);
+        // Entries sit in the legend row group, each in its own group offset by (x, LEGEND_SWATCH_Y)
+        float originX = margin + DashboardLayoutConfig.LEGEND_ROW_X;
+        float swatchY = plan.legendY + DashboardLayoutConfig.LEGEND_ROW_Y + DashboardLayoutConfig.LEGEND_SWATCH_Y;
+        int x = DashboardLayoutConfig.LEGEND_STATUS_START_X;
+        for (ComponentItem.Status status : ComponentItem.Status.values()) {
+            legend.status.add(new DashboardLayout.LegendEntry(status.displayName, status.hex,
+                    new DashboardLayout.Box(originX + x, swatchY, DashboardLayoutConfig.LEGEND_SWATCH_WIDTH,
+                            DashboardLayoutConfig.LEGEND_SWATCH_HEIGHT)));
+            x += DashboardLayoutConfig.LEGEND_ITEM_WIDTH;
+        }
+        x = DashboardLayoutConfig.LEGEND_MATURITY_START_X;
+        for (ComponentItem.Maturity maturity : ComponentItem.Maturity.values()) {
+            legend.maturity.add(new DashboardLayout.LegendEntry(maturity.displayName, maturity.hex,
+                    new DashboardLayout.Box(originX + x, swatchY, DashboardLayoutConfig.LEGEND_SWATCH_WIDTH,
+                            DashboardLayoutConfig.LEGEND_SWATCH_HEIGHT)));
+            x += DashboardLayoutConfig.LEGEND_ITEM_WIDTH;
+        }
+        return legend;
+    }
+}
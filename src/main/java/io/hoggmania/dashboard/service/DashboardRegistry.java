@@ -0,0 +1,307 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.util.CanonicalJson;
+import io.hoggmania.dashboard.util.CompressedContent;
+import io.hoggmania.dashboard.util.LruCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Stores ESA payloads once so dashboards can be fetched with plain, cacheable GET requests.
+ *
+ * <p>A payload is stored either under its content hash (the id never changes what it points to)
+ * or under a caller-chosen name that can be overwritten. Each payload is written to the store
+ * directory as {@code <id>.json}. The entity tag of an entry is the hash of its canonical JSON, so
+ * renders are cached by content and an unchanged named dashboard keeps its tag across updates.
+ * The tag is the same content hash {@link RenderCoalescer} keys renders by, so concurrent first
+ * requests for a dashboard share one render.
+ */
+@ApplicationScoped
+public class DashboardRegistry {
+
+    /**
+     * Output formats served for a stored dashboard.
+     */
+    public enum Format {
+        SVG("image/svg+xml", true),
+        PNG("image/png", false),
+        INITIATIVES("text/html", true);
+
+        private final String contentType;
+        private final boolean compressible;
+
+        Format(String contentType, boolean compressible) {
+            this.contentType = contentType;
+            this.compressible = compressible;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        /** Whether renders in this format have a gzip variant. */
+        public boolean isCompressible() {
+            return compressible;
+        }
+    }
+
+    static final String RECORD_SUFFIX = ".json";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final int HASH_ID_LENGTH = 32;
+    private static final float PNG_DPI = 150f;
+
+    private final Path storeDir;
+    private final LruCache<String, Entry> entries;
+    private final LruCache<String, CompressedContent> renders;
+
+    @Inject
+    RenderCoalescer renderCoalescer;
+
+    @Inject
+    InitiativesPageService initiativesPageService;
+
+    @Inject
+    SvgService svgService;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    public DashboardRegistry(
+            @ConfigProperty(name = "dashboards.store-dir", defaultValue = "data/dashboards") String storeDir,
+            @ConfigProperty(name = "dashboards.render-cache-entries", defaultValue = "64") int renderCacheEntries) {
+        this.storeDir = Path.of(storeDir);
+        this.entries = new LruCache<>(Math.max(1, renderCacheEntries) * 4);
+        this.renders = new LruCache<>(Math.max(1, renderCacheEntries));
+    }
+
+    /**
+     * Stores a payload under its content hash. Storing the same payload again returns the same entry.
+     *
+     * @param payload the ESA JSON
+     * @return the stored entry
+     */
+    public Entry create(JsonNode payload) {
+        String etag = validate(payload);
+        String id = etag.substring(0, HASH_ID_LENGTH);
+        Entry existing = get(id);
+        if (existing != null) {
+            return existing;
+        }
+        return store(new Entry(id, false, payload, etag, Instant.now()));
+    }
+
+    /**
+     * Stores a payload under a name, replacing what was stored under it before.
+     *
+     * @param name the dashboard name: letters, digits, {@code _} and {@code -}, at most 64 characters
+     * @param payload the ESA JSON
+     * @return the stored entry
+     */
+    public Entry put(String name, JsonNode payload) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new ValidationException("Dashboard name must be 1-64 letters, digits, '_' or '-'.");
+        }
+        if (name.length() == HASH_ID_LENGTH && isHashId(name)) {
+            throw new ValidationException("Dashboard name must not look like a content hash.");
+        }
+        String etag = validate(payload);
+        Entry existing = get(name);
+        if (existing != null && existing.etag.equals(etag)) {
+            return existing;
+        }
+        return store(new Entry(name, true, payload, etag, Instant.now()));
+    }
+
+    /**
+     * Looks up a stored dashboard.
+     *
+     * @param id the content-hash id or name
+     * @return the entry, or null if nothing is stored under the id
+     */
+    public Entry get(String id) {
+        if (id == null || !NAME.matcher(id).matches()) {
+            return null;
+        }
+        Entry cached = entries.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            JsonNode record = mapper.readTree(Files.readAllBytes(recordPath(id)));
+            JsonNode payload = record.path("payload");
+            Entry entry = new Entry(id, record.path("named").asBoolean(),
+                    payload, CanonicalJson.sha256Hex(mapper, payload), Instant.parse(record.path("updatedAt").asText()));
+            entries.put(id, entry);
+            return entry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Dashboard " + id + " could not be read", e);
+        }
+    }
+
+    /**
+     * Gets the ESA model of a stored dashboard.
+     *
+     * @param id the content-hash id or name
+     * @return the ESA, or null if nothing is stored under the id
+     */
+    public ESA esa(String id) {
+        Entry entry = get(id);
+        return entry == null ? null : mapper.convertValue(entry.payload, ESA.class);
+    }
+
+    /**
+     * Deletes a named dashboard. Content-hash entries are immutable and cannot be deleted.
+     *
+     * @param name the dashboard name
+     * @return true if an entry was deleted
+     */
+    public boolean delete(String name) {
+        Entry entry = get(name);
+        if (entry == null) {
+            return false;
+        }
+        if (!entry.named) {
+            throw new ValidationException("Content-addressed dashboards cannot be deleted.");
+        }
+        try {
+            entries.remove(name);
+            return Files.deleteIfExists(recordPath(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Dashboard " + name + " could not be deleted", e);
+        }
+    }
+
+    /**
+     * Renders a stored dashboard, reusing an earlier render of the same content. The cached render
+     * keeps its gzip variant once one has been served.
+     *
+     * @param entry the stored dashboard
+     * @param format the output format
+     * @return the rendered content
+     */
+    public CompressedContent render(Entry entry, Format format) throws Exception {
+        String key = entry.etag + "|" + renderVariant() + "|" + format;
+        CompressedContent cached = renders.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        ESA esa = mapper.convertValue(entry.payload, ESA.class);
+        CompressedContent content = switch (format) {
+            case SVG -> CompressedContent.of(renderCoalescer.svg(entry.etag, esa));
+            case PNG -> CompressedContent.precompressed(renderCoalescer.png(entry.etag, esa, PNG_DPI));
+            case INITIATIVES -> CompressedContent.of(initiativesPageService
+                    .renderInitiativesPage(renderCoalescer.plan(entry.etag, esa), mapper.writeValueAsString(entry.payload)));
+        };
+        renders.put(key, content);
+        return content;
+    }
+
+    /**
+     * Gets the fingerprint of the rendering settings renders depend on besides the payload.
+     *
+     * @return the {@link SvgService#renderVariant() render variant}
+     */
+    public String renderVariant() {
+        return svgService.renderVariant();
+    }
+
+    private String validate(JsonNode payload) {
+        if (payload == null || payload.isNull() || !payload.isObject()) {
+            throw new ValidationException("Request body must be an ESA JSON object");
+        }
+        mapper.convertValue(payload, ESA.class);
+        return CanonicalJson.sha256Hex(mapper, payload);
+    }
+
+    private Entry store(Entry entry) {
+        ObjectNode record = mapper.createObjectNode();
+        record.put("id", entry.id);
+        record.put("named", entry.named);
+        record.put("updatedAt", entry.updatedAt.toString());
+        record.set("payload", entry.payload);
+        try {
+            Path target = recordPath(entry.id);
+            Files.createDirectories(storeDir);
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.write(temp, mapper.writeValueAsBytes(record));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Dashboard " + entry.id + " could not be stored", e);
+        }
+        entries.put(entry.id, entry);
+        return entry;
+    }
+
+    private Path recordPath(String id) {
+        return storeDir.resolve(id + RECORD_SUFFIX);
+    }
+
+    private static boolean isHashId(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A stored dashboard payload.
+     */
+    public static final class Entry {
+        private final String id;
+        private final boolean named;
+        private final JsonNode payload;
+        private final String etag;
+        private final Instant updatedAt;
+
+        Entry(String id, boolean named, JsonNode payload, String etag, Instant updatedAt) {
+            this.id = id;
+            this.named = named;
+            this.payload = payload;
+            this.etag = etag;
+            this.updatedAt = updatedAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /** True for entries stored under a name; false for content-hash entries, which never change. */
+        public boolean isNamed() {
+            return named;
+        }
+
+        public JsonNode getPayload() {
+            return payload;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
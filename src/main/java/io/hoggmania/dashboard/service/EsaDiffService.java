@@ -0,0 +1,342 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import io.hoggmania.dashboard.model.ComponentInitiative;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.Domain;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.EsaDelta;
+import io.hoggmania.dashboard.util.LinkText;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Computes the structured difference between two ESA payloads.
+ *
+ * <p>Components are matched by identity, not position: section plus normalized name, with a
+ * running occurrence number for names that repeat. Capability components are first matched
+ * within the same domain; those left over are paired by name across domains and reported as
+ * moved. Domains are matched by normalized name; those in both versions are compared for their
+ * heading and position. Names are matched without their {@code [url]} link, which is reported as
+ * a field change of its own. Initiatives are matched by key (by summary when they have none).
+ * Every step is a hash lookup, so a diff runs in time linear in the size of both payloads.
+ */
+@ApplicationScoped
+public class EsaDiffService {
+
+    static final String GOVERNANCE = "governance";
+    static final String CAPABILITIES = "capabilities";
+
+    /**
+     * Compares two ESA payloads.
+     *
+     * @param before the older version
+     * @param after the newer version
+     * @return the delta; {@code identical} is true if nothing differs
+     */
+    public EsaDelta diff(ESA before, ESA after) {
+        ESA older = before != null ? before : new ESA();
+        ESA newer = after != null ? after : new ESA();
+        EsaDelta delta = new EsaDelta();
+        compare(delta.fields, "title", older.title, newer.title);
+        compare(delta.fields, "icon", older.icon, newer.icon);
+        compare(delta.fields, "governance.title",
+                older.governance != null ? older.governance.title : null,
+                newer.governance != null ? newer.governance.title : null);
+        compare(delta.fields, "capabilities.title",
+                older.capabilities != null ? older.capabilities.title : null,
+                newer.capabilities != null ? newer.capabilities.title : null);
+
+        diffGovernance(delta,
+                older.governance != null ? older.governance.components : null,
+                newer.governance != null ? newer.governance.components : null);
+        diffCapabilities(delta,
+                older.capabilities != null ? older.capabilities.domains : null,
+                newer.capabilities != null ? newer.capabilities.domains : null);
+
+        delta.identical = delta.fields.isEmpty() && delta.domainsAdded.isEmpty()
+                && delta.domainsRemoved.isEmpty() && delta.domainsChanged.isEmpty() && delta.components.isEmpty();
+        return delta;
+    }
+
+    private void diffGovernance(EsaDelta delta, List<ComponentItem> before, List<ComponentItem> after) {
+        Map<String, ComponentItem> remaining = new LinkedHashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (ComponentItem item : nonNull(before)) {
+            remaining.put(occurrenceKey(occurrences, identity(label(item.name))), item);
+        }
+        occurrences.clear();
+        for (ComponentItem item : nonNull(after)) {
+            ComponentItem previous = remaining.remove(occurrenceKey(occurrences, identity(label(item.name))));
+            if (previous == null) {
+                delta.components.add(component(EsaDelta.Change.ADDED, GOVERNANCE, item, null, null));
+            } else {
+                addIfChanged(delta, compareComponents(EsaDelta.Change.CHANGED, GOVERNANCE, previous, item, null, null));
+            }
+        }
+        for (ComponentItem item : remaining.values()) {
+            delta.components.add(component(EsaDelta.Change.REMOVED, GOVERNANCE, item, null, null));
+        }
+    }
+
+    private void diffCapabilities(EsaDelta delta, List<Domain> before, List<Domain> after) {
+        List<Placed> older = place(before);
+        List<Placed> newer = place(after);
+
+        Map<String, Domain> olderByIdentity = byIdentity(before);
+        Map<String, Domain> newerByIdentity = byIdentity(after);
+        newerByIdentity.forEach((id, domain) -> {
+            if (!olderByIdentity.containsKey(id)) {
+                delta.domainsAdded.add(label(domain.domain));
+            }
+        });
+        olderByIdentity.forEach((id, domain) -> {
+            if (!newerByIdentity.containsKey(id)) {
+                delta.domainsRemoved.add(label(domain.domain));
+            }
+        });
+        diffDomains(delta, olderByIdentity, newerByIdentity);
+
+        // Pass 1: same domain, same name
+        Map<String, Placed> remaining = new LinkedHashMap<>();
+        for (Placed placed : older) {
+            remaining.put(placed.exactKey, placed);
+        }
+        List<Placed> unmatched = new ArrayList<>();
+        for (Placed placed : newer) {
+            Placed previous = remaining.remove(placed.exactKey);
+            if (previous == null) {
+                unmatched.add(placed);
+            } else {
+                addIfChanged(delta, compareComponents(EsaDelta.Change.CHANGED, CAPABILITIES, previous.item,
+                        placed.item, previous.domain, placed.domain));
+            }
+        }
+
+        // Pass 2: same name in another domain
+        Map<String, ArrayDeque<Placed>> leftoverByName = new LinkedHashMap<>();
+        for (Placed placed : remaining.values()) {
+            leftoverByName.computeIfAbsent(placed.name, k -> new ArrayDeque<>()).add(placed);
+        }
+        for (Placed placed : unmatched) {
+            ArrayDeque<Placed> candidates = leftoverByName.get(placed.name);
+            Placed previous = candidates == null ? null : candidates.poll();
+            if (previous == null) {
+                delta.components.add(component(EsaDelta.Change.ADDED, CAPABILITIES, placed.item, null, placed.domain));
+            } else {
+                delta.components.add(compareComponents(EsaDelta.Change.MOVED, CAPABILITIES, previous.item,
+                        placed.item, previous.domain, placed.domain));
+            }
+        }
+        for (ArrayDeque<Placed> leftovers : leftoverByName.values()) {
+            for (Placed placed : leftovers) {
+                delta.components.add(component(EsaDelta.Change.REMOVED, CAPABILITIES, placed.item, placed.domain, null));
+            }
+        }
+    }
+
+    /**
+     * Compares the headings of domains present in both versions. Position is the index among those
+     * shared domains, so adding or removing a domain does not shift the others.
+     */
+    private static void diffDomains(EsaDelta delta, Map<String, Domain> before, Map<String, Domain> after) {
+        Map<String, Integer> olderPositions = new HashMap<>();
+        for (String id : before.keySet()) {
+            if (after.containsKey(id)) {
+                olderPositions.put(id, olderPositions.size());
+            }
+        }
+        int position = 0;
+        for (Map.Entry<String, Domain> entry : after.entrySet()) {
+            Domain previous = before.get(entry.getKey());
+            if (previous == null) {
+                continue;
+            }
+            Domain current = entry.getValue();
+            EsaDelta.DomainChange change = new EsaDelta.DomainChange();
+            change.domain = label(current.domain);
+            compareLinked(change.fields, "name", "href", previous.domain, current.domain);
+            compare(change.fields, "icon", previous.icon, current.icon);
+            compare(change.fields, "position", String.valueOf(olderPositions.get(entry.getKey())),
+                    String.valueOf(position++));
+            if (!change.fields.isEmpty()) {
+                delta.domainsChanged.add(change);
+            }
+        }
+    }
+
+    private EsaDelta.ComponentChange compareComponents(EsaDelta.Change change, String section, ComponentItem before,
+            ComponentItem after, String fromDomain, String toDomain) {
+        EsaDelta.ComponentChange result = component(change, section, after, fromDomain, toDomain);
+        compareLinked(result.fields, "name", "nameHref", before.name, after.name);
+        compareLinked(result.fields, "capability", "capabilityHref", before.capability, after.capability);
+        compare(result.fields, "status", name(before.status), name(after.status));
+        compare(result.fields, "maturity", name(before.maturity), name(after.maturity));
+        compare(result.fields, "rag", before.rag, after.rag);
+        compare(result.fields, "iRag", before.iRag, after.iRag);
+        compare(result.fields, "initiatives", String.valueOf(before.initiatives), String.valueOf(after.initiatives));
+        compare(result.fields, "doubleBorder", String.valueOf(before.doubleBorder), String.valueOf(after.doubleBorder));
+        compare(result.fields, "icon", before.icon, after.icon);
+        compare(result.fields, "summary", before.summary, after.summary);
+        diffInitiatives(result.initiatives, before.initiativeDetails, after.initiativeDetails);
+        return result;
+    }
+
+    private void diffInitiatives(List<EsaDelta.InitiativeChange> changes, List<ComponentInitiative> before,
+            List<ComponentInitiative> after) {
+        Map<String, ComponentInitiative> remaining = new LinkedHashMap<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (ComponentInitiative initiative : nonNull(before)) {
+            remaining.put(occurrenceKey(occurrences, identity(initiative)), initiative);
+        }
+        occurrences.clear();
+        for (ComponentInitiative initiative : nonNull(after)) {
+            ComponentInitiative previous = remaining.remove(occurrenceKey(occurrences, identity(initiative)));
+            if (previous == null) {
+                changes.add(initiative(EsaDelta.Change.ADDED, initiative));
+                continue;
+            }
+            EsaDelta.InitiativeChange change = initiative(EsaDelta.Change.CHANGED, initiative);
+            compare(change.fields, "summary", previous.summary, initiative.summary);
+            compare(change.fields, "link", previous.link, initiative.link);
+            compare(change.fields, "rag", previous.rag, initiative.rag);
+            compare(change.fields, "dueDate", previous.dueDate, initiative.dueDate);
+            compare(change.fields, "businessBenefit", previous.businessBenefit, initiative.businessBenefit);
+            compare(change.fields, "riskAppetite", previous.riskAppetite, initiative.riskAppetite);
+            compare(change.fields, "toolId", previous.toolId, initiative.toolId);
+            compare(change.fields, "issueType", previous.issueType, initiative.issueType);
+            if (!change.fields.isEmpty()) {
+                changes.add(change);
+            }
+        }
+        for (ComponentInitiative initiative : remaining.values()) {
+            changes.add(initiative(EsaDelta.Change.REMOVED, initiative));
+        }
+    }
+
+    private static void addIfChanged(EsaDelta delta, EsaDelta.ComponentChange change) {
+        if (!change.fields.isEmpty() || !change.initiatives.isEmpty()) {
+            delta.components.add(change);
+        }
+    }
+
+    private static EsaDelta.ComponentChange component(EsaDelta.Change change, String section, ComponentItem item,
+            String fromDomain, String toDomain) {
+        EsaDelta.ComponentChange result = new EsaDelta.ComponentChange();
+        result.change = change;
+        result.section = section;
+        result.name = label(item.name);
+        result.fromDomain = fromDomain;
+        result.toDomain = toDomain;
+        return result;
+    }
+
+    private static EsaDelta.InitiativeChange initiative(EsaDelta.Change change, ComponentInitiative initiative) {
+        EsaDelta.InitiativeChange result = new EsaDelta.InitiativeChange();
+        result.change = change;
+        result.key = initiative.key;
+        result.summary = initiative.summary;
+        return result;
+    }
+
+    private static void compare(List<EsaDelta.FieldChange> changes, String field, String before, String after) {
+        if (!Objects.equals(before, after)) {
+            changes.add(new EsaDelta.FieldChange(field, before, after));
+        }
+    }
+
+    /**
+     * Compares a field that may end in a {@code [url]} link as its text and its link, so a changed
+     * link is reported on its own.
+     */
+    private static void compareLinked(List<EsaDelta.FieldChange> changes, String field, String hrefField,
+            String before, String after) {
+        LinkText older = LinkText.parse(before);
+        LinkText newer = LinkText.parse(after);
+        compare(changes, field, older.text, newer.text);
+        compare(changes, hrefField, older.href, newer.href);
+    }
+
+    private static List<Placed> place(List<Domain> domains) {
+        List<Placed> placed = new ArrayList<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Domain domain : nonNull(domains)) {
+            String domainLabel = label(domain.domain);
+            String domainId = identity(domainLabel);
+            for (ComponentItem item : nonNull(domain.components)) {
+                String name = identity(label(item.name));
+                placed.add(new Placed(domainLabel, item, name,
+                        occurrenceKey(occurrences, domainId + "\u0000" + name)));
+            }
+        }
+        return placed;
+    }
+
+    private static Map<String, Domain> byIdentity(List<Domain> domains) {
+        Map<String, Domain> result = new LinkedHashMap<>();
+        for (Domain domain : nonNull(domains)) {
+            result.putIfAbsent(identity(label(domain.domain)), domain);
+        }
+        return result;
+    }
+
+    private static String occurrenceKey(Map<String, Integer> occurrences, String identity) {
+        return identity + "#" + occurrences.merge(identity, 1, Integer::sum);
+    }
+
+    private static String identity(ComponentInitiative initiative) {
+        if (initiative.key != null && !initiative.key.isBlank()) {
+            return "key:" + initiative.key.trim().toUpperCase(Locale.ENGLISH);
+        }
+        return "summary:" + identity(initiative.summary);
+    }
+
+    /**
+     * Gets the text of a name without its {@code [url]} link, as the dashboard shows it.
+     */
+    private static String label(String name) {
+        return LinkText.parse(name).text;
+    }
+
+    private static String identity(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        if (list == null) {
+            return List.of();
+        }
+        List<T> result = new ArrayList<>(list.size());
+        for (T item : list) {
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private static final class Placed {
+        private final String domain;
+        private final ComponentItem item;
+        private final String name;
+        private final String exactKey;
+
+        Placed(String domain, ComponentItem item, String name, String exactKey) {
+            this.domain = domain;
+            this.item = item;
+            this.name = name;
+            this.exactKey = exactKey;
+        }
+    }
+}
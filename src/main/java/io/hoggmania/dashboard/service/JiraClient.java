@@ -3,83 +3,177 @@ package io.hoggmania.dashboard.service;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
-import java.io.FileInputStream;
-import java.security.KeyStore;
+import java.util.EnumMap;
 import java.util.Map;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManagerFactory;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.hoggmania.dashboard.exception.DeadlineExceededException;
+import io.hoggmania.dashboard.exception.JiraUnavailableException;
+import io.hoggmania.dashboard.exception.RequestCancelledException;
 import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.util.AdaptiveConcurrencyLimiter;
+import io.hoggmania.dashboard.util.CircuitBreaker;
+import io.hoggmania.dashboard.util.LatencyTracker;
 import io.hoggmania.dashboard.util.UrlUtils;
 import io.hoggmania.dashboard.util.StringUtils;
 import io.hoggmania.dashboard.util.RateLimiter;
+import io.hoggmania.dashboard.util.WeightedFairScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * HTTP client for interacting with Jira REST API.
- * Supports custom trust stores for enterprise Jira instances
+ * Uses a per-host client from {@link JiraHttpClientRegistry} (HTTP/2, custom trust store)
  * and includes rate limiting to prevent API throttling.
+ *
+ * <p>Calls are guarded by a per-host {@link CircuitBreaker}. While the circuit for a host is
+ * open, issue fetches are answered from the last known snapshot in {@link JiraIssueCache}
+ * when one exists and fail fast with {@link JiraUnavailableException} otherwise.
+ *
+ * <p>Issue fetches can optionally be hedged: when a GET has not answered within the observed
+ * latency percentile for its host, an identical request is sent and the first response wins.
+ * Hedges draw on their own budget and on the regular rate limit, so they never exceed it.
+ *
+ * <p>On top of the static rate limit, the number of in-flight calls per host is governed by an
+ * {@link AdaptiveConcurrencyLimiter}: it grows while latency is stable and backs off on
+ * HTTP 429/5xx, timeouts and latency spikes.
+ *
+ * <p>Calls wait for capacity in a {@link WeightedFairScheduler} keyed by caller and
+ * {@link JiraRequestContext.Priority priority class}, so a bulk import cannot starve interactive
+ * users. A share of every rate-limit window is reserved for interactive calls.
+ * Cancelling the request context aborts queued and in-flight calls made for it, and a context
+ * deadline caps both the queue wait and the HTTP timeout of each call.
  */
 @ApplicationScoped
 public class JiraClient {
 
-    private final HttpClient httpClient;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+    private static final Duration REPORTED_WAIT = Duration.ofMillis(10);
+
+    private final JiraHttpClientRegistry httpClients;
     private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean circuitBreakerEnabled;
+    private final LatencyTracker latencyTracker;
+    private final RateLimiter hedgeBudget;
+    private final boolean hedgingEnabled;
+    private final double hedgingPercentile;
+    private final Duration hedgingMinDelay;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final WeightedFairScheduler scheduler = new WeightedFairScheduler();
+    private final Map<JiraRequestContext.Priority, Integer> flowWeights = new EnumMap<>(JiraRequestContext.Priority.class);
+    private final int maxRequests;
+    private final int sharedRequests;
+    private final Duration maxQueueWait;
+    private final Set<String> monitoredHosts = ConcurrentHashMap.newKeySet();
 
     @Inject
     ObjectMapper mapper;
 
+    @Inject
+    JiraIssueCache issueCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
     @Inject
     public JiraClient(
-            @ConfigProperty(name = "jira.trust-store") java.util.Optional<String> trustStorePath,
-            @ConfigProperty(name = "jira.trust-store-password") java.util.Optional<String> trustStorePassword,
+            JiraHttpClientRegistry httpClients,
             @ConfigProperty(name = "jira.rate-limit.max-requests", defaultValue = "100") int maxRequests,
-            @ConfigProperty(name = "jira.rate-limit.window-seconds", defaultValue = "60") int windowSeconds) {
-        this.httpClient = createClient(trustStorePath, trustStorePassword);
+            @ConfigProperty(name = "jira.rate-limit.window-seconds", defaultValue = "60") int windowSeconds,
+            @ConfigProperty(name = "jira.circuit-breaker.enabled", defaultValue = "true") boolean circuitBreakerEnabled,
+            @ConfigProperty(name = "jira.circuit-breaker.window-size", defaultValue = "20") int breakerWindowSize,
+            @ConfigProperty(name = "jira.circuit-breaker.minimum-calls", defaultValue = "10") int breakerMinimumCalls,
+            @ConfigProperty(name = "jira.circuit-breaker.failure-rate-threshold", defaultValue = "50") float failureRateThreshold,
+            @ConfigProperty(name = "jira.circuit-breaker.slow-call-threshold-ms", defaultValue = "5000") long slowCallThresholdMs,
+            @ConfigProperty(name = "jira.circuit-breaker.slow-call-rate-threshold", defaultValue = "80") float slowCallRateThreshold,
+            @ConfigProperty(name = "jira.circuit-breaker.open-seconds", defaultValue = "30") int openSeconds,
+            @ConfigProperty(name = "jira.hedging.enabled", defaultValue = "false") boolean hedgingEnabled,
+            @ConfigProperty(name = "jira.hedging.percentile", defaultValue = "0.9") double hedgingPercentile,
+            @ConfigProperty(name = "jira.hedging.min-delay-ms", defaultValue = "50") long hedgingMinDelayMs,
+            @ConfigProperty(name = "jira.hedging.min-samples", defaultValue = "20") int hedgingMinSamples,
+            @ConfigProperty(name = "jira.hedging.budget-ratio", defaultValue = "0.1") double hedgingBudgetRatio,
+            @ConfigProperty(name = "jira.concurrency.initial-limit", defaultValue = "8") int initialConcurrency,
+            @ConfigProperty(name = "jira.concurrency.min-limit", defaultValue = "1") int minConcurrency,
+            @ConfigProperty(name = "jira.concurrency.max-limit", defaultValue = "64") int maxConcurrency,
+            @ConfigProperty(name = "jira.concurrency.backoff-ratio", defaultValue = "0.7") double concurrencyBackoffRatio,
+            @ConfigProperty(name = "jira.concurrency.latency-tolerance", defaultValue = "2.0") double concurrencyLatencyTolerance,
+            @ConfigProperty(name = "jira.fair-queue.max-wait-ms", defaultValue = "10000") long maxQueueWaitMs,
+            @ConfigProperty(name = "jira.fair-queue.interactive-reserve", defaultValue = "0.2") double interactiveReserve,
+            @ConfigProperty(name = "jira.fair-queue.weight.interactive", defaultValue = "8") int interactiveWeight,
+            @ConfigProperty(name = "jira.fair-queue.weight.api", defaultValue = "4") int apiWeight,
+            @ConfigProperty(name = "jira.fair-queue.weight.background", defaultValue = "1") int backgroundWeight) {
+        this.httpClients = httpClients;
         this.rateLimiter = new RateLimiter(maxRequests, Duration.ofSeconds(windowSeconds));
-    }
-
-    private HttpClient createClient(java.util.Optional<String> trustStorePath, java.util.Optional<String> trustStorePassword) {
-        try {
-            HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10));
-            if (trustStorePath.isPresent()) {
-                String path = trustStorePath.get();
-                char[] password = trustStorePassword.orElse("").toCharArray();
-                KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
-                try (FileInputStream fis = new FileInputStream(path)) {
-                    keyStore.load(fis, password);
-                }
-                TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-                tmf.init(keyStore);
-                SSLContext sslContext = SSLContext.getInstance("TLS");
-                sslContext.init(null, tmf.getTrustManagers(), null);
-                builder.sslContext(sslContext);
-            }
-            return builder.build();
-        } catch (Exception e) {
-            throw new ValidationException("Failed to load Jira trust store: " + e.getMessage());
-        }
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+        this.circuitBreaker = new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, failureRateThreshold,
+                Duration.ofMillis(slowCallThresholdMs), slowCallRateThreshold, Duration.ofSeconds(openSeconds));
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgingPercentile = hedgingPercentile;
+        this.hedgingMinDelay = Duration.ofMillis(Math.max(0, hedgingMinDelayMs));
+        this.latencyTracker = new LatencyTracker(200, hedgingMinSamples);
+        int hedgesPerWindow = (int) Math.max(1, Math.floor(maxRequests * hedgingBudgetRatio));
+        this.hedgeBudget = new RateLimiter(hedgesPerWindow, Duration.ofSeconds(windowSeconds));
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialConcurrency, minConcurrency, maxConcurrency,
+                concurrencyBackoffRatio, concurrencyLatencyTolerance);
+        this.maxQueueWait = Duration.ofMillis(Math.max(0, maxQueueWaitMs));
+        this.maxRequests = maxRequests;
+        double reserve = Math.max(0d, Math.min(1d, interactiveReserve));
+        this.sharedRequests = (int) Math.max(1, Math.floor(maxRequests * (1d - reserve)));
+        flowWeights.put(JiraRequestContext.Priority.INTERACTIVE, interactiveWeight);
+        flowWeights.put(JiraRequestContext.Priority.API, apiWeight);
+        flowWeights.put(JiraRequestContext.Priority.BACKGROUND, backgroundWeight);
     }
 
     /**
      * Fetches a Jira issue by key with all linked issues and changelog.
      * Includes rate limiting per Jira instance to prevent overwhelming the API.
-     * 
+     *
      * @param baseUrl the Jira instance base URL (e.g., https://jira.example.com)
      * @param issueKey the issue key (e.g., PROJ-123)
      * @param personalAccessToken the personal access token for authentication
      * @return the issue data as a JsonNode
      * @throws ValidationException if parameters are invalid, rate limit is exceeded, or the API call fails
+     * @throws JiraUnavailableException if the circuit for the Jira host is open and no snapshot is cached
      */
     public JsonNode fetchIssue(String baseUrl, String issueKey, String personalAccessToken, Map<String, String> extraHeaders) {
+        return fetchIssue(baseUrl, issueKey, personalAccessToken, extraHeaders,
+                JiraRequestContext.forToken(JiraRequestContext.Priority.API, personalAccessToken));
+    }
+
+    /**
+     * Fetches a Jira issue on behalf of the caller described by the request context.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @param issueKey the issue key
+     * @param personalAccessToken the personal access token for authentication
+     * @param extraHeaders extra headers to pass to Jira
+     * @param context the caller and priority class used for fair queuing
+     * @return the issue data as a JsonNode
+     * @throws RequestCancelledException if the context is cancelled before the issue is fetched
+     * @throws DeadlineExceededException if the context deadline passes and no snapshot is cached
+     */
+    public JsonNode fetchIssue(String baseUrl, String issueKey, String personalAccessToken,
+            Map<String, String> extraHeaders, JiraRequestContext context) {
         if (StringUtils.isBlank(baseUrl)) {
             throw new ValidationException("Jira base URL is required.");
         }
@@ -90,47 +184,21 @@ public class JiraClient {
             throw new ValidationException("A Jira personal access token is required.");
         }
 
-        // Rate limiting per base URL to prevent overwhelming the Jira instance
-        if (!rateLimiter.tryAcquire(baseUrl)) {
-            throw new ValidationException("Rate limit exceeded for Jira instance: " + baseUrl + 
-                ". Please try again later.");
-        }
-
+        String normalizedBase = UrlUtils.normalizeBaseUrl(baseUrl);
+        String encodedKey = UrlUtils.encode(issueKey);
+        URI uri = URI.create(normalizedBase + "/rest/api/3/issue/" + encodedKey + "?expand=renderedFields,changelog");
         try {
-            String normalizedBase = UrlUtils.normalizeBaseUrl(baseUrl);
-            String encodedKey = UrlUtils.encode(issueKey);
-            URI uri = URI.create(normalizedBase + "/rest/api/3/issue/" + encodedKey + "?expand=renderedFields,changelog");
-            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
-                    .timeout(Duration.ofSeconds(20))
-                    .GET()
-                    .header("Accept", "application/json")
-                    .header("Authorization", "Bearer " + personalAccessToken.trim());
-            if (extraHeaders != null && !extraHeaders.isEmpty()) {
-                for (Map.Entry<String, String> entry : extraHeaders.entrySet()) {
-                    String name = entry.getKey();
-                    String value = entry.getValue();
-                    if (StringUtils.isBlank(name)) {
-                        continue;
-                    }
-                    if ("authorization".equalsIgnoreCase(name) || "accept".equalsIgnoreCase(name)) {
-                        continue;
-                    }
-                    builder.header(name.trim(), value == null ? "" : value);
-                }
-            }
-            HttpRequest request = builder.build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() >= 400) {
-                throw new ValidationException("Failed to fetch Jira issue " + issueKey + ": HTTP " + response.statusCode());
+            JsonNode issue = execute(baseUrl, normalizedBase, uri, personalAccessToken, extraHeaders,
+                    "Failed to fetch Jira issue " + issueKey, hedgingEnabled, context);
+            issueCache.put(normalizedBase, issueKey, personalAccessToken, issue);
+            return issue;
+        } catch (JiraUnavailableException | DeadlineExceededException e) {
+            JsonNode snapshot = issueCache.get(normalizedBase, issueKey, personalAccessToken);
+            if (snapshot == null) {
+                throw e;
             }
-            return mapper.readTree(response.body());
-        } catch (ValidationException e) {
-            throw e;
-        } catch (IOException e) {
-            throw new ValidationException("Unable to call Jira API: " + e.getMessage());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ValidationException("Jira API call was interrupted: " + e.getMessage());
+            Log.debugf("Serving cached snapshot of %s from %s: %s", issueKey, normalizedBase, e.getMessage());
+            return snapshot;
         }
     }
 
@@ -142,8 +210,25 @@ public class JiraClient {
      * @param personalAccessToken the personal access token for authentication
      * @param extraHeaders extra headers to pass to Jira
      * @return the search response as a JsonNode
+     * @throws JiraUnavailableException if the circuit for the Jira host is open
      */
     public JsonNode searchIssues(String baseUrl, String jql, String personalAccessToken, Map<String, String> extraHeaders) {
+        return searchIssues(baseUrl, jql, personalAccessToken, extraHeaders,
+                JiraRequestContext.forToken(JiraRequestContext.Priority.API, personalAccessToken));
+    }
+
+    /**
+     * Executes a Jira JQL search on behalf of the caller described by the request context.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @param jql the JQL query
+     * @param personalAccessToken the personal access token for authentication
+     * @param extraHeaders extra headers to pass to Jira
+     * @param context the caller and priority class used for fair queuing
+     * @return the search response as a JsonNode
+     */
+    public JsonNode searchIssues(String baseUrl, String jql, String personalAccessToken,
+            Map<String, String> extraHeaders, JiraRequestContext context) {
         if (StringUtils.isBlank(baseUrl)) {
             throw new ValidationException("Jira base URL is required.");
         }
@@ -154,46 +239,310 @@ public class JiraClient {
             throw new ValidationException("A Jira personal access token is required.");
         }
 
-        if (!rateLimiter.tryAcquire(baseUrl)) {
-            throw new ValidationException("Rate limit exceeded for Jira instance: " + baseUrl +
-                ". Please try again later.");
+        String normalizedBase = UrlUtils.normalizeBaseUrl(baseUrl);
+        String encodedJql = UrlUtils.encode(jql);
+        URI uri = URI.create(normalizedBase + "/rest/api/3/search?jql=" + encodedJql + "&maxResults=50&fields=summary,labels,issuetype");
+        return execute(baseUrl, normalizedBase, uri, personalAccessToken, extraHeaders, "Jira search failed", false, context);
+    }
+
+    /**
+     * Gets the circuit state for a Jira host.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @return the current circuit state (always closed when the breaker is disabled)
+     */
+    public CircuitBreaker.State circuitState(String baseUrl) {
+        return circuitBreaker.state(UrlUtils.normalizeBaseUrl(baseUrl));
+    }
+
+    /**
+     * Gets the current adaptive concurrency limit for a Jira host.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @return the number of calls allowed in flight
+     */
+    public int concurrencyLimit(String baseUrl) {
+        return concurrencyLimiter.limit(UrlUtils.normalizeBaseUrl(baseUrl));
+    }
+
+    private JsonNode execute(String baseUrl, String normalizedBase, URI uri, String personalAccessToken,
+            Map<String, String> extraHeaders, String failureMessage, boolean hedge, JiraRequestContext context) {
+        context.throwIfCancelled();
+        context.throwIfExpired();
+        registerMetrics(normalizedBase);
+        CircuitBreaker.Permit breakerPermit = circuitBreakerEnabled
+                ? circuitBreaker.tryAcquire(normalizedBase)
+                : CircuitBreaker.Permit.NONE;
+        if (breakerPermit == null) {
+            Duration retryAfter = circuitBreaker.remainingOpen(normalizedBase);
+            throw new JiraUnavailableException("Jira instance " + normalizedBase
+                    + " is currently unavailable. Please try again in " + Math.max(1, retryAfter.toSeconds()) + "s.",
+                    retryAfter);
         }
 
+        long queued = System.nanoTime();
+        acquirePermits(baseUrl, normalizedBase, context, breakerPermit);
+        Duration waited = Duration.ofNanos(System.nanoTime() - queued);
+        if (waited.compareTo(REPORTED_WAIT) >= 0) {
+            context.getListener().waitedForCapacity(waited);
+        }
+        long started = System.nanoTime();
+        boolean failed = true;
+        boolean abandoned = false;
+        AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.IGNORE;
         try {
-            String normalizedBase = UrlUtils.normalizeBaseUrl(baseUrl);
-            String encodedJql = UrlUtils.encode(jql);
-            URI uri = URI.create(normalizedBase + "/rest/api/3/search?jql=" + encodedJql + "&maxResults=50&fields=summary,labels,issuetype");
-            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
-                    .timeout(Duration.ofSeconds(20))
-                    .GET()
-                    .header("Accept", "application/json")
-                    .header("Authorization", "Bearer " + personalAccessToken.trim());
-            if (extraHeaders != null && !extraHeaders.isEmpty()) {
-                for (Map.Entry<String, String> entry : extraHeaders.entrySet()) {
-                    String name = entry.getKey();
-                    String value = entry.getValue();
-                    if (StringUtils.isBlank(name)) {
-                        continue;
-                    }
-                    if ("authorization".equalsIgnoreCase(name) || "accept".equalsIgnoreCase(name)) {
-                        continue;
-                    }
-                    builder.header(name.trim(), value == null ? "" : value);
-                }
+            HttpRequest request = buildRequest(uri, personalAccessToken, extraHeaders, context.bound(REQUEST_TIMEOUT));
+            HttpResponse<String> response = hedge
+                    ? sendHedged(baseUrl, normalizedBase, request, context)
+                    : send(context.track(httpClients.clientFor(normalizedBase)
+                            .sendAsync(request, HttpResponse.BodyHandlers.ofString())));
+            outcome = classify(response.statusCode());
+            if (response.statusCode() >= 500) {
+                throw new ValidationException(failureMessage + ": HTTP " + response.statusCode());
             }
-            HttpRequest request = builder.build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            failed = false;
             if (response.statusCode() >= 400) {
-                throw new ValidationException("Jira search failed: HTTP " + response.statusCode());
+                throw new ValidationException(failureMessage + ": HTTP " + response.statusCode());
             }
             return mapper.readTree(response.body());
         } catch (ValidationException e) {
             throw e;
+        } catch (CancellationException e) {
+            abandoned = true;
+            throw new RequestCancelledException("Jira call to " + normalizedBase + " was cancelled by the client.");
         } catch (IOException e) {
+            if (e instanceof HttpTimeoutException && context.isExpired()) {
+                // The caller's budget ran out, which says nothing about the Jira host
+                abandoned = true;
+                throw new DeadlineExceededException("Request deadline reached while waiting for " + normalizedBase + ".");
+            }
+            if (e instanceof HttpTimeoutException) {
+                outcome = AdaptiveConcurrencyLimiter.Outcome.OVERLOAD;
+            }
             throw new ValidationException("Unable to call Jira API: " + e.getMessage());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ValidationException("Jira API call was interrupted: " + e.getMessage());
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            concurrencyLimiter.release(normalizedBase, elapsed, outcome);
+            scheduler.signal(normalizedBase);
+            if (abandoned) {
+                // An aborted call says nothing about the health of the Jira host
+                breakerPermit.release();
+            } else if (failed) {
+                breakerPermit.onFailure(elapsed);
+            } else {
+                breakerPermit.onSuccess(elapsed);
+                latencyTracker.record(normalizedBase, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Waits for this call's turn in the fair queue and takes a rate-limit permit and a
+     * concurrency slot for it. Non-interactive calls may only use the shared part of each
+     * rate-limit window.
+     */
+    private void acquirePermits(String baseUrl, String normalizedBase, JiraRequestContext context,
+            CircuitBreaker.Permit breakerPermit) {
+        int ceiling = rateCeiling(context);
+        BooleanSupplier permit = () -> {
+            if (!rateLimiter.wouldAllow(baseUrl, ceiling) || !concurrencyLimiter.tryAcquire(normalizedBase)) {
+                return false;
+            }
+            if (!rateLimiter.tryAcquire(baseUrl, ceiling)) {
+                concurrencyLimiter.release(normalizedBase, Duration.ZERO, AdaptiveConcurrencyLimiter.Outcome.IGNORE);
+                return false;
+            }
+            return true;
+        };
+        boolean acquired;
+        try {
+            acquired = scheduler.acquire(normalizedBase, context.flowKey(),
+                    flowWeights.getOrDefault(context.getPriority(), 1), context.bound(maxQueueWait),
+                    permit, context::isCancelled);
+        } catch (InterruptedException e) {
+            breakerPermit.release();
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Jira API call was interrupted: " + e.getMessage());
+        }
+        if (acquired) {
+            return;
+        }
+        breakerPermit.release();
+        context.throwIfCancelled();
+        context.throwIfExpired();
+        if (!rateLimiter.wouldAllow(baseUrl, ceiling)) {
+            // Rate limiting per base URL to prevent overwhelming the Jira instance
+            throw new ValidationException("Rate limit exceeded for Jira instance: " + baseUrl +
+                ". Please try again later.");
+        }
+        throw new JiraUnavailableException("Jira instance " + normalizedBase
+                + " is saturated (" + concurrencyLimiter.limit(normalizedBase)
+                + " concurrent requests). Please try again shortly.", Duration.ofSeconds(1));
+    }
+
+    private int rateCeiling(JiraRequestContext context) {
+        return context.getPriority() == JiraRequestContext.Priority.INTERACTIVE ? maxRequests : sharedRequests;
+    }
+
+    private static AdaptiveConcurrencyLimiter.Outcome classify(int statusCode) {
+        if (statusCode == 429 || statusCode >= 500) {
+            return AdaptiveConcurrencyLimiter.Outcome.OVERLOAD;
+        }
+        return statusCode >= 400 ? AdaptiveConcurrencyLimiter.Outcome.IGNORE : AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+    }
+
+    /**
+     * Sends the request and, if it has not completed by the hedging delay for the host,
+     * races it against a duplicate. The first successful response wins; the other is cancelled.
+     */
+    private HttpResponse<String> sendHedged(String baseUrl, String normalizedBase, HttpRequest request,
+            JiraRequestContext context) throws IOException, InterruptedException {
+        HttpClient client = httpClients.clientFor(normalizedBase);
+        CompletableFuture<HttpResponse<String>> primary = context.track(
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        Duration observed = latencyTracker.percentile(normalizedBase, hedgingPercentile);
+        if (observed == null) {
+            return send(primary);
+        }
+        Duration delay = observed.compareTo(hedgingMinDelay) < 0 ? hedgingMinDelay : observed;
+        try {
+            return primary.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Primary is slower than usual; fall through and consider a hedge
+        } catch (ExecutionException e) {
+            return send(primary);
+        } catch (InterruptedException | CancellationException e) {
+            // The caller gave up before any hedge was sent; the primary must not keep running
+            primary.cancel(true);
+            throw e;
+        }
+        // Hedges never jump the queue: only use a slot nobody else is waiting for
+        if (scheduler.waiting(normalizedBase) > 0 || !concurrencyLimiter.tryAcquire(normalizedBase)) {
+            return send(primary);
+        }
+        long hedgeStarted = System.nanoTime();
+        try {
+            if (!rateLimiter.tryAcquire(baseUrl, rateCeiling(context))) {
+                return send(primary);
+            }
+            if (!hedgeBudget.tryAcquire(baseUrl)) {
+                // No hedge is sent, so the rate-limit permit goes back to the window
+                rateLimiter.release(baseUrl);
+                return send(primary);
+            }
+            return race(client, request, primary, normalizedBase, context);
+        } finally {
+            // The duplicate must not feed the limit a second time for the same logical call
+            concurrencyLimiter.release(normalizedBase, Duration.ofNanos(System.nanoTime() - hedgeStarted),
+                    AdaptiveConcurrencyLimiter.Outcome.IGNORE);
+            scheduler.signal(normalizedBase);
+        }
+    }
+
+    private HttpResponse<String> race(HttpClient client, HttpRequest request,
+            CompletableFuture<HttpResponse<String>> primary, String normalizedBase, JiraRequestContext context)
+            throws IOException, InterruptedException {
+        meterRegistry.counter("jira.hedge.requests", "host", normalizedBase).increment();
+        CompletableFuture<HttpResponse<String>> hedged = context.track(
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        CompletableFuture<HttpResponse<String>> winner = context.track(new CompletableFuture<>());
+        AtomicInteger pending = new AtomicInteger(2);
+        primary.whenComplete((response, error) -> settle(winner, pending, response, error));
+        hedged.whenComplete((response, error) -> {
+            if (error == null && winner.complete(response)) {
+                meterRegistry.counter("jira.hedge.wins", "host", normalizedBase).increment();
+            } else {
+                settle(winner, pending, response, error);
+            }
+        });
+        try {
+            return send(winner);
+        } finally {
+            primary.cancel(true);
+            hedged.cancel(true);
+        }
+    }
+
+    private static void settle(CompletableFuture<HttpResponse<String>> winner, AtomicInteger pending,
+            HttpResponse<String> response, Throwable error) {
+        if (error == null) {
+            winner.complete(response);
+        } else if (pending.decrementAndGet() == 0) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    private static HttpResponse<String> send(CompletableFuture<HttpResponse<String>> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+        }
+    }
+
+    private HttpRequest buildRequest(URI uri, String personalAccessToken, Map<String, String> extraHeaders,
+            Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout.isZero() ? Duration.ofMillis(1) : timeout)
+                .GET()
+                .header("Accept", "application/json")
+                .header("Authorization", "Bearer " + personalAccessToken.trim());
+        if (extraHeaders != null && !extraHeaders.isEmpty()) {
+            for (Map.Entry<String, String> entry : extraHeaders.entrySet()) {
+                String name = entry.getKey();
+                String value = entry.getValue();
+                if (StringUtils.isBlank(name)) {
+                    continue;
+                }
+                if ("authorization".equalsIgnoreCase(name) || "accept".equalsIgnoreCase(name)) {
+                    continue;
+                }
+                builder.header(name.trim(), value == null ? "" : value);
+            }
+        }
+        return builder.build();
+    }
+
+    private void registerMetrics(String host) {
+        if (!monitoredHosts.add(host)) {
+            return;
+        }
+        if (circuitBreakerEnabled) {
+            Gauge.builder("jira.circuit.state", circuitBreaker, breaker -> breaker.state(host).ordinal())
+                    .description("Circuit state per Jira host (0=closed, 1=open, 2=half-open)")
+                    .tag("host", host)
+                    .register(meterRegistry);
+            Gauge.builder("jira.circuit.failure.rate", circuitBreaker, breaker -> breaker.failureRate(host))
+                    .description("Failure rate in percent over the circuit breaker window")
+                    .tag("host", host)
+                    .register(meterRegistry);
+            Gauge.builder("jira.circuit.slow.call.rate", circuitBreaker, breaker -> breaker.slowCallRate(host))
+                    .description("Slow-call rate in percent over the circuit breaker window")
+                    .tag("host", host)
+                    .register(meterRegistry);
         }
+        Gauge.builder("jira.concurrency.limit", concurrencyLimiter, limiter -> limiter.limit(host))
+                .description("Adaptive limit of concurrent requests per Jira host")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("jira.concurrency.in.flight", concurrencyLimiter, limiter -> limiter.inFlight(host))
+                .description("Requests currently in flight per Jira host")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("jira.queue.waiting", scheduler, queue -> queue.waiting(host))
+                .description("Requests waiting in the fair queue per Jira host")
+                .tag("host", host)
+                .register(meterRegistry);
     }
 }
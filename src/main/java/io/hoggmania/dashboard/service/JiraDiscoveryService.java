@@ -22,8 +22,14 @@ public class JiraDiscoveryService {
     JiraClient jiraClient;
 
     public List<JiraRootIssue> findEsaRootIssues(String baseUrl, String token, Map<String, String> extraHeaders) {
+        return findEsaRootIssues(baseUrl, token, extraHeaders,
+                JiraRequestContext.forToken(JiraRequestContext.Priority.API, token));
+    }
+
+    public List<JiraRootIssue> findEsaRootIssues(String baseUrl, String token, Map<String, String> extraHeaders,
+            JiraRequestContext context) {
         String jql = "labels = ESA AND labels ~ \"ESA-Root\"";
-        JsonNode response = jiraClient.searchIssues(baseUrl, jql, token, extraHeaders);
+        JsonNode response = jiraClient.searchIssues(baseUrl, jql, token, extraHeaders, context);
         List<JiraRootIssue> roots = new ArrayList<>();
         if (response == null) {
             return roots;
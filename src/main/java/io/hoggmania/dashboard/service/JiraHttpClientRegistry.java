@@ -0,0 +1,197 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.FileInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.hoggmania.dashboard.util.UrlUtils;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Registry of {@link HttpClient} instances, one per Jira host.
+ *
+ * <p>Each client negotiates HTTP/2 (falling back to HTTP/1.1 when the server does not
+ * offer it via ALPN), so parallel imports against the same host share a small number
+ * of multiplexed connections. All clients dispatch on a shared virtual-thread executor
+ * and honour the optional custom trust store.
+ *
+ * <p>The JDK connection pool is JVM-wide and is configured through the
+ * {@code jdk.httpclient.*} system properties. They are only applied when not already
+ * set on the command line and must be in place before the first client is built.
+ */
+@ApplicationScoped
+public class JiraHttpClientRegistry {
+
+    private static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String H2_KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout.h2";
+
+    private final ConcurrentHashMap<String, HttpClient> clients = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SSLContext sslContext;
+    private final HttpClient.Version version;
+    private final Duration connectTimeout;
+    private final List<String> warmUpHosts;
+
+    @Inject
+    public JiraHttpClientRegistry(
+            @ConfigProperty(name = "jira.trust-store") Optional<String> trustStorePath,
+            @ConfigProperty(name = "jira.trust-store-password") Optional<String> trustStorePassword,
+            @ConfigProperty(name = "jira.http.version", defaultValue = "HTTP_2") String version,
+            @ConfigProperty(name = "jira.http.connect-timeout-seconds", defaultValue = "10") int connectTimeoutSeconds,
+            @ConfigProperty(name = "jira.http.connection-pool-size", defaultValue = "0") int connectionPoolSize,
+            @ConfigProperty(name = "jira.http.keep-alive-seconds", defaultValue = "300") int keepAliveSeconds,
+            @ConfigProperty(name = "jira.http.warm-up-hosts") Optional<List<String>> warmUpHosts) {
+        configureConnectionPool(connectionPoolSize, keepAliveSeconds);
+        this.sslContext = loadSslContext(trustStorePath, trustStorePassword);
+        this.version = parseVersion(version);
+        this.connectTimeout = Duration.ofSeconds(Math.max(1, connectTimeoutSeconds));
+        this.warmUpHosts = warmUpHosts.orElse(List.of());
+    }
+
+    /**
+     * Returns the shared client for the host of the given Jira base URL, creating it on first use.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @return the client bound to that host
+     * @throws ValidationException if the base URL is invalid
+     */
+    public HttpClient clientFor(String baseUrl) {
+        return clients.computeIfAbsent(hostKey(baseUrl), key -> buildClient());
+    }
+
+    /**
+     * Returns the number of hosts that currently hold a client.
+     */
+    public int clientCount() {
+        return clients.size();
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        for (String host : warmUpHosts) {
+            if (StringUtils.isBlank(host)) {
+                continue;
+            }
+            warmUp(host.trim());
+        }
+    }
+
+    /**
+     * Opens a connection to the given Jira host ahead of the first real request so that
+     * DNS resolution, the TLS handshake and HTTP/2 negotiation are already paid for.
+     * Failures are logged and otherwise ignored.
+     *
+     * @param baseUrl the Jira instance base URL
+     */
+    public void warmUp(String baseUrl) {
+        try {
+            String normalizedBase = UrlUtils.normalizeBaseUrl(baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(normalizedBase + "/status"))
+                    .timeout(Duration.ofSeconds(10))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            clientFor(normalizedBase).sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            Log.warnf("Jira warm-up for %s failed: %s", normalizedBase, error.getMessage());
+                        } else {
+                            Log.infof("Jira warm-up for %s completed over %s", normalizedBase, response.version());
+                        }
+                    });
+        } catch (ValidationException e) {
+            Log.warnf("Skipping Jira warm-up for %s: %s", baseUrl, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private HttpClient buildClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .executor(executor);
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        return builder.build();
+    }
+
+    private static String hostKey(String baseUrl) {
+        URI uri = URI.create(UrlUtils.normalizeBaseUrl(baseUrl));
+        String authority = uri.getRawAuthority();
+        if (StringUtils.isBlank(authority)) {
+            throw new ValidationException("Jira base URL must include a host.");
+        }
+        return uri.getScheme().toLowerCase(Locale.ENGLISH) + "://" + authority.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static HttpClient.Version parseVersion(String value) {
+        if (StringUtils.isBlank(value)) {
+            return HttpClient.Version.HTTP_2;
+        }
+        try {
+            return HttpClient.Version.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported jira.http.version: " + value + ". Use HTTP_1_1 or HTTP_2.");
+        }
+    }
+
+    private static void configureConnectionPool(int connectionPoolSize, int keepAliveSeconds) {
+        if (connectionPoolSize > 0) {
+            setIfAbsent(POOL_SIZE_PROPERTY, Integer.toString(connectionPoolSize));
+        }
+        if (keepAliveSeconds > 0) {
+            setIfAbsent(KEEP_ALIVE_PROPERTY, Integer.toString(keepAliveSeconds));
+            setIfAbsent(H2_KEEP_ALIVE_PROPERTY, Integer.toString(keepAliveSeconds));
+        }
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    private static SSLContext loadSslContext(Optional<String> trustStorePath, Optional<String> trustStorePassword) {
+        if (trustStorePath.isEmpty()) {
+            return null;
+        }
+        try {
+            char[] password = trustStorePassword.orElse("").toCharArray();
+            KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+            try (FileInputStream fis = new FileInputStream(trustStorePath.get())) {
+                keyStore.load(fis, password);
+            }
+            TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            tmf.init(keyStore);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, tmf.getTrustManagers(), null);
+            return sslContext;
+        } catch (Exception e) {
+            throw new ValidationException("Failed to load Jira trust store: " + e.getMessage());
+        }
+    }
+}
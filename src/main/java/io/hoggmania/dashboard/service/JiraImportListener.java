@@ -0,0 +1,55 @@
+package io.hoggmania.dashboard.service;
+
+import java.time.Duration;
+
+import io.hoggmania.dashboard.model.Domain;
+import io.hoggmania.dashboard.model.Governance;
+
+/**
+ * Receives progress callbacks while an ESA is built from Jira.
+ * All methods are no-ops by default; callbacks arrive on the thread running the build.
+ */
+public interface JiraImportListener {
+
+    /** Listener that ignores all callbacks. */
+    JiraImportListener NONE = new JiraImportListener() {
+    };
+
+    /**
+     * Linked issues were found at a level of the hierarchy and will be fetched.
+     *
+     * @param level the hierarchy level (see {@link JiraPayloadService} level constants)
+     * @param count the number of linked issues found
+     */
+    default void linksDiscovered(String level, int count) {
+    }
+
+    /**
+     * An issue was fetched (or replaced by a placeholder).
+     *
+     * @param level the hierarchy level
+     * @param issueKey the issue key
+     */
+    default void issueFetched(String level, String issueKey) {
+    }
+
+    /**
+     * A Jira call had to wait for a rate-limit permit or concurrency slot.
+     *
+     * @param waited how long the call waited
+     */
+    default void waitedForCapacity(Duration waited) {
+    }
+
+    /**
+     * The governance section is complete.
+     */
+    default void governanceBuilt(Governance governance) {
+    }
+
+    /**
+     * A capability domain is complete.
+     */
+    default void domainBuilt(Domain domain) {
+    }
+}
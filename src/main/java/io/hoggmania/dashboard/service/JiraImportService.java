@@ -0,0 +1,396 @@
+package io.hoggmania.dashboard.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.exception.JiraUnavailableException;
+import io.hoggmania.dashboard.exception.RequestCancelledException;
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.Domain;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.Governance;
+import io.hoggmania.dashboard.model.JiraImportProgress;
+import io.hoggmania.dashboard.model.JiraImportStatus;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.hoggmania.dashboard.util.UrlUtils;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Runs Jira imports in the background and streams their progress to Server-Sent Event subscribers.
+ *
+ * <p>Each import publishes {@code progress} events (throttled), a {@code governance} event and one
+ * {@code domain} event per capability domain as soon as those sections are complete, and finally
+ * a {@code complete}, {@code failed} or {@code cancelled} event carrying the import status.
+ * Late subscribers get the section events and the latest progress replayed.
+ *
+ * <p>Starting an import for a root that the same caller is already importing, with the same
+ * headers and attributes, returns the running import instead of starting a duplicate. Finished imports are kept for a retention period.
+ */
+@ApplicationScoped
+public class JiraImportService {
+
+    private static final long PROGRESS_INTERVAL_NANOS = Duration.ofMillis(250).toNanos();
+
+    private final ExecutorService executor;
+    private final int maxActive;
+    private final Duration retention;
+    private final ConcurrentHashMap<String, JiraImport> imports = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, JiraImport> running = new ConcurrentHashMap<>();
+
+    @Inject
+    JiraPayloadService jiraPayloadService;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    public JiraImportService(
+            @ConfigProperty(name = "jira.imports.max-concurrent", defaultValue = "4") int maxConcurrent,
+            @ConfigProperty(name = "jira.imports.max-active", defaultValue = "50") int maxActive,
+            @ConfigProperty(name = "jira.imports.retention-minutes", defaultValue = "30") int retentionMinutes) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrent),
+                Thread.ofVirtual().name("jira-import-", 0).factory());
+        this.maxActive = Math.max(1, maxActive);
+        this.retention = Duration.ofMinutes(Math.max(1, retentionMinutes));
+    }
+
+    /**
+     * Starts an import, or joins the running import of the same root by the same caller with the
+     * same headers and attributes.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @param issueUrl the root issue URL or key
+     * @param token the personal access token
+     * @param extraHeaders extra headers to pass to Jira
+     * @param attributes attributes to add to the resulting ESA
+     * @return the status of the new or running import
+     * @throws JiraUnavailableException if too many imports are already in progress
+     */
+    public synchronized JiraImportStatus start(String baseUrl, String issueUrl, String token,
+            Map<String, String> extraHeaders, Map<String, String> attributes) {
+        if (StringUtils.isBlank(baseUrl)) {
+            throw new ValidationException("Jira location is required.");
+        }
+        if (StringUtils.isBlank(issueUrl)) {
+            throw new ValidationException("Jira issue URL is required.");
+        }
+        purgeExpired();
+        String rootKey = UrlUtils.extractIssueKey(issueUrl);
+        // Headers change what Jira returns and attributes end up in the result, so both are part of the key
+        String dedupKey = UrlUtils.normalizeBaseUrl(baseUrl).toLowerCase(Locale.ENGLISH) + "|"
+                + HashUtils.fingerprint(token) + "|" + rootKey.toUpperCase(Locale.ENGLISH) + "|"
+                + hash(extraHeaders) + "|" + hash(attributes);
+        JiraImport existing = running.get(dedupKey);
+        if (existing != null) {
+            return existing.status(false);
+        }
+        if (running.size() >= maxActive) {
+            throw new JiraUnavailableException("Too many Jira imports in progress. Please try again later.",
+                    Duration.ofSeconds(30));
+        }
+        JiraRequestContext context = JiraRequestContext.forToken(JiraRequestContext.Priority.API, token);
+        JiraImport job = new JiraImport(UUID.randomUUID().toString(), rootKey, dedupKey, context);
+        context.withListener(job);
+        imports.put(job.id, job);
+        running.put(dedupKey, job);
+        executor.submit(() -> run(job, baseUrl, rootKey, token, extraHeaders, attributes));
+        return job.status(false);
+    }
+
+    /**
+     * Gets the status of an import.
+     *
+     * @param id the import id
+     * @return the status including the result once completed, or null if the import is unknown
+     */
+    public JiraImportStatus status(String id) {
+        JiraImport job = imports.get(id);
+        return job == null ? null : job.status(true);
+    }
+
+    /**
+     * Streams the events of an import to an SSE sink, replaying what happened so far.
+     *
+     * @param id the import id
+     * @param sink the client's event sink
+     * @param sse the SSE context used to build events
+     * @return false if the import is unknown
+     */
+    public boolean subscribe(String id, SseEventSink sink, Sse sse) {
+        JiraImport job = imports.get(id);
+        if (job == null) {
+            return false;
+        }
+        job.subscribe(sink, sse);
+        return true;
+    }
+
+    /**
+     * Cancels a running import and aborts its outstanding Jira calls.
+     *
+     * @param id the import id
+     * @return false if the import is unknown
+     */
+    public boolean cancel(String id) {
+        JiraImport job = imports.get(id);
+        if (job == null) {
+            return false;
+        }
+        job.context.cancel();
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running.values().forEach(job -> job.context.cancel());
+        executor.shutdownNow();
+    }
+
+    private void run(JiraImport job, String baseUrl, String rootKey, String token,
+            Map<String, String> extraHeaders, Map<String, String> attributes) {
+        try {
+            ESA esa = jiraPayloadService.buildFromUrl(baseUrl, rootKey, token, extraHeaders, job.context);
+            job.finish(JiraImportStatus.State.COMPLETED, null, JiraPayloadService.withAttributes(esa, attributes));
+        } catch (RequestCancelledException e) {
+            job.finish(JiraImportStatus.State.CANCELLED, e.getMessage(), null);
+        } catch (RuntimeException e) {
+            Log.debugf("Jira import %s of %s failed: %s", job.id, rootKey, e.getMessage());
+            job.finish(JiraImportStatus.State.FAILED, e.getMessage(), null);
+        }
+    }
+
+    private static String hash(Map<String, String> values) {
+        return HashUtils.sha256Hex(String.valueOf(values == null ? Map.of() : new TreeMap<>(values)));
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        imports.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class Subscriber {
+        private final SseEventSink sink;
+        private final Sse sse;
+
+        Subscriber(SseEventSink sink, Sse sse) {
+            this.sink = sink;
+            this.sse = sse;
+        }
+    }
+
+    private static final class Event {
+        private final long id;
+        private final String name;
+        private final String json;
+
+        Event(long id, String name, String json) {
+            this.id = id;
+            this.name = name;
+            this.json = json;
+        }
+    }
+
+    /**
+     * One import: progress counters, replayable events and the current subscribers.
+     */
+    private final class JiraImport implements JiraImportListener {
+        private final String id;
+        private final String rootKey;
+        private final String dedupKey;
+        private final JiraRequestContext context;
+        private final Instant startedAt = Instant.now();
+        private final long startedNanos = System.nanoTime();
+        private final Map<String, Integer> fetchedByLevel = new LinkedHashMap<>();
+        private final Map<String, Integer> discoveredByLevel = new LinkedHashMap<>();
+        private final List<Event> sections = new ArrayList<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private int fetched;
+        private int discovered;
+        private int capacityWaits;
+        private long waitedNanos;
+        private long lastProgressNanos;
+        private long nextEventId;
+        private Event lastProgress;
+        private Event finalEvent;
+        private boolean streamBroken; // an event could not be serialised; subscribers are turned away
+        private volatile JiraImportStatus.State state = JiraImportStatus.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile long finishedNanos;
+        private volatile String message;
+        private volatile ESA result;
+
+        JiraImport(String id, String rootKey, String dedupKey, JiraRequestContext context) {
+            this.id = id;
+            this.rootKey = rootKey;
+            this.dedupKey = dedupKey;
+            this.context = context;
+        }
+
+        @Override
+        public synchronized void linksDiscovered(String level, int count) {
+            discovered += count;
+            discoveredByLevel.merge(level, count, Integer::sum);
+        }
+
+        @Override
+        public synchronized void issueFetched(String level, String issueKey) {
+            fetched++;
+            fetchedByLevel.merge(level, 1, Integer::sum);
+            long now = System.nanoTime();
+            if (now - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+                lastProgressNanos = now;
+                lastProgress = publish("progress", progress());
+            }
+        }
+
+        @Override
+        public synchronized void waitedForCapacity(Duration waited) {
+            capacityWaits++;
+            waitedNanos += waited.toNanos();
+        }
+
+        @Override
+        public synchronized void governanceBuilt(Governance governance) {
+            addSection(publish("governance", governance));
+        }
+
+        @Override
+        public synchronized void domainBuilt(Domain domain) {
+            addSection(publish("domain", domain));
+        }
+
+        synchronized void subscribe(SseEventSink sink, Sse sse) {
+            if (streamBroken) {
+                sink.close();
+                return;
+            }
+            Subscriber subscriber = new Subscriber(sink, sse);
+            for (Event event : sections) {
+                send(subscriber, event);
+            }
+            if (lastProgress != null) {
+                send(subscriber, lastProgress);
+            }
+            if (finalEvent != null) {
+                send(subscriber, finalEvent);
+                sink.close();
+                return;
+            }
+            subscribers.add(subscriber);
+        }
+
+        synchronized void finish(JiraImportStatus.State finalState, String finalMessage, ESA esa) {
+            this.result = esa;
+            this.message = finalMessage;
+            this.finishedAt = Instant.now();
+            this.finishedNanos = System.nanoTime();
+            this.state = finalState;
+            running.remove(dedupKey, this);
+            lastProgress = publish("progress", progress());
+            finalEvent = publish(finalState.name().toLowerCase(Locale.ENGLISH), status(true));
+            for (Subscriber subscriber : subscribers) {
+                subscriber.sink.close();
+            }
+            subscribers.clear();
+        }
+
+        synchronized JiraImportStatus status(boolean includeResult) {
+            JiraImportStatus status = new JiraImportStatus();
+            status.id = id;
+            status.state = state;
+            status.rootKey = rootKey;
+            status.startedAt = startedAt.toString();
+            status.finishedAt = finishedAt == null ? null : finishedAt.toString();
+            status.message = message;
+            status.eventsUrl = "/api/v1/jira/imports/" + id + "/events";
+            status.progress = progress();
+            status.result = includeResult ? result : null;
+            return status;
+        }
+
+        private JiraImportProgress progress() {
+            JiraImportProgress progress = new JiraImportProgress();
+            progress.fetched = fetched;
+            progress.discovered = discovered;
+            progress.fetchedByLevel = new LinkedHashMap<>(fetchedByLevel);
+            progress.discoveredByLevel = new LinkedHashMap<>(discoveredByLevel);
+            progress.capacityWaits = capacityWaits;
+            progress.waitedMs = Duration.ofNanos(waitedNanos).toMillis();
+            long elapsedNanos = (finishedAt == null ? System.nanoTime() : finishedNanos) - startedNanos;
+            progress.elapsedMs = Duration.ofNanos(elapsedNanos).toMillis();
+            if (state != JiraImportStatus.State.RUNNING) {
+                progress.etaMs = 0L;
+            } else if (fetched > 0) {
+                progress.etaMs = Duration.ofNanos(elapsedNanos / fetched * Math.max(0, discovered - fetched)).toMillis();
+            }
+            return progress;
+        }
+
+        private void addSection(Event event) {
+            if (event != null) {
+                sections.add(event);
+            }
+        }
+
+        /**
+         * Sends an event to the current subscribers and returns it for replay, or returns null if
+         * the stream is broken. A payload that cannot be serialised breaks the stream: current
+         * subscribers are disconnected rather than sent a placeholder, and later ones are turned
+         * away. The import itself carries on and its status stays available.
+         */
+        private Event publish(String name, Object payload) {
+            if (streamBroken) {
+                return null;
+            }
+            String json;
+            try {
+                json = mapper.writeValueAsString(payload);
+            } catch (JsonProcessingException e) {
+                Log.errorf(e, "Could not serialise the %s event of Jira import %s; closing its event streams", name, id);
+                streamBroken = true;
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.sink.close();
+                }
+                subscribers.clear();
+                return null;
+            }
+            Event event = new Event(++nextEventId, name, json);
+            subscribers.removeIf(subscriber -> !send(subscriber, event));
+            return event;
+        }
+
+        private boolean send(Subscriber subscriber, Event event) {
+            if (subscriber.sink.isClosed()) {
+                return false;
+            }
+            OutboundSseEvent outbound = subscriber.sse.newEventBuilder()
+                    .id(String.valueOf(event.id))
+                    .name(event.name)
+                    .data(event.json)
+                    .build();
+            subscriber.sink.send(outbound);
+            return true;
+        }
+    }
+}
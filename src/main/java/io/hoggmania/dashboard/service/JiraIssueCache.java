@@ -0,0 +1,107 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.Locale;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.LruCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bounded in-memory cache of the last successfully fetched Jira issues.
+ *
+ * <p>Entries are keyed by Jira host, issue key and a fingerprint of the access token, so a
+ * snapshot is only ever returned to a caller presenting the same credentials that fetched it.
+ * {@link JiraClient} serves these snapshots while the circuit for a host is open, and
+ * {@link JiraWebhookService} drops them when Jira reports a change.
+ */
+@ApplicationScoped
+public class JiraIssueCache {
+
+    private final LruCache<String, JsonNode> issues;
+    private final LruCache<String, String> keysById;
+
+    @Inject
+    public JiraIssueCache(@ConfigProperty(name = "jira.cache.max-entries", defaultValue = "5000") int maxEntries) {
+        this.issues = new LruCache<>(maxEntries);
+        this.keysById = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * Stores the latest copy of an issue.
+     *
+     * @param baseUrl the normalized Jira base URL
+     * @param issueKey the issue key
+     * @param token the access token used to fetch the issue
+     * @param issue the issue payload
+     */
+    public void put(String baseUrl, String issueKey, String token, JsonNode issue) {
+        if (issue != null) {
+            issues.put(key(baseUrl, issueKey, token), issue);
+            String id = issue.path("id").asText("");
+            if (!id.isEmpty()) {
+                keysById.put(id, normalizeKey(issueKey));
+            }
+        }
+    }
+
+    /**
+     * Gets the latest copy of an issue fetched with the same credentials.
+     *
+     * @param baseUrl the normalized Jira base URL
+     * @param issueKey the issue key
+     * @param token the access token of the caller
+     * @return the cached issue, or null if none is available
+     */
+    public JsonNode get(String baseUrl, String issueKey, String token) {
+        return issues.get(key(baseUrl, issueKey, token));
+    }
+
+    /**
+     * Removes every cached copy of an issue, whichever host and credentials fetched it.
+     *
+     * @param issueKey the issue key
+     * @return the number of removed copies
+     */
+    public int invalidate(String issueKey) {
+        String suffix = "|" + normalizeKey(issueKey);
+        return issues.removeIf(key -> key.endsWith(suffix));
+    }
+
+    /**
+     * Gets the key of a cached issue by its numeric Jira id (webhook link events only carry ids).
+     *
+     * @param issueId the issue id
+     * @return the issue key, or null if no cached issue has that id
+     */
+    public String keyForId(String issueId) {
+        return issueId == null ? null : keysById.get(issueId.trim());
+    }
+
+    /**
+     * Gets the number of cached issues.
+     */
+    public int size() {
+        return issues.size();
+    }
+
+    /**
+     * Removes all cached issues.
+     */
+    public void clear() {
+        issues.clear();
+        keysById.clear();
+    }
+
+    private static String key(String baseUrl, String issueKey, String token) {
+        return baseUrl.toLowerCase(Locale.ENGLISH) + "|" + HashUtils.fingerprint(token) + "|"
+                + normalizeKey(issueKey);
+    }
+
+    private static String normalizeKey(String issueKey) {
+        return issueKey.trim().toUpperCase(Locale.ENGLISH);
+    }
+}
@@ -1,18 +1,28 @@
 package io.hoggmania.dashboard.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.hoggmania.dashboard.exception.DeadlineExceededException;
+import io.hoggmania.dashboard.exception.RequestCancelledException;
 import io.hoggmania.dashboard.exception.ValidationException;
 import io.hoggmania.dashboard.model.Capabilities;
 import io.hoggmania.dashboard.model.ComponentInitiative;
@@ -20,6 +30,9 @@ import io.hoggmania.dashboard.model.ComponentItem;
 import io.hoggmania.dashboard.model.Domain;
 import io.hoggmania.dashboard.model.ESA;
 import io.hoggmania.dashboard.model.Governance;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.ReverseIndex;
+import io.hoggmania.dashboard.util.SingleFlight;
 import io.hoggmania.dashboard.util.StringUtils;
 import io.hoggmania.dashboard.util.UrlUtils;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -49,6 +62,11 @@ import jakarta.inject.Inject;
  *   <li>ESA-Double (for double border)</li>
  *   <li>ESA-Icon:{icon-name}</li>
  * </ul>
+ *
+ * <p>When the request context carries a deadline and it passes mid-build, the remaining linked
+ * issues are not fetched. They become placeholder components built from the link data Jira
+ * already returned (key, summary, type), with status and maturity NOT_EXISTING, and the ESA is
+ * flagged through the {@value #PARTIAL_ATTRIBUTE} attribute.
  */
 @ApplicationScoped
 public class JiraPayloadService {
@@ -60,12 +78,33 @@ public class JiraPayloadService {
     private static final Pattern TOOL_PATTERN = Pattern.compile("ESA-Tool:(.+)", Pattern.CASE_INSENSITIVE);
     private static final Pattern RISK_PATTERN = Pattern.compile("ESA-Risk:(.+)", Pattern.CASE_INSENSITIVE);
 
+    /** ESA attribute set to "true" when the build ran out of time and contains placeholders. */
+    public static final String PARTIAL_ATTRIBUTE = "partial";
+    /** ESA attribute holding the number of linked issues that were not fetched in time. */
+    public static final String UNFETCHED_ATTRIBUTE = "unfetchedIssues";
+
+    /** Hierarchy levels reported to {@link JiraImportListener}. */
+    public static final String LEVEL_ROOT = "root";
+    public static final String LEVEL_SECTIONS = "sections";
+    public static final String LEVEL_DOMAINS = "domains";
+    public static final String LEVEL_COMPONENTS = "components";
+    public static final String LEVEL_INITIATIVES = "initiatives";
+
     private static final Set<String> INITIATIVE_ISSUE_TYPES = Set.of(
             "Theme", "Initiative", "Epic", "Feature");
 
     @Inject
     JiraClient jiraClient;
 
+    @Inject
+    ObjectMapper mapper;
+
+    /** Builds in flight, keyed by priority, Jira base, root and credential fingerprint. */
+    private final SingleFlight<BuildKey, ESA> builds = new SingleFlight<>();
+
+    /** Issue key to the root keys whose last build included the issue. */
+    private final ReverseIndex<String, String> issueIndex = new ReverseIndex<>();
+
     /**
      * Builds an ESA model from a Jira root issue URL.
      * Recursively fetches linked issues to build the complete hierarchy.
@@ -77,6 +116,26 @@ public class JiraPayloadService {
      * @throws ValidationException if the issue structure is invalid or required labels are missing
      */
     public ESA buildFromUrl(String baseUrl, String issueUrl, String personalToken, Map<String, String> extraHeaders) {
+        return buildFromUrl(baseUrl, issueUrl, personalToken, extraHeaders,
+                JiraRequestContext.forToken(JiraRequestContext.Priority.API, personalToken));
+    }
+
+    /**
+     * Builds an ESA model from a Jira root issue URL on behalf of the caller described by the context.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @param issueUrl the root issue URL or key
+     * @param personalToken the personal access token for authentication
+     * @param extraHeaders extra headers to pass to Jira
+     * @param context the caller, priority class and optional deadline used to schedule the Jira calls
+     * @return the ESA model; partial if the context deadline passed during the build. Concurrent calls
+     *         for the same root, credentials and priority share one build unless the context has a
+     *         deadline or a progress listener.
+     * @throws ValidationException if the issue structure is invalid or required labels are missing
+     * @throws DeadlineExceededException if the deadline passes before the root issue is fetched
+     */
+    public ESA buildFromUrl(String baseUrl, String issueUrl, String personalToken, Map<String, String> extraHeaders,
+            JiraRequestContext context) {
         if (StringUtils.isBlank(baseUrl)) {
             throw new ValidationException("Jira location is required.");
         }
@@ -84,61 +143,181 @@ public class JiraPayloadService {
             throw new ValidationException("Jira issue URL is required.");
         }
         String key = UrlUtils.extractIssueKey(issueUrl);
-        JsonNode root = jiraClient.fetchIssue(baseUrl, key, personalToken, extraHeaders);
+        if (context.hasDeadline() || context.getListener() != JiraImportListener.NONE) {
+            // Deadline-bounded and progress-streaming builds depend on their own context
+            return build(baseUrl, key, personalToken, extraHeaders, context);
+        }
+        BuildKey flightKey = new BuildKey(context.getPriority(), baseUrl, key.toUpperCase(Locale.ENGLISH),
+                HashUtils.fingerprint(personalToken),
+                HashUtils.sha256Hex(String.valueOf(extraHeaders == null ? Map.of() : new TreeMap<>(extraHeaders))));
+        while (true) {
+            CompletableFuture<ESA> shared = context.track(
+                    builds.join(flightKey, () -> build(baseUrl, key, personalToken, extraHeaders, context)));
+            try {
+                // Callers may add attributes to their ESA, so each one gets its own copy
+                return mapper.convertValue(shared.join(), ESA.class);
+            } catch (CancellationException e) {
+                context.throwIfCancelled();
+                throw e;
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RequestCancelledException && !context.isCancelled()) {
+                    continue; // the caller running the build went away; run it again for this one
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private ESA build(String baseUrl, String key, String personalToken, Map<String, String> extraHeaders,
+            JiraRequestContext context) {
+        Traversal traversal = new Traversal(baseUrl, personalToken, extraHeaders, context);
+        context.getListener().linksDiscovered(LEVEL_ROOT, 1);
+        JsonNode root = traversal.fetch(key);
+        traversal.issueKeys.add(key.toUpperCase(Locale.ENGLISH));
+        context.getListener().issueFetched(LEVEL_ROOT, key);
         validateRoot(root, key);
 
         ESA esa = new ESA();
         esa.title = root.path("fields").path("summary").asText("ESA Dashboard");
         esa.icon = "shield";
 
-        Map<String, JsonNode> linkedIssues = loadLinkedIssues(root, baseUrl, personalToken, extraHeaders);
+        Map<String, JsonNode> linkedIssues = loadLinkedIssues(root, traversal);
         JsonNode governanceNode = findByLabel(linkedIssues, "ESA-Governance");
         JsonNode capabilitiesNode = findByLabel(linkedIssues, "ESA-Capabilities");
-        if (governanceNode == null) {
+        if (governanceNode == null && !traversal.isPartial()) {
             throw new ValidationException("Root issue " + key + " must have a linked issue labelled ESA-Governance");
         }
-        if (capabilitiesNode == null) {
+        if (capabilitiesNode == null && !traversal.isPartial()) {
             throw new ValidationException("Root issue " + key + " must have a linked issue labelled ESA-Capabilities");
         }
 
-        esa.governance = buildGovernance(governanceNode, baseUrl, personalToken, extraHeaders);
-        esa.capabilities = buildCapabilities(capabilitiesNode, baseUrl, personalToken, extraHeaders);
+        esa.governance = governanceNode != null ? buildGovernance(governanceNode, traversal) : emptyGovernance();
+        context.getListener().governanceBuilt(esa.governance);
+        esa.capabilities = capabilitiesNode != null ? buildCapabilities(capabilitiesNode, traversal) : emptyCapabilities();
+        if (traversal.isPartial()) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            attributes.put(PARTIAL_ATTRIBUTE, "true");
+            attributes.put(UNFETCHED_ATTRIBUTE, String.valueOf(traversal.placeholders.size()));
+            esa.attributes = attributes;
+        }
+        issueIndex.record(key.toUpperCase(Locale.ENGLISH), traversal.issueKeys);
+        return esa;
+    }
+
+    /**
+     * Stops later calls from sharing the builds of a root that are already in flight, so they fetch
+     * issues again and see changes made since those builds started. Callers already waiting for a
+     * build still get its result.
+     *
+     * @param rootKey the root issue key
+     * @return the number of builds detached
+     */
+    public int detachBuilds(String rootKey) {
+        if (StringUtils.isBlank(rootKey)) {
+            return 0;
+        }
+        String root = rootKey.trim().toUpperCase(Locale.ENGLISH);
+        return builds.detach(key -> key.rootKey().equals(root));
+    }
+
+    /**
+     * Gets the roots whose most recent build in this instance included the given issue.
+     *
+     * @param issueKey the issue key
+     * @return the root issue keys (upper case); empty if no build has seen the issue
+     */
+    public Set<String> rootsReferencing(String issueKey) {
+        if (StringUtils.isBlank(issueKey)) {
+            return Set.of();
+        }
+        return issueIndex.owners(issueKey.trim().toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Checks whether an ESA was cut short by its deadline.
+     *
+     * @param esa the ESA built by this service
+     * @return true if some linked issues were replaced by placeholders
+     */
+    public static boolean isPartial(ESA esa) {
+        return esa != null && esa.attributes != null && "true".equals(esa.attributes.get(PARTIAL_ATTRIBUTE));
+    }
+
+    /**
+     * Adds caller supplied attributes to an ESA. Attributes set by the build itself
+     * (such as {@value #PARTIAL_ATTRIBUTE}) take precedence.
+     *
+     * @param esa the ESA to update
+     * @param attributes the attributes to add (may be empty)
+     * @return the same ESA
+     */
+    public static ESA withAttributes(ESA esa, Map<String, String> attributes) {
+        if (esa == null || attributes == null || attributes.isEmpty()) {
+            return esa;
+        }
+        Map<String, String> merged = new LinkedHashMap<>(attributes);
+        if (esa.attributes != null) {
+            merged.putAll(esa.attributes);
+        }
+        esa.attributes = merged;
         return esa;
     }
 
-    private Governance buildGovernance(JsonNode governanceIssue, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private Governance emptyGovernance() {
+        Governance governance = new Governance();
+        governance.title = "Governance";
+        governance.components = List.of();
+        return governance;
+    }
+
+    private Capabilities emptyCapabilities() {
+        Capabilities capabilities = new Capabilities();
+        capabilities.title = "Capabilities";
+        capabilities.icon = "chart";
+        capabilities.domains = List.of();
+        return capabilities;
+    }
+
+    private Governance buildGovernance(JsonNode governanceIssue, Traversal traversal) {
         Governance governance = new Governance();
         governance.title = governanceIssue.path("fields").path("summary").asText("Governance");
-        governance.components = toComponentList(resolveLinkedFeatures(governanceIssue, baseUrl, token, extraHeaders), baseUrl, token, extraHeaders);
+        governance.components = toComponentList(resolveLinkedFeatures(governanceIssue, traversal), traversal);
         return governance;
     }
 
-    private Capabilities buildCapabilities(JsonNode capabilitiesIssue, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private Capabilities buildCapabilities(JsonNode capabilitiesIssue, Traversal traversal) {
         Capabilities capabilities = new Capabilities();
         capabilities.title = capabilitiesIssue.path("fields").path("summary").asText("Capabilities");
         capabilities.icon = "chart";
-        List<JsonNode> domains = resolveLinkedIssues(capabilitiesIssue, "Epic", baseUrl, token, extraHeaders);
+        List<JsonNode> domains = resolveLinkedIssues(capabilitiesIssue, "Epic", LEVEL_DOMAINS, traversal);
         List<Domain> domainList = new ArrayList<>();
         for (JsonNode domainIssue : domains) {
             Domain domain = new Domain();
             domain.domain = domainIssue.path("fields").path("summary").asText("Domain");
             domain.icon = inferIconFromLabels(domainIssue);
-            domain.components = toComponentList(resolveLinkedFeatures(domainIssue, baseUrl, token, extraHeaders), baseUrl, token, extraHeaders);
+            domain.components = toComponentList(resolveLinkedFeatures(domainIssue, traversal), traversal);
             domainList.add(domain);
+            traversal.context.getListener().domainBuilt(domain);
         }
         capabilities.domains = domainList;
         return capabilities;
     }
 
-    private List<ComponentItem> toComponentList(List<JsonNode> featureIssues, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private List<ComponentItem> toComponentList(List<JsonNode> featureIssues, Traversal traversal) {
         List<ComponentItem> components = new ArrayList<>();
         for (JsonNode issue : featureIssues) {
-            components.add(toComponent(issue, baseUrl, token, extraHeaders));
+            components.add(toComponent(issue, traversal));
         }
         return components;
     }
 
-    private ComponentItem toComponent(JsonNode issue, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private ComponentItem toComponent(JsonNode issue, Traversal traversal) {
+        if (traversal.isPlaceholder(issue)) {
+            return toPlaceholderComponent(issue);
+        }
         ComponentItem component = new ComponentItem();
         component.name = issue.path("fields").path("summary").asText("Component");
         component.capability = extractLabel(issue, CAPABILITY_PATTERN).orElse(component.name);
@@ -148,12 +327,25 @@ public class JiraPayloadService {
         component.rag = extractLabel(issue, RAG_PATTERN).orElse("green").toLowerCase(Locale.ENGLISH);
         component.iRag = component.rag;
         component.doubleBorder = hasLabel(issue, "ESA-Double");
-        List<JsonNode> initiativeIssues = resolveLinkedInitiatives(issue, baseUrl, token, extraHeaders);
-        component.initiativeDetails = buildInitiatives(initiativeIssues, baseUrl);
+        List<JsonNode> initiativeIssues = resolveLinkedInitiatives(issue, traversal);
+        component.initiativeDetails = buildInitiatives(initiativeIssues, traversal.baseUrl);
         component.initiatives = component.initiativeDetails != null ? component.initiativeDetails.size() : 0;
         return component;
     }
 
+    private ComponentItem toPlaceholderComponent(JsonNode link) {
+        ComponentItem component = new ComponentItem();
+        component.name = link.path("fields").path("summary").asText(link.path("key").asText("Component"));
+        component.capability = component.name;
+        component.maturity = ComponentItem.Maturity.NOT_EXISTING;
+        component.status = ComponentItem.Status.NOT_EXISTING;
+        component.icon = "search";
+        component.summary = "Not loaded: " + link.path("key").asText() + " could not be fetched before the deadline";
+        component.initiativeDetails = List.of();
+        component.initiatives = 0;
+        return component;
+    }
+
     private List<ComponentInitiative> buildInitiatives(List<JsonNode> initiativeIssues, String baseUrl) {
         if (initiativeIssues.isEmpty()) {
             return List.of();
@@ -185,18 +377,15 @@ public class JiraPayloadService {
         return node.asText("");
     }
 
-    private List<JsonNode> resolveLinkedFeatures(JsonNode parentIssue, String baseUrl, String token, Map<String, String> extraHeaders) {
-        return resolveLinkedIssues(parentIssue, "Feature", baseUrl, token, extraHeaders);
+    private List<JsonNode> resolveLinkedFeatures(JsonNode parentIssue, Traversal traversal) {
+        return resolveLinkedIssues(parentIssue, "Feature", LEVEL_COMPONENTS, traversal);
     }
 
-    private List<JsonNode> resolveLinkedIssues(JsonNode parentIssue, String expectedIssueType, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private List<JsonNode> resolveLinkedIssues(JsonNode parentIssue, String expectedIssueType, String level,
+            Traversal traversal) {
         List<JsonNode> linked = new ArrayList<>();
-        for (JsonNode link : parentIssue.path("fields").path("issuelinks")) {
-            JsonNode raw = link.has("outwardIssue") ? link.path("outwardIssue") : link.path("inwardIssue");
-            if (raw.isMissingNode()) {
-                continue;
-            }
-            JsonNode issue = jiraClient.fetchIssue(baseUrl, raw.path("key").asText(), token, extraHeaders);
+        for (JsonNode raw : traversal.links(parentIssue, level)) {
+            JsonNode issue = traversal.fetchLinked(raw, level);
             String typeName = issue.path("fields").path("issuetype").path("name").asText();
             if (expectedIssueType == null || typeName.equalsIgnoreCase(expectedIssueType)) {
                 linked.add(issue);
@@ -205,14 +394,10 @@ public class JiraPayloadService {
         return linked;
     }
 
-    private List<JsonNode> resolveLinkedInitiatives(JsonNode issue, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private List<JsonNode> resolveLinkedInitiatives(JsonNode issue, Traversal traversal) {
         List<JsonNode> linked = new ArrayList<>();
-        for (JsonNode link : issue.path("fields").path("issuelinks")) {
-            JsonNode raw = link.has("outwardIssue") ? link.path("outwardIssue") : link.path("inwardIssue");
-            if (raw.isMissingNode()) {
-                continue;
-            }
-            JsonNode child = jiraClient.fetchIssue(baseUrl, raw.path("key").asText(), token, extraHeaders);
+        for (JsonNode raw : traversal.links(issue, LEVEL_INITIATIVES)) {
+            JsonNode child = traversal.fetchLinked(raw, LEVEL_INITIATIVES);
             String typeName = child.path("fields").path("issuetype").path("name").asText();
             if (INITIATIVE_ISSUE_TYPES.contains(typeName)) {
                 linked.add(child);
@@ -221,12 +406,10 @@ public class JiraPayloadService {
         return linked;
     }
 
-    private Map<String, JsonNode> loadLinkedIssues(JsonNode issue, String baseUrl, String token, Map<String, String> extraHeaders) {
+    private Map<String, JsonNode> loadLinkedIssues(JsonNode issue, Traversal traversal) {
         Map<String, JsonNode> map = new HashMap<>();
-        for (JsonNode link : issue.path("fields").path("issuelinks")) {
-            JsonNode raw = link.has("outwardIssue") ? link.path("outwardIssue") : link.path("inwardIssue");
-            if (raw.isMissingNode()) continue;
-            JsonNode full = jiraClient.fetchIssue(baseUrl, raw.path("key").asText(), token, extraHeaders);
+        for (JsonNode raw : traversal.links(issue, LEVEL_SECTIONS)) {
+            JsonNode full = traversal.fetchLinked(raw, LEVEL_SECTIONS);
             for (String label : collectLabels(full)) {
                 map.put(label, full);
             }
@@ -278,6 +461,79 @@ public class JiraPayloadService {
         }
     }
 
+    /**
+     * Per-build state: where and as whom the Jira calls of one ESA build are made,
+     * which issues the build touched and which linked issues had to be replaced by placeholders.
+     */
+    private final class Traversal {
+        private final String baseUrl;
+        private final String token;
+        private final Map<String, String> extraHeaders;
+        private final JiraRequestContext context;
+        private final Set<JsonNode> placeholders = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<String> issueKeys = new HashSet<>();
+
+        Traversal(String baseUrl, String token, Map<String, String> extraHeaders, JiraRequestContext context) {
+            this.baseUrl = baseUrl;
+            this.token = token;
+            this.extraHeaders = extraHeaders;
+            this.context = context;
+        }
+
+        JsonNode fetch(String issueKey) {
+            return jiraClient.fetchIssue(baseUrl, issueKey, token, extraHeaders, context);
+        }
+
+        /**
+         * Collects the issues linked from an issue and reports them at the given level.
+         */
+        List<JsonNode> links(JsonNode issue, String level) {
+            List<JsonNode> targets = new ArrayList<>();
+            for (JsonNode link : issue.path("fields").path("issuelinks")) {
+                JsonNode raw = link.has("outwardIssue") ? link.path("outwardIssue") : link.path("inwardIssue");
+                if (!raw.isMissingNode()) {
+                    targets.add(raw);
+                }
+            }
+            if (!targets.isEmpty()) {
+                context.getListener().linksDiscovered(level, targets.size());
+            }
+            return targets;
+        }
+
+        /**
+         * Fetches the issue behind a link, or returns the link data itself as a placeholder
+         * once the deadline has passed.
+         */
+        JsonNode fetchLinked(JsonNode link, String level) {
+            String issueKey = link.path("key").asText();
+            if (!issueKey.isEmpty()) {
+                issueKeys.add(issueKey.toUpperCase(Locale.ENGLISH));
+            }
+            JsonNode issue = link;
+            if (!context.isExpired()) {
+                try {
+                    issue = fetch(issueKey);
+                } catch (DeadlineExceededException e) {
+                    // Fall through to a placeholder
+                }
+            }
+            if (issue == link) {
+                placeholders.add(link);
+            }
+            context.getListener().issueFetched(level, issueKey);
+            return issue;
+        }
+
+        boolean isPlaceholder(JsonNode issue) {
+            return placeholders.contains(issue);
+        }
+
+        boolean isPartial() {
+            return !placeholders.isEmpty();
+        }
+    }
+
     private String inferIconFromLabels(JsonNode issue) {
         Set<String> labels = collectLabels(issue);
         if (labels.contains("ESA-Icon:bug")) return "bug";
@@ -299,4 +555,8 @@ public class JiraPayloadService {
     private boolean hasLabel(JsonNode issue, String label) {
         return collectLabels(issue).stream().anyMatch(l -> l.equalsIgnoreCase(label));
     }
+
+    /** Identity of a shareable build; the token and extra headers are hashed. */
+    private record BuildKey(JiraRequestContext.Priority priority, String baseUrl, String rootKey, String tokenFingerprint,
+            String headersHash) {}
 }
@@ -0,0 +1,189 @@
+package io.hoggmania.dashboard.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.hoggmania.dashboard.exception.DeadlineExceededException;
+import io.hoggmania.dashboard.exception.RequestCancelledException;
+import io.hoggmania.dashboard.util.HashUtils;
+
+/**
+ * Describes who a Jira call is made for, so {@link JiraClient} can share capacity fairly.
+ *
+ * <p>Calls are grouped into flows by priority class and caller. The caller is identified by a
+ * fingerprint of the access token, never the token itself.
+ *
+ * <p>A context is also the cancellation handle for the work done on its behalf: once
+ * {@link #cancel()} is called (e.g., because the HTTP client went away), outstanding Jira
+ * requests are aborted and further calls fail with {@link RequestCancelledException}.
+ * An optional deadline bounds every Jira call made for the context; once it has passed,
+ * calls fail with {@link DeadlineExceededException}.
+ */
+public final class JiraRequestContext {
+
+    /**
+     * Priority classes, from most to least latency sensitive.
+     */
+    public enum Priority {
+        /** A person is waiting on a UI page. */
+        INTERACTIVE,
+        /** A REST API client. */
+        API,
+        /** Scheduled refreshes and other work nobody is waiting on. */
+        BACKGROUND
+    }
+
+    private final Priority priority;
+    private final String caller;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    private volatile long deadlineNanos;
+    private volatile boolean hasDeadline;
+    private volatile JiraImportListener listener = JiraImportListener.NONE;
+
+    private JiraRequestContext(Priority priority, String caller) {
+        this.priority = priority == null ? Priority.API : priority;
+        this.caller = caller;
+    }
+
+    /**
+     * Creates a context for calls made with the given access token.
+     *
+     * @param priority the priority class
+     * @param token the caller's access token (only a fingerprint is kept)
+     * @return the request context
+     */
+    public static JiraRequestContext forToken(Priority priority, String token) {
+        return new JiraRequestContext(priority, HashUtils.fingerprint(token));
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    /**
+     * Sets a time budget, measured from now, for all Jira calls made for this context.
+     *
+     * @param budget the time budget; null leaves the context without a deadline
+     * @return this context
+     */
+    public JiraRequestContext withDeadline(Duration budget) {
+        if (budget != null) {
+            this.deadlineNanos = System.nanoTime() + budget.toNanos();
+            this.hasDeadline = true;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the listener that receives progress callbacks for work done on behalf of this context.
+     *
+     * @param listener the listener; null restores the no-op listener
+     * @return this context
+     */
+    public JiraRequestContext withListener(JiraImportListener listener) {
+        this.listener = listener == null ? JiraImportListener.NONE : listener;
+        return this;
+    }
+
+    public JiraImportListener getListener() {
+        return listener;
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @return the remaining budget (zero once expired), or null if the context has no deadline
+     */
+    public Duration remaining() {
+        if (!hasDeadline) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return hasDeadline && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Caps a timeout so it does not extend past the deadline.
+     *
+     * @param timeout the timeout that applies without a deadline
+     * @return the smaller of the timeout and the remaining budget
+     */
+    public Duration bound(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining == null || timeout.compareTo(remaining) <= 0 ? timeout : remaining;
+    }
+
+    /**
+     * Fails fast if the deadline has passed.
+     *
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void throwIfExpired() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Request deadline reached before Jira answered.");
+        }
+    }
+
+    /**
+     * Gets the key of the fair-queuing flow this call belongs to.
+     */
+    public String flowKey() {
+        return priority.name() + ":" + caller;
+    }
+
+    /**
+     * Cancels all work for this context and aborts outstanding Jira requests.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Fails fast if the context was cancelled.
+     *
+     * @throws RequestCancelledException if {@link #cancel()} was called
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new RequestCancelledException("Request was cancelled by the client.");
+        }
+    }
+
+    /**
+     * Registers an outstanding request so {@link #cancel()} can abort it.
+     * The registration is dropped when the future completes.
+     *
+     * @param future the pending request
+     * @return the same future
+     */
+    <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        inFlight.add(future);
+        future.whenComplete((result, error) -> inFlight.remove(future));
+        if (cancelled) {
+            future.cancel(true);
+        }
+        return future;
+    }
+}
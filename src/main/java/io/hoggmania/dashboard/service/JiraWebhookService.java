@@ -0,0 +1,141 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.JiraWebhookResult;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Turns Jira webhook deliveries into targeted invalidation.
+ *
+ * <p>Issue events ({@code jira:issue_updated}, including label changes, {@code jira:issue_created},
+ * {@code jira:issue_deleted}) name the issue directly; issue link events ({@code issuelink_created},
+ * {@code issuelink_deleted}) carry the numeric ids of both ends, which are resolved through
+ * {@link JiraIssueCache}. The ESA roots whose last build included one of those issues are looked
+ * up in the reverse index kept by {@link JiraPayloadService}; only their cached issues and reusable
+ * import jobs are dropped, builds in flight are no longer shared with later callers, and pre-rendered
+ * dashboards are marked stale and optionally rebuilt (the stale renders are served until then).
+ */
+@ApplicationScoped
+public class JiraWebhookService {
+
+    /** Header carrying {@code sha256=<hex HMAC of the body>}. */
+    public static final String SIGNATURE_HEADER = "X-Hub-Signature";
+
+    private final Optional<String> secret;
+    private final boolean allowUnsigned;
+    private final boolean refresh;
+
+    @Inject
+    JiraPayloadService jiraPayloadService;
+
+    @Inject
+    JiraIssueCache issueCache;
+
+    @Inject
+    PrerenderService prerenderService;
+
+    @Inject
+    JobService jobService;
+
+    @Inject
+    public JiraWebhookService(
+            @ConfigProperty(name = "jira.webhook.secret") Optional<String> secret,
+            @ConfigProperty(name = "jira.webhook.allow-unsigned", defaultValue = "false") boolean allowUnsigned,
+            @ConfigProperty(name = "jira.webhook.refresh", defaultValue = "true") boolean refresh) {
+        this.secret = secret.filter(value -> !StringUtils.isBlank(value));
+        this.allowUnsigned = allowUnsigned;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Checks the HMAC signature of a delivery. Without a secret, deliveries are rejected unless
+     * {@code jira.webhook.allow-unsigned} is set.
+     *
+     * @param body the raw request body
+     * @param signature the {@value #SIGNATURE_HEADER} header value, with or without the {@code sha256=} prefix
+     * @return true if the delivery may be processed
+     */
+    public boolean verify(byte[] body, String signature) {
+        if (secret.isEmpty()) {
+            if (!allowUnsigned) {
+                Log.debug("Rejecting Jira webhook: no jira.webhook.secret is configured");
+            }
+            return allowUnsigned;
+        }
+        if (StringUtils.isBlank(signature)) {
+            return false;
+        }
+        String provided = signature.trim().toLowerCase(Locale.ENGLISH);
+        if (provided.startsWith("sha256=")) {
+            provided = provided.substring("sha256=".length());
+        }
+        return HashUtils.constantTimeEquals(HashUtils.hmacSha256Hex(secret.get(), body), provided);
+    }
+
+    /**
+     * Invalidates whatever depends on the issues named by a webhook event.
+     *
+     * @param event the parsed webhook payload
+     * @return what was affected
+     * @throws ValidationException if the event names no issue
+     */
+    public JiraWebhookResult handle(JsonNode event) {
+        if (event == null || !event.isObject()) {
+            throw new ValidationException("Webhook payload must be a JSON object.");
+        }
+        Set<String> issueKeys = new LinkedHashSet<>();
+        addKey(issueKeys, event.path("issue").path("key").asText(null));
+        JsonNode link = event.path("issueLink");
+        addKey(issueKeys, issueCache.keyForId(link.path("sourceIssueId").asText(null)));
+        addKey(issueKeys, issueCache.keyForId(link.path("destinationIssueId").asText(null)));
+        if (issueKeys.isEmpty() && !event.has("issue") && !event.has("issueLink")) {
+            throw new ValidationException("Webhook payload has no issue or issueLink.");
+        }
+
+        Set<String> roots = new TreeSet<>();
+        JiraWebhookResult result = new JiraWebhookResult();
+        for (String issueKey : issueKeys) {
+            result.invalidatedIssues += issueCache.invalidate(issueKey);
+            roots.addAll(jiraPayloadService.rootsReferencing(issueKey));
+        }
+        List<String> refreshing = new ArrayList<>();
+        for (String root : roots) {
+            // Detach first so a refresh started from here on cannot join a build that predates the change
+            jiraPayloadService.detachBuilds(root);
+            if (prerenderService.invalidate(root)) {
+                result.invalidatedRenders++;
+            }
+            result.invalidatedJobs += jobService.invalidateJiraRoot(root);
+            if (refresh && prerenderService.refreshAsync(root)) {
+                refreshing.add(root);
+            }
+        }
+        result.event = event.path("webhookEvent").asText(null);
+        result.issueKeys = List.copyOf(issueKeys);
+        result.roots = List.copyOf(roots);
+        result.refreshing = refreshing;
+        Log.debugf("Jira webhook %s for %s affected roots %s", result.event, issueKeys, roots);
+        return result;
+    }
+
+    private static void addKey(Set<String> keys, String key) {
+        if (!StringUtils.isBlank(key)) {
+            keys.add(key.trim().toUpperCase(Locale.ENGLISH));
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.hoggmania.dashboard.exception.ServiceBusyException;
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.JobStatus;
+import io.hoggmania.dashboard.util.CanonicalJson;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.hoggmania.dashboard.util.UrlUtils;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Runs render and Jira import jobs on a bounded worker pool, outside the HTTP request.
+ *
+ * <p>Every job is written to the store directory as {@code <id>.json} (request parameters and
+ * status) and its output as {@code <id>.result}, so queued jobs are picked up again and finished
+ * results stay available after a restart. Jira tokens and extra headers are held in memory only;
+ * Jira jobs that were still pending when the application stopped fail and must be resubmitted.
+ *
+ * <p>Submitting the same request again while an earlier job for it is queued, running or has
+ * succeeded returns that job. Finished jobs are removed after the retention period.
+ */
+@ApplicationScoped
+public class JobService {
+
+    static final String RECORD_SUFFIX = ".json";
+    static final String RESULT_SUFFIX = ".result";
+    private static final float PNG_DPI = 150f;
+    private static final String CREDENTIALS_LOST =
+            "Jira credentials are not persisted across restarts. Please resubmit the job.";
+
+    private final Path storeDir;
+    private final int maxPending;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, StoredJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> idsByDedupKey = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, JiraCredentials> credentials = new ConcurrentHashMap<>();
+
+    @Inject
+    SvgService svgService;
+
+    @Inject
+    InitiativesPageService initiativesPageService;
+
+    @Inject
+    JiraPayloadService jiraPayloadService;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    public JobService(
+            @ConfigProperty(name = "jobs.store-dir", defaultValue = "data/jobs") String storeDir,
+            @ConfigProperty(name = "jobs.workers", defaultValue = "2") int workers,
+            @ConfigProperty(name = "jobs.max-pending", defaultValue = "100") int maxPending,
+            @ConfigProperty(name = "jobs.retention-hours", defaultValue = "24") int retentionHours) {
+        this.storeDir = Path.of(storeDir);
+        this.maxPending = Math.max(1, maxPending);
+        this.retention = Duration.ofHours(Math.max(1, retentionHours));
+        int threads = Math.max(1, workers);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("job-worker-", 0).daemon(true).factory());
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        recover();
+    }
+
+    /**
+     * Queues a render of an ESA payload.
+     *
+     * @param type the render type ({@code SVG}, {@code PNG} or {@code INITIATIVES})
+     * @param payload the ESA JSON
+     * @return the status of the new job, or of an earlier job for the same payload
+     * @throws ServiceBusyException if too many jobs are pending
+     */
+    public JobStatus submitRender(JobStatus.Type type, JsonNode payload) {
+        if (type == JobStatus.Type.JIRA_ESA) {
+            throw new IllegalArgumentException("Use submitJiraImport for Jira jobs");
+        }
+        if (payload == null || payload.isNull()) {
+            throw new ValidationException("Job payload cannot be null or empty.");
+        }
+        // Fail on malformed payloads now rather than in the worker
+        mapper.convertValue(payload, ESA.class);
+        ObjectNode params = mapper.createObjectNode();
+        params.set("payload", payload);
+        return submit(type, params, null);
+    }
+
+    /**
+     * Queues a Jira import that produces ESA JSON.
+     *
+     * @param baseUrl the Jira instance base URL
+     * @param issueUrl the root issue URL or key
+     * @param token the personal access token (kept in memory only)
+     * @param extraHeaders extra headers to pass to Jira (kept in memory only)
+     * @param attributes attributes to add to the resulting ESA
+     * @return the status of the new job, or of an earlier job for the same import
+     * @throws ServiceBusyException if too many jobs are pending
+     */
+    public JobStatus submitJiraImport(String baseUrl, String issueUrl, String token,
+            Map<String, String> extraHeaders, Map<String, String> attributes) {
+        if (StringUtils.isBlank(baseUrl)) {
+            throw new ValidationException("Jira location is required.");
+        }
+        if (StringUtils.isBlank(issueUrl)) {
+            throw new ValidationException("Jira issue URL is required.");
+        }
+        ObjectNode params = mapper.createObjectNode();
+        params.put("jiraBase", UrlUtils.normalizeBaseUrl(baseUrl));
+        params.put("rootKey", UrlUtils.extractIssueKey(issueUrl));
+        params.set("attributes", mapper.valueToTree(attributes == null ? Map.of() : attributes));
+        Map<String, String> headers = extraHeaders == null ? Map.of() : extraHeaders;
+        return submit(JobStatus.Type.JIRA_ESA, params, new JiraCredentials(token, headers));
+    }
+
+    /**
+     * Gets the status of a job.
+     *
+     * @param id the job id
+     * @return the status, or null if the job is unknown
+     */
+    public JobStatus status(String id) {
+        StoredJob job = id == null ? null : jobs.get(id);
+        return job == null ? null : snapshot(job);
+    }
+
+    /**
+     * Reads the output of a succeeded job.
+     *
+     * @param id the job id
+     * @return the result bytes, or null if the job is unknown or has no result
+     */
+    public byte[] result(String id) {
+        StoredJob job = id == null ? null : jobs.get(id);
+        if (job == null || snapshot(job).state != JobStatus.State.SUCCEEDED) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(resultPath(job.status.id));
+        } catch (IOException e) {
+            Log.warnf("Result of job %s could not be read: %s", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets the ESA a job works on: the submitted payload of a render job, or the imported ESA of a
+     * succeeded Jira job.
+     *
+     * @param id the job id
+     * @return the ESA, or null if the job is unknown or has not produced one
+     */
+    public ESA esa(String id) {
+        StoredJob job = id == null ? null : jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        if (job.status.type != JobStatus.Type.JIRA_ESA) {
+            return mapper.convertValue(job.params.get("payload"), ESA.class);
+        }
+        byte[] output = result(id);
+        if (output == null) {
+            return null;
+        }
+        try {
+            return mapper.readValue(output, ESA.class);
+        } catch (IOException e) {
+            Log.warnf("Result of job %s is not an ESA: %s", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stops handing out queued or running Jira imports of a root to new identical submissions, so the
+     * next submission imports it again instead of joining an import that may predate a change.
+     * The jobs themselves still run and stay readable.
+     *
+     * @param rootKey the root issue key
+     * @return the number of jobs that will no longer be reused
+     */
+    public synchronized int invalidateJiraRoot(String rootKey) {
+        int count = 0;
+        for (StoredJob job : jobs.values()) {
+            if (job.status.type == JobStatus.Type.JIRA_ESA
+                    && rootKey.equalsIgnoreCase(job.params.path("rootKey").asText())
+                    && idsByDedupKey.remove(job.dedupKey, job.status.id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupted jobs stay RUNNING on disk and are queued again on the next start
+        executor.shutdownNow();
+    }
+
+    private synchronized JobStatus submit(JobStatus.Type type, ObjectNode params, JiraCredentials secrets) {
+        purgeExpired();
+        String dedupKey = HashUtils.sha256Hex(type.name() + "\n" + CanonicalJson.write(mapper, params)
+                + "\n" + (secrets == null ? "" : secrets.fingerprint()));
+        String existingId = idsByDedupKey.get(dedupKey);
+        StoredJob existing = existingId == null ? null : jobs.get(existingId);
+        if (existing != null) {
+            JobStatus status = snapshot(existing);
+            if (isReusable(status)) {
+                return status;
+            }
+        }
+        long pending = jobs.values().stream().filter(job -> !isFinished(snapshot(job))).count();
+        if (pending >= maxPending) {
+            throw new ServiceBusyException("Too many jobs queued. Please try again later.", Duration.ofSeconds(30));
+        }
+
+        StoredJob job = new StoredJob();
+        job.dedupKey = dedupKey;
+        job.params = params;
+        job.status = new JobStatus();
+        job.status.id = UUID.randomUUID().toString();
+        job.status.type = type;
+        job.status.state = JobStatus.State.QUEUED;
+        job.status.submittedAt = Instant.now().toString();
+        job.status.contentType = type.contentType();
+        job.status.resultUrl = "/api/v1/jobs/" + job.status.id + "/result";
+        try {
+            persist(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Job could not be stored", e);
+        }
+        jobs.put(job.status.id, job);
+        idsByDedupKey.put(dedupKey, job.status.id);
+        if (secrets != null) {
+            credentials.put(job.status.id, secrets);
+        }
+        executor.execute(() -> run(job));
+        return snapshot(job);
+    }
+
+    /**
+     * Renders of the same input never change, so any job that has not failed can be reused. A Jira
+     * import only reflects Jira at the time it ran; once finished, an identical submission imports again.
+     */
+    private static boolean isReusable(JobStatus status) {
+        if (status.type == JobStatus.Type.JIRA_ESA) {
+            return status.state == JobStatus.State.QUEUED || status.state == JobStatus.State.RUNNING;
+        }
+        return status.state != JobStatus.State.FAILED;
+    }
+
+    private void run(StoredJob job) {
+        String id = job.status.id;
+        if (jobs.get(id) != job) {
+            return;
+        }
+        update(job, JobStatus.State.RUNNING, null);
+        try {
+            byte[] output = execute(job);
+            write(resultPath(id), output);
+            update(job, JobStatus.State.SUCCEEDED, null);
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            Log.debugf("Job %s (%s) failed: %s", id, job.status.type, e.getMessage());
+            update(job, JobStatus.State.FAILED,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            credentials.remove(id);
+        }
+    }
+
+    private byte[] execute(StoredJob job) throws Exception {
+        if (job.status.type == JobStatus.Type.JIRA_ESA) {
+            JiraCredentials secrets = credentials.get(job.status.id);
+            if (secrets == null) {
+                throw new IllegalStateException(CREDENTIALS_LOST);
+            }
+            JiraRequestContext context = JiraRequestContext.forToken(JiraRequestContext.Priority.BACKGROUND,
+                    secrets.token);
+            ESA esa = jiraPayloadService.buildFromUrl(job.params.path("jiraBase").asText(),
+                    job.params.path("rootKey").asText(), secrets.token, secrets.headers, context);
+            Map<String, String> attributes = new LinkedHashMap<>();
+            job.params.path("attributes").properties()
+                    .forEach(entry -> attributes.put(entry.getKey(), entry.getValue().asText()));
+            return mapper.writeValueAsBytes(JiraPayloadService.withAttributes(esa, attributes));
+        }
+        JsonNode payload = job.params.get("payload");
+        ESA esa = mapper.convertValue(payload, ESA.class);
+        switch (job.status.type) {
+            case SVG:
+                return svgService.renderSvg(esa).getBytes(StandardCharsets.UTF_8);
+            case PNG:
+                return svgService.renderPngFromSvg(svgService.renderSvg(esa), PNG_DPI);
+            case INITIATIVES:
+                return initiativesPageService.renderInitiativesPage(esa, mapper.writeValueAsString(payload))
+                        .getBytes(StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("Unsupported job type: " + job.status.type);
+        }
+    }
+
+    private void update(StoredJob job, JobStatus.State state, String message) {
+        synchronized (job) {
+            job.status.state = state;
+            job.status.message = message;
+            if (state == JobStatus.State.RUNNING) {
+                job.status.startedAt = Instant.now().toString();
+            } else if (isFinished(job.status)) {
+                job.status.finishedAt = Instant.now().toString();
+            }
+            try {
+                persist(job);
+            } catch (IOException e) {
+                Log.warnf("Job %s could not be stored: %s", job.status.id, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads stored jobs, drops expired ones and queues those that had not finished.
+     */
+    synchronized void recover() {
+        try {
+            Files.createDirectories(storeDir);
+        } catch (IOException e) {
+            Log.warnf("Job store %s is not usable: %s", storeDir, e.getMessage());
+            return;
+        }
+        List<StoredJob> pending = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(storeDir, "*" + RECORD_SUFFIX)) {
+            for (Path file : files) {
+                StoredJob job;
+                try {
+                    job = mapper.readValue(file.toFile(), StoredJob.class);
+                } catch (IOException e) {
+                    Log.warnf("Ignoring unreadable job record %s: %s", file, e.getMessage());
+                    continue;
+                }
+                if (job.status == null || job.status.id == null || job.status.type == null) {
+                    continue;
+                }
+                jobs.put(job.status.id, job);
+                idsByDedupKey.put(job.dedupKey, job.status.id);
+                if (!isFinished(job.status)) {
+                    pending.add(job);
+                }
+            }
+        } catch (IOException e) {
+            Log.warnf("Job store %s could not be read: %s", storeDir, e.getMessage());
+        }
+        purgeExpired();
+        pending.sort((a, b) -> a.status.submittedAt.compareTo(b.status.submittedAt));
+        for (StoredJob job : pending) {
+            if (job.status.type == JobStatus.Type.JIRA_ESA) {
+                update(job, JobStatus.State.FAILED, CREDENTIALS_LOST);
+            } else {
+                update(job, JobStatus.State.QUEUED, null);
+                executor.execute(() -> run(job));
+            }
+        }
+        if (!jobs.isEmpty()) {
+            Log.infof("Loaded %d stored jobs, %d queued again", jobs.size(), pending.size());
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            JobStatus status = snapshot(job);
+            if (!isFinished(status) || status.finishedAt == null || Instant.parse(status.finishedAt).isAfter(cutoff)) {
+                return false;
+            }
+            idsByDedupKey.remove(job.dedupKey, status.id);
+            try {
+                Files.deleteIfExists(resultPath(status.id));
+                Files.deleteIfExists(recordPath(status.id));
+            } catch (IOException e) {
+                Log.debugf("Expired job %s could not be deleted: %s", status.id, e.getMessage());
+            }
+            return true;
+        });
+    }
+
+    private void persist(StoredJob job) throws IOException {
+        write(recordPath(job.status.id), mapper.writeValueAsBytes(job));
+    }
+
+    private static void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path recordPath(String id) {
+        return storeDir.resolve(id + RECORD_SUFFIX);
+    }
+
+    private Path resultPath(String id) {
+        return storeDir.resolve(id + RESULT_SUFFIX);
+    }
+
+    private static boolean isFinished(JobStatus status) {
+        return status.state == JobStatus.State.SUCCEEDED || status.state == JobStatus.State.FAILED;
+    }
+
+    private static JobStatus snapshot(StoredJob job) {
+        synchronized (job) {
+            JobStatus copy = new JobStatus();
+            copy.id = job.status.id;
+            copy.type = job.status.type;
+            copy.state = job.status.state;
+            copy.submittedAt = job.status.submittedAt;
+            copy.startedAt = job.status.startedAt;
+            copy.finishedAt = job.status.finishedAt;
+            copy.message = job.status.message;
+            copy.contentType = job.status.contentType;
+            copy.resultUrl = job.status.resultUrl;
+            return copy;
+        }
+    }
+
+    /**
+     * Persisted form of a job: its status plus the parameters needed to run it again.
+     */
+    static final class StoredJob {
+        public JobStatus status;
+        public String dedupKey;
+        public ObjectNode params;
+    }
+
+    private static final class JiraCredentials {
+        private final String token;
+        private final Map<String, String> headers;
+
+        JiraCredentials(String token, Map<String, String> headers) {
+            this.token = token;
+            this.headers = headers;
+        }
+
+        String fingerprint() {
+            return HashUtils.fingerprint(token) + "|" + HashUtils.sha256Hex(new TreeMap<>(headers).toString());
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package io.hoggmania.dashboard.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.PrerenderedRoot;
+import io.hoggmania.dashboard.util.CompressedContent;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Keeps ready-made renders of the configured ESA roots, refreshed on a cron schedule.
+ *
+ * <p>Each refresh builds the ESA from Jira at background priority, renders the SVG, PNG and
+ * initiatives page, and swaps the new renders in only once all of them succeeded. A failed
+ * refresh keeps serving the previous renders and records the error. Wallboards subscribed through
+ * {@link WallboardService} are pushed the changes of each new render.
+ *
+ * <p>The startup refresh, the schedule and webhook-triggered refreshes can build the same root at
+ * once. Every attempt takes the next generation number of its root when it starts, and its renders
+ * are installed and published only if no later attempt has been installed and the root has not been
+ * invalidated since it started, so a slow build never replaces a newer one. An invalidated root keeps
+ * serving its renders, marked stale, until a build that started after the invalidation replaces them.
+ */
+@ApplicationScoped
+public class PrerenderService {
+
+    private static final float PNG_DPI = 150f;
+
+    private final List<String> roots;
+    private final String jiraBase;
+    private final String jiraToken;
+    private final boolean refreshOnStartup;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PrerenderedRoot> states = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Generations> generations = new ConcurrentHashMap<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    JiraPayloadService jiraPayloadService;
+
+    @Inject
+    SvgService svgService;
+
+    @Inject
+    InitiativesPageService initiativesPageService;
+
+    @Inject
+    WallboardService wallboardService;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    public PrerenderService(
+            @ConfigProperty(name = "prerender.roots") Optional<List<String>> roots,
+            @ConfigProperty(name = "prerender.jira-base") Optional<String> jiraBase,
+            @ConfigProperty(name = "prerender.jira-token") Optional<String> jiraToken,
+            @ConfigProperty(name = "prerender.max-concurrent", defaultValue = "2") int maxConcurrent,
+            @ConfigProperty(name = "prerender.on-startup", defaultValue = "true") boolean refreshOnStartup) {
+        List<String> keys = new ArrayList<>();
+        for (String root : roots.orElse(List.of())) {
+            if (!StringUtils.isBlank(root)) {
+                keys.add(root.trim().toUpperCase(Locale.ENGLISH));
+            }
+        }
+        this.roots = List.copyOf(keys);
+        this.jiraBase = jiraBase.orElse(null);
+        this.jiraToken = jiraToken.orElse(null);
+        this.refreshOnStartup = refreshOnStartup;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrent),
+                Thread.ofVirtual().name("prerender-", 0).factory());
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        Log.infof("Pre-rendering %d ESA roots from %s", roots.size(), jiraBase);
+        if (refreshOnStartup) {
+            Thread.ofVirtual().name("prerender-startup").start(this::refreshAll);
+        }
+    }
+
+    /**
+     * Refreshes every configured root; runs on the {@code prerender.cron} schedule.
+     */
+    @Scheduled(identity = "prerender", cron = "{prerender.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshAll() {
+        if (!isEnabled()) {
+            return;
+        }
+        List<Future<?>> pending = new ArrayList<>();
+        for (String root : roots) {
+            pending.add(executor.submit(() -> refresh(root)));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                Log.debugf("Pre-render task failed: %s", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds and renders one root now.
+     *
+     * @param rootKey the root issue key
+     * @return true if new renders are in place, false if the refresh failed, was superseded by a newer
+     *         refresh or invalidation, or the root is not configured
+     */
+    public boolean refresh(String rootKey) {
+        String key = normalize(rootKey);
+        if (!isConfigured(key)) {
+            return false;
+        }
+        PrerenderedRoot state = states.computeIfAbsent(key, this::newState);
+        Generations generation = generations.computeIfAbsent(key, k -> new Generations());
+        long attemptGeneration = generation.begin();
+        Instant attempt = Instant.now();
+        try {
+            JiraRequestContext context = JiraRequestContext.forToken(JiraRequestContext.Priority.BACKGROUND, jiraToken);
+            ESA esa = jiraPayloadService.buildFromUrl(jiraBase, key, jiraToken, Map.of(), context);
+            String svg = svgService.renderSvg(esa);
+            byte[] png = svgService.renderPngFromSvg(svg, PNG_DPI);
+            String esaJson = mapper.writeValueAsString(esa);
+            String initiatives = initiativesPageService.renderInitiativesPage(esa, esaJson);
+            Snapshot snapshot = new Snapshot(key, Instant.now(), esa, precompress(esaJson), precompress(svg),
+                    CompressedContent.precompressed(png), precompress(initiatives));
+            synchronized (generation) {
+                if (!generation.install(attemptGeneration)) {
+                    Log.debugf("Discarding pre-render %d of %s, superseded by a newer build or invalidation",
+                            attemptGeneration, key);
+                    return false;
+                }
+                // Installed and published under the root's lock so wallboards see renders in build order
+                snapshots.put(key, snapshot);
+                wallboardService.publish(key, svg);
+            }
+            synchronized (state) {
+                state.title = esa.title;
+                state.renderedAt = snapshot.renderedAt.toString();
+                state.lastAttemptAt = attempt.toString();
+                state.lastError = null;
+                state.partial = JiraPayloadService.isPartial(esa);
+            }
+            Log.debugf("Pre-rendered %s", key);
+            return true;
+        } catch (Exception e) {
+            Log.warnf("Pre-rendering %s failed, keeping previous renders: %s", key, e.getMessage());
+            synchronized (state) {
+                state.lastAttemptAt = attempt.toString();
+                state.lastError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Queues a refresh of one root on the pre-render pool. A refresh that is already queued and has
+     * not started yet covers the new request; one that has started is followed by another.
+     *
+     * @param rootKey the root issue key
+     * @return true if a refresh was queued or is already pending, false if the root is not configured
+     */
+    public boolean refreshAsync(String rootKey) {
+        String key = normalize(rootKey);
+        if (!isConfigured(key)) {
+            return false;
+        }
+        if (queued.add(key)) {
+            executor.submit(() -> {
+                queued.remove(key);
+                refresh(key);
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Marks the renders of a root stale after its Jira issues changed. They keep being served until a
+     * refresh that starts after this call replaces them; refreshes already running are discarded.
+     *
+     * @param rootKey the root issue key
+     * @return true if there were renders to mark
+     */
+    public boolean invalidate(String rootKey) {
+        if (rootKey == null) {
+            return false;
+        }
+        String key = normalize(rootKey);
+        Generations generation = generations.computeIfAbsent(key, k -> new Generations());
+        synchronized (generation) {
+            generation.invalidate();
+            return snapshots.computeIfPresent(key, (k, snapshot) -> snapshot.markStale()) != null;
+        }
+    }
+
+    /**
+     * Gets the latest renders of a root.
+     *
+     * @param rootKey the root issue key
+     * @return the renders, or null if the root has not been rendered yet
+     */
+    public Snapshot snapshot(String rootKey) {
+        return rootKey == null ? null : snapshots.get(normalize(rootKey));
+    }
+
+    /**
+     * Lists the configured roots and their pre-rendering state.
+     */
+    public List<PrerenderedRoot> list() {
+        List<PrerenderedRoot> result = new ArrayList<>();
+        for (String root : roots) {
+            PrerenderedRoot state = states.computeIfAbsent(root, this::newState);
+            synchronized (state) {
+                PrerenderedRoot copy = newState(root);
+                copy.title = state.title;
+                copy.renderedAt = state.renderedAt;
+                copy.lastAttemptAt = state.lastAttemptAt;
+                copy.lastError = state.lastError;
+                copy.partial = state.partial;
+                Snapshot snapshot = snapshots.get(root);
+                copy.stale = snapshot != null && snapshot.isStale();
+                result.add(copy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a root is configured for pre-rendering.
+     */
+    public boolean isConfigured(String rootKey) {
+        return rootKey != null && isEnabled() && roots.contains(normalize(rootKey));
+    }
+
+    public boolean isEnabled() {
+        return !roots.isEmpty() && !StringUtils.isBlank(jiraBase);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PrerenderedRoot newState(String rootKey) {
+        PrerenderedRoot state = new PrerenderedRoot();
+        String base = "/api/v1/prerendered/" + rootKey;
+        state.rootKey = rootKey;
+        state.svgUrl = base + "/svg";
+        state.pngUrl = base + "/png";
+        state.initiativesUrl = base + "/initiatives";
+        return state;
+    }
+
+    private static String normalize(String rootKey) {
+        return rootKey.trim().toUpperCase(Locale.ENGLISH);
+    }
+
+    private static CompressedContent precompress(String text) {
+        CompressedContent content = CompressedContent.of(text);
+        if (content.isCompressible()) {
+            content.gzip();
+        }
+        return content;
+    }
+
+    /**
+     * Attempt numbers of one root. Guarded by its own monitor.
+     */
+    private static final class Generations {
+        private long started; // generation of the latest attempt or invalidation
+        private long installed; // generation of the installed renders
+        private long invalidated; // generation of the latest invalidation
+
+        synchronized long begin() {
+            return ++started;
+        }
+
+        synchronized void invalidate() {
+            invalidated = ++started;
+        }
+
+        /**
+         * Claims the installed renders for an attempt.
+         *
+         * @return false if a later attempt was installed or the root was invalidated after the attempt started
+         */
+        synchronized boolean install(long generation) {
+            if (generation <= installed || generation <= invalidated) {
+                return false;
+            }
+            installed = generation;
+            return true;
+        }
+    }
+
+    /**
+     * Immutable set of renders for one root, taken from the same ESA build. Text renders are
+     * gzip-compressed up front, on the refresh thread, so requests only pick a variant.
+     * A stale snapshot predates a Jira change and is served until its rebuild completes.
+     */
+    public static final class Snapshot {
+        private final String rootKey;
+        private final Instant renderedAt;
+        private final ESA esa;
+        private final CompressedContent esaJson;
+        private final CompressedContent svg;
+        private final CompressedContent png;
+        private final CompressedContent initiativesHtml;
+        private final boolean stale;
+
+        Snapshot(String rootKey, Instant renderedAt, ESA esa, CompressedContent esaJson, CompressedContent svg,
+                CompressedContent png, CompressedContent initiativesHtml) {
+            this(rootKey, renderedAt, esa, esaJson, svg, png, initiativesHtml, false);
+        }
+
+        private Snapshot(String rootKey, Instant renderedAt, ESA esa, CompressedContent esaJson, CompressedContent svg,
+                CompressedContent png, CompressedContent initiativesHtml, boolean stale) {
+            this.rootKey = rootKey;
+            this.renderedAt = renderedAt;
+            this.esa = esa;
+            this.esaJson = esaJson;
+            this.svg = svg;
+            this.png = png;
+            this.initiativesHtml = initiativesHtml;
+            this.stale = stale;
+        }
+
+        Snapshot markStale() {
+            return stale ? this : new Snapshot(rootKey, renderedAt, esa, esaJson, svg, png, initiativesHtml, true);
+        }
+
+        public String getRootKey() {
+            return rootKey;
+        }
+
+        public Instant getRenderedAt() {
+            return renderedAt;
+        }
+
+        public ESA getEsa() {
+            return esa;
+        }
+
+        public CompressedContent getEsaJson() {
+            return esaJson;
+        }
+
+        public CompressedContent getSvg() {
+            return svg;
+        }
+
+        public CompressedContent getPng() {
+            return png;
+        }
+
+        public CompressedContent getInitiativesHtml() {
+            return initiativesHtml;
+        }
+
+        public boolean isStale() {
+            return stale;
+        }
+    }
+}
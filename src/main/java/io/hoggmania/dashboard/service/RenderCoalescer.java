@@ -0,0 +1,137 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.concurrent.Callable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.RenderPlan;
+import io.hoggmania.dashboard.util.CanonicalJson;
+import io.hoggmania.dashboard.util.CompressedContent;
+import io.hoggmania.dashboard.util.LruCache;
+import io.hoggmania.dashboard.util.SingleFlight;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Renders dashboards so that identical concurrent requests cost one render.
+ *
+ * <p>Renders are keyed by the content hash of the canonical payload JSON (plus the DPI for
+ * PNG). While a render for a key is in flight, further requests for it wait for that result.
+ * Renders themselves are not kept. Response bodies requested through {@link #artifact} are kept in a
+ * small LRU cache together with their gzip variant, so repeated requests neither render nor
+ * compress again.
+ */
+@ApplicationScoped
+public class RenderCoalescer {
+
+    private final SingleFlight<String, String> svgFlights = new SingleFlight<>();
+    private final SingleFlight<String, byte[]> pngFlights = new SingleFlight<>();
+    private final SingleFlight<String, CompressedContent> artifactFlights = new SingleFlight<>();
+    private final LruCache<String, CompressedContent> artifacts;
+
+    @Inject
+    SvgService svgService;
+
+    @Inject
+    RenderPlanCompiler renderPlanCompiler;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    public RenderCoalescer(
+            @ConfigProperty(name = "dashboard.artifact-cache-entries", defaultValue = "64") int artifactCacheEntries) {
+        this.artifacts = new LruCache<>(Math.max(1, artifactCacheEntries));
+    }
+
+    /**
+     * Computes the render key of a payload.
+     *
+     * @param payload the ESA JSON
+     * @return the SHA-256 hex digest of the canonical JSON
+     */
+    public String contentHash(JsonNode payload) {
+        return CanonicalJson.sha256Hex(mapper, payload);
+    }
+
+    /**
+     * Renders the SVG of an ESA, sharing the render with concurrent callers for the same content.
+     *
+     * @param contentHash the content hash of the payload the ESA was read from
+     * @param esa the ESA model
+     * @return the SVG document
+     */
+    public String svg(String contentHash, ESA esa) {
+        return call(svgFlights, contentHash, () -> svgService.renderSvg(plan(contentHash, esa)));
+    }
+
+    /**
+     * Gets the compiled render plan of an ESA, compiling it at most once per content hash.
+     *
+     * @param contentHash the content hash of the payload the ESA was read from
+     * @param esa the ESA model
+     * @return the render plan
+     */
+    public RenderPlan plan(String contentHash, ESA esa) {
+        return renderPlanCompiler.compile(contentHash, esa);
+    }
+
+    /**
+     * Renders the PNG of an ESA, sharing the render with concurrent callers for the same content and DPI.
+     *
+     * @param contentHash the content hash of the payload the ESA was read from
+     * @param esa the ESA model
+     * @param dpi the output resolution
+     * @return the PNG bytes; shared, so callers must not modify them
+     */
+    public byte[] png(String contentHash, ESA esa, float dpi) {
+        return call(pngFlights, dpi + "|" + contentHash,
+                () -> svgService.renderPngFromSvg(svg(contentHash, esa), dpi));
+    }
+
+    /**
+     * Renders the SVG of an ESA as a cacheable response body.
+     *
+     * @param contentHash the content hash of the payload the ESA was read from
+     * @param esa the ESA model
+     * @return the SVG with its gzip variant
+     */
+    public CompressedContent svgContent(String contentHash, ESA esa) {
+        return artifact("svg", contentHash, () -> CompressedContent.of(svg(contentHash, esa)));
+    }
+
+    /**
+     * Gets a response body rendered from a payload, rendering it on the first request only.
+     *
+     * @param kind what the body is, e.g. {@code "initiatives"}; part of the cache key
+     * @param contentHash the content hash of the payload
+     * @param render renders the body on a cache miss
+     * @return the cached body
+     */
+    public CompressedContent artifact(String kind, String contentHash, Callable<CompressedContent> render) {
+        String key = kind + "|" + contentHash;
+        CompressedContent cached = artifacts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return call(artifactFlights, key, () -> {
+            CompressedContent content = render.call();
+            artifacts.put(key, content);
+            return content;
+        });
+    }
+
+    private static <T> T call(SingleFlight<String, T> flights, String key, Callable<T> work) {
+        try {
+            return flights.run(key, work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Render failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,1038 @@
+package io.hoggmania.dashboard.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import io.hoggmania.dashboard.config.DashboardLayoutConfig;
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.Capabilities;
+import io.hoggmania.dashboard.model.ComponentInitiative;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.Domain;
+import io.hoggmania.dashboard.model.DomainGroup;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.Governance;
+import io.hoggmania.dashboard.model.InitiativeRow;
+import io.hoggmania.dashboard.model.RenderItem;
+import io.hoggmania.dashboard.model.RenderPlan;
+import io.hoggmania.dashboard.util.ColorPalette;
+import io.hoggmania.dashboard.util.InitiativeAnchor;
+import io.hoggmania.dashboard.util.LinkText;
+import io.hoggmania.dashboard.util.LruCache;
+import io.hoggmania.dashboard.util.SingleFlight;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Compiles ESA models into {@link RenderPlan}s: validates the model with {@link ESA#validateESA},
+ * then lays out the governance row and domain columns, wraps and escapes text, builds the initiative
+ * badge gradients and collects the initiative rows in a single pass over the model.
+ *
+ * <p>Every output (SVG, PNG, preview, initiatives page) is written from a plan. Plans compiled
+ * for a content hash are cached, and concurrent compiles of the same payload share one pass.
+ *
+ * <p>Domains are packed into columns greedily by default. With {@code dashboard.layout.packing=compact}
+ * the compiler also tries other column heights and row breaks and keeps the layout with the lowest
+ * canvas; see {@link #packCompact}.
+ *
+ * <p>Component names, capabilities and domain labels recur across payloads and renders, so their
+ * parsed link, wrapped lines and escaping are memoised per raw value in small LRU caches.
+ */
+@ApplicationScoped
+public class RenderPlanCompiler {
+
+    private static final DateTimeFormatter TARGET_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MMM/yy", Locale.UK);
+    private static final DateTimeFormatter[] INPUT_DATE_FORMATS = new DateTimeFormatter[] {
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("d/M/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.UK)
+    };
+
+    static final String PACKING_GREEDY = "greedy";
+    static final String PACKING_COMPACT = "compact";
+
+    private final LruCache<String, RenderPlan> plans;
+    private final SingleFlight<String, RenderPlan> compiles = new SingleFlight<>();
+    private final boolean compactPacking;
+    private final int packingBudget;
+    private final LruCache<String, TextBlock> names;
+    private final LruCache<String, TextBlock> capabilityTexts;
+    private final LruCache<String, TextBlock> labels;
+
+    /**
+     * Creates a compiler with greedy domain packing.
+     *
+     * @param planCacheEntries number of compiled plans to keep
+     */
+    public RenderPlanCompiler(int planCacheEntries) {
+        this(planCacheEntries, PACKING_GREEDY, 0, 4096);
+    }
+
+    @Inject
+    public RenderPlanCompiler(
+            @ConfigProperty(name = "dashboard.plan-cache-entries", defaultValue = "128") int planCacheEntries,
+            @ConfigProperty(name = "dashboard.layout.packing", defaultValue = PACKING_GREEDY) String packing,
+            @ConfigProperty(name = "dashboard.layout.packing-budget", defaultValue = "200000") int packingBudget,
+            @ConfigProperty(name = "dashboard.text-cache-entries", defaultValue = "4096") int textCacheEntries) {
+        this.plans = new LruCache<>(Math.max(1, planCacheEntries));
+        this.compactPacking = PACKING_COMPACT.equalsIgnoreCase(packing != null ? packing.trim() : null);
+        this.packingBudget = Math.max(1, packingBudget);
+        this.names = new LruCache<>(Math.max(1, textCacheEntries));
+        this.capabilityTexts = new LruCache<>(Math.max(1, textCacheEntries));
+        this.labels = new LruCache<>(Math.max(1, textCacheEntries));
+    }
+
+    /**
+     * Compiles a payload, reusing the plan compiled earlier for the same content.
+     *
+     * @param contentHash the content hash of the payload the ESA was read from
+     * @param root the ESA model
+     * @return the render plan
+     * @throws ValidationException if the ESA model is invalid
+     */
+    public RenderPlan compile(String contentHash, ESA root) {
+        RenderPlan cached = plans.get(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return compiles.run(contentHash, () -> {
+                RenderPlan plan = compile(root);
+                plans.put(contentHash, plan);
+                return plan;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Render plan could not be compiled", e);
+        }
+    }
+
+    /**
+     * Compiles an ESA model without caching.
+     *
+     * @param root the ESA model
+     * @return the render plan
+     * @throws ValidationException if the ESA model is invalid
+     */
+    public RenderPlan compile(ESA root) {
+        ESA.validateESA(root);
+        Log.debugf("Compiling %s", root);
+        // Layout constants from config
+        final int maxDomainColumnsPerRow = DashboardLayoutConfig.MAX_DOMAIN_COLUMNS_PER_ROW;
+        final float gapX = DashboardLayoutConfig.GAP_X;
+        final float gapY = DashboardLayoutConfig.GAP_Y;
+        final float canvasWidth = DashboardLayoutConfig.DEFAULT_CANVAS_WIDTH;
+        final float leftMargin = DashboardLayoutConfig.LEFT_MARGIN;
+        final float rightLimit = canvasWidth - leftMargin;
+        final float domainStartX = DashboardLayoutConfig.DOMAIN_START_X;
+        final float boxW = DashboardLayoutConfig.calculateBoxWidth(canvasWidth, leftMargin, domainStartX, maxDomainColumnsPerRow);
+        final float boxH = DashboardLayoutConfig.BOX_HEIGHT;
+        final float headerOffset = DashboardLayoutConfig.HEADER_OFFSET;
+        final float headerHeight = DashboardLayoutConfig.HEADER_HEIGHT;
+        final float rowGapY = DashboardLayoutConfig.ROW_GAP_Y;
+        final float spaceW = DashboardLayoutConfig.calculateSpaceWidth(boxW);
+        final float governanceHeaderY = DashboardLayoutConfig.GOVERNANCE_HEADER_Y;
+        final float governanceHeaderHeight = DashboardLayoutConfig.GOVERNANCE_HEADER_HEIGHT;
+        final float governanceHeaderToRowGap = DashboardLayoutConfig.GOVERNANCE_HEADER_TO_ROW_GAP;
+        final float governanceRowGap = DashboardLayoutConfig.GOVERNANCE_ROW_GAP;
+        final float governanceToCapabilitiesGap = DashboardLayoutConfig.GOVERNANCE_TO_CAPABILITIES_GAP;
+        final float capabilitiesHeaderToDomainsGap = DashboardLayoutConfig.CAPABILITIES_HEADER_TO_DOMAINS_GAP;
+        final int maxRowsPerColumn = DashboardLayoutConfig.MAX_ROWS_PER_COLUMN;
+        final float domainSectionGap = DashboardLayoutConfig.DOMAIN_SECTION_GAP;
+        final float textLeftX = DashboardLayoutConfig.TEXT_LEFT_X;
+        final float textCenterX = boxW / 2f;
+        final float iconPosX = boxW - DashboardLayoutConfig.ICON_POS_X_OFFSET;
+
+        LinkText titleLink = LinkText.parse(root.title);
+        String title = sanitizeNullable(titleLink.text);
+        Gradients gradients = new Gradients();
+        java.util.List<InitiativeRow> initiativeRows = new java.util.ArrayList<>();
+        float domainStartY = 230f;
+        float capabilitiesHeaderY = 155f;
+        float capabilitiesHeaderTextY = capabilitiesHeaderY + DashboardLayoutConfig.SECTION_TEXT_OFFSET_Y;
+        float capabilitiesIconY = capabilitiesHeaderY + DashboardLayoutConfig.SECTION_ICON_OFFSET_Y;
+        float governanceContentBottom = governanceHeaderY + governanceHeaderHeight + governanceHeaderToRowGap + boxH;
+
+        // Governance items (horizontal row)
+        java.util.List<RenderItem> governanceItems = new java.util.ArrayList<>();
+        Governance gov = root.governance;
+        LinkText govTitleLink = LinkText.parse(gov != null ? gov.title : null);
+        String govTitle = gov != null ? sanitizeNullable(govTitleLink.text) : null;
+        String govTitleHref = govTitleLink.href;
+        if (gov != null && gov.components != null) {
+            float govStartX = 20f;
+            float govCurrentX = govStartX;
+            float govRowTopY = governanceHeaderY + governanceHeaderHeight + governanceHeaderToRowGap;
+            float govRowBottom = govRowTopY + boxH;
+            boolean hasGovItems = false;
+            String governanceLabel = safeText(gov.title, "Governance");
+            for (int i = 0; i < gov.components.size(); i++) {
+                ComponentItem comp = gov.components.get(i);
+                addComponentInitiatives(initiativeRows, governanceLabel, comp);
+                if (govCurrentX + boxW > rightLimit) {
+                    govRowTopY = govRowBottom + governanceRowGap;
+                    govRowBottom = govRowTopY + boxH;
+                    govCurrentX = govStartX;
+                }
+                float x = govCurrentX;
+                float y = govRowTopY;
+                String border = "#333";
+                if (comp.rag != null && "red".equalsIgnoreCase(comp.rag)) border = "red";
+
+                // Determine icon
+                String iconKey = comp.icon;
+                String iconId = (iconKey != null && !iconKey.isBlank()) ? ("icon-" + iconKey.trim()) : null;
+
+                TextBlock nameText = nameText(comp.name);
+                TextBlock capabilityText = capabilityText(comp.capability);
+                governanceItems.add(new RenderItem(
+                    x, y,
+                    nameText.text,
+                    capabilityText.text,
+                    govTitle != null ? govTitle : "",
+                    comp.status.hex,
+                    comp.maturity.hex,
+                    border,
+                    comp.doubleBorder,
+                    iconId
+                ));
+                RenderItem lastGov = governanceItems.get(governanceItems.size()-1);
+                lastGov.elementId = SvgService.COMPONENT_ID_PREFIX + "gov_" + i;
+                lastGov.initiatives = comp.initiatives;
+                lastGov.showInitiatives = lastGov.initiatives > 0;
+                lastGov.nameLines = nameText.lines;
+                lastGov.capabilityLines = capabilityText.lines;
+                lastGov.nameHref = nameText.href;
+                lastGov.capabilityHref = capabilityText.href;
+                lastGov.initiativeHref = resolveInitiativeHref(comp);
+                lastGov.initiativeNewTab = isExternalLink(lastGov.initiativeHref);
+                lastGov.initiativeStroke = computeInitiativeStroke(comp, gradients);
+                configureTextLayout(lastGov, textCenterX, textLeftX, iconPosX);
+
+                govCurrentX += boxW + gapX;
+                govRowBottom = Math.max(govRowBottom, y + boxH);
+                hasGovItems = true;
+            }
+            if (hasGovItems) {
+                governanceContentBottom = govRowBottom;
+            }
+        }
+
+        if (gov == null) {
+            // No governance section at all (e.g. a capabilities subset): capabilities move up to its place
+            governanceContentBottom = governanceHeaderY - governanceToCapabilitiesGap;
+        }
+        capabilitiesHeaderY = governanceContentBottom + governanceToCapabilitiesGap;
+        capabilitiesHeaderTextY = capabilitiesHeaderY + DashboardLayoutConfig.SECTION_TEXT_OFFSET_Y;
+        capabilitiesIconY = capabilitiesHeaderY + DashboardLayoutConfig.SECTION_ICON_OFFSET_Y;
+        domainStartY = capabilitiesHeaderY + capabilitiesHeaderToDomainsGap;
+
+        // Capabilities domains (columns)
+        java.util.List<DomainGroup> domainGroups = new java.util.ArrayList<>();
+        Capabilities capabilities = root.capabilities;
+        LinkText capabilitiesTitleLink = LinkText.parse(capabilities != null ? capabilities.title : null);
+        String capabilitiesTitle = capabilities != null ? sanitizeNullable(capabilitiesTitleLink.text) : null;
+        String capabilitiesTitleHref = capabilitiesTitleLink.href;
+        java.util.List<Domain> domains = capabilities != null ? capabilities.domains : null;
+        int legendY = 0;
+        if (domains != null) {
+            java.util.List<DomainColumnLayout> columns = buildDomainColumns(domains, boxW, spaceW, maxRowsPerColumn, initiativeRows);
+            if (compactPacking) {
+                Packing packing = new Packing(boxW, spaceW, gapX, rightLimit - domainStartX, maxDomainColumnsPerRow,
+                        maxRowsPerColumn, boxH + gapY, gapY, domainSectionGap, rowGapY, packingBudget);
+                columns = packCompact(domains, columns, packing);
+            }
+            float currentX = domainStartX;
+            float rowTopY = domainStartY;
+            float rowBottomY = rowTopY;
+            int columnsInRow = 0;
+            java.util.Map<String, HeaderSpan> headerSpans = new java.util.HashMap<>();
+            for (DomainColumnLayout column : columns) {
+                float columnWidth = column.spacer ? column.width : boxW;
+                if ((column.newRow && columnsInRow > 0) || columnsInRow >= maxDomainColumnsPerRow
+                        || currentX + columnWidth > rightLimit) {
+                    rowTopY = rowBottomY + rowGapY;
+                    rowBottomY = rowTopY;
+                    currentX = domainStartX;
+                    columnsInRow = 0;
+                }
+
+                if (column.spacer) {
+                    currentX += columnWidth + gapX;
+                    columnsInRow++;
+                    continue;
+                }
+
+                float sectionStartY = rowTopY;
+                float columnBottom = rowTopY;
+
+                for (DomainSectionChunk section : column.sections) {
+                    java.util.List<RenderItem> domainItems = new java.util.ArrayList<>();
+                    java.util.List<ComponentItem> comps = section.components;
+                    for (int compIdx = 0; compIdx < comps.size(); compIdx++) {
+                        var comp = comps.get(compIdx);
+                        float y = sectionStartY + compIdx * (boxH + gapY);
+
+                        String border = "#333";
+                        if (comp.rag != null && "red".equalsIgnoreCase(comp.rag)) border = "red";
+
+                        String iconKey2 = comp.icon;
+                        String iconId2 = (iconKey2 != null && !iconKey2.isBlank()) ? ("icon-" + iconKey2.trim()) : null;
+
+                        TextBlock nameText = nameText(comp.name);
+                        TextBlock capabilityText = capabilityText(comp.capability);
+                        domainItems.add(new RenderItem(
+                            currentX, y,
+                            nameText.text,
+                            capabilityText.text,
+                            section.domainName,
+                            comp.status.hex,
+                            comp.maturity.hex,
+                            border,
+                            comp.doubleBorder,
+                            iconId2
+                        ));
+
+                        RenderItem lastDomainItem = domainItems.get(domainItems.size()-1);
+                        lastDomainItem.elementId = SvgService.COMPONENT_ID_PREFIX + "dom_" + domainGroups.size() + "_" + compIdx;
+                        lastDomainItem.initiatives = comp.initiatives;
+                        lastDomainItem.showInitiatives = lastDomainItem.initiatives > 0;
+                        lastDomainItem.nameLines = nameText.lines;
+                        lastDomainItem.capabilityLines = capabilityText.lines;
+                        lastDomainItem.nameHref = nameText.href;
+                        lastDomainItem.capabilityHref = capabilityText.href;
+                        lastDomainItem.initiativeHref = resolveInitiativeHref(comp);
+                        lastDomainItem.initiativeNewTab = isExternalLink(lastDomainItem.initiativeHref);
+                        lastDomainItem.initiativeStroke = computeInitiativeStroke(comp, gradients);
+                        configureTextLayout(lastDomainItem, textCenterX, textLeftX, iconPosX);
+                    }
+
+                    TextBlock domainLink = domainLabel(section.domainName);
+                    DomainGroup group = new DomainGroup(domainLink.text, section.iconId, domainItems);
+                    group.domainHref = domainLink.href;
+                    group.headerX = currentX;
+                    group.headerY = sectionStartY - headerOffset;
+                    group.headerTextY = group.headerY + DashboardLayoutConfig.DOMAIN_HEADER_TEXT_OFFSET_Y;
+                    group.headerIconY = group.headerY + DashboardLayoutConfig.SECTION_ICON_OFFSET_Y;
+                    group.headerWidth = columnWidth;
+                    group.headerTextX = columnWidth / 2f;
+                    group.showHeader = true;
+
+                    String headerKey = section.domainName + "@" + (int) rowTopY;
+                    HeaderSpan span = headerSpans.get(headerKey);
+                    if (span == null) {
+                        span = new HeaderSpan();
+                        span.startX = currentX;
+                        span.rowY = group.headerY;
+                        span.width = columnWidth;
+                        span.primaryGroup = group;
+                        headerSpans.put(headerKey, span);
+                    } else {
+                        span.width = (currentX + columnWidth) - span.startX;
+                        group.showHeader = false;
+                        group.headerWidth = 0;
+                        group.headerTextX = 0;
+                        if (span.primaryGroup != null) {
+                            span.primaryGroup.headerWidth = span.width;
+                            span.primaryGroup.headerTextX = span.width / 2f;
+                        }
+                    }
+
+                    domainGroups.add(group);
+
+                    if (!comps.isEmpty()) {
+                        float lastY = sectionStartY + (comps.size() - 1) * (boxH + gapY);
+                        float sectionBottom = lastY + boxH;
+                        columnBottom = Math.max(columnBottom, sectionBottom);
+                        sectionStartY = sectionBottom + domainSectionGap;
+                    }
+                }
+
+                rowBottomY = Math.max(rowBottomY, columnBottom);
+                currentX += columnWidth + gapX;
+                columnsInRow++;
+            }
+
+            float legendStartY = rowBottomY + DashboardLayoutConfig.LEGEND_TOP_MARGIN;
+            legendY = (int) legendStartY;
+        } else if (capabilities == null) {
+            // No capabilities section at all (e.g. a governance subset): the legend follows governance
+            legendY = (int) (governanceContentBottom + DashboardLayoutConfig.LEGEND_TOP_MARGIN);
+        } else {
+            legendY = (int) (domainStartY + DashboardLayoutConfig.LEGEND_TOP_MARGIN);
+        }
+
+        // Compute legend position defaults to below first row when no domains exist
+        if (legendY == 0) {
+            legendY = (int)(domainStartY + DashboardLayoutConfig.LEGEND_TOP_MARGIN);
+        }
+
+        return new RenderPlan(
+            new RenderPlan.Header(title, titleLink.href,
+                (root.icon != null && !root.icon.isBlank()) ? ("icon-" + root.icon.trim()) : null),
+            gov != null ? new RenderPlan.Header(govTitle, govTitleHref, null) : null,
+            capabilities != null ? new RenderPlan.Header(capabilitiesTitle, capabilitiesTitleHref,
+                (capabilities.icon != null && !capabilities.icon.isBlank()) ? ("icon-" + capabilities.icon.trim()) : null) : null,
+            safeText(root.title, "Initiatives Overview"),
+            governanceItems,
+            domainGroups,
+            gradients.initiatives,
+            referencedIcons(root, governanceItems, domainGroups),
+            initiativeRows,
+            capabilitiesHeaderY,
+            boxW,
+            legendY);
+    }
+
+    private void addComponentInitiatives(java.util.List<InitiativeRow> rows, String capabilityLabel, ComponentItem component) {
+        if (component.initiativeDetails == null || component.initiativeDetails.isEmpty()) {
+            return;
+        }
+        String componentLabel = safeText(component.name, component.capability, "Component");
+        String componentCapability = safeText(component.capability, "Capability");
+        String statusColor = component.status.hex;
+        String maturityColor = component.maturity.hex;
+        for (ComponentInitiative initiative : component.initiativeDetails) {
+            if (initiative == null) {
+                continue;
+            }
+            rows.add(buildRow(capabilityLabel, componentLabel, componentCapability, initiative, statusColor, maturityColor));
+        }
+    }
+
+    private InitiativeRow buildRow(String capabilityLabel, String componentLabel, String componentCapability, ComponentInitiative initiative,
+            String statusColor, String maturityColor) {
+        String key = StringUtils.firstNonBlank(initiative.key, "TBC");
+        String rag = StringUtils.firstNonBlank(initiative.rag, "");
+        return new InitiativeRow(
+                capabilityLabel,
+                componentLabel,
+                key,
+                StringUtils.blankToNull(initiative.link),
+                InitiativeAnchor.toAnchorId(key),
+                rag.toUpperCase(Locale.ENGLISH),
+                ColorPalette.getRagColor(rag),
+                StringUtils.firstNonBlank(initiative.summary, ""),
+                StringUtils.firstNonBlank(initiative.businessBenefit, ""),
+                StringUtils.firstNonBlank(initiative.riskAppetite, ""),
+                StringUtils.firstNonBlank(initiative.toolId, "In-Demand"),
+                formatDate(initiative.dueDate),
+                statusColor,
+                maturityColor,
+                componentCapability
+        );
+    }
+
+    private String formatDate(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return "";
+        }
+        String trimmed = raw.trim();
+        for (DateTimeFormatter parser : INPUT_DATE_FORMATS) {
+            try {
+                LocalDate date = LocalDate.parse(trimmed, parser);
+                return TARGET_DATE_FORMAT.format(date);
+            } catch (DateTimeParseException ignored) {
+                // try next pattern
+            }
+        }
+        return trimmed;
+    }
+
+    private String safeText(String primary, String fallback) {
+        return safeText(primary, null, fallback);
+    }
+
+    private String safeText(String primary, String secondary, String fallback) {
+        if (primary != null && !primary.isBlank()) {
+            return primary.trim();
+        }
+        if (secondary != null && !secondary.isBlank()) {
+            return secondary.trim();
+        }
+        return fallback;
+    }
+
+    private void configureTextLayout(RenderItem item, float textCenterX, float textLeftX, float iconPosX) {
+        boolean hasDecorations = item.showInitiatives || (item.iconId != null && !item.iconId.isBlank());
+        item.textAnchor = hasDecorations ? "start" : "middle";
+        item.textX = hasDecorations ? textLeftX : textCenterX;
+        item.iconX = iconPosX;
+    }
+
+    private String computeInitiativeStroke(ComponentItem comp, Gradients gradients) {
+        if (comp == null || comp.initiatives <= 0) {
+            return "#FFFFFF";
+        }
+        String rag = comp.iRag;
+        if (rag == null) {
+            return "#FFFFFF";
+        }
+        String normalized = rag.replaceAll("[^RAGrag]", "").toUpperCase();
+        if (normalized.isEmpty()) {
+            return "#FFFFFF";
+        }
+        return "url(#" + gradients.initiative(normalized) + ")";
+    }
+
+    private static java.util.List<String> referencedIcons(ESA root, java.util.List<RenderItem> governanceItems,
+            java.util.List<DomainGroup> domainGroups) {
+        java.util.Set<String> ids = new java.util.LinkedHashSet<>();
+        if (root.icon != null && !root.icon.isBlank()) {
+            ids.add("icon-" + root.icon.trim());
+        }
+        for (RenderItem item : governanceItems) {
+            addIcon(ids, item.iconId);
+        }
+        if (root.capabilities != null && root.capabilities.icon != null && !root.capabilities.icon.isBlank()) {
+            ids.add("icon-" + root.capabilities.icon.trim());
+        }
+        for (DomainGroup group : domainGroups) {
+            if (!group.items.isEmpty() && group.showHeader) {
+                addIcon(ids, group.icon);
+            }
+            for (RenderItem item : group.items) {
+                addIcon(ids, item.iconId);
+            }
+        }
+        return new java.util.ArrayList<>(ids);
+    }
+
+    private static void addIcon(java.util.Set<String> ids, String iconId) {
+        if (iconId != null) {
+            ids.add(iconId);
+        }
+    }
+
+    private String resolveInitiativeHref(ComponentItem comp) {
+        if (comp == null || comp.initiativeDetails == null || comp.initiativeDetails.isEmpty()) {
+            return null;
+        }
+        String key = comp.initiativeDetails.get(0) != null ? comp.initiativeDetails.get(0).key : null;
+        String anchorId = InitiativeAnchor.toAnchorId(key);
+        return anchorId == null ? null : ("#" + anchorId);
+    }
+
+    private boolean isExternalLink(String href) {
+        if (href == null || href.isBlank()) {
+            return false;
+        }
+        return !href.trim().startsWith("#");
+    }
+
+    private String colorForInitiativeRag(char c) {
+        return ColorPalette.getInitiativeRagColor(c);
+    }
+
+    private java.util.List<DomainColumnLayout> buildDomainColumns(java.util.List<Domain> domains, float boxWidth, float spaceWidth, int maxRowsPerColumn,
+            java.util.List<InitiativeRow> initiativeRows) {
+        java.util.List<DomainColumnLayout> columns = new java.util.ArrayList<>();
+        for (Domain domain : domains) {
+            if (domain.components != null) {
+                String capabilityLabel = safeText(domain.domain, "Capability");
+                for (ComponentItem comp : domain.components) {
+                    addComponentInitiatives(initiativeRows, capabilityLabel, comp);
+                }
+            }
+            String domainName = domain.domain != null ? domain.domain : "Domain";
+            if ("SPACE".equalsIgnoreCase(domainName)) {
+                columns.add(DomainColumnLayout.spacer(spaceWidth));
+                continue;
+            }
+            java.util.List<ComponentItem> components = domain.components;
+            int originalSize = components != null ? components.size() : 0;
+            boolean domainIsSmall = originalSize > 0 && originalSize <= 3;
+            java.util.List<DomainSectionChunk> chunks = splitDomainIntoChunks(domainName, domain.icon, components, maxRowsPerColumn);
+            for (DomainSectionChunk chunk : chunks) {
+                int rows = chunk.size();
+                if (rows == 0) continue;
+                boolean isSmall = domainIsSmall && rows <= 3;
+                DomainColumnLayout target = columns.isEmpty() ? null : columns.get(columns.size() - 1);
+                if (isSmall && target != null && target.canAcceptSmall(rows, maxRowsPerColumn)) {
+                    target.sections.add(chunk);
+                    target.rowsUsed += rows;
+                } else {
+                    DomainColumnLayout newCol = DomainColumnLayout.normal(boxWidth, isSmall);
+                    newCol.sections.add(chunk);
+                    newCol.rowsUsed = rows;
+                    columns.add(newCol);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private java.util.List<DomainSectionChunk> splitDomainIntoChunks(String domainName, String icon, java.util.List<ComponentItem> components, int maxRowsPerColumn) {
+        java.util.List<DomainSectionChunk> chunks = new java.util.ArrayList<>();
+        if (components == null || components.isEmpty()) {
+            return chunks;
+        }
+        String iconId = (icon != null && !icon.isBlank()) ? ("icon-" + icon.trim()) : null;
+        int total = components.size();
+        if (total <= maxRowsPerColumn) {
+            chunks.add(new DomainSectionChunk(domainName, iconId, new java.util.ArrayList<>(components)));
+            return chunks;
+        }
+        int firstChunk = (int) Math.ceil(total / 2.0);
+        firstChunk = Math.min(firstChunk, maxRowsPerColumn);
+        chunks.add(new DomainSectionChunk(domainName, iconId, new java.util.ArrayList<>(components.subList(0, firstChunk))));
+        int index = firstChunk;
+        int remaining = total - firstChunk;
+        while (remaining > 0) {
+            int chunkSize = Math.min(maxRowsPerColumn, remaining);
+            chunks.add(new DomainSectionChunk(domainName, iconId, new java.util.ArrayList<>(components.subList(index, index + chunkSize))));
+            index += chunkSize;
+            remaining -= chunkSize;
+        }
+        return chunks;
+    }
+
+    /**
+     * Looks for a lower packing than the greedy {@code columns}. Candidates are the greedy columns
+     * and, for each column height from {@code 2 * maxRowsPerColumn} slots down to one, columns filled
+     * up to that height, once stacking only small domains (as the greedy packer does) and once
+     * stacking any domain that fits. Large domains are split into balanced chunks instead of halves.
+     * Each candidate gets the row breaks that minimise its total height, so a row may end early when
+     * that lets tall columns share a row. Domain order is kept, and a domain only starts below
+     * another one when it fits there whole.
+     *
+     * <p>The search stops once the work budget ({@code dashboard.layout.packing-budget}, counted in
+     * columns placed and row-break steps) is spent and keeps the best layout found. The budget is not
+     * wall-clock time, so a payload always packs the same way. The result is never taller than the
+     * greedy layout, which is kept on ties.
+     */
+    private java.util.List<DomainColumnLayout> packCompact(java.util.List<Domain> domains,
+            java.util.List<DomainColumnLayout> greedy, Packing packing) {
+        float greedyHeight = greedyRowsHeight(greedy, packing);
+        java.util.List<DomainColumnLayout> best = greedy;
+        RowBreaks bestBreaks = breakRows(greedy, packing);
+        float bestHeight = Math.min(greedyHeight, bestBreaks.height);
+        for (int stacking = 0; stacking < 2 && packing.budget > 0; stacking++) {
+            boolean stackAny = stacking == 1;
+            for (int target = 2 * packing.maxRowsPerColumn; target >= 1 && packing.budget > 0; target--) {
+                java.util.List<DomainColumnLayout> candidate = fillColumns(domains, target, stackAny, packing);
+                RowBreaks breaks = breakRows(candidate, packing);
+                if (breaks.height < bestHeight - 0.5f) {
+                    best = candidate;
+                    bestBreaks = breaks;
+                    bestHeight = breaks.height;
+                }
+            }
+        }
+        if (best == greedy && greedyHeight <= bestBreaks.height + 0.5f) {
+            return greedy;
+        }
+        for (int i = 0; i < best.size(); i++) {
+            best.get(i).newRow = bestBreaks.newRow[i];
+        }
+        Log.debugf("Compact packing: domain area %.0f px high instead of %.0f px", bestHeight, greedyHeight);
+        return best;
+    }
+
+    private java.util.List<DomainColumnLayout> fillColumns(java.util.List<Domain> domains, int target, boolean stackAny,
+            Packing packing) {
+        int capacity = Math.min(target, packing.maxRowsPerColumn);
+        java.util.List<DomainColumnLayout> columns = new java.util.ArrayList<>();
+        for (Domain domain : domains) {
+            String domainName = domain.domain != null ? domain.domain : "Domain";
+            if ("SPACE".equalsIgnoreCase(domainName)) {
+                columns.add(DomainColumnLayout.spacer(packing.spaceWidth));
+                continue;
+            }
+            java.util.List<ComponentItem> components = domain.components;
+            int total = components != null ? components.size() : 0;
+            if (total == 0) {
+                continue;
+            }
+            String iconId = (domain.icon != null && !domain.icon.isBlank()) ? ("icon-" + domain.icon.trim()) : null;
+            boolean small = total <= 3;
+            DomainColumnLayout last = columns.isEmpty() ? null : columns.get(columns.size() - 1);
+            if (last != null && !last.spacer && (stackAny || (small && last.smallOnly))
+                    && last.rowsUsed + total <= packing.maxRowsPerColumn && last.slots() + 1 + total <= target) {
+                last.sections.add(new DomainSectionChunk(domainName, iconId, new java.util.ArrayList<>(components)));
+                last.rowsUsed += total;
+                packing.budget--;
+                continue;
+            }
+            int pieces = (total + capacity - 1) / capacity;
+            int base = total / pieces;
+            int extra = total % pieces;
+            int index = 0;
+            for (int piece = 0; piece < pieces; piece++) {
+                int size = base + (piece < extra ? 1 : 0);
+                DomainColumnLayout column = DomainColumnLayout.normal(packing.boxWidth, small);
+                column.sections.add(new DomainSectionChunk(domainName, iconId,
+                        new java.util.ArrayList<>(components.subList(index, index + size))));
+                column.rowsUsed = size;
+                columns.add(column);
+                index += size;
+            }
+            packing.budget -= pieces;
+        }
+        return columns;
+    }
+
+    /** Height of the domain area when rows are filled greedily, as the layout loop does by default. */
+    private static float greedyRowsHeight(java.util.List<DomainColumnLayout> columns, Packing packing) {
+        float total = 0f;
+        float rowHeight = 0f;
+        float x = 0f;
+        int inRow = 0;
+        for (DomainColumnLayout column : columns) {
+            float width = packing.width(column);
+            if (inRow >= packing.maxColumnsPerRow || x + width > packing.rowWidth) {
+                total += rowHeight + packing.rowGap;
+                rowHeight = 0f;
+                x = 0f;
+                inRow = 0;
+            }
+            rowHeight = Math.max(rowHeight, packing.height(column));
+            x += width + packing.gapX;
+            inRow++;
+        }
+        return total + rowHeight;
+    }
+
+    /**
+     * Chooses where rows start so that the summed row heights plus row gaps are lowest. Dynamic
+     * programming over the column sequence; on ties the longer row wins.
+     */
+    private static RowBreaks breakRows(java.util.List<DomainColumnLayout> columns, Packing packing) {
+        int n = columns.size();
+        float[] height = new float[n];
+        float[] width = new float[n];
+        for (int i = 0; i < n; i++) {
+            height[i] = packing.height(columns.get(i));
+            width[i] = packing.width(columns.get(i));
+        }
+        float[] best = new float[n + 1];
+        int[] rowEnd = new int[n + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            best[i] = Float.MAX_VALUE;
+            float rowHeight = 0f;
+            float x = 0f;
+            for (int j = i; j < n && j - i < packing.maxColumnsPerRow; j++) {
+                if (j > i && x + width[j] > packing.rowWidth) {
+                    break;
+                }
+                x += width[j] + packing.gapX;
+                rowHeight = Math.max(rowHeight, height[j]);
+                float cost = rowHeight + (j + 1 < n ? packing.rowGap + best[j + 1] : 0f);
+                if (cost <= best[i]) {
+                    best[i] = cost;
+                    rowEnd[i] = j + 1;
+                }
+            }
+            packing.budget -= Math.min(n - i, packing.maxColumnsPerRow);
+        }
+        boolean[] newRow = new boolean[n];
+        for (int i = 0; i < n; i = rowEnd[i]) {
+            newRow[i] = true;
+        }
+        return new RowBreaks(newRow, n == 0 ? 0f : best[0]);
+    }
+
+    /**
+     * Gets the name of a component without its link, wrapped and escaped for SVG.
+     */
+    private TextBlock nameText(String raw) {
+        return wrappedText(names, raw != null ? raw : "", DashboardLayoutConfig.NAME_CHARS_PER_LINE,
+                DashboardLayoutConfig.MAX_NAME_LINES);
+    }
+
+    /**
+     * Gets the capability of a component without its link, wrapped and escaped for SVG.
+     */
+    private TextBlock capabilityText(String raw) {
+        return wrappedText(capabilityTexts, raw != null ? raw : "", DashboardLayoutConfig.CAPABILITY_CHARS_PER_LINE,
+                DashboardLayoutConfig.MAX_CAPABILITY_LINES);
+    }
+
+    private TextBlock wrappedText(LruCache<String, TextBlock> cache, String raw, int maxCharsPerLine, int maxLines) {
+        TextBlock cached = cache.get(raw);
+        if (cached != null) {
+            return cached;
+        }
+        LinkText link = LinkText.parse(raw);
+        String text = link.text != null ? link.text : "";
+        TextBlock block = new TextBlock(text, link.href,
+                java.util.Collections.unmodifiableList(escapeLines(wrapText(text, maxCharsPerLine, maxLines))));
+        cache.put(raw, block);
+        return block;
+    }
+
+    /**
+     * Gets a domain label without its link; {@link TextBlock#text} is escaped for SVG.
+     */
+    private TextBlock domainLabel(String raw) {
+        TextBlock cached = labels.get(raw);
+        if (cached != null) {
+            return cached;
+        }
+        LinkText link = LinkText.parse(raw);
+        String label = sanitizeNullable(link.text);
+        TextBlock block = new TextBlock(label != null ? label : "", link.href, null);
+        labels.put(raw, block);
+        return block;
+    }
+
+    /**
+     * Wraps text at word boundaries. Words are separated by ASCII whitespace; a word longer than a
+     * line is cut, and the last line gets an ellipsis when text is left over.
+     */
+    private java.util.List<String> wrapText(String value, int maxCharsPerLine, int maxLines) {
+        if (value == null || value.isBlank()) {
+            return java.util.Collections.singletonList("");
+        }
+        int safeMaxLines = Math.max(1, maxLines);
+        int safeMaxChars = Math.max(1, maxCharsPerLine);
+        String text = value.trim();
+        int length = text.length();
+        java.util.List<String> lines = new java.util.ArrayList<>(safeMaxLines);
+        StringBuilder current = new StringBuilder(safeMaxChars);
+        int wordStart = 0;
+        while (wordStart < length) {
+            int wordEnd = wordStart;
+            while (wordEnd < length && !isSpace(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            int wordLength = wordEnd - wordStart;
+            int candidateLength = current.length() == 0 ? wordLength : current.length() + 1 + wordLength;
+            if (candidateLength <= safeMaxChars) {
+                if (current.length() > 0) {
+                    current.append(' ');
+                }
+                current.append(text, wordStart, wordEnd);
+                wordStart = skipSpaces(text, wordEnd);
+            } else {
+                if (current.length() == 0) {
+                    current.append(text, wordStart, wordStart + Math.min(safeMaxChars, wordLength));
+                    wordStart = skipSpaces(text, wordEnd);
+                }
+                lines.add(current.toString());
+                current.setLength(0);
+                if (lines.size() == safeMaxLines) {
+                    if (wordStart < length) {
+                        lines.set(lines.size() - 1, addEllipsis(lines.get(lines.size() - 1), safeMaxChars));
+                    }
+                    return lines;
+                }
+            }
+        }
+        if (current.length() > 0) {
+            lines.add(current.toString());
+        }
+        if (lines.isEmpty()) {
+            lines.add("");
+        }
+        return lines;
+    }
+
+    private static int skipSpaces(String text, int index) {
+        while (index < text.length() && isSpace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /** The characters matched by the regex {@code \s}. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private String addEllipsis(String line, int maxCharsPerLine) {
+        String trimmed = line == null ? "" : line.trim();
+        if (trimmed.length() >= Math.max(1, maxCharsPerLine)) {
+            trimmed = trimmed.substring(0, Math.max(0, maxCharsPerLine - 1));
+        }
+        return trimmed + "...";
+    }
+
+    /** Escapes wrapped lines in place; lines without special characters are kept as they are. */
+    private java.util.List<String> escapeLines(java.util.List<String> lines) {
+        if (lines == null || lines.isEmpty()) {
+            return java.util.Collections.singletonList("");
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            String escaped = escapeXml(line);
+            if (escaped != line) {
+                lines.set(i, escaped);
+            }
+        }
+        return lines;
+    }
+
+    private String sanitizeNullable(String value) {
+        return value == null ? null : StringUtils.escapeXml(value);
+    }
+
+    private String escapeXml(String value) {
+        return StringUtils.escapeXml(value);
+    }
+
+    /**
+     * Initiative badge gradients interned by RAG sequence, so badges with the same sequence share
+     * one definition. Ids are derived from the sequence, which keeps them stable between renders
+     * of different payloads.
+     */
+    private final class Gradients {
+        final java.util.List<RenderPlan.Gradient> initiatives = new java.util.ArrayList<>();
+        private final java.util.Set<String> ids = new java.util.HashSet<>();
+
+        String initiative(String rag) {
+            String id = "grad_rag_" + rag;
+            if (ids.add(id)) {
+                java.util.List<RenderPlan.GradientStop> stops = new java.util.ArrayList<>();
+                int len = rag.length();
+                for (int i = 0; i < len; i++) {
+                    float start = (float) i / len;
+                    float end = (float) (i + 1) / len;
+                    String color = colorForInitiativeRag(rag.charAt(i));
+                    stops.add(new RenderPlan.GradientStop(start * 100f, color));
+                    stops.add(new RenderPlan.GradientStop(end * 100f, color));
+                }
+                initiatives.add(new RenderPlan.Gradient(id, stops));
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Memoised text of a component field or domain label: the text without its {@code [url]} link,
+     * the decoded link, and the wrapped, escaped lines (null for labels). Shared between plans.
+     */
+    private static final class TextBlock {
+        final String text;
+        final String href;
+        final java.util.List<String> lines;
+
+        TextBlock(String text, String href, java.util.List<String> lines) {
+            this.text = text;
+            this.href = href;
+            this.lines = lines;
+        }
+    }
+
+    private static class DomainSectionChunk {
+        final String domainName;
+        final String iconId;
+        final java.util.List<ComponentItem> components;
+
+        DomainSectionChunk(String domainName, String iconId, java.util.List<ComponentItem> components) {
+            this.domainName = domainName;
+            this.iconId = iconId;
+            this.components = components;
+        }
+
+        int size() {
+            return components != null ? components.size() : 0;
+        }
+    }
+
+    private static class DomainColumnLayout {
+        final boolean spacer;
+        final float width;
+        final java.util.List<DomainSectionChunk> sections = new java.util.ArrayList<>();
+        int rowsUsed = 0;
+        boolean smallOnly;
+        boolean newRow; // start a new row with this column even if the current one has room
+
+        DomainColumnLayout(boolean spacer, float width, boolean smallOnly) {
+            this.spacer = spacer;
+            this.width = width;
+            this.smallOnly = smallOnly;
+        }
+
+        static DomainColumnLayout spacer(float width) {
+            return new DomainColumnLayout(true, width, true);
+        }
+
+        static DomainColumnLayout normal(float width, boolean smallOnly) {
+            return new DomainColumnLayout(false, width, smallOnly);
+        }
+
+        boolean canAcceptSmall(int additionalRows, int maxRowsPerColumn) {
+            return !spacer && smallOnly && rowsUsed + additionalRows <= maxRowsPerColumn;
+        }
+
+        /** Height in box rows, counting each stacked domain header as one row. */
+        int slots() {
+            return sections.isEmpty() ? 0 : rowsUsed + sections.size() - 1;
+        }
+    }
+
+    /**
+     * Geometry the compact packer measures layouts with, and its remaining work budget.
+     */
+    private static final class Packing {
+        final float boxWidth;
+        final float spaceWidth;
+        final float gapX;
+        final float rowWidth; // room for columns between the domain start and the right margin
+        final int maxColumnsPerRow;
+        final int maxRowsPerColumn;
+        final float pitch; // box height plus vertical gap
+        final float gapY;
+        final float sectionGap;
+        final float rowGap;
+        int budget;
+
+        Packing(float boxWidth, float spaceWidth, float gapX, float rowWidth, int maxColumnsPerRow, int maxRowsPerColumn,
+                float pitch, float gapY, float sectionGap, float rowGap, int budget) {
+            this.boxWidth = boxWidth;
+            this.spaceWidth = spaceWidth;
+            this.gapX = gapX;
+            this.rowWidth = rowWidth;
+            this.maxColumnsPerRow = maxColumnsPerRow;
+            this.maxRowsPerColumn = maxRowsPerColumn;
+            this.pitch = pitch;
+            this.gapY = gapY;
+            this.sectionGap = sectionGap;
+            this.rowGap = rowGap;
+            this.budget = budget;
+        }
+
+        float width(DomainColumnLayout column) {
+            return column.spacer ? column.width : boxWidth;
+        }
+
+        /** Pixel height of a column as the layout loop stacks it. */
+        float height(DomainColumnLayout column) {
+            if (column.spacer || column.sections.isEmpty()) {
+                return 0f;
+            }
+            float height = (column.sections.size() - 1) * sectionGap;
+            for (DomainSectionChunk chunk : column.sections) {
+                height += chunk.size() * pitch - gapY;
+            }
+            return height;
+        }
+    }
+
+    /** Row breaks chosen for a column sequence and the height of the resulting domain area. */
+    private static final class RowBreaks {
+        final boolean[] newRow;
+        final float height;
+
+        RowBreaks(boolean[] newRow, float height) {
+            this.newRow = newRow;
+            this.height = height;
+        }
+    }
+
+    private static class HeaderSpan {
+        float startX;
+        float rowY;
+        float width;
+        DomainGroup primaryGroup;
+    }
+}
@@ -0,0 +1,478 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.hoggmania.dashboard.config.DashboardLayoutConfig;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.DomainGroup;
+import io.hoggmania.dashboard.model.RenderItem;
+import io.hoggmania.dashboard.model.RenderPlan;
+import io.hoggmania.dashboard.util.StringUtils;
+import io.hoggmania.dashboard.util.SvgIcons;
+
+/**
+ * Writes the dashboard SVG for a {@link RenderPlan} straight to an output stream, as an
+ * alternative to the {@code dashboard.svg.qute} template.
+ *
+ * <p>The output draws exactly what the template draws, element for element and attribute for
+ * attribute, but without comments or indentation. Fixed markup is encoded once; numbers are
+ * written with at most two decimals and no trailing zeros. Plan text is already escaped, so
+ * values are copied as they are, like the template does.
+ */
+public final class StreamingSvgWriter {
+
+    private static final byte[] LEGEND_ITEMS = utf8(legendItems());
+
+    private StreamingSvgWriter() {
+        // Utility class
+    }
+
+    /**
+     * Renders a plan to SVG bytes with the referenced icons inlined.
+     *
+     * @param plan the render plan
+     * @return the UTF-8 encoded SVG document
+     */
+    public static byte[] toBytes(RenderPlan plan) {
+        return toBytes(plan, "");
+    }
+
+    /**
+     * Renders a plan to SVG bytes.
+     *
+     * @param plan the render plan
+     * @param iconHref URL of the icon sprite, or empty to inline the referenced icons
+     * @return the UTF-8 encoded SVG document
+     */
+    public static byte[] toBytes(RenderPlan plan, String iconHref) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024 + plan.governanceItems.size() * 1024
+                + plan.domainGroups.size() * 4096);
+        try {
+            write(plan, iconHref, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a plan as an SVG document.
+     *
+     * @param plan the render plan
+     * @param iconHref URL of the icon sprite, or empty to inline the referenced icons
+     * @param target the stream to write to; not closed
+     * @throws IOException if writing fails
+     */
+    public static void write(RenderPlan plan, String iconHref, OutputStream target) throws IOException {
+        Sink out = new Sink(target);
+        Badge badge = new Badge((int) plan.boxW, (int) plan.boxH);
+        head(out, plan, iconHref);
+        governanceRow(out, plan, iconHref, badge);
+        capabilitiesHeader(out, plan, iconHref);
+        for (DomainGroup domain : plan.domainGroups) {
+            domainGroup(out, plan, domain, iconHref, badge);
+        }
+        tail(out, plan);
+        out.flush();
+    }
+
+    /**
+     * Renders the governance components of a plan on their own, as they appear in the document.
+     *
+     * @param plan the render plan
+     * @param iconHref URL of the icon sprite, or empty for inlined icons
+     * @return the fragment bytes
+     */
+    static byte[] governanceFragment(RenderPlan plan, String iconHref) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(plan.governanceItems.size() * 1024 + 64);
+        try {
+            Sink out = new Sink(bytes);
+            governanceRow(out, plan, iconHref, new Badge((int) plan.boxW, (int) plan.boxH));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Renders one domain group (header and components) on its own, as it appears in the document.
+     *
+     * @param plan the render plan the group belongs to
+     * @param domain the group
+     * @param iconHref URL of the icon sprite, or empty for inlined icons
+     * @return the fragment bytes
+     */
+    static byte[] domainFragment(RenderPlan plan, DomainGroup domain, String iconHref) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(domain.items.size() * 1024 + 512);
+        try {
+            Sink out = new Sink(bytes);
+            domainGroup(out, plan, domain, iconHref, new Badge((int) plan.boxW, (int) plan.boxH));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a document around fragments rendered earlier; the result is the same as {@link #write}.
+     *
+     * @param plan the render plan
+     * @param iconHref URL of the icon sprite, or empty to inline the referenced icons
+     * @param governance the {@link #governanceFragment}
+     * @param domains the {@link #domainFragment}s, in the order of {@code plan.domainGroups}
+     * @param target the stream to write to; not closed
+     * @throws IOException if writing fails
+     */
+    static void assemble(RenderPlan plan, String iconHref, byte[] governance, List<byte[]> domains,
+            OutputStream target) throws IOException {
+        Sink out = new Sink(target);
+        head(out, plan, iconHref);
+        out.bytes(governance);
+        capabilitiesHeader(out, plan, iconHref);
+        for (byte[] domain : domains) {
+            out.bytes(domain);
+        }
+        tail(out, plan);
+        out.flush();
+    }
+
+    private static void head(Sink out, RenderPlan plan, String iconHref) throws IOException {
+        int pageCenter = (int) (plan.canvasWidth / 2f);
+        float svgHeightMm = plan.svgHeight * (DashboardLayoutConfig.A4_WIDTH_MM / plan.canvasWidth);
+        out.raw("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\"")
+                .num(DashboardLayoutConfig.A4_WIDTH_MM).raw("mm\" height=\"").num(svgHeightMm)
+                .raw("mm\" viewBox=\"0 0 ").num((int) plan.canvasWidth).raw(" ").num(plan.svgHeight).raw("\">\n<defs>\n");
+        if (iconHref.isEmpty() && !plan.iconIds.isEmpty()) {
+            out.raw(SvgIcons.symbols(plan.iconIds)).raw("\n");
+        }
+        for (RenderPlan.Gradient gradient : plan.initiativeGradients) {
+            gradient(out, gradient);
+        }
+        out.raw("</defs>\n<rect x=\"0\" y=\"0\" width=\"100%\" height=\"100%\" fill=\"#FFFFFF\"/>\n");
+
+        // Main title
+        out.raw("<rect x=\"10\" y=\"10\" width=\"1380\" height=\"35\" rx=\"4\" fill=\"#1E3A8A\"/>\n");
+        if (plan.dashboard.iconId != null) {
+            out.raw("<use xlink:href=\"").text(iconHref).raw("#").text(plan.dashboard.iconId)
+                    .raw("\" x=\"").num(DashboardLayoutConfig.HEADER_ICON_X).raw("\" y=\"").num(DashboardLayoutConfig.TITLE_ICON_Y)
+                    .raw("\" width=\"").num(DashboardLayoutConfig.TITLE_ICON_SIZE).raw("\" height=\"").num(DashboardLayoutConfig.TITLE_ICON_SIZE)
+                    .raw("\" style=\"color: #FFFFFF\"/>\n");
+        }
+        heading(out, plan.dashboard.href, pageCenter, DashboardLayoutConfig.TITLE_TEXT_Y, "18px", plan.dashboard.title != null ? plan.dashboard.title : "Dashboard");
+
+        // Governance title
+        if (plan.governance != null && plan.governance.title != null) {
+            out.raw("<rect x=\"10\" y=\"50\" width=\"1380\" height=\"25\" rx=\"3\" fill=\"#1E3A8A\"/>\n");
+            heading(out, plan.governance.href, pageCenter, DashboardLayoutConfig.GOVERNANCE_TEXT_Y, "14px", plan.governance.title);
+        }
+    }
+
+    private static void governanceRow(Sink out, RenderPlan plan, String iconHref, Badge badge) throws IOException {
+        for (RenderItem item : plan.governanceItems) {
+            component(out, item, (int) plan.boxW, (int) plan.boxH, badge, iconHref);
+        }
+    }
+
+    private static void capabilitiesHeader(Sink out, RenderPlan plan, String iconHref) throws IOException {
+        if (plan.capabilities != null && plan.capabilities.title != null) {
+            int headerY = (int) plan.capabilitiesHeaderY;
+            out.raw("<rect x=\"10\" y=\"").num(headerY).raw("\" width=\"1380\" height=\"25\" rx=\"3\" fill=\"#1E3A8A\"/>\n");
+            if (plan.capabilities.iconId != null) {
+                out.raw("<use xlink:href=\"").text(iconHref).raw("#").text(plan.capabilities.iconId).raw("\" x=\"")
+                        .num(DashboardLayoutConfig.HEADER_ICON_X).raw("\" y=\"").num((int) (plan.capabilitiesHeaderY + DashboardLayoutConfig.SECTION_ICON_OFFSET_Y))
+                        .raw("\" width=\"").num(DashboardLayoutConfig.SECTION_ICON_SIZE).raw("\" height=\"")
+                        .num(DashboardLayoutConfig.SECTION_ICON_SIZE).raw("\" style=\"color: #FFFFFF\"/>\n");
+            }
+            heading(out, plan.capabilities.href, (int) (plan.canvasWidth / 2f), (int) (plan.capabilitiesHeaderY + DashboardLayoutConfig.SECTION_TEXT_OFFSET_Y),
+                    "14px", plan.capabilities.title);
+        }
+    }
+
+    private static void domainGroup(Sink out, RenderPlan plan, DomainGroup domain, String iconHref, Badge badge)
+            throws IOException {
+        if (!domain.items.isEmpty() && domain.showHeader) {
+            domainHeader(out, domain, iconHref);
+        }
+        for (RenderItem item : domain.items) {
+            component(out, item, (int) plan.boxW, (int) plan.boxH, badge, iconHref);
+        }
+    }
+
+    private static void tail(Sink out, RenderPlan plan) throws IOException {
+        out.raw("<g id=\"legend\" transform=\"translate(10,").num(plan.legendY).raw(")\">\n")
+                .bytes(LEGEND_ITEMS)
+                .raw("</g>\n</svg>\n");
+    }
+
+    private static void gradient(Sink out, RenderPlan.Gradient gradient) throws IOException {
+        out.raw("<linearGradient id=\"").text(gradient.id).raw("\" x1=\"0%\" y1=\"0%\" x2=\"0%\" y2=\"100%\">\n");
+        for (RenderPlan.GradientStop stop : gradient.stops) {
+            out.raw("<stop offset=\"").num(stop.offset).raw("%\" style=\"stop-color:").text(stop.color)
+                    .raw(";stop-opacity:1\" />\n");
+        }
+        out.raw("</linearGradient>\n");
+    }
+
+    private static void heading(Sink out, String href, int x, int y, String fontSize, String title) throws IOException {
+        if (href != null) {
+            out.raw("<a xlink:href=\"").text(href).raw("\" target=\"_blank\" rel=\"noopener noreferrer\">\n");
+        }
+        out.raw("<text x=\"").num(x).raw("\" y=\"").num(y).raw("\" text-anchor=\"middle\" style=\"font: ").raw(fontSize)
+                .raw(" sans-serif; font-weight: bold; fill: #FFFFFF;").raw(href != null ? " text-decoration: underline;" : "")
+                .raw("\">").text(title).raw("</text>\n");
+        if (href != null) {
+            out.raw("</a>\n");
+        }
+    }
+
+    private static void domainHeader(Sink out, DomainGroup domain, String iconHref) throws IOException {
+        out.raw("<rect x=\"").num(domain.headerX).raw("\" y=\"").num(domain.headerY).raw("\" width=\"")
+                .num(domain.headerWidth).raw("\" height=\"22\" rx=\"2\" fill=\"#1E3A8A\"/>\n")
+                .raw("<g transform=\"translate(").num(domain.headerX).raw(",0)\">\n");
+        if (domain.icon != null) {
+            out.raw("<use xlink:href=\"").text(iconHref).raw("#").text(domain.icon).raw("\" x=\"")
+                    .num(DashboardLayoutConfig.DOMAIN_ICON_X).raw("\" y=\"").num(domain.headerIconY)
+                    .raw("\" width=\"").num(DashboardLayoutConfig.DOMAIN_ICON_SIZE).raw("\" height=\"")
+                    .num(DashboardLayoutConfig.DOMAIN_ICON_SIZE).raw("\" style=\"color: #FFFFFF\"/>\n");
+        }
+        if (domain.domainHref != null) {
+            out.raw("<a xlink:href=\"").text(domain.domainHref).raw("\" target=\"_blank\" rel=\"noopener noreferrer\">\n");
+        }
+        out.raw("<text x=\"").num(domain.headerTextX).raw("\" y=\"").num(domain.headerTextY)
+                .raw("\" text-anchor=\"middle\" style=\"font: 12px sans-serif; font-weight: bold; fill: #FFFFFF;")
+                .raw(domain.domainHref != null ? " text-decoration: underline;" : "")
+                .raw("\">").text(domain.domainName).raw("</text>\n");
+        if (domain.domainHref != null) {
+            out.raw("</a>\n");
+        }
+        out.raw("</g>\n");
+    }
+
+    private static void component(Sink out, RenderItem item, int boxW, int boxH, Badge badge, String iconHref)
+            throws IOException {
+        out.raw("<g id=\"").text(item.elementId).raw("\" transform=\"translate(").num(item.x).raw(",").num(item.y)
+                .raw(")\">\n");
+        out.raw("<rect x=\"0\" y=\"0\" width=\"").num(boxW).raw("\" height=\"").num(boxH)
+                .raw("\" rx=\"2\" ry=\"2\" fill=\"").text(item.maturityColor).raw("\" stroke=\"").text(item.border)
+                .raw("\" stroke-width=\"1\"/>\n");
+        out.raw("<polygon points=\"0,0 0,").num(boxH).raw(" ").num(boxW).raw(",0\" fill=\"").text(item.capabilityColor)
+                .raw("\" />\n");
+        out.raw("<rect x=\"0\" y=\"0\" width=\"").num(boxW).raw("\" height=\"").num(boxH)
+                .raw("\" rx=\"2\" ry=\"2\" fill=\"none\" stroke=\"").text(item.border).raw("\" stroke-width=\"1\"/>\n");
+        if (item.doubleBorder) {
+            out.raw("<rect x=\"3\" y=\"3\" width=\"").num(boxW - 6).raw("\" height=\"").num(boxH - 6)
+                    .raw("\" rx=\"1\" ry=\"1\" fill=\"none\" stroke=\"").text(item.border).raw("\" stroke-width=\"1\"/>\n");
+        }
+        if (item.iconId != null) {
+            out.raw("<use xlink:href=\"").text(iconHref).raw("#").text(item.iconId).raw("\" x=\"").num(item.iconX)
+                    .raw("\" y=\"0\" width=\"20\" height=\"20\" style=\"color: #111\"/>\n");
+        }
+        textBlock(out, item, item.nameHref, DashboardLayoutConfig.NAME_BASELINE_Y,
+                "font: 14px sans-serif; font-weight: bold; fill: #111;", item.nameLines, DashboardLayoutConfig.NAME_LINE_HEIGHT);
+        textBlock(out, item, item.capabilityHref, DashboardLayoutConfig.CAPABILITY_BASELINE_Y,
+                "font: 11px sans-serif; fill: #555;", item.capabilityLines, DashboardLayoutConfig.CAPABILITY_LINE_HEIGHT);
+        if (item.showInitiatives) {
+            if (item.initiativeHref != null) {
+                out.raw("<a xlink:href=\"").text(item.initiativeHref)
+                        .raw(item.initiativeNewTab ? "\" target=\"_blank\" rel=\"noopener noreferrer\">\n" : "\">\n");
+            }
+            out.raw("<circle cx=\"").num(badge.circleX).raw("\" cy=\"").num(badge.circleY)
+                    .raw("\" r=\"").num(DashboardLayoutConfig.BADGE_RADIUS).raw("\" fill=\"#EC4899\" stroke=\"").text(item.initiativeStroke).raw("\" stroke-width=\"3\"/>\n")
+                    .raw("<text x=\"").num(badge.circleX).raw("\" y=\"").num(badge.textY)
+                    .raw("\" text-anchor=\"middle\" style=\"font: 11px sans-serif; font-weight: bold; fill: #FFFFFF;\">")
+                    .num(item.initiatives).raw("</text>\n");
+            if (item.initiativeHref != null) {
+                out.raw("</a>\n");
+            }
+        }
+        out.raw("</g>\n");
+    }
+
+    private static void textBlock(Sink out, RenderItem item, String href, int y, String style, List<String> lines,
+            int lineHeight) throws IOException {
+        if (href != null) {
+            out.raw("<a xlink:href=\"").text(href).raw("\" target=\"_blank\" rel=\"noopener noreferrer\">\n");
+        }
+        out.raw("<text x=\"").num(item.textX).raw("\" y=\"").num(y).raw("\" text-anchor=\"").text(item.textAnchor)
+                .raw("\" style=\"").raw(style).raw(href != null ? " text-decoration: underline;" : "").raw("\">\n");
+        for (int i = 0; i < lines.size(); i++) {
+            out.raw("<tspan x=\"").num(item.textX).raw("\" dy=\"").num(i == 0 ? 0 : lineHeight).raw("\">")
+                    .text(lines.get(i)).raw("</tspan>\n");
+        }
+        out.raw("</text>\n");
+        if (href != null) {
+            out.raw("</a>\n");
+        }
+    }
+
+    private static String legendItems() {
+        int w = DashboardLayoutConfig.LEGEND_SWATCH_WIDTH;
+        int h = DashboardLayoutConfig.LEGEND_SWATCH_HEIGHT;
+        StringBuilder legend = new StringBuilder()
+                .append("<rect x=\"0\" y=\"0\" width=\"1380\" height=\"90\" rx=\"3\" fill=\"#FFFFFF\" stroke=\"#000000\" stroke-width=\"1\"/>\n")
+                .append("<text x=\"10\" y=\"20\" style=\"font: 16px sans-serif; font-weight: bold; fill: #1E3A8A;\">Legend</text>\n")
+                .append("<g transform=\"translate(").append(DashboardLayoutConfig.LEGEND_ROW_X).append(",")
+                .append(DashboardLayoutConfig.LEGEND_ROW_Y).append(")\">\n")
+                .append("<text x=\"0\" y=\"0\" style=\"font: 13px sans-serif; font-weight: bold; fill: #333;\">Status</text>\n");
+        int x = DashboardLayoutConfig.LEGEND_STATUS_START_X;
+        for (ComponentItem.Status status : ComponentItem.Status.values()) {
+            legendItem(legend, x, "0,0 0," + h + " " + w + ",0", status.hex, status.displayName);
+            x += DashboardLayoutConfig.LEGEND_ITEM_WIDTH;
+        }
+        legend.append("<text x=\"700\" y=\"0\" style=\"font: 13px sans-serif; font-weight: bold; fill: #333;\">Maturity</text>\n");
+        x = DashboardLayoutConfig.LEGEND_MATURITY_START_X;
+        for (ComponentItem.Maturity maturity : ComponentItem.Maturity.values()) {
+            legendItem(legend, x, w + ",0 0," + h + " " + w + "," + h, maturity.hex, maturity.displayName);
+            x += DashboardLayoutConfig.LEGEND_ITEM_WIDTH;
+        }
+        return legend.append("</g>\n").toString();
+    }
+
+    private static void legendItem(StringBuilder legend, int x, String points, String color, String label) {
+        String swatch = "<rect x=\"0\" y=\"0\" width=\"" + DashboardLayoutConfig.LEGEND_SWATCH_WIDTH + "\" height=\""
+                + DashboardLayoutConfig.LEGEND_SWATCH_HEIGHT + "\" rx=\"2\"";
+        legend.append("<g transform=\"translate(").append(x).append(",").append(DashboardLayoutConfig.LEGEND_SWATCH_Y)
+                .append(")\">\n")
+                .append(swatch).append(" fill=\"#CCCCCC\"/>\n")
+                .append("<polygon points=\"").append(points).append("\" fill=\"").append(color).append("\" />\n")
+                .append(swatch).append(" fill=\"none\" stroke=\"#333\" stroke-width=\"1\"/>\n")
+                .append("<text x=\"48\" y=\"20\" style=\"font: 11px sans-serif; fill: #333;\">")
+                .append(label == null ? "" : StringUtils.escapeXml(label)).append("</text>\n")
+                .append("</g>\n");
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Position of the initiatives badge inside a component box.
+     */
+    private static final class Badge {
+        final int circleX;
+        final int circleY;
+        final int textY;
+
+        Badge(int boxW, int boxH) {
+            this.circleX = boxW - DashboardLayoutConfig.BADGE_INSET_X;
+            this.circleY = boxH - DashboardLayoutConfig.BADGE_INSET_Y;
+            this.textY = boxH - DashboardLayoutConfig.BADGE_TEXT_INSET_Y;
+        }
+    }
+
+    /**
+     * Buffered byte sink. Markup literals are ASCII and written char by char; plan text goes
+     * through UTF-8 encoding.
+     */
+    private static final class Sink {
+        private final OutputStream target;
+        private final byte[] buffer = new byte[8192];
+        private int length;
+
+        Sink(OutputStream target) {
+            this.target = target;
+        }
+
+        Sink bytes(byte[] value) throws IOException {
+            if (value.length > buffer.length - length) {
+                drain();
+                if (value.length > buffer.length) {
+                    target.write(value);
+                    return this;
+                }
+            }
+            System.arraycopy(value, 0, buffer, length, value.length);
+            length += value.length;
+            return this;
+        }
+
+        Sink raw(String ascii) throws IOException {
+            int n = ascii.length();
+            if (n > buffer.length - length) {
+                drain();
+                if (n > buffer.length) {
+                    return bytes(utf8(ascii));
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                buffer[length++] = (byte) ascii.charAt(i);
+            }
+            return this;
+        }
+
+        Sink text(String value) throws IOException {
+            if (value == null) {
+                return this;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return bytes(utf8(value));
+                }
+            }
+            return raw(value);
+        }
+
+        Sink num(long value) throws IOException {
+            if (buffer.length - length < 20) {
+                drain();
+            }
+            if (value < 0) {
+                buffer[length++] = '-';
+                value = -value;
+            }
+            int start = length;
+            do {
+                buffer[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte swap = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = swap;
+            }
+            return this;
+        }
+
+        /** Writes a number with at most two decimals, dropping trailing zeros. */
+        Sink num(float value) throws IOException {
+            long hundredths = Math.round((double) value * 100d);
+            if (hundredths < 0) {
+                raw("-");
+                hundredths = -hundredths;
+            }
+            num(hundredths / 100);
+            int fraction = (int) (hundredths % 100);
+            if (fraction != 0) {
+                raw(".");
+                if (fraction % 10 == 0) {
+                    num(fraction / 10);
+                } else {
+                    if (fraction < 10) {
+                        raw("0");
+                    }
+                    num(fraction);
+                }
+            }
+            return this;
+        }
+
+        void flush() throws IOException {
+            drain();
+            target.flush();
+        }
+
+        private void drain() throws IOException {
+            if (length > 0) {
+                target.write(buffer, 0, length);
+                length = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.hoggmania.dashboard.model.DomainGroup;
+import io.hoggmania.dashboard.model.RenderItem;
+import io.hoggmania.dashboard.model.RenderPlan;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.LruCache;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Renders dashboard SVGs with {@link StreamingSvgWriter} from cached fragments.
+ *
+ * <p>The governance row and every domain group are rendered as separate fragments, keyed by a
+ * digest of everything the fragment draws, positions included. A re-render after a small edit
+ * only renders the groups whose content or position changed; the rest is copied from the cache.
+ * When several fragments are missing they are rendered in parallel on a fork/join pool and then
+ * stitched into the document in order, so the output is the same as a serial render.
+ */
+@ApplicationScoped
+public class SvgFragmentRenderer {
+
+    private final LruCache<String, byte[]> fragments;
+    private final ForkJoinPool pool;
+    private final AtomicLong rendered = new AtomicLong();
+
+    @Inject
+    public SvgFragmentRenderer(
+            @ConfigProperty(name = "dashboard.svg.fragment-cache-entries", defaultValue = "2048") int cacheEntries,
+            @ConfigProperty(name = "dashboard.svg.fragment-parallelism", defaultValue = "0") int parallelism) {
+        this.fragments = new LruCache<>(Math.max(1, cacheEntries));
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Renders a plan to SVG bytes.
+     *
+     * @param plan the render plan
+     * @param iconHref URL of the icon sprite, or empty to inline the referenced icons
+     * @return the UTF-8 encoded SVG document
+     */
+    public byte[] render(RenderPlan plan, String iconHref) {
+        List<String> keys = new ArrayList<>(plan.domainGroups.size() + 1);
+        keys.add(governanceKey(plan, iconHref));
+        for (DomainGroup domain : plan.domainGroups) {
+            keys.add(domainKey(plan, domain, iconHref));
+        }
+
+        byte[][] parts = new byte[keys.size()][];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            parts[i] = fragments.get(keys.get(i));
+            if (parts[i] == null) {
+                missing.add(i);
+            }
+        }
+        if (missing.size() == 1) {
+            int index = missing.get(0);
+            parts[index] = renderFragment(plan, index, keys.get(index), iconHref);
+        } else if (!missing.isEmpty()) {
+            List<Callable<byte[]>> tasks = new ArrayList<>(missing.size());
+            for (int index : missing) {
+                tasks.add(() -> renderFragment(plan, index, keys.get(index), iconHref));
+            }
+            List<Future<byte[]>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < missing.size(); i++) {
+                parts[missing.get(i)] = join(results.get(i));
+            }
+        }
+
+        int size = 4096;
+        for (byte[] part : parts) {
+            size += part.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        try {
+            StreamingSvgWriter.assemble(plan, iconHref, parts[0], List.of(parts).subList(1, parts.length), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Gets the number of fragments rendered so far, i.e. cache misses.
+     */
+    public long renderedFragments() {
+        return rendered.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private byte[] renderFragment(RenderPlan plan, int index, String key, String iconHref) {
+        byte[] fragment = index == 0
+                ? StreamingSvgWriter.governanceFragment(plan, iconHref)
+                : StreamingSvgWriter.domainFragment(plan, plan.domainGroups.get(index - 1), iconHref);
+        rendered.incrementAndGet();
+        fragments.put(key, fragment);
+        return fragment;
+    }
+
+    private static byte[] join(Future<byte[]> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering SVG fragments", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("SVG fragment render failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static String governanceKey(RenderPlan plan, String iconHref) {
+        Fingerprint key = new Fingerprint("gov").add(iconHref).add(plan.boxW).add(plan.boxH);
+        for (RenderItem item : plan.governanceItems) {
+            key.add(item);
+        }
+        return key.digest();
+    }
+
+    private static String domainKey(RenderPlan plan, DomainGroup domain, String iconHref) {
+        Fingerprint key = new Fingerprint("dom").add(iconHref).add(plan.boxW).add(plan.boxH)
+                .add(domain.domainName).add(domain.icon).add(domain.domainHref).add(domain.showHeader)
+                .add(domain.headerX).add(domain.headerY).add(domain.headerWidth)
+                .add(domain.headerTextX).add(domain.headerTextY).add(domain.headerIconY);
+        for (RenderItem item : domain.items) {
+            key.add(item);
+        }
+        return key.digest();
+    }
+
+    /**
+     * SHA-256 over the fields a fragment draws, each followed by a separator so that adjacent
+     * values cannot run into each other.
+     */
+    private static final class Fingerprint {
+        private final StringBuilder fields = new StringBuilder(1024);
+
+        Fingerprint(String kind) {
+            add(kind);
+        }
+
+        Fingerprint add(String value) {
+            fields.append(value == null ? "\u0001" : value).append('\u0000');
+            return this;
+        }
+
+        Fingerprint add(float value) {
+            fields.append(Float.floatToIntBits(value)).append('\u0000');
+            return this;
+        }
+
+        Fingerprint add(boolean value) {
+            fields.append(value ? '1' : '0').append('\u0000');
+            return this;
+        }
+
+        Fingerprint add(List<String> lines) {
+            fields.append(lines == null ? -1 : lines.size()).append('\u0000');
+            if (lines != null) {
+                lines.forEach(this::add);
+            }
+            return this;
+        }
+
+        Fingerprint add(RenderItem item) {
+            return add(item.elementId).add(item.x).add(item.y).add(item.border)
+                    .add(item.capabilityColor).add(item.maturityColor).add(item.doubleBorder)
+                    .add(item.iconId).add(item.iconX).add(item.textX).add(item.textAnchor)
+                    .add(item.nameHref).add(item.nameLines).add(item.capabilityHref).add(item.capabilityLines)
+                    .add(item.showInitiatives).add(String.valueOf(item.initiatives)).add(item.initiativeHref)
+                    .add(item.initiativeNewTab).add(item.initiativeStroke);
+        }
+
+        String digest() {
+            return HashUtils.sha256Hex(fields.toString());
+        }
+    }
+}
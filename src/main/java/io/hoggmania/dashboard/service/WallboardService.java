@@ -0,0 +1,195 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.WallboardUpdate;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.hoggmania.dashboard.util.SvgFragments;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+/**
+ * Pushes changes of pre-rendered dashboards to subscribed wallboards over Server-Sent Events.
+ *
+ * <p>A subscriber first receives an {@code svg} event with the current document. After that an
+ * event is sent only when a refresh produced a different SVG: a {@code components} event with
+ * just the changed component groups (keyed by their stable element ids) when nothing else moved,
+ * otherwise a new {@code svg} event. Work per refresh is therefore one comparison plus one small
+ * message per screen, and nothing at all while the dashboard is unchanged.
+ */
+@ApplicationScoped
+public class WallboardService {
+
+    public static final String EVENT_SVG = "svg";
+    public static final String EVENT_COMPONENTS = "components";
+
+    private final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+
+    @Inject
+    ObjectMapper mapper;
+
+    /**
+     * Records a new render of a root and notifies subscribers if it differs from the previous one.
+     *
+     * @param rootKey the root issue key
+     * @param svg the new SVG document
+     * @return true if subscribers were sent an update
+     */
+    public boolean publish(String rootKey, String svg) {
+        return boards.computeIfAbsent(normalize(rootKey), Board::new).publish(svg);
+    }
+
+    /**
+     * Subscribes a wallboard to a root and sends it the current document, if any.
+     *
+     * @param rootKey the root issue key
+     * @param sink the client's event sink
+     * @param sse the SSE context used to build events
+     */
+    public void subscribe(String rootKey, SseEventSink sink, Sse sse) {
+        boards.computeIfAbsent(normalize(rootKey), Board::new).subscribe(sink, sse);
+    }
+
+    /**
+     * Gets the number of open subscriptions for a root.
+     */
+    public int subscribers(String rootKey) {
+        Board board = boards.get(normalize(rootKey));
+        return board == null ? 0 : board.size();
+    }
+
+    private static String normalize(String rootKey) {
+        return rootKey.trim().toUpperCase(Locale.ENGLISH);
+    }
+
+    private static String version(String svg) {
+        return HashUtils.sha256Hex(svg).substring(0, 16);
+    }
+
+    private static final class Subscriber {
+        private final SseEventSink sink;
+        private final Sse sse;
+
+        Subscriber(SseEventSink sink, Sse sse) {
+            this.sink = sink;
+            this.sse = sse;
+        }
+    }
+
+    /**
+     * Latest document and subscribers of one root.
+     */
+    private final class Board {
+        private final String rootKey;
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private String svg;
+        private String version;
+        private SvgFragments fragments;
+
+        Board(String rootKey) {
+            this.rootKey = rootKey;
+        }
+
+        synchronized boolean publish(String newSvg) {
+            if (newSvg == null || newSvg.equals(svg)) {
+                return false;
+            }
+            String newVersion = version(newSvg);
+            SvgFragments newFragments = SvgFragments.split(newSvg, SvgService.COMPONENT_ID_PREFIX);
+            if (subscribers.isEmpty()) {
+                install(newSvg, newVersion, newFragments);
+                return false;
+            }
+            Map<String, String> changed = newFragments.changedSince(fragments);
+            WallboardUpdate update = new WallboardUpdate();
+            update.rootKey = rootKey;
+            update.version = newVersion;
+            String name;
+            if (changed != null) {
+                update.previousVersion = version;
+                update.elements = changed;
+                name = EVENT_COMPONENTS;
+            } else {
+                update.svg = newSvg;
+                name = EVENT_SVG;
+            }
+            String json = toJson(update);
+            if (json == null) {
+                // The subscribers would miss this update, so disconnect them; they resubscribe to the
+                // current document. The render is not installed, so publishing it again retries.
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.sink.close();
+                }
+                subscribers.clear();
+                return false;
+            }
+            install(newSvg, newVersion, newFragments);
+            subscribers.removeIf(subscriber -> !send(subscriber, name, json));
+            return true;
+        }
+
+        synchronized void subscribe(SseEventSink sink, Sse sse) {
+            Subscriber subscriber = new Subscriber(sink, sse);
+            if (svg != null) {
+                WallboardUpdate update = new WallboardUpdate();
+                update.rootKey = rootKey;
+                update.version = version;
+                update.svg = svg;
+                String json = toJson(update);
+                if (json == null) {
+                    sink.close();
+                    return;
+                }
+                if (!send(subscriber, EVENT_SVG, json)) {
+                    return;
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        private void install(String newSvg, String newVersion, SvgFragments newFragments) {
+            svg = newSvg;
+            version = newVersion;
+            fragments = newFragments;
+        }
+
+        synchronized int size() {
+            subscribers.removeIf(subscriber -> subscriber.sink.isClosed());
+            return subscribers.size();
+        }
+
+        private boolean send(Subscriber subscriber, String name, String json) {
+            if (subscriber.sink.isClosed()) {
+                return false;
+            }
+            subscriber.sink.send(subscriber.sse.newEventBuilder()
+                    .id(version)
+                    .name(name)
+                    .data(json)
+                    .build());
+            return true;
+        }
+
+        /**
+         * Serialises an update, or returns null (after logging) if it cannot be; nothing is sent then.
+         */
+        private String toJson(WallboardUpdate update) {
+            try {
+                return mapper.writeValueAsString(update);
+            } catch (JsonProcessingException e) {
+                Log.errorf(e, "Wallboard update for %s could not be serialized; closing its streams", rootKey);
+                return null;
+            }
+        }
+    }
+}
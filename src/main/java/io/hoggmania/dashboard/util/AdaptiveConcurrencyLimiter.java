@@ -0,0 +1,156 @@
+package io.hoggmania.dashboard.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive limit on in-flight calls per key using additive-increase/multiplicative-decrease (AIMD).
+ *
+ * <p>While calls succeed with stable latency and the limit is actually being used, the limit grows
+ * by roughly one slot per limit's worth of successful calls. When a call reports overload
+ * (HTTP 429/5xx, timeout) or its latency exceeds the tolerated multiple of the observed baseline,
+ * the limit is multiplied by the backoff ratio, at most once per baseline latency so a burst of
+ * failures from the same moment only counts once.
+ * Thread-safe implementation; each key synchronizes on its own state.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * How a finished call should influence the limit.
+     */
+    public enum Outcome {
+        /** The call completed normally; its latency is used for the baseline. */
+        SUCCESS,
+        /** The remote signalled overload (throttled, server error or timed out). */
+        OVERLOAD,
+        /** The call should not influence the limit (client error, cancelled, hedge duplicate). */
+        IGNORE
+    }
+
+    private static final long MIN_DECREASE_INTERVAL_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final ConcurrentHashMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new adaptive limiter.
+     *
+     * @param initialLimit starting number of concurrent calls per key
+     * @param minLimit lower bound of the limit
+     * @param maxLimit upper bound of the limit
+     * @param backoffRatio factor applied to the limit on overload (e.g., 0.7)
+     * @param latencyTolerance latency multiple over the baseline treated as a spike (e.g., 2.0)
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.initialLimit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.backoffRatio = Math.max(0.1d, Math.min(0.99d, backoffRatio));
+        this.latencyTolerance = Math.max(1d, latencyTolerance);
+    }
+
+    /**
+     * Acquires a slot for the given key only if one is free right now.
+     *
+     * @param key the identifier (e.g., Jira host)
+     * @return true if a slot was acquired
+     */
+    public boolean tryAcquire(String key) {
+        return state(key).tryAcquire();
+    }
+
+    /**
+     * Releases a slot and feeds the call result into the limit.
+     *
+     * @param key the identifier
+     * @param latency how long the call took
+     * @param outcome how the call finished
+     */
+    public void release(String key, Duration latency, Outcome outcome) {
+        state(key).release(latency.toNanos(), outcome);
+    }
+
+    /**
+     * Gets the current concurrency limit for the given key.
+     */
+    public int limit(String key) {
+        Limit limit = limits.get(key);
+        return limit == null ? initialLimit : limit.current();
+    }
+
+    /**
+     * Gets the number of calls currently in flight for the given key.
+     */
+    public int inFlight(String key) {
+        Limit limit = limits.get(key);
+        return limit == null ? 0 : limit.inFlight();
+    }
+
+    /**
+     * Clears all limiter state.
+     */
+    public void clear() {
+        limits.clear();
+    }
+
+    private Limit state(String key) {
+        return limits.computeIfAbsent(key, k -> new Limit());
+    }
+
+    private class Limit {
+        private double limit = initialLimit;
+        private int inFlight;
+        private long baselineNanos = -1;
+        private long lastDecreaseNanos;
+
+        synchronized boolean tryAcquire() {
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        synchronized void release(long latencyNanos, Outcome outcome) {
+            boolean saturated = inFlight >= limit / 2;
+            inFlight = Math.max(0, inFlight - 1);
+            if (outcome == Outcome.OVERLOAD) {
+                decrease();
+            } else if (outcome == Outcome.SUCCESS) {
+                if (baselineNanos < 0 || latencyNanos < baselineNanos) {
+                    baselineNanos = latencyNanos;
+                } else {
+                    // Let the baseline drift up slowly so a permanently slower backend is re-learned
+                    baselineNanos += (latencyNanos - baselineNanos) / 100;
+                }
+                if (latencyNanos > baselineNanos * latencyTolerance) {
+                    decrease();
+                } else if (saturated) {
+                    limit = Math.min(maxLimit, limit + 1d / limit);
+                }
+            }
+        }
+
+        synchronized int current() {
+            return (int) limit;
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        private void decrease() {
+            long now = System.nanoTime();
+            long interval = Math.max(MIN_DECREASE_INTERVAL_NANOS, baselineNanos);
+            if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < interval) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes JSON with object keys sorted, so documents that differ only in key order or
+ * whitespace produce the same text and the same content hash.
+ */
+public final class CanonicalJson {
+
+    private CanonicalJson() {
+        // Utility class
+    }
+
+    /**
+     * Writes a JSON tree in canonical form.
+     *
+     * @param mapper the mapper used for serialization
+     * @param node the JSON tree
+     * @return compact JSON with sorted object keys
+     * @throws IllegalArgumentException if the tree cannot be serialized
+     */
+    public static String write(ObjectMapper mapper, JsonNode node) {
+        try {
+            return mapper.writeValueAsString(canonical(node));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON cannot be serialized", e);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hex digest of the canonical form of a JSON tree.
+     */
+    public static String sha256Hex(ObjectMapper mapper, JsonNode node) {
+        return HashUtils.sha256Hex(write(mapper, node));
+    }
+
+    private static Object canonical(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        if (node.isObject()) {
+            Map<String, Object> sorted = new TreeMap<>();
+            node.properties().forEach(entry -> sorted.put(entry.getKey(), canonical(entry.getValue())));
+            return sorted;
+        }
+        if (node.isArray()) {
+            List<Object> items = new ArrayList<>();
+            node.forEach(item -> items.add(canonical(item)));
+            return items;
+        }
+        return node;
+    }
+}
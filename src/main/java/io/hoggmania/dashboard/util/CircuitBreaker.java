@@ -0,0 +1,302 @@
+package io.hoggmania.dashboard.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Count-based circuit breaker keyed per remote host.
+ *
+ * <p>Each key keeps a sliding window of its most recent call outcomes. The circuit opens when,
+ * after a minimum number of calls, either the failure rate or the slow-call rate reaches its
+ * threshold. While open, calls are rejected immediately. Once the open duration has elapsed a
+ * single probe call is let through (half-open); its outcome closes or re-opens the circuit.
+ *
+ * <p>Outcomes are reported through the {@link Permit} a call was admitted with. A permit belongs to
+ * the state the circuit was in when it was issued: results of calls admitted before a state change
+ * are dropped, so only the probe itself can close or re-open a half-open circuit.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Circuit states; the ordinal is exported as a metric value.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final Duration slowCallDuration;
+    private final float slowCallRateThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new circuit breaker.
+     *
+     * @param windowSize number of most recent calls considered per key
+     * @param minimumCalls calls required in the window before rates are evaluated
+     * @param failureRateThreshold failure percentage (0-100) that opens the circuit
+     * @param slowCallDuration calls taking at least this long count as slow
+     * @param slowCallRateThreshold slow-call percentage (0-100) that opens the circuit
+     * @param openDuration how long the circuit stays open before a probe is allowed
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, float failureRateThreshold,
+            Duration slowCallDuration, float slowCallRateThreshold, Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallDuration, slowCallRateThreshold, openDuration,
+                Clock.systemUTC());
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, float failureRateThreshold,
+            Duration slowCallDuration, float slowCallRateThreshold, Duration openDuration, Clock clock) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks permission to make a call for the given key.
+     * Every granted permit must be resolved with {@link Permit#onSuccess}, {@link Permit#onFailure}
+     * or {@link Permit#release}.
+     *
+     * @param key the identifier of the protected resource (e.g., Jira host)
+     * @return the permit, or null if the circuit is open
+     */
+    public Permit tryAcquire(String key) {
+        return circuit(key).tryAcquire();
+    }
+
+    /**
+     * Gets the current state for the given key.
+     */
+    public State state(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? State.CLOSED : circuit.state();
+    }
+
+    /**
+     * Gets the failure rate in percent over the current window, or 0 if no calls were recorded.
+     */
+    public float failureRate(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? 0f : circuit.failureRate();
+    }
+
+    /**
+     * Gets the slow-call rate in percent over the current window, or 0 if no calls were recorded.
+     */
+    public float slowCallRate(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? 0f : circuit.slowCallRate();
+    }
+
+    /**
+     * Gets how long the circuit for the given key remains open, or zero if it is not open.
+     */
+    public Duration remainingOpen(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? Duration.ZERO : circuit.remainingOpen();
+    }
+
+    /**
+     * Gets all keys that have recorded at least one call.
+     */
+    public Set<String> keys() {
+        return Set.copyOf(circuits.keySet());
+    }
+
+    /**
+     * Clears all circuit data.
+     */
+    public void clear() {
+        circuits.clear();
+    }
+
+    private boolean isSlow(Duration elapsed) {
+        return elapsed != null && elapsed.compareTo(slowCallDuration) >= 0;
+    }
+
+    private Circuit circuit(String key) {
+        return circuits.computeIfAbsent(key, k -> new Circuit());
+    }
+
+    /**
+     * Admission of one call. Only the first outcome reported through a permit counts.
+     */
+    public static final class Permit {
+
+        /** Permit that records nothing, for calls made while the breaker is switched off. */
+        public static final Permit NONE = new Permit(null, 0, false);
+
+        private final Circuit circuit;
+        private final long epoch;
+        private final boolean probe;
+        private boolean resolved;
+
+        private Permit(Circuit circuit, long epoch, boolean probe) {
+            this.circuit = circuit;
+            this.epoch = epoch;
+            this.probe = probe;
+        }
+
+        /**
+         * Records a call that completed without a server-side failure.
+         *
+         * @param elapsed how long the call took
+         */
+        public void onSuccess(Duration elapsed) {
+            if (circuit != null && resolve()) {
+                circuit.record(this, false, elapsed);
+            }
+        }
+
+        /**
+         * Records a failed call (I/O error, timeout or server error).
+         *
+         * @param elapsed how long the call took
+         */
+        public void onFailure(Duration elapsed) {
+            if (circuit != null && resolve()) {
+                circuit.record(this, true, elapsed);
+            }
+        }
+
+        /**
+         * Returns the permit without recording an outcome, e.g. when the call was never sent.
+         */
+        public void release() {
+            if (circuit != null && resolve()) {
+                circuit.release(this);
+            }
+        }
+
+        private synchronized boolean resolve() {
+            if (resolved) {
+                return false;
+            }
+            resolved = true;
+            return true;
+        }
+    }
+
+    private class Circuit {
+        private final boolean[] failed = new boolean[windowSize];
+        private final boolean[] slow = new boolean[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private int slowCalls;
+        private State state = State.CLOSED;
+        private Instant openedAt;
+        private boolean probeInFlight;
+        private long epoch; // advanced on every state change
+
+        synchronized Permit tryAcquire() {
+            switch (state) {
+                case CLOSED:
+                    return new Permit(this, epoch, false);
+                case OPEN:
+                    if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                        return null;
+                    }
+                    transition(State.HALF_OPEN);
+                    probeInFlight = true;
+                    return new Permit(this, epoch, true);
+                default:
+                    if (probeInFlight) {
+                        return null;
+                    }
+                    probeInFlight = true;
+                    return new Permit(this, epoch, true);
+            }
+        }
+
+        synchronized void record(Permit permit, boolean failure, Duration elapsed) {
+            if (permit.epoch != epoch) {
+                // Late result of a call admitted before the last state change
+                return;
+            }
+            boolean slowCall = isSlow(elapsed);
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                if (failure || slowCall) {
+                    open();
+                } else {
+                    transition(State.CLOSED);
+                    reset();
+                }
+                return;
+            }
+            if (calls == windowSize) {
+                failures -= failed[next] ? 1 : 0;
+                slowCalls -= slow[next] ? 1 : 0;
+            } else {
+                calls++;
+            }
+            failed[next] = failure;
+            slow[next] = slowCall;
+            failures += failure ? 1 : 0;
+            slowCalls += slowCall ? 1 : 0;
+            next = (next + 1) % windowSize;
+            if (calls >= minimumCalls
+                    && (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+                open();
+            }
+        }
+
+        synchronized void release(Permit permit) {
+            if (permit.probe && permit.epoch == epoch && state == State.HALF_OPEN) {
+                probeInFlight = false;
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized float failureRate() {
+            return calls == 0 ? 0f : failures * 100f / calls;
+        }
+
+        synchronized float slowCallRate() {
+            return calls == 0 ? 0f : slowCalls * 100f / calls;
+        }
+
+        synchronized Duration remainingOpen() {
+            if (state != State.OPEN) {
+                return Duration.ZERO;
+            }
+            Duration remaining = Duration.between(clock.instant(), openedAt.plus(openDuration));
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+
+        private void open() {
+            transition(State.OPEN);
+            openedAt = clock.instant();
+            reset();
+        }
+
+        private void transition(State newState) {
+            state = newState;
+            epoch++;
+        }
+
+        private void reset() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.hoggmania.dashboard.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A rendered response body together with its gzip encoding, compressed at most once.
+ *
+ * <p>Cached renders keep one of these instead of the bare bytes, so every hit after the first
+ * serves the stored gzip variant instead of compressing again. Content that is already
+ * compressed (PNG) or too small to gain anything is never encoded.
+ */
+public final class CompressedContent {
+
+    /** Bodies below this size are sent as they are; headers and framing eat the gain. */
+    static final int MIN_COMPRESSIBLE_SIZE = 512;
+
+    private final byte[] raw;
+    private final boolean compressible;
+    private volatile byte[] gzip;
+
+    private CompressedContent(byte[] raw, boolean compressible) {
+        this.raw = raw;
+        this.compressible = compressible && raw.length >= MIN_COMPRESSIBLE_SIZE;
+    }
+
+    /**
+     * Wraps a text body such as SVG, HTML or JSON.
+     *
+     * @param raw the unencoded body; not copied, so it must not be modified afterwards
+     * @return the content
+     */
+    public static CompressedContent of(byte[] raw) {
+        return new CompressedContent(raw, true);
+    }
+
+    /**
+     * Wraps a text body such as SVG, HTML or JSON.
+     *
+     * @param text the body, encoded as UTF-8
+     * @return the content
+     */
+    public static CompressedContent of(String text) {
+        return of(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Wraps a body that is already compressed, such as a PNG image; it is always served as is.
+     *
+     * @param raw the body
+     * @return the content
+     */
+    public static CompressedContent precompressed(byte[] raw) {
+        return new CompressedContent(raw, false);
+    }
+
+    /**
+     * Gets the unencoded body.
+     */
+    public byte[] raw() {
+        return raw;
+    }
+
+    /**
+     * Checks whether a gzip variant is worth serving.
+     */
+    public boolean isCompressible() {
+        return compressible;
+    }
+
+    /**
+     * Gets the gzip encoding of the body, compressing it on first use.
+     *
+     * @return the gzip bytes; shared, so callers must not modify them
+     */
+    public byte[] gzip() {
+        byte[] result = gzip;
+        if (result == null) {
+            synchronized (this) {
+                result = gzip;
+                if (result == null) {
+                    result = compress(raw);
+                    gzip = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether an {@code Accept-Encoding} header allows a gzip response. Explicit
+     * {@code gzip;q=0} wins over a {@code *} wildcard.
+     *
+     * @param acceptEncoding the header value, or null if absent
+     * @return true if gzip is acceptable
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ENGLISH);
+            boolean accepted = quality(tokens) > 0;
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = accepted;
+            } else if ("*".equals(coding)) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] compress(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,90 @@
+package io.hoggmania.dashboard.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Utility methods for content hashing and credential fingerprints.
+ */
+public final class HashUtils {
+
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private HashUtils() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Computes the SHA-256 digest of a UTF-8 string as lowercase hex.
+     *
+     * @param value the string to hash (null is treated as empty)
+     * @return the 64 character hex digest
+     */
+    public static String sha256Hex(String value) {
+        return sha256Hex((value == null ? "" : value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Computes the SHA-256 digest of a byte array as lowercase hex.
+     *
+     * @param value the bytes to hash
+     * @return the 64 character hex digest
+     */
+    public static String sha256Hex(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Computes the HMAC-SHA256 of a byte array as lowercase hex, e.g. to verify signed webhooks.
+     *
+     * @param secret the shared secret
+     * @param value the signed bytes
+     * @return the 64 character hex signature
+     */
+    public static String hmacSha256Hex(String secret, byte[] value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(value));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Compares two strings in time independent of where they first differ.
+     *
+     * @return true if both are non-null and equal
+     */
+    public static boolean constantTimeEquals(String a, String b) {
+        if (a == null || b == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Derives a short, non-reversible fingerprint of a secret such as a personal access token.
+     * Suitable for cache keys and logs; never use the raw secret for either.
+     *
+     * @param secret the secret to fingerprint
+     * @return a 16 character hex fingerprint, or "anonymous" if the secret is blank
+     */
+    public static String fingerprint(String secret) {
+        if (StringUtils.isBlank(secret)) {
+            return "anonymous";
+        }
+        return sha256Hex(secret.trim()).substring(0, FINGERPRINT_LENGTH);
+    }
+}
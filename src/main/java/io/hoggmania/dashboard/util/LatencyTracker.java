@@ -0,0 +1,82 @@
+package io.hoggmania.dashboard.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks recent call latencies per key and answers percentile queries over them.
+ * Each key keeps a fixed-size ring of the most recent samples.
+ * Thread-safe implementation; each key synchronizes on its own sample ring.
+ */
+public class LatencyTracker {
+
+    private final int windowSize;
+    private final int minimumSamples;
+    private final ConcurrentHashMap<String, Samples> samples = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new latency tracker.
+     *
+     * @param windowSize number of most recent samples kept per key
+     * @param minimumSamples samples required before percentiles are reported
+     */
+    public LatencyTracker(int windowSize, int minimumSamples) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumSamples = Math.max(1, Math.min(minimumSamples, this.windowSize));
+    }
+
+    /**
+     * Records a latency sample.
+     *
+     * @param key the identifier (e.g., Jira host)
+     * @param latency the observed latency
+     */
+    public void record(String key, Duration latency) {
+        samples.computeIfAbsent(key, k -> new Samples()).add(latency.toNanos());
+    }
+
+    /**
+     * Gets a latency percentile for the given key.
+     *
+     * @param key the identifier
+     * @param percentile the percentile between 0 and 1 (e.g., 0.9 for p90)
+     * @return the percentile, or null if fewer than the minimum number of samples were recorded
+     */
+    public Duration percentile(String key, double percentile) {
+        Samples window = samples.get(key);
+        if (window == null) {
+            return null;
+        }
+        return window.percentile(Math.max(0d, Math.min(1d, percentile)));
+    }
+
+    /**
+     * Clears all recorded samples.
+     */
+    public void clear() {
+        samples.clear();
+    }
+
+    private class Samples {
+        private final long[] nanos = new long[windowSize];
+        private int next;
+        private int count;
+
+        synchronized void add(long value) {
+            nanos[next] = value;
+            next = (next + 1) % windowSize;
+            count = Math.min(count + 1, windowSize);
+        }
+
+        synchronized Duration percentile(double percentile) {
+            if (count < minimumSamples) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, Math.min(count - 1, index))]);
+        }
+    }
+}
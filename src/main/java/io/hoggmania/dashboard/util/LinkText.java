@@ -0,0 +1,40 @@
+package io.hoggmania.dashboard.util;
+
+/**
+ * Text of a payload field with its optional trailing {@code [url]} link split off, e.g.
+ * {@code "SAST [https%3A%2F%2Fwiki%2Fsast]"}. The link is URL-decoded.
+ */
+public final class LinkText {
+
+    public final String text; // null if the field is null or holds only a link
+    public final String href; // null if the field has no link
+
+    private LinkText(String text, String href) {
+        this.text = text;
+        this.href = href;
+    }
+
+    /**
+     * Splits a field into its text and link.
+     *
+     * @param value the raw field value
+     * @return the text (as given when there is no link, trimmed otherwise) and the decoded link
+     */
+    public static LinkText parse(String value) {
+        if (value == null) {
+            return new LinkText(null, null);
+        }
+        String trimmed = value.trim();
+        if (trimmed.endsWith("]")) {
+            int open = trimmed.lastIndexOf('[');
+            if (open >= 0 && open < trimmed.length() - 1) {
+                String encodedUrl = trimmed.substring(open + 1, trimmed.length() - 1).trim();
+                if (!encodedUrl.isBlank()) {
+                    String label = trimmed.substring(0, open).trim();
+                    return new LinkText(label.isEmpty() ? null : label, UrlUtils.decode(encodedUrl));
+                }
+            }
+        }
+        return new LinkText(value, null);
+    }
+}
@@ -0,0 +1,98 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Small bounded least-recently-used cache.
+ * Thread-safe; all operations synchronize on the cache instance.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries the maximum number of entries kept before the least recently used one is evicted
+     */
+    public LruCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets a value and marks it as recently used.
+     *
+     * @param key the key to look up
+     * @return the cached value, or null if absent
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entry if the cache is full.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @param key the key to remove
+     * @return the removed value, or null if absent
+     */
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    /**
+     * Removes every entry whose key matches the predicate.
+     *
+     * @param predicate the key filter
+     * @return the number of removed entries
+     */
+    public synchronized int removeIf(Predicate<K> predicate) {
+        List<K> matches = new ArrayList<>();
+        for (K key : entries.keySet()) {
+            if (predicate.test(key)) {
+                matches.add(key);
+            }
+        }
+        for (K key : matches) {
+            entries.remove(key);
+        }
+        return matches.size();
+    }
+
+    /**
+     * Gets the number of cached entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Clears all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -37,6 +37,34 @@ public class RateLimiter {
         return window.tryAcquire();
     }
     
+    /**
+     * Attempts to acquire a permit for the given key while leaving headroom in the window.
+     * The permit is only granted if fewer than {@code ceiling} requests were made in the
+     * current window, so callers can keep part of the budget in reserve for others.
+     * A refused attempt does not count against the window.
+     * 
+     * @param key the identifier for rate limiting
+     * @param ceiling the number of requests in the window this caller may use
+     * @return true if the request is allowed
+     */
+    public boolean tryAcquire(String key, int ceiling) {
+        RequestWindow window = windows.computeIfAbsent(key, k -> new RequestWindow());
+        return window.tryAcquire(Math.min(ceiling, maxRequests));
+    }
+    
+    /**
+     * Returns a permit acquired in the current window, e.g. when the request it was taken for
+     * is not sent after all.
+     * 
+     * @param key the identifier for rate limiting
+     */
+    public void release(String key) {
+        RequestWindow window = windows.get(key);
+        if (window != null) {
+            window.release();
+        }
+    }
+    
     /**
      * Checks if a request would be allowed without consuming a permit.
      * 
@@ -51,6 +79,21 @@ public class RateLimiter {
         return window.wouldAllow();
     }
     
+    /**
+     * Checks if a request would be allowed under the given ceiling without consuming a permit.
+     * 
+     * @param key the identifier for rate limiting
+     * @param ceiling the number of requests in the window this caller may use
+     * @return true if the request would be allowed
+     */
+    public boolean wouldAllow(String key, int ceiling) {
+        RequestWindow window = windows.get(key);
+        if (window == null) {
+            return ceiling > 0;
+        }
+        return window.requestsUsed() < Math.min(ceiling, maxRequests);
+    }
+    
     /**
      * Gets the remaining requests for the given key.
      * 
@@ -81,11 +124,33 @@ public class RateLimiter {
             return requestCount.incrementAndGet() <= maxRequests;
         }
         
+        boolean tryAcquire(int ceiling) {
+            resetIfExpired();
+            while (true) {
+                int current = requestCount.get();
+                if (current >= ceiling) {
+                    return false;
+                }
+                if (requestCount.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+        
+        void release() {
+            requestCount.updateAndGet(count -> Math.max(0, count - 1));
+        }
+        
         boolean wouldAllow() {
             resetIfExpired();
             return requestCount.get() < maxRequests;
         }
         
+        int requestsUsed() {
+            resetIfExpired();
+            return requestCount.get();
+        }
+        
         int remainingRequests() {
             resetIfExpired();
             return Math.max(0, maxRequests - requestCount.get());
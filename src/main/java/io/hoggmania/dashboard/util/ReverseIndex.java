@@ -0,0 +1,79 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Many-to-many index from members to the owners that contain them, e.g. from Jira issues to the
+ * ESA roots whose hierarchy includes them.
+ * Recording an owner replaces its previous members, so members that dropped out of an owner stop
+ * pointing at it. Thread-safe; all operations synchronize on the index instance.
+ *
+ * @param <M> the member type
+ * @param <O> the owner type
+ */
+public class ReverseIndex<M, O> {
+
+    private final Map<O, Set<M>> membersByOwner = new HashMap<>();
+    private final Map<M, Set<O>> ownersByMember = new HashMap<>();
+
+    /**
+     * Sets the members of an owner, replacing those recorded before.
+     *
+     * @param owner the owner
+     * @param members the owner's current members
+     */
+    public synchronized void record(O owner, Collection<M> members) {
+        remove(owner);
+        Set<M> current = new HashSet<>(members);
+        if (current.isEmpty()) {
+            return;
+        }
+        membersByOwner.put(owner, current);
+        for (M member : current) {
+            ownersByMember.computeIfAbsent(member, m -> new HashSet<>()).add(owner);
+        }
+    }
+
+    /**
+     * Gets the owners that contain a member.
+     *
+     * @param member the member to look up
+     * @return a copy of the owners; empty if the member is unknown
+     */
+    public synchronized Set<O> owners(M member) {
+        Set<O> owners = ownersByMember.get(member);
+        return owners == null ? Set.of() : Set.copyOf(owners);
+    }
+
+    /**
+     * Forgets an owner and its members.
+     *
+     * @param owner the owner to remove
+     */
+    public synchronized void remove(O owner) {
+        Set<M> previous = membersByOwner.remove(owner);
+        if (previous == null) {
+            return;
+        }
+        for (M member : previous) {
+            Set<O> owners = ownersByMember.get(member);
+            if (owners != null) {
+                owners.remove(owner);
+                if (owners.isEmpty()) {
+                    ownersByMember.remove(member);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of indexed members.
+     */
+    public synchronized int size() {
+        return ownersByMember.size();
+    }
+}
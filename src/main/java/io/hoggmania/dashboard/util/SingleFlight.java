@@ -0,0 +1,103 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Coalesces identical concurrent computations: while a computation for a key is in flight, later
+ * callers with the same key wait for its result instead of starting their own.
+ * The first caller (the leader) runs the work on its own thread; the key is released as soon as
+ * the work finishes, so results are never cached beyond the callers that were waiting.
+ * Thread-safe.
+ *
+ * @param <K> the key type
+ * @param <V> the result type; results are shared, so callers must not modify them
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the work, or waits for the computation already in flight for the same key.
+     *
+     * @param key the key identifying the result
+     * @param work the computation, run only if no computation for the key is in flight
+     * @return the result
+     * @throws Exception whatever the work threw, for the leader and every waiting caller alike
+     */
+    public V run(K key, Callable<V> work) throws Exception {
+        try {
+            return join(key, work).get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Joins the computation for a key, running the work on the calling thread if none is in flight.
+     * When this caller is the leader the returned future is already complete; otherwise it
+     * completes with the leader's result. Cancelling the returned future only stops this caller
+     * from waiting and never affects the computation.
+     *
+     * @param key the key identifying the result
+     * @param work the computation, run only if no computation for the key is in flight
+     * @return the result future
+     */
+    public CompletableFuture<V> join(K key, Callable<V> work) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.copy();
+        }
+        try {
+            created.complete(work.call());
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, created);
+        }
+        return created.copy();
+    }
+
+    /**
+     * Detaches the computations in flight for the matching keys: callers already waiting still get
+     * their result, but later callers start a new computation instead of joining them.
+     *
+     * @param keys selects the keys to detach
+     * @return the number of computations detached
+     */
+    public int detach(Predicate<? super K> keys) {
+        int detached = 0;
+        for (K key : inFlight.keySet()) {
+            if (keys.test(key) && inFlight.remove(key) != null) {
+                detached++;
+            }
+        }
+        return detached;
+    }
+
+    /**
+     * Gets the number of computations currently in flight.
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private static Exception unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        return new CancellationException(String.valueOf(cause));
+    }
+}
@@ -58,14 +58,19 @@ public final class StringUtils {
      * Escapes special XML/HTML characters to prevent XSS.
      * 
      * @param value the string to escape
-     * @return the escaped string, or empty string if input is null
+     * @return the escaped string, or empty string if input is null; the input itself if nothing needs escaping
      */
     public static String escapeXml(String value) {
         if (value == null || value.isEmpty()) {
             return value == null ? "" : value;
         }
-        StringBuilder sb = new StringBuilder(value.length());
-        for (int i = 0; i < value.length(); i++) {
+        int first = firstXmlSpecial(value);
+        if (first < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 16);
+        sb.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
             char c = value.charAt(i);
             switch (c) {
                 case '&':
@@ -89,5 +94,57 @@ public final class StringUtils {
         }
         return sb.toString();
     }
-}
 
+    private static int firstXmlSpecial(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&' || c == '<' || c == '>' || c == '"' || c == '\'') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reverses {@link #escapeXml(String)}. Other entities are left as they are.
+     *
+     * @param value the escaped string
+     * @return the plain string, or null if input is null
+     */
+    public static String unescapeXml(String value) {
+        if (value == null || value.indexOf('&') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                if (value.startsWith("&amp;", i)) {
+                    sb.append('&');
+                    i += 5;
+                    continue;
+                } else if (value.startsWith("&lt;", i)) {
+                    sb.append('<');
+                    i += 4;
+                    continue;
+                } else if (value.startsWith("&gt;", i)) {
+                    sb.append('>');
+                    i += 4;
+                    continue;
+                } else if (value.startsWith("&quot;", i)) {
+                    sb.append('"');
+                    i += 6;
+                    continue;
+                } else if (value.startsWith("&#39;", i)) {
+                    sb.append('\'');
+                    i += 5;
+                    continue;
+                }
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a rendered SVG into identified {@code <g>} elements and the remaining frame, so two
+ * renders can be compared element by element.
+ *
+ * <p>Only groups whose id starts with the given prefix and that contain no nested {@code <g>}
+ * are split out, which is how component boxes are rendered. The frame is the SVG with each of
+ * those groups replaced by an empty placeholder that keeps its id.
+ */
+public final class SvgFragments {
+
+    private static final String GROUP_END = "</g>";
+
+    private final Map<String, String> elements;
+    private final String frame;
+
+    private SvgFragments(Map<String, String> elements, String frame) {
+        this.elements = elements;
+        this.frame = frame;
+    }
+
+    /**
+     * Splits an SVG document.
+     *
+     * @param svg the SVG markup
+     * @param idPrefix prefix of the ids of the groups to split out
+     * @return the split document
+     */
+    public static SvgFragments split(String svg, String idPrefix) {
+        Map<String, String> elements = new LinkedHashMap<>();
+        StringBuilder frame = new StringBuilder(svg.length());
+        String open = "<g id=\"" + idPrefix;
+        int pos = 0;
+        while (true) {
+            int start = svg.indexOf(open, pos);
+            if (start < 0) {
+                break;
+            }
+            int end = svg.indexOf(GROUP_END, start);
+            int nested = svg.indexOf("<g", start + 2);
+            if (end < 0 || (nested >= 0 && nested < end)) {
+                // Not a flat group; leave it in the frame
+                frame.append(svg, pos, start + open.length());
+                pos = start + open.length();
+                continue;
+            }
+            int idStart = start + "<g id=\"".length();
+            String id = svg.substring(idStart, svg.indexOf('"', idStart));
+            end += GROUP_END.length();
+            elements.put(id, svg.substring(start, end));
+            frame.append(svg, pos, start).append("<g id=\"").append(id).append("\"/>");
+            pos = end;
+        }
+        frame.append(svg, pos, svg.length());
+        return new SvgFragments(Collections.unmodifiableMap(elements), frame.toString());
+    }
+
+    /**
+     * Gets the split out elements by id, in document order.
+     */
+    public Map<String, String> elements() {
+        return elements;
+    }
+
+    /**
+     * Gets the document without the split out elements.
+     */
+    public String frame() {
+        return frame;
+    }
+
+    /**
+     * Lists the elements of this document that differ from another document with the same frame.
+     *
+     * @param previous the document to compare with
+     * @return changed elements by id, or null if the frames or the set of element ids differ
+     */
+    public Map<String, String> changedSince(SvgFragments previous) {
+        if (previous == null || !frame.equals(previous.frame) || !elements.keySet().equals(previous.elements.keySet())) {
+            return null;
+        }
+        Map<String, String> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : elements.entrySet()) {
+            if (!entry.getValue().equals(previous.elements.get(entry.getKey()))) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changed;
+    }
+}
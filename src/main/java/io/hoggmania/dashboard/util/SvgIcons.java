@@ -0,0 +1,92 @@
+package io.hoggmania.dashboard.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The icon {@code <symbol>} definitions shared by every dashboard SVG, read once from
+ * {@code svg/icons.svg} on the classpath.
+ *
+ * <p>Dashboards either inline the symbols they reference or point at {@link #SPRITE}, a standalone
+ * SVG holding all of them that is served under a versioned, long-cacheable URL.
+ */
+public final class SvgIcons {
+
+    private static final String RESOURCE = "svg/icons.svg";
+    private static final Pattern SYMBOL = Pattern.compile("<symbol id=\"([^\"]+)\".*?</symbol>", Pattern.DOTALL);
+
+    /** The symbol elements, without leading or trailing whitespace. */
+    public static final String SYMBOLS = load();
+
+    /** A standalone SVG document defining every symbol. */
+    public static final String SPRITE = "<svg xmlns=\"http://www.w3.org/2000/svg\"><defs>\n" + SYMBOLS + "\n</defs></svg>\n";
+
+    /** Short content hash of {@link #SPRITE}, used to version its URL. */
+    public static final String VERSION = HashUtils.sha256Hex(SPRITE).substring(0, 12);
+
+    private static final Map<String, String> BY_ID = index(SYMBOLS);
+
+    private SvgIcons() {
+        // Utility class
+    }
+
+    /**
+     * Gets the markup of the given symbols, in the order they appear in the sprite.
+     *
+     * @param ids the referenced symbol ids; unknown ids are ignored
+     * @return the symbol elements separated by newlines; empty if none is known
+     */
+    public static String symbols(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(ids.size() * 256);
+        for (Map.Entry<String, String> symbol : BY_ID.entrySet()) {
+            if (ids.contains(symbol.getKey())) {
+                if (out.length() > 0) {
+                    out.append('\n');
+                }
+                out.append(symbol.getValue());
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Checks whether a symbol is defined.
+     *
+     * @param id the symbol id, e.g. {@code icon-shield}
+     * @return true if the sprite defines it
+     */
+    public static boolean contains(String id) {
+        return BY_ID.containsKey(id);
+    }
+
+    private static Map<String, String> index(String symbols) {
+        Map<String, String> byId = new LinkedHashMap<>();
+        Matcher matcher = SYMBOL.matcher(symbols);
+        while (matcher.find()) {
+            byId.put(matcher.group(1), matcher.group());
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private static String load() {
+        try (InputStream in = SvgIcons.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " not found on classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(RESOURCE + " could not be read", e);
+        }
+    }
+}
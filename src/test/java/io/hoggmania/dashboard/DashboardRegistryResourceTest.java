@@ -0,0 +1,94 @@
+package io.hoggmania.dashboard;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+@QuarkusTest
+public class DashboardRegistryResourceTest {
+
+    private String readPayload() throws IOException {
+        var is = Thread.currentThread().getContextClassLoader().getResourceAsStream("test-payload.json");
+        if (is == null) throw new IOException("test-payload.json not found on classpath");
+        return new String(is.readAllBytes());
+    }
+
+    @Test
+    public void testStoredDashboardIsCacheable() throws Exception {
+        String id =
+        given()
+            .contentType("application/json")
+            .body(readPayload())
+        .when()
+            .post("/api/v1/dashboards")
+        .then()
+            .statusCode(201)
+            .header("Location", containsString("/api/v1/dashboards/"))
+            .body("named", is(false))
+            .extract().path("id");
+
+        String etag =
+        given()
+        .when()
+            .get("/api/v1/dashboards/" + id + ".svg")
+        .then()
+            .statusCode(200)
+            .contentType(containsString("image/svg+xml"))
+            .header("Cache-Control", containsString("immutable"))
+            .body(containsString("<svg"))
+            .extract().header("ETag");
+        assertNotNull(etag);
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/v1/dashboards/" + id + ".svg")
+        .then()
+            .statusCode(304);
+
+        // Storing the same payload again yields the same id
+        given()
+            .contentType("application/json")
+            .body(readPayload())
+        .when()
+            .post("/api/v1/dashboards")
+        .then()
+            .statusCode(201)
+            .body("id", equalTo(id));
+    }
+
+    @Test
+    public void testNamedDashboardRevalidates() throws Exception {
+        given()
+            .contentType("application/json")
+            .body(readPayload())
+        .when()
+            .put("/api/v1/dashboards/wallboard-test")
+        .then()
+            .statusCode(200)
+            .body("named", is(true));
+
+        given()
+        .when()
+            .get("/api/v1/dashboards/wallboard-test/initiatives")
+        .then()
+            .statusCode(200)
+            .header("Cache-Control", containsString("no-cache"));
+
+        given().when().delete("/api/v1/dashboards/wallboard-test").then().statusCode(204);
+        given().when().get("/api/v1/dashboards/wallboard-test.svg").then().statusCode(404);
+    }
+
+    @Test
+    public void testUnknownDashboard() {
+        given()
+        .when()
+            .get("/api/v1/dashboards/does-not-exist.png")
+        .then()
+            .statusCode(404);
+    }
+}
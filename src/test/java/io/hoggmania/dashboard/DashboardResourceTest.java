@@ -66,6 +66,123 @@ public class DashboardResourceTest {
         org.junit.jupiter.api.Assertions.assertTrue(bytes.length > 1000, "PNG output should be non-empty");
     }
 
+    @Test
+    public void testSvgIsGzipEncodedWhenAccepted() throws IOException {
+        String payload = readPayload();
+        given()
+            .contentType("application/json")
+            .header("Accept-Encoding", "gzip")
+            .body(payload)
+        .when()
+            .post("/api/v1/dashboard/svg")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", "gzip")
+            .header("Vary", containsString("Accept-Encoding"))
+            // RestAssured decodes the body transparently
+            .body(containsString("Application Security Governance"));
+
+        given()
+            .config(io.restassured.RestAssured.config().decoderConfig(
+                io.restassured.config.DecoderConfig.decoderConfig().noContentDecoders()))
+            .contentType("application/json")
+            .header("Accept-Encoding", "identity")
+            .body(payload)
+        .when()
+            .post("/api/v1/dashboard/svg")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", nullValue())
+            .body(startsWith("<svg"));
+    }
+
+    @Test
+    public void testSvgzDownload() throws IOException {
+        byte[] bytes =
+            given()
+                .config(io.restassured.RestAssured.config().decoderConfig(
+                    io.restassured.config.DecoderConfig.decoderConfig().noContentDecoders()))
+                .contentType("application/json")
+                .body(readPayload())
+            .when()
+                .post("/api/v1/dashboard/svgz")
+            .then()
+                .statusCode(200)
+                .contentType(containsString("image/svg+xml"))
+                .header("Content-Disposition", containsString("dashboard.svgz"))
+                .header("Content-Encoding", nullValue())
+                .extract()
+                .asByteArray();
+        // gzip magic bytes
+        org.junit.jupiter.api.Assertions.assertEquals((byte) 0x1f, bytes[0]);
+        org.junit.jupiter.api.Assertions.assertEquals((byte) 0x8b, bytes[1]);
+    }
+
+    @Test
+    public void testLayoutJson() throws IOException {
+        given()
+            .contentType("application/json")
+            .body(readPayload())
+        .when()
+            .post("/api/v1/dashboard/layout")
+        .then()
+            .statusCode(200)
+            .contentType(containsString("application/json"))
+            .body("title.title", notNullValue())
+            .body("governance.title", equalTo("Application Security Governance"))
+            .body("components.size()", greaterThan(0))
+            .body("legend.status.size()", greaterThan(0));
+    }
+
+    @Test
+    public void testSubsetRendering() throws IOException {
+        String payload = readPayload();
+        given()
+            .contentType("application/json")
+            .queryParam("domain", "Application Security Testing")
+            .body(payload)
+        .when()
+            .post("/api/v1/dashboard/svg")
+        .then()
+            .statusCode(200)
+            .body(containsString("Application Security Testing"))
+            .body(not(containsString("Application Security Governance")));
+
+        given()
+            .contentType("application/json")
+            .queryParam("section", "governance")
+            .body(payload)
+        .when()
+            .post("/api/v1/dashboard/png")
+        .then()
+            .statusCode(200)
+            .contentType("image/png");
+
+        given()
+            .contentType("application/json")
+            .queryParam("section", "legend")
+            .body(payload)
+        .when()
+            .post("/api/v1/dashboard/svg")
+        .then()
+            .statusCode(400);
+    }
+
+    @Test
+    public void testPreviewPage() throws IOException {
+        given()
+            .contentType("application/json")
+            .body(readPayload())
+        .when()
+            .post("/api/v1/dashboard/preview")
+        .then()
+            .statusCode(200)
+            .contentType(containsString("text/html"))
+            // The SVG is inlined unescaped next to the PNG data URI
+            .body(containsString("<svg xmlns=\"http://www.w3.org/2000/svg\""))
+            .body(containsString("data:image/png;base64,iVBOR"));
+    }
+
     private int countOccurrences(String text, String needle) {
         int count = 0;
         int index = 0;
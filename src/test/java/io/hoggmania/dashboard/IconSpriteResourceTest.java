@@ -0,0 +1,42 @@
+package io.hoggmania.dashboard;
+
+import io.hoggmania.dashboard.util.SvgIcons;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class IconSpriteResourceTest {
+
+    @Test
+    public void testVersionedSpriteIsImmutable() {
+        given()
+        .when()
+            .get("/api/v1/icons/icons-" + SvgIcons.VERSION + ".svg")
+        .then()
+            .statusCode(200)
+            .contentType(containsString("image/svg+xml"))
+            .header("Cache-Control", containsString("immutable"))
+            .body(containsString("<symbol id=\"icon-shield\""));
+
+        given()
+            .header("If-None-Match", "\"" + SvgIcons.VERSION + "\"")
+        .when()
+            .get("/api/v1/icons/icons-" + SvgIcons.VERSION + ".svg")
+        .then()
+            .statusCode(304);
+    }
+
+    @Test
+    public void testEarlierVersionRedirectsToCurrent() {
+        given()
+            .redirects().follow(false)
+        .when()
+            .get("/api/v1/icons/icons-000000000000.svg")
+        .then()
+            .statusCode(307)
+            .header("Location", endsWith("/api/v1/icons/icons-" + SvgIcons.VERSION + ".svg"))
+            .header("Cache-Control", not(containsString("immutable")));
+    }
+}
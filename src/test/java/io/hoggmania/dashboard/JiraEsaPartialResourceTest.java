@@ -0,0 +1,73 @@
+package io.hoggmania.dashboard;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.service.JiraPayloadService;
+import io.hoggmania.dashboard.service.JiraRequestContext;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import org.junit.jupiter.api.Test;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+@TestProfile(JiraEsaPartialResourceTest.StubbedJira.class)
+public class JiraEsaPartialResourceTest {
+
+    private static final String REQUEST = "{\"jiraUrl\":\"https://jira.example.com/browse/ESA-1\",\"jiraToken\":\"t\"}";
+
+    public static class StubbedJira implements QuarkusTestProfile {
+        @Override
+        public Set<Class<?>> getEnabledAlternatives() {
+            return Set.of(DeadlineBoundPayloadService.class);
+        }
+    }
+
+    /** Answers builds with a deadline as if it ran out after the root issue. */
+    @Alternative
+    @ApplicationScoped
+    public static class DeadlineBoundPayloadService extends JiraPayloadService {
+        @Override
+        public ESA buildFromUrl(String baseUrl, String issueUrl, String personalToken,
+                Map<String, String> extraHeaders, JiraRequestContext context) {
+            ESA esa = new ESA();
+            esa.title = "Security";
+            if (context.hasDeadline()) {
+                esa.attributes = Map.of(JiraPayloadService.PARTIAL_ATTRIBUTE, "true",
+                        JiraPayloadService.UNFETCHED_ATTRIBUTE, "2");
+            }
+            return esa;
+        }
+    }
+
+    @Test
+    public void testPartialHeaderWhenDeadlineRunsOut() {
+        given()
+            .contentType("application/json")
+            .body(REQUEST)
+        .when()
+            .post("/api/v1/jira/esa?deadlineMs=500")
+        .then()
+            .statusCode(200)
+            .header("X-ESA-Partial", "true")
+            .body("attributes.partial", equalTo("true"))
+            .body("attributes.unfetchedIssues", equalTo("2"));
+    }
+
+    @Test
+    public void testCompleteBuildIsNotPartial() {
+        given()
+            .contentType("application/json")
+            .body(REQUEST)
+        .when()
+            .post("/api/v1/jira/esa")
+        .then()
+            .statusCode(200)
+            .header("X-ESA-Partial", "false");
+    }
+}
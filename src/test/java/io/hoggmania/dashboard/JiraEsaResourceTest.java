@@ -0,0 +1,113 @@
+package io.hoggmania.dashboard;
+
+import java.nio.charset.StandardCharsets;
+
+import io.hoggmania.dashboard.service.JiraWebhookService;
+import io.hoggmania.dashboard.util.HashUtils;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class JiraEsaResourceTest {
+
+    // %test.jira.webhook.secret in application.properties
+    private static final String WEBHOOK_SECRET = "test-webhook-secret";
+
+    private static String sign(String body) {
+        return "sha256=" + HashUtils.hmacSha256Hex(WEBHOOK_SECRET, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testInvalidDeadlineRejected() {
+        given()
+            .contentType("application/json")
+            .body("{\"jiraUrl\":\"https://jira.example.com/browse/ESA-1\",\"jiraToken\":\"t\"}")
+        .when()
+            .post("/api/v1/jira/esa?deadlineMs=0")
+        .then()
+            .statusCode(400)
+            .body(containsString("deadlineMs"));
+    }
+
+    @Test
+    public void testImportRequiresIssueUrl() {
+        given()
+            .contentType("application/json")
+            .body("{\"jiraBase\":\"https://jira.example.com\",\"jiraToken\":\"t\"}")
+        .when()
+            .post("/api/v1/jira/imports")
+        .then()
+            .statusCode(400)
+            .body(containsString("Jira issue URL is required"));
+    }
+
+    @Test
+    public void testUnknownImportReturns404() {
+        given()
+        .when()
+            .get("/api/v1/jira/imports/does-not-exist")
+        .then()
+            .statusCode(404);
+    }
+
+    @Test
+    public void testUnknownImportEventsReturns404() {
+        given()
+            .accept("text/event-stream")
+        .when()
+            .get("/api/v1/jira/imports/does-not-exist/events")
+        .then()
+            .statusCode(404);
+    }
+
+    @Test
+    public void testWebhookForUnindexedIssue() {
+        String body = "{\"webhookEvent\":\"jira:issue_updated\",\"issue\":{\"id\":\"10001\",\"key\":\"feat-1\"}}";
+        given()
+            .contentType("application/json")
+            .header(JiraWebhookService.SIGNATURE_HEADER, sign(body))
+            .body(body)
+        .when()
+            .post("/api/v1/jira/webhook")
+        .then()
+            .statusCode(202)
+            .body("issueKeys", contains("FEAT-1"))
+            .body("roots", empty());
+    }
+
+    @Test
+    public void testWebhookWithoutIssueRejected() {
+        String body = "{\"webhookEvent\":\"jira:issue_updated\"}";
+        given()
+            .contentType("application/json")
+            .header(JiraWebhookService.SIGNATURE_HEADER, sign(body))
+            .body(body)
+        .when()
+            .post("/api/v1/jira/webhook")
+        .then()
+            .statusCode(400);
+    }
+
+    @Test
+    public void testUnsignedWebhookRejected() {
+        String body = "{\"webhookEvent\":\"jira:issue_updated\",\"issue\":{\"id\":\"10001\",\"key\":\"feat-1\"}}";
+        given()
+            .contentType("application/json")
+            .body(body)
+        .when()
+            .post("/api/v1/jira/webhook")
+        .then()
+            .statusCode(401);
+
+        given()
+            .contentType("application/json")
+            .header(JiraWebhookService.SIGNATURE_HEADER, "sha256=" + "0".repeat(64))
+            .body(body)
+        .when()
+            .post("/api/v1/jira/webhook")
+        .then()
+            .statusCode(401);
+    }
+}
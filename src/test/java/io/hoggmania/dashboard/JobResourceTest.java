@@ -0,0 +1,80 @@
+package io.hoggmania.dashboard;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+@QuarkusTest
+public class JobResourceTest {
+
+    private String readPayload() throws IOException {
+        var is = Thread.currentThread().getContextClassLoader().getResourceAsStream("test-payload.json");
+        if (is == null) throw new IOException("test-payload.json not found on classpath");
+        return new String(is.readAllBytes());
+    }
+
+    @Test
+    public void testSvgJobProducesResult() throws Exception {
+        String body = "{\"type\":\"svg\",\"payload\":" + readPayload() + "}";
+        String id =
+        given()
+            .contentType("application/json")
+            .body(body)
+        .when()
+            .post("/api/v1/jobs")
+        .then()
+            .statusCode(202)
+            .header("Location", containsString("/api/v1/jobs/"))
+            .extract().path("id");
+
+        String state = null;
+        for (int i = 0; i < 100 && !"SUCCEEDED".equals(state) && !"FAILED".equals(state); i++) {
+            Thread.sleep(100);
+            state = given().when().get("/api/v1/jobs/" + id).then().statusCode(200).extract().path("state");
+        }
+        assertEquals("SUCCEEDED", state);
+
+        given()
+        .when()
+            .get("/api/v1/jobs/" + id + "/result")
+        .then()
+            .statusCode(200)
+            .contentType(containsString("image/svg+xml"))
+            .body(containsString("<svg"));
+
+        // An identical submission returns the same job
+        given()
+            .contentType("application/json")
+            .body(body)
+        .when()
+            .post("/api/v1/jobs")
+        .then()
+            .statusCode(202)
+            .body("id", equalTo(id));
+    }
+
+    @Test
+    public void testUnknownJobTypeRejected() {
+        given()
+            .contentType("application/json")
+            .body("{\"type\":\"gif\",\"payload\":{}}")
+        .when()
+            .post("/api/v1/jobs")
+        .then()
+            .statusCode(400)
+            .body(containsString("Job type"));
+    }
+
+    @Test
+    public void testUnknownJobReturns404() {
+        given()
+        .when()
+            .get("/api/v1/jobs/does-not-exist/result")
+        .then()
+            .statusCode(404);
+    }
+}
@@ -0,0 +1,39 @@
+package io.hoggmania.dashboard;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class PrerenderResourceTest {
+
+    @Test
+    public void testNoRootsConfigured() {
+        given()
+        .when()
+            .get("/api/v1/prerendered")
+        .then()
+            .statusCode(200)
+            .body("size()", is(0));
+    }
+
+    @Test
+    public void testUnknownRootReturns404() {
+        given()
+        .when()
+            .get("/api/v1/prerendered/ESA-1/svg")
+        .then()
+            .statusCode(404);
+    }
+
+    @Test
+    public void testUnconfiguredRootEventsReturn404() {
+        given()
+            .accept("text/event-stream")
+        .when()
+            .get("/api/v1/prerendered/ESA-1/events")
+        .then()
+            .statusCode(404);
+    }
+}
@@ -0,0 +1,107 @@
+package io.hoggmania.dashboard;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.RenderPlan;
+import io.hoggmania.dashboard.service.RenderPlanCompiler;
+import io.hoggmania.dashboard.service.StreamingSvgWriter;
+import io.hoggmania.dashboard.service.SvgService;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the streaming SVG writer draws exactly what dashboard.svg.qute draws. Documents are
+ * compared after dropping comments and indentation and rounding numbers to two decimals.
+ */
+@QuarkusTest
+public class SvgRendererEquivalenceTest {
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+    @Inject
+    SvgService svgService;
+
+    @Inject
+    RenderPlanCompiler renderPlanCompiler;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Test
+    public void testGoldenPayloadRendersIdentically() throws Exception {
+        assertEquivalent("golden/dashboard-golden.json");
+    }
+
+    @Test
+    public void testSamplePayloadRendersIdentically() throws Exception {
+        assertEquivalent("test-payload.json");
+    }
+
+    private void assertEquivalent(String payload) throws Exception {
+        ESA esa;
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(payload)) {
+            esa = mapper.readValue(is, ESA.class);
+        }
+        RenderPlan plan = renderPlanCompiler.compile(esa);
+        String qute = svgService.renderSvg(plan);
+        String streaming = new String(StreamingSvgWriter.toBytes(plan), StandardCharsets.UTF_8);
+        assertEquals(canonical(qute), canonical(streaming));
+    }
+
+    private static String canonical(String svg) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setIgnoringComments(true);
+        Element root = factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)))
+                .getDocumentElement();
+        StringBuilder out = new StringBuilder();
+        append(root, out);
+        return out.toString();
+    }
+
+    private static void append(Node node, StringBuilder out) {
+        if (node.getNodeType() == Node.TEXT_NODE) {
+            String text = node.getNodeValue().strip();
+            if (!text.isEmpty()) {
+                out.append(text).append('\n');
+            }
+            return;
+        }
+        if (node.getNodeType() != Node.ELEMENT_NODE) {
+            return;
+        }
+        Map<String, String> attributes = new TreeMap<>();
+        NamedNodeMap map = node.getAttributes();
+        for (int i = 0; i < map.getLength(); i++) {
+            attributes.put(map.item(i).getNodeName(), normalize(map.item(i).getNodeValue()));
+        }
+        out.append('<').append(node.getNodeName()).append(' ').append(attributes).append(">\n");
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            append(child, out);
+        }
+        out.append("</").append(node.getNodeName()).append(">\n");
+    }
+
+    private static String normalize(String value) {
+        return NUMBER.matcher(value).replaceAll(match -> {
+            String rounded = String.format(java.util.Locale.ROOT, "%.2f", Double.parseDouble(match.group()));
+            return rounded.replaceAll("\\.?0+$", "");
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package io.hoggmania.dashboard.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.config.DashboardLayoutConfig;
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.service.RenderPlanCompiler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardSubsetTest {
+
+    private static ESA goldenEsa() throws IOException {
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream("golden/dashboard-golden.json")) {
+            return new ObjectMapper().readValue(is, ESA.class);
+        }
+    }
+
+    @Test
+    public void testParse() {
+        assertTrue(DashboardSubset.of(null, " ").isAll());
+        assertEquals("governance", DashboardSubset.of("Governance", null).toString());
+        assertEquals("capabilities:Cloud", DashboardSubset.of(null, "Cloud").toString());
+        assertThrows(ValidationException.class, () -> DashboardSubset.of("legend", null));
+        assertThrows(ValidationException.class, () -> DashboardSubset.of("governance", "Cloud"));
+    }
+
+    @Test
+    public void testKeysAreDistinct() {
+        assertEquals("abc", DashboardSubset.ALL.key("abc"));
+        assertNotEquals(DashboardSubset.of("governance", null).key("abc"), DashboardSubset.of("capabilities", null).key("abc"));
+        assertEquals(DashboardSubset.of(null, "cloud").key("abc"), DashboardSubset.of(null, "Cloud").key("abc"));
+    }
+
+    @Test
+    public void testSelectDomain() throws IOException {
+        ESA esa = goldenEsa();
+        ESA subset = DashboardSubset.of(null, "network").apply(esa);
+
+        assertNull(subset.governance);
+        assertEquals(1, subset.capabilities.domains.size());
+        assertEquals(esa.capabilities.title, subset.capabilities.title);
+        assertEquals(4, esa.capabilities.domains.size());
+        assertThrows(ValidationException.class, () -> DashboardSubset.of(null, "Unknown").apply(esa));
+    }
+
+    @Test
+    public void testSubsetCanvasIsSmaller() throws IOException {
+        RenderPlanCompiler compiler = new RenderPlanCompiler(1);
+        ESA esa = goldenEsa();
+        RenderPlan full = compiler.compile(esa);
+
+        RenderPlan domain = compiler.compile(DashboardSubset.of(null, "Cloud").apply(esa));
+        assertTrue(domain.governanceItems.isEmpty());
+        assertEquals(1, domain.domainGroups.size());
+        assertEquals(DashboardLayoutConfig.GOVERNANCE_HEADER_Y, domain.capabilitiesHeaderY);
+        assertTrue(domain.svgHeight < full.svgHeight);
+
+        RenderPlan governance = compiler.compile(DashboardSubset.of("governance", null).apply(esa));
+        assertTrue(governance.domainGroups.isEmpty());
+        assertEquals(full.governanceItems.size(), governance.governanceItems.size());
+        // the legend takes the place of the capabilities header
+        assertEquals(full.capabilitiesHeaderY, governance.legendY);
+        assertTrue(governance.svgHeight < full.svgHeight);
+    }
+}
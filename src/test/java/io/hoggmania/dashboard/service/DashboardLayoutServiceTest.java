@@ -0,0 +1,76 @@
+package io.hoggmania.dashboard.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.DashboardLayout;
+import io.hoggmania.dashboard.model.DomainGroup;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.RenderItem;
+import io.hoggmania.dashboard.model.RenderPlan;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardLayoutServiceTest {
+
+    private final DashboardLayoutService service = new DashboardLayoutService();
+
+    @Test
+    public void testLayoutMatchesPlanGeometry() throws Exception {
+        RenderPlan plan = StreamingSvgWriterTest.goldenPlan();
+        DashboardLayout layout = service.layout(plan);
+
+        assertEquals(plan.canvasWidth, layout.width);
+        assertEquals(plan.svgHeight, layout.height);
+        assertEquals((int) plan.boxW, layout.box.width);
+        assertEquals(plan.boxH, layout.box.height);
+
+        int expected = plan.governanceItems.size();
+        for (DomainGroup domain : plan.domainGroups) {
+            expected += domain.items.size();
+        }
+        assertEquals(expected, layout.components.size());
+
+        RenderItem first = plan.domainGroups.get(0).items.get(0);
+        DashboardLayout.Component component = layout.components.stream()
+                .filter(c -> first.elementId.equals(c.id))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(first.x, component.x);
+        assertEquals(first.y, component.y);
+        assertEquals(first.nameLines, component.nameLines);
+        assertNotNull(component.domain);
+
+        DomainGroup group = plan.domainGroups.get(0);
+        DashboardLayout.Header header = layout.domains.get(0);
+        assertEquals(group.headerX, header.box.x);
+        assertEquals(group.headerX + group.headerTextX, header.textX);
+
+        assertEquals(ComponentItem.Status.values().length, layout.legend.status.size());
+        assertEquals(ComponentItem.Maturity.values().length, layout.legend.maturity.size());
+        assertEquals(plan.legendY, layout.legend.box.y);
+        assertEquals(plan.initiativeGradients.size(), layout.ragGradients.size());
+    }
+
+    @Test
+    public void testTextIsUnescaped() throws Exception {
+        ESA esa = new ObjectMapper().readValue(StreamingSvgWriterTest.resource(StreamingSvgWriterTest.GOLDEN_PAYLOAD), ESA.class);
+        esa.title = "R&D <Security>";
+        esa.governance.components.get(0).name = "Tom's \"Scanner\"";
+        DashboardLayout layout = service.layout(new RenderPlanCompiler(1).compile(esa));
+
+        assertEquals("R&D <Security>", layout.title.title);
+        assertEquals("Tom's \"Scanner\"", String.join(" ", layout.components.get(0).nameLines));
+    }
+
+    @Test
+    public void testJsonOmitsAbsentValues() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode json = mapper.valueToTree(service.layout(StreamingSvgWriterTest.goldenPlan()));
+
+        assertFalse(json.toString().contains(":null"));
+        assertTrue(json.get("components").isArray());
+        assertTrue(json.get("legend").get("status").get(0).has("swatch"));
+    }
+}
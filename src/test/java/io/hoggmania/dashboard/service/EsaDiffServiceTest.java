@@ -0,0 +1,196 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.hoggmania.dashboard.model.Capabilities;
+import io.hoggmania.dashboard.model.ComponentInitiative;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.Domain;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.EsaDelta;
+import io.hoggmania.dashboard.model.Governance;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EsaDiffServiceTest {
+
+    private final EsaDiffService service = new EsaDiffService();
+
+    private static ComponentItem component(String name, ComponentItem.Status status, String... initiativeKeys) {
+        ComponentItem item = new ComponentItem();
+        item.name = name;
+        item.status = status;
+        item.maturity = ComponentItem.Maturity.DEFINED;
+        item.initiativeDetails = new ArrayList<>();
+        for (String key : initiativeKeys) {
+            ComponentInitiative initiative = new ComponentInitiative();
+            initiative.key = key;
+            initiative.summary = "Summary " + key;
+            item.initiativeDetails.add(initiative);
+        }
+        return item;
+    }
+
+    private static Domain domain(String name, ComponentItem... components) {
+        Domain domain = new Domain();
+        domain.domain = name;
+        domain.components = new ArrayList<>(List.of(components));
+        return domain;
+    }
+
+    private static ESA esa(List<ComponentItem> governance, Domain... domains) {
+        ESA esa = new ESA();
+        esa.title = "ESA";
+        esa.governance = new Governance();
+        esa.governance.title = "Governance";
+        esa.governance.components = new ArrayList<>(governance);
+        esa.capabilities = new Capabilities();
+        esa.capabilities.title = "Capabilities";
+        esa.capabilities.domains = new ArrayList<>(List.of(domains));
+        return esa;
+    }
+
+    @Test
+    public void testIdenticalPayloads() {
+        ESA before = esa(List.of(component("Policy", ComponentItem.Status.HIGH)),
+                domain("Testing", component("SAST", ComponentItem.Status.LOW, "AS-1")));
+        ESA after = esa(List.of(component("Policy", ComponentItem.Status.HIGH)),
+                domain("Testing", component("SAST", ComponentItem.Status.LOW, "AS-1")));
+
+        EsaDelta delta = service.diff(before, after);
+        assertTrue(delta.identical);
+        assertTrue(delta.components.isEmpty());
+    }
+
+    @Test
+    public void testAddedRemovedMovedAndChanged() {
+        ESA before = esa(List.of(component("Policy", ComponentItem.Status.HIGH)),
+                domain("Testing", component("SAST", ComponentItem.Status.LOW, "AS-1"), component("DAST", ComponentItem.Status.LOW)),
+                domain("Runtime", component("RASP", ComponentItem.Status.MEDIUM)));
+        ESA after = esa(List.of(component("Policy", ComponentItem.Status.EFFECTIVE), component("Training", ComponentItem.Status.LOW)),
+                domain("Testing", component("sast ", ComponentItem.Status.LOW, "AS-2")),
+                domain("Runtime", component("RASP", ComponentItem.Status.MEDIUM), component("DAST", ComponentItem.Status.MEDIUM)));
+
+        EsaDelta delta = service.diff(before, after);
+        assertFalse(delta.identical);
+
+        EsaDelta.ComponentChange policy = find(delta, "Policy");
+        assertEquals(EsaDelta.Change.CHANGED, policy.change);
+        assertEquals("status", policy.fields.get(0).field);
+        assertEquals("HIGH", policy.fields.get(0).before);
+        assertEquals("EFFECTIVE", policy.fields.get(0).after);
+
+        assertEquals(EsaDelta.Change.ADDED, find(delta, "Training").change);
+
+        EsaDelta.ComponentChange dast = find(delta, "DAST");
+        assertEquals(EsaDelta.Change.MOVED, dast.change);
+        assertEquals("Testing", dast.fromDomain);
+        assertEquals("Runtime", dast.toDomain);
+        assertEquals("status", dast.fields.get(0).field);
+
+        // Matched by normalized name; only the initiatives differ
+        EsaDelta.ComponentChange sast = find(delta, "sast ");
+        assertEquals(EsaDelta.Change.CHANGED, sast.change);
+        assertEquals(1, sast.fields.size()); // the name's spelling
+        assertEquals(2, sast.initiatives.size());
+        assertEquals(EsaDelta.Change.ADDED, sast.initiatives.get(0).change);
+        assertEquals("AS-2", sast.initiatives.get(0).key);
+        assertEquals(EsaDelta.Change.REMOVED, sast.initiatives.get(1).change);
+        assertEquals("AS-1", sast.initiatives.get(1).key);
+
+        assertNull(findOrNull(delta, "RASP"));
+        assertEquals(4, delta.components.size());
+    }
+
+    @Test
+    public void testDomainsAddedAndRemoved() {
+        ESA before = esa(List.of(), domain("Testing", component("SAST", ComponentItem.Status.LOW)));
+        ESA after = esa(List.of(), domain("Cloud", component("CSPM", ComponentItem.Status.LOW)));
+
+        EsaDelta delta = service.diff(before, after);
+        assertEquals(List.of("Cloud"), delta.domainsAdded);
+        assertEquals(List.of("Testing"), delta.domainsRemoved);
+        assertEquals(EsaDelta.Change.REMOVED, find(delta, "SAST").change);
+        assertEquals("Testing", find(delta, "SAST").fromDomain);
+        assertEquals(EsaDelta.Change.ADDED, find(delta, "CSPM").change);
+    }
+
+    @Test
+    public void testDomainIconAndOrderChanges() {
+        Domain testing = domain("Testing", component("SAST", ComponentItem.Status.LOW));
+        Domain runtime = domain("Runtime", component("RASP", ComponentItem.Status.LOW));
+        ESA before = esa(List.of(), testing, runtime, domain("Cloud"));
+        Domain renamedIcon = domain("Runtime", component("RASP", ComponentItem.Status.LOW));
+        renamedIcon.icon = "shield";
+        // Cloud is removed and Identity added; only the shared domains' relative order counts
+        ESA after = esa(List.of(), domain("Identity"), renamedIcon,
+                domain("Testing", component("SAST", ComponentItem.Status.LOW)));
+
+        EsaDelta delta = service.diff(before, after);
+        assertFalse(delta.identical);
+        assertTrue(delta.components.isEmpty());
+        assertEquals(2, delta.domainsChanged.size());
+
+        EsaDelta.DomainChange moved = delta.domainsChanged.get(0);
+        assertEquals("Runtime", moved.domain);
+        assertEquals("icon", moved.fields.get(0).field);
+        assertNull(moved.fields.get(0).before);
+        assertEquals("shield", moved.fields.get(0).after);
+        assertEquals("position", moved.fields.get(1).field);
+        assertEquals("1", moved.fields.get(1).before);
+        assertEquals("0", moved.fields.get(1).after);
+
+        EsaDelta.DomainChange swapped = delta.domainsChanged.get(1);
+        assertEquals("Testing", swapped.domain);
+        assertEquals(1, swapped.fields.size());
+        assertEquals("position", swapped.fields.get(0).field);
+    }
+
+    @Test
+    public void testAddedDomainDoesNotReorderOthers() {
+        ESA before = esa(List.of(), domain("Testing"), domain("Runtime"));
+        ESA after = esa(List.of(), domain("Cloud"), domain("Testing"), domain("Runtime"));
+
+        EsaDelta delta = service.diff(before, after);
+        assertEquals(List.of("Cloud"), delta.domainsAdded);
+        assertTrue(delta.domainsChanged.isEmpty());
+    }
+
+    @Test
+    public void testLinkOnlyEditsAreFieldChanges() {
+        ESA before = esa(List.of(component("Policy [https%3A%2F%2Fwiki%2Fpolicy]", ComponentItem.Status.HIGH)),
+                domain("Testing [https%3A%2F%2Fwiki%2Ftesting]", component("SAST", ComponentItem.Status.LOW)));
+        ESA after = esa(List.of(component("Policy [https%3A%2F%2Fwiki%2Fpolicy-v2]", ComponentItem.Status.HIGH)),
+                domain("Testing", component("SAST", ComponentItem.Status.LOW)));
+
+        EsaDelta delta = service.diff(before, after);
+        assertTrue(delta.domainsAdded.isEmpty());
+        assertTrue(delta.domainsRemoved.isEmpty());
+        assertNull(findOrNull(delta, "SAST"), "components stay in their domain");
+
+        EsaDelta.ComponentChange policy = find(delta, "Policy");
+        assertEquals(EsaDelta.Change.CHANGED, policy.change);
+        assertEquals(1, policy.fields.size());
+        assertEquals("nameHref", policy.fields.get(0).field);
+        assertEquals("https://wiki/policy", policy.fields.get(0).before);
+        assertEquals("https://wiki/policy-v2", policy.fields.get(0).after);
+
+        assertEquals(1, delta.domainsChanged.size());
+        EsaDelta.DomainChange testing = delta.domainsChanged.get(0);
+        assertEquals("Testing", testing.domain);
+        assertEquals(1, testing.fields.size());
+        assertEquals("href", testing.fields.get(0).field);
+        assertNull(testing.fields.get(0).after);
+    }
+
+    private static EsaDelta.ComponentChange find(EsaDelta delta, String name) {
+        EsaDelta.ComponentChange change = findOrNull(delta, name);
+        assertNotNull(change, "no change for " + name);
+        return change;
+    }
+
+    private static EsaDelta.ComponentChange findOrNull(EsaDelta delta, String name) {
+        return delta.components.stream().filter(c -> name.equals(c.name)).findFirst().orElse(null);
+    }
+}
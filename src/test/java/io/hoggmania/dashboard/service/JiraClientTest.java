@@ -0,0 +1,273 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JiraClientTest {
+
+    private static final String BASE = "https://jira.example.com";
+    private static final long MIN_HEDGE_DELAY_MS = 20;
+
+    /** Requests handed to the HTTP client, in send order; each answers when the test completes it. */
+    private final BlockingQueue<CompletableFuture<HttpResponse<String>>> sent = new LinkedBlockingQueue<>();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private JiraClient client(int maxRequests, double hedgeBudgetRatio) {
+        HttpClient http = new FakeHttpClient();
+        JiraHttpClientRegistry registry = new JiraHttpClientRegistry(Optional.empty(), Optional.empty(), "HTTP_1_1",
+                1, 0, 0, Optional.empty()) {
+            @Override
+            public HttpClient clientFor(String baseUrl) {
+                return http;
+            }
+        };
+        JiraClient client = new JiraClient(registry, maxRequests, 60, false, 20, 10, 50f, 5000, 80f, 30,
+                true, 0.9, MIN_HEDGE_DELAY_MS, 1, hedgeBudgetRatio, 8, 1, 64, 0.7, 2.0, 10000, 0, 8, 4, 1);
+        client.mapper = new ObjectMapper();
+        client.issueCache = new JiraIssueCache(100);
+        client.meterRegistry = meters;
+        return client;
+    }
+
+    private static CompletableFuture<JsonNode> fetchAsync(JiraClient client, String key) {
+        return CompletableFuture.supplyAsync(() -> client.fetchIssue(BASE, key, "token", Map.of(),
+                JiraRequestContext.forToken(JiraRequestContext.Priority.API, "token")));
+    }
+
+    /** Answers one call right away, so the host has a latency sample and later calls may be hedged. */
+    private void seedLatency(JiraClient client) throws Exception {
+        CompletableFuture<JsonNode> seed = fetchAsync(client, "ESA-0");
+        next().complete(response("seed"));
+        seed.get(5, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<HttpResponse<String>> next() throws InterruptedException {
+        CompletableFuture<HttpResponse<String>> request = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(request, "expected a request to be sent");
+        return request;
+    }
+
+    private double counter(String name) {
+        return meters.counter(name, "host", BASE).count();
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedgedAndLoserCancelled() throws Exception {
+        JiraClient client = client(100, 0.1);
+        seedLatency(client);
+
+        CompletableFuture<JsonNode> result = fetchAsync(client, "ESA-1");
+        CompletableFuture<HttpResponse<String>> primary = next();
+        CompletableFuture<HttpResponse<String>> hedge = next(); // sent once the primary is slower than usual
+        hedge.complete(response("hedge"));
+
+        assertEquals("hedge", result.get(5, TimeUnit.SECONDS).path("from").asText());
+        assertTrue(primary.isCancelled());
+        assertEquals(1, counter("jira.hedge.requests"));
+        assertEquals(1, counter("jira.hedge.wins"));
+    }
+
+    @Test
+    public void testFirstResponseWins() throws Exception {
+        JiraClient client = client(100, 0.1);
+        seedLatency(client);
+
+        CompletableFuture<JsonNode> result = fetchAsync(client, "ESA-1");
+        CompletableFuture<HttpResponse<String>> primary = next();
+        CompletableFuture<HttpResponse<String>> hedge = next();
+        primary.complete(response("primary"));
+
+        assertEquals("primary", result.get(5, TimeUnit.SECONDS).path("from").asText());
+        assertTrue(hedge.isCancelled());
+        assertEquals(0, counter("jira.hedge.wins"));
+    }
+
+    @Test
+    public void testBudgetLimitsHedges() throws Exception {
+        JiraClient client = client(10, 0.1); // one hedge per window
+        seedLatency(client);
+
+        CompletableFuture<JsonNode> hedged = fetchAsync(client, "ESA-1");
+        next();
+        next().complete(response("hedge"));
+        assertEquals("hedge", hedged.get(5, TimeUnit.SECONDS).path("from").asText());
+
+        CompletableFuture<JsonNode> unhedged = fetchAsync(client, "ESA-2");
+        CompletableFuture<HttpResponse<String>> primary = next();
+        assertNull(sent.poll(MIN_HEDGE_DELAY_MS * 10, TimeUnit.MILLISECONDS), "hedge budget is spent");
+        primary.complete(response("primary"));
+
+        assertEquals("primary", unhedged.get(5, TimeUnit.SECONDS).path("from").asText());
+        assertEquals(1, counter("jira.hedge.requests"));
+    }
+
+    @Test
+    public void testInterruptWhileWaitingForPrimaryCancelsIt() throws Exception {
+        JiraClient client = client(100, 0.1);
+        CompletableFuture<JsonNode> seed = fetchAsync(client, "ESA-0");
+        CompletableFuture<HttpResponse<String>> slow = next();
+        Thread.sleep(MIN_HEDGE_DELAY_MS * 25); // a long hedging delay, so the caller is still waiting below
+        slow.complete(response("seed"));
+        seed.get(5, TimeUnit.SECONDS);
+
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                client.fetchIssue(BASE, "ESA-1", "token", Map.of(),
+                        JiraRequestContext.forToken(JiraRequestContext.Priority.API, "token"));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        caller.start();
+        CompletableFuture<HttpResponse<String>> primary = next();
+        caller.interrupt();
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertTrue(primary.isCancelled());
+        assertInstanceOf(ValidationException.class, failure.get());
+        assertNull(sent.poll(MIN_HEDGE_DELAY_MS * 2, TimeUnit.MILLISECONDS), "no hedge after the interrupt");
+        assertEquals(0, counter("jira.hedge.requests"));
+    }
+
+    private static HttpResponse<String> response(String from) {
+        return new HttpResponse<>() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpRequest request() {
+                return null;
+            }
+
+            @Override
+            public Optional<HttpResponse<String>> previousResponse() {
+                return Optional.empty();
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(Map.of(), (name, value) -> true);
+            }
+
+            @Override
+            public String body() {
+                return "{\"from\":\"" + from + "\"}";
+            }
+
+            @Override
+            public Optional<SSLSession> sslSession() {
+                return Optional.empty();
+            }
+
+            @Override
+            public URI uri() {
+                return URI.create(BASE);
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+
+    private class FakeHttpClient extends HttpClient {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                HttpResponse.BodyHandler<T> handler) {
+            CompletableFuture<HttpResponse<String>> response = new CompletableFuture<>();
+            sent.add(response);
+            return (CompletableFuture<HttpResponse<T>>) (CompletableFuture<?>) response;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                HttpResponse.BodyHandler<T> handler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return sendAsync(request, handler);
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+                throws IOException, InterruptedException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return Redirect.NEVER;
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return Optional.empty();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return null;
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return null;
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return Optional.empty();
+        }
+    }
+}
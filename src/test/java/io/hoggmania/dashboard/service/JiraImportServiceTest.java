@@ -0,0 +1,57 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ESA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JiraImportServiceTest {
+
+    private static final String BASE = "https://jira.example.com";
+
+    /** Keeps every import running until the test ends. */
+    private final CompletableFuture<ESA> release = new CompletableFuture<>();
+    private JiraImportService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new JiraImportService(4, 50, 30);
+        service.mapper = new ObjectMapper();
+        service.jiraPayloadService = new JiraPayloadService() {
+            @Override
+            public ESA buildFromUrl(String baseUrl, String issueUrl, String personalToken,
+                    Map<String, String> extraHeaders, JiraRequestContext context) {
+                return release.join();
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.complete(new ESA());
+        service.shutdown();
+    }
+
+    private String start(Map<String, String> headers, Map<String, String> attributes) {
+        return service.start(BASE, "ESA-1", "token", headers, attributes).id;
+    }
+
+    @Test
+    public void testSameRequestJoinsRunningImport() {
+        String first = start(Map.of("X-Team", "a"), Map.of("env", "prod"));
+        assertEquals(first, start(Map.of("X-Team", "a"), Map.of("env", "prod")));
+    }
+
+    @Test
+    public void testDifferentHeadersOrAttributesStartAnotherImport() {
+        String first = start(Map.of("X-Team", "a"), Map.of("env", "prod"));
+        assertNotEquals(first, start(Map.of("X-Team", "b"), Map.of("env", "prod")));
+        assertNotEquals(first, start(Map.of("X-Team", "a"), Map.of("env", "test")));
+    }
+}
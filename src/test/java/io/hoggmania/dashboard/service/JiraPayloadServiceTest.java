@@ -0,0 +1,134 @@
+package io.hoggmania.dashboard.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.hoggmania.dashboard.exception.DeadlineExceededException;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.ESA;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JiraPayloadServiceTest {
+
+    private static final String BASE = "https://jira.example.com";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, JsonNode> issues = new HashMap<>();
+    private final List<String> fetched = new ArrayList<>();
+    /** Issue after whose fetch the deadline is made to pass, or null. */
+    private String expireAfter;
+    private JiraPayloadService service;
+
+    @BeforeEach
+    public void setUp() {
+        issue("ROOT-1", "Epic", "Security", List.of("ESA", "ESA-Root:Security"), "GOV-1", "CAP-1");
+        issue("GOV-1", "Epic", "Governance", List.of("ESA-Governance"), "FEAT-1", "FEAT-2");
+        issue("CAP-1", "Epic", "Capabilities", List.of("ESA-Capabilities"), "DOM-1");
+        issue("DOM-1", "Epic", "Testing", List.of(), "FEAT-3");
+        issue("FEAT-1", "Feature", "Policy", List.of("ESA-Capability:Policy"));
+        issue("FEAT-2", "Feature", "Training", List.of("ESA-Capability:Training"));
+        issue("FEAT-3", "Feature", "SAST", List.of("ESA-Capability:SAST"));
+
+        service = new JiraPayloadService();
+        service.mapper = MAPPER;
+        service.jiraClient = new JiraClient(null, 100, 60, true, 20, 10, 50f, 5000, 80f, 30,
+                false, 0.9, 50, 20, 0.1, 8, 1, 64, 0.7, 2.0, 10000, 0.2, 8, 4, 1) {
+            @Override
+            public JsonNode fetchIssue(String baseUrl, String issueKey, String personalAccessToken,
+                    Map<String, String> extraHeaders, JiraRequestContext context) {
+                fetched.add(issueKey);
+                context.throwIfExpired();
+                if (issueKey.equals(expireAfter)) {
+                    waitUntilExpired(context);
+                }
+                return issues.get(issueKey);
+            }
+        };
+    }
+
+    private void issue(String key, String type, String summary, List<String> labels, String... linked) {
+        ObjectNode issue = MAPPER.createObjectNode().put("key", key);
+        ObjectNode fields = issue.putObject("fields");
+        fields.put("summary", summary);
+        fields.putObject("issuetype").put("name", type);
+        ArrayNode labelNodes = fields.putArray("labels");
+        labels.forEach(labelNodes::add);
+        ArrayNode links = fields.putArray("issuelinks");
+        for (String target : linked) {
+            // Jira embeds the summary and type of linked issues, which is all a placeholder has to go on
+            ObjectNode outward = links.addObject().putObject("outwardIssue").put("key", target);
+            outward.putObject("fields").put("summary", target + " summary")
+                    .putObject("issuetype").put("name", target.startsWith("FEAT") ? "Feature" : "Epic");
+        }
+        issues.put(key, issue);
+    }
+
+    private static void waitUntilExpired(JiraRequestContext context) {
+        while (!context.isExpired()) {
+            try {
+                Thread.sleep(Math.max(1, context.remaining().toMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static JiraRequestContext context() {
+        return JiraRequestContext.forToken(JiraRequestContext.Priority.API, "token");
+    }
+
+    @Test
+    public void testCompleteBuildWithoutDeadline() {
+        ESA esa = service.buildFromUrl(BASE, "ROOT-1", "token", Map.of(), context());
+
+        assertFalse(JiraPayloadService.isPartial(esa));
+        assertEquals(List.of("Policy", "Training"), esa.governance.components.stream().map(c -> c.name).toList());
+        assertEquals("SAST", esa.capabilities.domains.get(0).components.get(0).name);
+        assertEquals(7, fetched.size());
+    }
+
+    @Test
+    public void testDeadlineCutsTraversalShort() {
+        expireAfter = "CAP-1";
+        ESA esa = service.buildFromUrl(BASE, "ROOT-1", "token", Map.of(),
+                context().withDeadline(Duration.ofMillis(200)));
+
+        // Nothing below the section issues is fetched once the deadline has passed
+        assertEquals(List.of("ROOT-1", "GOV-1", "CAP-1"), fetched);
+        assertTrue(JiraPayloadService.isPartial(esa));
+        assertEquals("true", esa.attributes.get(JiraPayloadService.PARTIAL_ATTRIBUTE));
+        assertEquals("3", esa.attributes.get(JiraPayloadService.UNFETCHED_ATTRIBUTE));
+
+        assertEquals(2, esa.governance.components.size());
+        ComponentItem placeholder = esa.governance.components.get(0);
+        assertEquals("FEAT-1 summary", placeholder.name);
+        assertEquals(ComponentItem.Maturity.NOT_EXISTING, placeholder.maturity);
+        assertEquals(ComponentItem.Status.NOT_EXISTING, placeholder.status);
+        assertTrue(placeholder.summary.contains("FEAT-1"));
+        assertEquals(0, placeholder.initiatives);
+
+        assertEquals("DOM-1 summary", esa.capabilities.domains.get(0).domain);
+        assertTrue(esa.capabilities.domains.get(0).components.isEmpty());
+    }
+
+    @Test
+    public void testRootMissingDeadlineFails() {
+        JiraRequestContext expired = context().withDeadline(Duration.ofNanos(1));
+        waitUntilExpired(expired);
+
+        assertThrows(DeadlineExceededException.class,
+                () -> service.buildFromUrl(BASE, "ROOT-1", "token", Map.of(), expired));
+        assertEquals(List.of("ROOT-1"), fetched);
+    }
+}
@@ -0,0 +1,35 @@
+package io.hoggmania.dashboard.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import io.hoggmania.dashboard.util.HashUtils;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JiraWebhookServiceTest {
+
+    private static final byte[] BODY = "{\"webhookEvent\":\"jira:issue_updated\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testUnsignedRejectedWithoutSecret() {
+        JiraWebhookService service = new JiraWebhookService(Optional.empty(), false, true);
+        assertFalse(service.verify(BODY, null));
+        assertFalse(service.verify(BODY, "sha256=" + HashUtils.hmacSha256Hex("any", BODY)));
+    }
+
+    @Test
+    public void testUnsignedAllowedWhenOptedIn() {
+        assertTrue(new JiraWebhookService(Optional.of(" "), true, true).verify(BODY, null));
+    }
+
+    @Test
+    public void testSignatureChecked() {
+        JiraWebhookService service = new JiraWebhookService(Optional.of("secret"), true, true);
+        String signature = HashUtils.hmacSha256Hex("secret", BODY);
+        assertTrue(service.verify(BODY, "sha256=" + signature));
+        assertTrue(service.verify(BODY, signature.toUpperCase()));
+        assertFalse(service.verify(BODY, null));
+        assertFalse(service.verify(BODY, "sha256=" + HashUtils.hmacSha256Hex("other", BODY)));
+    }
+}
@@ -0,0 +1,127 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ESA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrerenderServiceTest {
+
+    private static final String ROOT = "ESA-1";
+
+    /** Builds handed out to refreshes in call order; each completes when the test says so. */
+    private final BlockingQueue<CompletableFuture<ESA>> builds = new LinkedBlockingQueue<>();
+    private final BlockingQueue<CompletableFuture<ESA>> started = new LinkedBlockingQueue<>();
+    private PrerenderService service;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        service = new PrerenderService(Optional.of(List.of(ROOT)), Optional.of("https://jira.example.com"),
+                Optional.of("token"), 2, false);
+        service.mapper = mapper;
+        service.jiraPayloadService = new JiraPayloadService() {
+            @Override
+            public ESA buildFromUrl(String baseUrl, String issueUrl, String personalToken,
+                    Map<String, String> extraHeaders, JiraRequestContext context) {
+                CompletableFuture<ESA> build = builds.remove();
+                started.add(build);
+                return build.join();
+            }
+        };
+        service.svgService = new SvgService() {
+            @Override
+            public String renderSvg(ESA root) {
+                return "<svg><text>" + root.title + "</text></svg>";
+            }
+
+            @Override
+            public byte[] renderPngFromSvg(String svgContent, float dpi) {
+                return new byte[] {1, 2, 3};
+            }
+        };
+        service.initiativesPageService = new InitiativesPageService() {
+            @Override
+            public String renderInitiativesPage(ESA root, String payloadRaw) {
+                return "<html>" + root.title + "</html>";
+            }
+        };
+        service.wallboardService = new WallboardService();
+        service.wallboardService.mapper = mapper;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    private static ESA esa(String title) {
+        ESA esa = new ESA();
+        esa.title = title;
+        return esa;
+    }
+
+    private CompletableFuture<ESA> queueBuild() {
+        CompletableFuture<ESA> build = new CompletableFuture<>();
+        builds.add(build);
+        return build;
+    }
+
+    private CompletableFuture<Boolean> refreshInBackground() throws InterruptedException {
+        started.clear();
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(() -> service.refresh(ROOT));
+        assertNotNull(started.poll(5, TimeUnit.SECONDS), "refresh did not start its build");
+        return result;
+    }
+
+    @Test
+    public void testOlderRefreshFinishingLastIsDiscarded() throws Exception {
+        CompletableFuture<ESA> older = queueBuild();
+        CompletableFuture<ESA> newer = queueBuild();
+        CompletableFuture<Boolean> first = refreshInBackground();
+        CompletableFuture<Boolean> second = refreshInBackground();
+
+        newer.complete(esa("New"));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        older.complete(esa("Old"));
+        assertFalse(first.get(5, TimeUnit.SECONDS));
+
+        assertEquals("New", service.snapshot(ROOT).getEsa().title);
+        assertEquals("New", service.list().get(0).title);
+    }
+
+    @Test
+    public void testInvalidatedRendersServedUntilRebuilt() throws Exception {
+        queueBuild().complete(esa("Before change"));
+        assertTrue(service.refresh(ROOT));
+
+        CompletableFuture<ESA> running = queueBuild();
+        CompletableFuture<Boolean> startedBefore = refreshInBackground();
+        assertTrue(service.invalidate(ROOT));
+        assertTrue(service.snapshot(ROOT).isStale());
+        assertTrue(service.list().get(0).stale);
+
+        // The refresh that was running when the issue changed must not install its build
+        running.complete(esa("Running during change"));
+        assertFalse(startedBefore.get(5, TimeUnit.SECONDS));
+        assertEquals("Before change", service.snapshot(ROOT).getEsa().title);
+        assertTrue(service.snapshot(ROOT).isStale());
+
+        queueBuild().complete(esa("After change"));
+        assertTrue(service.refresh(ROOT));
+        assertEquals("After change", service.snapshot(ROOT).getEsa().title);
+        assertFalse(service.snapshot(ROOT).isStale());
+        assertFalse(service.list().get(0).stale);
+    }
+}
@@ -0,0 +1,199 @@
+package io.hoggmania.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.hoggmania.dashboard.exception.ValidationException;
+import io.hoggmania.dashboard.model.Capabilities;
+import io.hoggmania.dashboard.model.ComponentInitiative;
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.Domain;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.Governance;
+import io.hoggmania.dashboard.model.RenderItem;
+import io.hoggmania.dashboard.model.RenderPlan;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderPlanCompilerTest {
+
+    private final RenderPlanCompiler compiler = new RenderPlanCompiler(8);
+
+    private static ComponentItem component(String name, String... initiativeKeys) {
+        ComponentItem item = new ComponentItem();
+        item.name = name;
+        item.status = ComponentItem.Status.HIGH;
+        item.maturity = ComponentItem.Maturity.DEFINED;
+        item.initiatives = initiativeKeys.length;
+        item.iRag = "G";
+        item.initiativeDetails = new ArrayList<>();
+        for (String key : initiativeKeys) {
+            ComponentInitiative initiative = new ComponentInitiative();
+            initiative.key = key;
+            initiative.dueDate = "2025-04-30";
+            item.initiativeDetails.add(initiative);
+        }
+        return item;
+    }
+
+    private static ESA esa() {
+        ESA esa = new ESA();
+        esa.title = "Security & Risk";
+        esa.governance = new Governance();
+        esa.governance.title = "Governance";
+        esa.governance.components = new ArrayList<>(List.of(component("Policy", "GOV-1")));
+        Domain domain = new Domain();
+        domain.domain = "Identity";
+        domain.components = new ArrayList<>(List.of(component("SSO", "IAM-1", "IAM-2"), component("MFA")));
+        esa.capabilities = new Capabilities();
+        esa.capabilities.title = "Capabilities";
+        esa.capabilities.domains = new ArrayList<>(List.of(domain));
+        return esa;
+    }
+
+    @Test
+    public void testCompilesLayoutTextAndInitiativesInOnePlan() {
+        RenderPlan plan = compiler.compile(esa());
+
+        assertEquals("Security &amp; Risk", plan.dashboard.title);
+        assertEquals("Security & Risk", plan.initiativesTitle);
+        assertEquals(1, plan.governanceItems.size());
+        assertEquals("cmp_gov_0", plan.governanceItems.get(0).elementId);
+        assertEquals(1, plan.domainGroups.size());
+        assertEquals("cmp_dom_0_1", plan.domainGroups.get(0).items.get(1).elementId);
+        assertEquals(1, plan.initiativeGradients.size());
+
+        assertEquals(3, plan.initiativeRows.size());
+        assertEquals("Governance", plan.initiativeRows.get(0).capability);
+        assertEquals("Identity", plan.initiativeRows.get(1).capability);
+        assertEquals("30/Apr/25", plan.initiativeRows.get(1).dueDate);
+        assertTrue(plan.svgHeight > plan.legendY);
+        assertThrows(UnsupportedOperationException.class, () -> plan.initiativeRows.clear());
+    }
+
+    @Test
+    public void testInternsGradientsAndListsReferencedIcons() {
+        ESA esa = esa();
+        esa.icon = "shield";
+        esa.capabilities.domains.get(0).icon = "user";
+        ComponentItem mfa = esa.capabilities.domains.get(0).components.get(1);
+        mfa.maturity = ComponentItem.Maturity.MANAGED;
+        mfa.icon = "shield";
+        mfa.initiatives = 1;
+        mfa.iRag = "r-a";
+
+        RenderPlan plan = compiler.compile(esa);
+
+        assertEquals(List.of("grad_rag_G", "grad_rag_RA"),
+                plan.initiativeGradients.stream().map(gradient -> gradient.id).toList());
+        assertEquals("url(#grad_rag_G)", plan.governanceItems.get(0).initiativeStroke);
+        assertEquals(List.of("icon-shield", "icon-user"), plan.iconIds);
+    }
+
+    @Test
+    public void testValidatesWhileCompiling() {
+        ESA esa = esa();
+        esa.capabilities.domains.get(0).components.get(1).status = null;
+        ValidationException error = assertThrows(ValidationException.class, () -> compiler.compile(esa));
+        assertTrue(error.getMessage().contains("capabilities.domains[0][1]"));
+
+        ESA nullDomain = esa();
+        nullDomain.capabilities.domains.add(null);
+        assertThrows(ValidationException.class, () -> compiler.compile(nullDomain));
+        assertThrows(ValidationException.class, () -> compiler.compile((ESA) null));
+    }
+
+    @Test
+    public void testPlanKeepsItsOwnCopies() {
+        RenderItem item = new RenderItem(1f, 2f, "Policy", "Rules", "Governance", "#fff", "#000", "#333", false, null);
+        List<RenderItem> items = new ArrayList<>(List.of(item));
+        RenderPlan plan = new RenderPlan(new RenderPlan.Header("ESA", null, null), null, null, "ESA", items,
+                List.of(), List.of(), List.of(), List.of(), 0f, 100f, 0);
+
+        item.x = 50f;
+        items.clear();
+        assertEquals(1, plan.governanceItems.size());
+        assertEquals(1f, plan.governanceItems.get(0).x);
+        assertThrows(UnsupportedOperationException.class, () -> plan.governanceItems.add(item));
+    }
+
+    @Test
+    public void testPlansAreCachedByContentHash() {
+        RenderPlan first = compiler.compile("hash", esa());
+        assertSame(first, compiler.compile("hash", esa()));
+        assertNotSame(first, compiler.compile("other", esa()));
+    }
+
+    private static ESA tallEsa() {
+        ESA esa = new ESA();
+        esa.title = "Tall";
+        esa.capabilities = new Capabilities();
+        esa.capabilities.title = "Capabilities";
+        esa.capabilities.domains = new ArrayList<>();
+        int[] sizes = {1, 1, 1, 1, 1, 1, 16, 16};
+        for (int d = 0; d < sizes.length; d++) {
+            Domain domain = new Domain();
+            domain.domain = "D" + d;
+            domain.components = new ArrayList<>();
+            for (int c = 0; c < sizes[d]; c++) {
+                domain.components.add(component("C" + d + "_" + c));
+            }
+            esa.capabilities.domains.add(domain);
+        }
+        return esa;
+    }
+
+    @Test
+    public void testCompactPackingLowersCanvasAndKeepsOrder() {
+        RenderPlan greedy = compiler.compile(tallEsa());
+        RenderPlanCompiler compact = new RenderPlanCompiler(8, RenderPlanCompiler.PACKING_COMPACT, 200000, 64);
+        RenderPlan packed = compact.compile(tallEsa());
+
+        assertTrue(packed.svgHeight < greedy.svgHeight, packed.svgHeight + " vs " + greedy.svgHeight);
+        int components = 0;
+        int lastDomain = -1;
+        for (var group : packed.domainGroups) {
+            int domain = Integer.parseInt(group.domainName.substring(1));
+            assertTrue(domain >= lastDomain, "domain order");
+            lastDomain = domain;
+            components += group.items.size();
+            assertTrue(group.items.size() <= 8);
+        }
+        assertEquals(38, components);
+
+        RenderPlan again = new RenderPlanCompiler(8, RenderPlanCompiler.PACKING_COMPACT, 200000, 64).compile(tallEsa());
+        assertEquals(packed.legendY, again.legendY);
+        for (int i = 0; i < packed.domainGroups.size(); i++) {
+            assertEquals(packed.domainGroups.get(i).headerX, again.domainGroups.get(i).headerX);
+            assertEquals(packed.domainGroups.get(i).headerY, again.domainGroups.get(i).headerY);
+        }
+    }
+
+    @Test
+    public void testCompactPackingIsNeverTaller() {
+        RenderPlanCompiler compact = new RenderPlanCompiler(8, RenderPlanCompiler.PACKING_COMPACT, 200000, 64);
+        assertTrue(compact.compile(esa()).svgHeight <= compiler.compile(esa()).svgHeight);
+        // a spent budget keeps the greedy layout
+        RenderPlanCompiler starved = new RenderPlanCompiler(8, RenderPlanCompiler.PACKING_COMPACT, 1, 64);
+        assertTrue(starved.compile(tallEsa()).svgHeight <= compiler.compile(tallEsa()).svgHeight);
+    }
+
+    @Test
+    public void testWrapsEscapesAndMemoisesText() {
+        ESA esa = esa();
+        ComponentItem policy = esa.governance.components.get(0);
+        policy.name = "Policy\tManagement  and Exceptions & Handling Process";
+        policy.capability = "Supercalifragilisticexpialidocious";
+        RenderPlan plan = compiler.compile(esa);
+
+        RenderItem item = plan.governanceItems.get(0);
+        assertEquals(List.of("Policy Management and", "Exceptions &amp; Handling..."), item.nameLines);
+        assertEquals(List.of("Supercalifragilisticex"), item.capabilityLines);
+        assertEquals("Policy\tManagement  and Exceptions & Handling Process", item.name);
+
+        RenderPlan again = compiler.compile(esa());
+        RenderPlan same = compiler.compile(esa);
+        assertSame(item.nameLines, same.governanceItems.get(0).nameLines);
+        assertSame(plan.domainGroups.get(0).domainName, again.domainGroups.get(0).domainName);
+    }
+}
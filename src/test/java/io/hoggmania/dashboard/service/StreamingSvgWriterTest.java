@@ -0,0 +1,84 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.RenderPlan;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingSvgWriterTest {
+
+    static final String GOLDEN_PAYLOAD = "golden/dashboard-golden.json";
+    static final String GOLDEN_SVG = "golden/dashboard-golden.svg";
+
+    static byte[] resource(String name) throws IOException {
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+            if (is == null) throw new IOException(name + " not found on classpath");
+            return is.readAllBytes();
+        }
+    }
+
+    static RenderPlan goldenPlan() throws IOException {
+        ESA esa = new ObjectMapper().readValue(resource(GOLDEN_PAYLOAD), ESA.class);
+        return new RenderPlanCompiler(1).compile(esa);
+    }
+
+    @Test
+    public void testOutputMatchesGoldenFile() throws Exception {
+        byte[] svg = StreamingSvgWriter.toBytes(goldenPlan());
+        // Regenerate the golden file only after checking the change against the Qute output
+        // (SvgRendererEquivalenceTest)
+        assertEquals(new String(resource(GOLDEN_SVG), StandardCharsets.UTF_8), new String(svg, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOutputIsWellFormedXml() throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document document = factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(StreamingSvgWriter.toBytes(goldenPlan())));
+        assertEquals("svg", document.getDocumentElement().getLocalName());
+        NodeList groups = document.getElementsByTagNameNS("http://www.w3.org/2000/svg", "g");
+        int components = 0;
+        for (int i = 0; i < groups.getLength(); i++) {
+            if (((Element) groups.item(i)).getAttribute("id").startsWith(SvgService.COMPONENT_ID_PREFIX)) {
+                components++;
+            }
+        }
+        assertEquals(16, components);
+    }
+
+    @Test
+    public void testNumbersUseFixedPrecision() throws Exception {
+        String svg = new String(StreamingSvgWriter.toBytes(goldenPlan()), StandardCharsets.UTF_8);
+        // Three-band initiative gradient: 33.333332 is written with two decimals
+        assertTrue(svg.contains("<stop offset=\"33.33%\""));
+        assertTrue(svg.contains("width=\"297mm\""));
+        assertFalse(svg.contains(".0\""));
+    }
+
+    @Test
+    public void testEmitsOnlyReferencedSymbolsOrSpriteReferences() throws Exception {
+        RenderPlan plan = goldenPlan();
+        String inline = new String(StreamingSvgWriter.toBytes(plan), StandardCharsets.UTF_8);
+        assertEquals(plan.iconIds.size(), inline.split("<symbol ", -1).length - 1);
+        assertTrue(inline.contains("xlink:href=\"#icon-shield\""));
+
+        String external = new String(StreamingSvgWriter.toBytes(plan, "/api/v1/icons/icons-abc.svg"), StandardCharsets.UTF_8);
+        assertFalse(external.contains("<symbol "));
+        assertTrue(external.contains("xlink:href=\"/api/v1/icons/icons-abc.svg#icon-shield\""));
+        // In-document links are left alone
+        assertTrue(external.contains("xlink:href=\"#initiative-gov-1\""));
+    }
+}
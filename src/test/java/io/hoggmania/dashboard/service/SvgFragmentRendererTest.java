@@ -0,0 +1,54 @@
+package io.hoggmania.dashboard.service;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.hoggmania.dashboard.model.ComponentItem;
+import io.hoggmania.dashboard.model.ESA;
+import io.hoggmania.dashboard.model.RenderPlan;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SvgFragmentRendererTest {
+
+    private static ESA goldenEsa() throws IOException {
+        return new ObjectMapper().readValue(StreamingSvgWriterTest.resource(StreamingSvgWriterTest.GOLDEN_PAYLOAD), ESA.class);
+    }
+
+    @Test
+    public void testOutputMatchesSerialWriter() throws Exception {
+        SvgFragmentRenderer renderer = new SvgFragmentRenderer(64, 4);
+        try {
+            RenderPlan plan = StreamingSvgWriterTest.goldenPlan();
+            assertArrayEquals(StreamingSvgWriter.toBytes(plan), renderer.render(plan, ""));
+            assertArrayEquals(StreamingSvgWriter.toBytes(plan, "/icons.svg"), renderer.render(plan, "/icons.svg"));
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    @Test
+    public void testRerenderOnlyRendersChangedGroups() throws Exception {
+        SvgFragmentRenderer renderer = new SvgFragmentRenderer(64, 4);
+        try {
+            RenderPlanCompiler compiler = new RenderPlanCompiler(1);
+            RenderPlan plan = compiler.compile(goldenEsa());
+            int fragments = plan.domainGroups.size() + 1;
+
+            renderer.render(plan, "");
+            assertEquals(fragments, renderer.renderedFragments());
+            renderer.render(compiler.compile(goldenEsa()), "");
+            assertEquals(fragments, renderer.renderedFragments());
+
+            ESA edited = goldenEsa();
+            edited.capabilities.domains.get(0).components.get(0).status = ComponentItem.Status.LOW;
+            RenderPlan editedPlan = compiler.compile(edited);
+            byte[] svg = renderer.render(editedPlan, "");
+            assertEquals(fragments + 1, renderer.renderedFragments());
+            assertArrayEquals(StreamingSvgWriter.toBytes(editedPlan), svg);
+        } finally {
+            renderer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.hoggmania.dashboard.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SvgServiceTest {
+
+    private static SvgService service(String renderer, String icons, String spritePath) {
+        SvgService service = new SvgService();
+        service.renderer = renderer;
+        service.icons = icons;
+        service.spritePath = spritePath;
+        return service;
+    }
+
+    @Test
+    public void testRenderVariantCoversRenderingSettings() {
+        String base = service("qute", "inline", "/api/v1/icons/").renderVariant();
+        assertEquals(base, service("QUTE", "inline", "/api/v1/icons/").renderVariant());
+        assertNotEquals(base, service("streaming", "inline", "/api/v1/icons/").renderVariant());
+        assertNotEquals(base, service("qute", "external", "/api/v1/icons/").renderVariant());
+        assertNotEquals(base, service("qute", "inline", "/static/icons/").renderVariant());
+    }
+}
@@ -0,0 +1,172 @@
+package io.hoggmania.dashboard.service;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WallboardServiceTest {
+
+    private static final String ROOT = "ESA-1";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private WallboardService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new WallboardService();
+        service.mapper = MAPPER;
+    }
+
+    private static String svg(String policyFill, String sastFill) {
+        return "<svg><text>ESA</text>"
+                + "<g id=\"cmp_gov_0\" transform=\"translate(0,0)\"><rect fill=\"" + policyFill + "\"/></g>"
+                + "<g id=\"cmp_dom_0_0\" transform=\"translate(9,9)\"><rect fill=\"" + sastFill + "\"/></g>"
+                + "<g id=\"cmp_dom_0_1\" transform=\"translate(9,60)\"><rect fill=\"green\"/></g>"
+                + "</svg>";
+    }
+
+    @Test
+    public void testOnlyChangedComponentsAreSent() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        service.subscribe(ROOT, sink, SSE);
+        assertTrue(sink.events.isEmpty(), "nothing rendered yet");
+
+        assertTrue(service.publish(ROOT, svg("red", "green")));
+        assertTrue(service.publish(ROOT, svg("red", "amber")));
+
+        assertEquals(2, sink.events.size());
+        assertEquals(WallboardService.EVENT_SVG, sink.events.get(0).getName());
+        JsonNode first = MAPPER.readTree((String) sink.events.get(0).getData());
+        assertEquals(svg("red", "green"), first.path("svg").asText());
+
+        assertEquals(WallboardService.EVENT_COMPONENTS, sink.events.get(1).getName());
+        JsonNode update = MAPPER.readTree((String) sink.events.get(1).getData());
+        assertEquals(first.path("version").asText(), update.path("previousVersion").asText());
+        assertTrue(update.path("svg").isMissingNode() || update.path("svg").isNull());
+        List<String> ids = new ArrayList<>();
+        update.path("elements").fieldNames().forEachRemaining(ids::add);
+        assertEquals(List.of("cmp_dom_0_0"), ids);
+        assertTrue(update.path("elements").path("cmp_dom_0_0").asText().contains("amber"));
+    }
+
+    @Test
+    public void testUnchangedRenderSendsNothing() {
+        RecordingSink sink = new RecordingSink();
+        service.publish(ROOT, svg("red", "green"));
+        service.subscribe(ROOT.toLowerCase(), sink, SSE);
+        assertEquals(1, sink.events.size(), "current document on connect");
+
+        assertFalse(service.publish(ROOT, svg("red", "green")));
+        assertEquals(1, sink.events.size());
+
+        sink.close();
+        assertEquals(0, service.subscribers(ROOT));
+    }
+
+    @Test
+    public void testUnserializableUpdateClosesSubscribersWithoutSending() {
+        RecordingSink sink = new RecordingSink();
+        service.publish(ROOT, svg("red", "green"));
+        service.subscribe(ROOT, sink, SSE);
+        assertEquals(1, sink.events.size());
+
+        service.mapper = new ObjectMapper() {
+            @Override
+            public String writeValueAsString(Object value) throws JsonProcessingException {
+                throw new JsonProcessingException("boom") { };
+            }
+        };
+        assertFalse(service.publish(ROOT, svg("red", "amber")));
+        assertEquals(1, sink.events.size(), "no empty update is sent");
+        assertTrue(sink.closed);
+        assertEquals(0, service.subscribers(ROOT));
+
+        RecordingSink late = new RecordingSink();
+        service.subscribe(ROOT, late, SSE);
+        assertTrue(late.closed);
+        assertTrue(late.events.isEmpty());
+
+        service.mapper = MAPPER;
+        RecordingSink next = new RecordingSink();
+        service.subscribe(ROOT, next, SSE);
+        assertTrue(service.publish(ROOT, svg("red", "amber")), "the failed render was not installed");
+        assertEquals(2, next.events.size());
+        assertEquals(WallboardService.EVENT_COMPONENTS, next.events.get(1).getName());
+    }
+
+    /** Builds events that keep their name, id and data for inspection. */
+    private static final Sse SSE = new Sse() {
+        @Override
+        public OutboundSseEvent.Builder newEventBuilder() {
+            Map<String, Object> fields = new HashMap<>();
+            OutboundSseEvent event = (OutboundSseEvent) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {OutboundSseEvent.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "getName" -> fields.get("name");
+                        case "getId" -> fields.get("id");
+                        case "getData" -> fields.get("data");
+                        case "toString" -> fields.toString();
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+            return (OutboundSseEvent.Builder) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {OutboundSseEvent.Builder.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("build")) {
+                            return event;
+                        }
+                        fields.put(method.getName(), args[args.length - 1]);
+                        return proxy;
+                    });
+        }
+
+        @Override
+        public OutboundSseEvent newEvent(String data) {
+            return newEventBuilder().data(data).build();
+        }
+
+        @Override
+        public OutboundSseEvent newEvent(String name, String data) {
+            return newEventBuilder().name(name).data(data).build();
+        }
+
+        @Override
+        public SseBroadcaster newBroadcaster() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static final class RecordingSink implements SseEventSink {
+        private final List<OutboundSseEvent> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            events.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
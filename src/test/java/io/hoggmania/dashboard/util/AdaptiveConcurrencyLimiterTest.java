@@ -0,0 +1,72 @@
+package io.hoggmania.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration LATENCY = Duration.ofMillis(20);
+
+    @Test
+    public void testRejectsAtLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, 2.0);
+        String key = "host";
+
+        assertTrue(limiter.tryAcquire(key));
+        assertTrue(limiter.tryAcquire(key));
+        assertFalse(limiter.tryAcquire(key));
+        assertEquals(2, limiter.inFlight(key));
+
+        limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.IGNORE);
+        assertTrue(limiter.tryAcquire(key));
+    }
+
+    @Test
+    public void testAdditiveIncreaseWhenSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, 2.0);
+        String key = "host";
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(key));
+            assertTrue(limiter.tryAcquire(key));
+            limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+        assertTrue(limiter.limit(key) > 2, "limit should grow under stable latency");
+        assertTrue(limiter.limit(key) <= 10);
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseOnOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 0.5, 2.0);
+        String key = "host";
+        assertTrue(limiter.tryAcquire(key));
+        assertTrue(limiter.tryAcquire(key));
+        limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.OVERLOAD);
+        assertEquals(4, limiter.limit(key));
+
+        // A second failure from the same burst is not counted again
+        limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.OVERLOAD);
+        assertEquals(4, limiter.limit(key));
+    }
+
+    @Test
+    public void testLatencySpikeBacksOff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, 0.5, 2.0);
+        String key = "host";
+        assertTrue(limiter.tryAcquire(key));
+        limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertTrue(limiter.tryAcquire(key));
+        limiter.release(key, Duration.ofSeconds(2), AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(4, limiter.limit(key));
+    }
+
+    @Test
+    public void testNeverBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 10, 0.1, 2.0);
+        String key = "host";
+        assertTrue(limiter.tryAcquire(key));
+        limiter.release(key, LATENCY, AdaptiveConcurrencyLimiter.Outcome.OVERLOAD);
+        assertEquals(2, limiter.limit(key));
+    }
+}
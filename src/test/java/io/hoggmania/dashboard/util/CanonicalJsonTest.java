@@ -0,0 +1,25 @@
+package io.hoggmania.dashboard.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CanonicalJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testKeyOrderAndWhitespaceDoNotMatter() throws Exception {
+        String a = CanonicalJson.write(mapper, mapper.readTree("{\"b\": 1, \"a\": {\"y\": [2, {\"d\": 1, \"c\": 0}], \"x\": null}}"));
+        String b = CanonicalJson.write(mapper, mapper.readTree("{\"a\":{\"x\":null,\"y\":[2,{\"c\":0,\"d\":1}]},\"b\":1}"));
+
+        assertEquals("{\"a\":{\"x\":null,\"y\":[2,{\"c\":0,\"d\":1}]},\"b\":1}", a);
+        assertEquals(a, b);
+    }
+
+    @Test
+    public void testArrayOrderMatters() throws Exception {
+        assertNotEquals(CanonicalJson.sha256Hex(mapper, mapper.readTree("[1,2]")),
+                CanonicalJson.sha256Hex(mapper, mapper.readTree("[2,1]")));
+    }
+}
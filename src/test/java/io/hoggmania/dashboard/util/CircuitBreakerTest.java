@@ -0,0 +1,170 @@
+package io.hoggmania.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private static final Duration FAST = Duration.ofMillis(10);
+    private static final Duration SLOW = Duration.ofSeconds(10);
+
+    @Test
+    public void testOpensOnFailureRate() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30));
+        String key = "https://jira.example.com";
+
+        breaker.tryAcquire(key).onSuccess(FAST);
+        breaker.tryAcquire(key).onFailure(FAST);
+        breaker.tryAcquire(key).onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(key)); // below minimum calls
+        breaker.tryAcquire(key).onFailure(FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(key));
+        assertNull(breaker.tryAcquire(key));
+        assertTrue(breaker.remainingOpen(key).toSeconds() > 0);
+    }
+
+    @Test
+    public void testOpensOnSlowCallRate() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 100f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30));
+        String key = "https://jira.example.com";
+
+        breaker.tryAcquire(key).onSuccess(SLOW);
+        breaker.tryAcquire(key).onSuccess(SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(key));
+    }
+
+    @Test
+    public void testHalfOpenProbeClosesCircuit() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30), clock);
+        String key = "https://jira.example.com";
+        breaker.tryAcquire(key).onFailure(FAST);
+        breaker.tryAcquire(key).onFailure(FAST);
+        assertNull(breaker.tryAcquire(key));
+
+        clock.advance(Duration.ofSeconds(31));
+        CircuitBreaker.Permit probe = breaker.tryAcquire(key);
+        assertNotNull(probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state(key));
+        assertNull(breaker.tryAcquire(key)); // only one probe at a time
+
+        probe.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(key));
+        assertNotNull(breaker.tryAcquire(key));
+    }
+
+    @Test
+    public void testFailedProbeReopensCircuit() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30), clock);
+        String key = "https://jira.example.com";
+        breaker.tryAcquire(key).onFailure(FAST);
+
+        clock.advance(Duration.ofSeconds(31));
+        breaker.tryAcquire(key).onFailure(FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(key));
+        assertNull(breaker.tryAcquire(key));
+    }
+
+    @Test
+    public void testReleaseReturnsProbePermit() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30), clock);
+        String key = "https://jira.example.com";
+        breaker.tryAcquire(key).onFailure(FAST);
+        clock.advance(Duration.ofSeconds(31));
+
+        breaker.tryAcquire(key).release();
+        assertNotNull(breaker.tryAcquire(key));
+    }
+
+    @Test
+    public void testLateResultDoesNotResolveProbe() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30), clock);
+        String key = "https://jira.example.com";
+        CircuitBreaker.Permit late = breaker.tryAcquire(key);
+        CircuitBreaker.Permit lateRelease = breaker.tryAcquire(key);
+        breaker.tryAcquire(key).onFailure(FAST);
+        breaker.tryAcquire(key).onFailure(FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(key));
+
+        clock.advance(Duration.ofSeconds(31));
+        CircuitBreaker.Permit probe = breaker.tryAcquire(key);
+        assertNotNull(probe);
+
+        // Calls admitted while the circuit was closed finish during the probe
+        late.onSuccess(FAST);
+        lateRelease.release();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state(key));
+        assertNull(breaker.tryAcquire(key));
+
+        probe.onFailure(FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(key));
+    }
+
+    @Test
+    public void testPermitCountsOnce() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30), clock);
+        String key = "https://jira.example.com";
+        breaker.tryAcquire(key).onFailure(FAST);
+        clock.advance(Duration.ofSeconds(31));
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire(key);
+        probe.release();
+        CircuitBreaker.Permit next = breaker.tryAcquire(key);
+        probe.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state(key));
+        next.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(key));
+    }
+
+    @Test
+    public void testNoopPermit() {
+        CircuitBreaker.Permit.NONE.onFailure(FAST);
+        CircuitBreaker.Permit.NONE.release();
+        CircuitBreaker.Permit.NONE.onSuccess(FAST);
+    }
+
+    @Test
+    public void testKeysAreIndependent() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1, 50f, Duration.ofSeconds(5), 100f, Duration.ofSeconds(30));
+        breaker.tryAcquire("host-a").onFailure(FAST);
+
+        assertNull(breaker.tryAcquire("host-a"));
+        assertNotNull(breaker.tryAcquire("host-b"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state("host-b"));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.hoggmania.dashboard.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedContentTest {
+
+    private static String svg() {
+        StringBuilder svg = new StringBuilder("<svg>");
+        for (int i = 0; i < 200; i++) {
+            svg.append("<rect x=\"").append(i).append("\" y=\"0\" width=\"10\" height=\"10\" fill=\"#1E3A8A\"/>");
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    @Test
+    public void testGzipIsComputedOnceAndRoundTrips() throws IOException {
+        CompressedContent content = CompressedContent.of(svg());
+        assertTrue(content.isCompressible());
+        byte[] gzip = content.gzip();
+        assertSame(gzip, content.gzip());
+        assertTrue(gzip.length < content.raw().length / 4);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertEquals(svg(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testSmallAndPrecompressedContentIsNotCompressible() {
+        assertFalse(CompressedContent.of("<svg/>").isCompressible());
+        assertFalse(CompressedContent.precompressed(new byte[4096]).isCompressible());
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(CompressedContent.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CompressedContent.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(CompressedContent.acceptsGzip("x-gzip"));
+        assertTrue(CompressedContent.acceptsGzip("*"));
+        assertFalse(CompressedContent.acceptsGzip("gzip;q=0, *"));
+        assertFalse(CompressedContent.acceptsGzip("identity"));
+        assertFalse(CompressedContent.acceptsGzip("br"));
+        assertFalse(CompressedContent.acceptsGzip(""));
+        assertFalse(CompressedContent.acceptsGzip(null));
+    }
+}
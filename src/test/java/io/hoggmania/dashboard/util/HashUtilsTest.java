@@ -0,0 +1,35 @@
+package io.hoggmania.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashUtilsTest {
+
+    @Test
+    public void testSha256Hex() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", HashUtils.sha256Hex(""));
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", HashUtils.sha256Hex("hello"));
+        assertEquals(HashUtils.sha256Hex(""), HashUtils.sha256Hex((String) null));
+    }
+
+    @Test
+    public void testFingerprint() {
+        String fingerprint = HashUtils.fingerprint("secret-token");
+        assertEquals(16, fingerprint.length());
+        assertFalse(fingerprint.contains("secret"));
+        assertEquals(fingerprint, HashUtils.fingerprint("  secret-token "));
+        assertNotEquals(fingerprint, HashUtils.fingerprint("other-token"));
+        assertEquals("anonymous", HashUtils.fingerprint(null));
+        assertEquals("anonymous", HashUtils.fingerprint("  "));
+    }
+
+    @Test
+    public void testHmacSha256Hex() {
+        // RFC 4231, test case 2
+        assertEquals("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843",
+                HashUtils.hmacSha256Hex("Jefe", "what do ya want for nothing?".getBytes()));
+        assertTrue(HashUtils.constantTimeEquals("abc", "abc"));
+        assertFalse(HashUtils.constantTimeEquals("abc", "abd"));
+        assertFalse(HashUtils.constantTimeEquals("abc", null));
+    }
+}
@@ -0,0 +1,40 @@
+package io.hoggmania.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyTrackerTest {
+
+    @Test
+    public void testPercentileRequiresMinimumSamples() {
+        LatencyTracker tracker = new LatencyTracker(10, 3);
+        tracker.record("host", Duration.ofMillis(10));
+        tracker.record("host", Duration.ofMillis(20));
+        assertNull(tracker.percentile("host", 0.9));
+        assertNull(tracker.percentile("unknown", 0.9));
+
+        tracker.record("host", Duration.ofMillis(30));
+        assertEquals(Duration.ofMillis(30), tracker.percentile("host", 0.9));
+        assertEquals(Duration.ofMillis(20), tracker.percentile("host", 0.5));
+    }
+
+    @Test
+    public void testP90OverWindow() {
+        LatencyTracker tracker = new LatencyTracker(10, 1);
+        for (int i = 1; i <= 10; i++) {
+            tracker.record("host", Duration.ofMillis(i * 10L));
+        }
+        assertEquals(Duration.ofMillis(90), tracker.percentile("host", 0.9));
+    }
+
+    @Test
+    public void testOldSamplesAreDropped() {
+        LatencyTracker tracker = new LatencyTracker(3, 1);
+        tracker.record("host", Duration.ofSeconds(5));
+        tracker.record("host", Duration.ofMillis(10));
+        tracker.record("host", Duration.ofMillis(10));
+        tracker.record("host", Duration.ofMillis(10));
+        assertEquals(Duration.ofMillis(10), tracker.percentile("host", 1.0));
+    }
+}
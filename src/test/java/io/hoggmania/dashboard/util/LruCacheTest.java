@@ -0,0 +1,42 @@
+package io.hoggmania.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a")); // touch a
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    public void testRemoveIf() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        cache.put("host|PROJ-1", 1);
+        cache.put("host|PROJ-2", 2);
+        cache.put("other|PROJ-1", 3);
+
+        assertEquals(2, cache.removeIf(key -> key.endsWith("|PROJ-1")));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.get("host|PROJ-2"));
+    }
+
+    @Test
+    public void testClear() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        cache.put("a", 1);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+}
@@ -84,5 +84,35 @@ public class RateLimiterTest {
         // Should be able to acquire again after window reset
         assertTrue(limiter.tryAcquire(key));
     }
-}
 
+    @Test
+    public void testCeilingLeavesReserve() {
+        RateLimiter limiter = new RateLimiter(4, Duration.ofSeconds(60));
+        String key = "test-key";
+
+        assertTrue(limiter.tryAcquire(key, 2));
+        assertTrue(limiter.tryAcquire(key, 2));
+        assertFalse(limiter.tryAcquire(key, 2));
+        assertFalse(limiter.wouldAllow(key, 2));
+
+        // The reserved part of the window is still available to callers with a higher ceiling
+        assertTrue(limiter.wouldAllow(key, 4));
+        assertTrue(limiter.tryAcquire(key, 4));
+        assertEquals(1, limiter.remainingRequests(key));
+    }
+
+    @Test
+    public void testReleaseReturnsPermit() {
+        RateLimiter limiter = new RateLimiter(2, Duration.ofSeconds(60));
+        String key = "test-key";
+
+        limiter.release(key); // nothing taken yet
+        assertTrue(limiter.tryAcquire(key, 2));
+        assertTrue(limiter.tryAcquire(key, 2));
+        assertFalse(limiter.tryAcquire(key, 2));
+
+        limiter.release(key);
+        assertEquals(1, limiter.remainingRequests(key));
+        assertTrue(limiter.tryAcquire(key, 2));
+    }
+}
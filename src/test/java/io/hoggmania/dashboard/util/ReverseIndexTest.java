@@ -0,0 +1,35 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReverseIndexTest {
+
+    @Test
+    public void testSharedMembersPointAtAllOwners() {
+        ReverseIndex<String, String> index = new ReverseIndex<>();
+        index.record("ESA-1", List.of("ESA-1", "FEAT-1", "INIT-1"));
+        index.record("ESA-2", List.of("ESA-2", "FEAT-1"));
+
+        assertEquals(Set.of("ESA-1", "ESA-2"), index.owners("FEAT-1"));
+        assertEquals(Set.of("ESA-1"), index.owners("INIT-1"));
+        assertTrue(index.owners("UNKNOWN").isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testRecordReplacesPreviousMembers() {
+        ReverseIndex<String, String> index = new ReverseIndex<>();
+        index.record("ESA-1", List.of("FEAT-1", "FEAT-2"));
+        index.record("ESA-1", List.of("FEAT-2", "FEAT-3"));
+
+        assertTrue(index.owners("FEAT-1").isEmpty());
+        assertEquals(Set.of("ESA-1"), index.owners("FEAT-3"));
+
+        index.remove("ESA-1");
+        assertEquals(0, index.size());
+    }
+}
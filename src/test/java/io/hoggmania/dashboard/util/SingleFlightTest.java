@@ -0,0 +1,104 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flights.run("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "result";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(1, flights.size());
+
+            List<CompletableFuture<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                followers.add(flights.join("key", () -> {
+                    calls.incrementAndGet();
+                    return "other";
+                }));
+            }
+            assertTrue(followers.stream().noneMatch(CompletableFuture::isDone));
+
+            // Cancelling one waiter does not affect the computation or the other waiters
+            followers.get(0).cancel(true);
+            release.countDown();
+
+            assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+            for (CompletableFuture<String> follower : followers.subList(1, followers.size())) {
+                assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(0, flights.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsSharedAndKeyReleased() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> flights.run("key", () -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertEquals("boom", error.getMessage());
+        assertEquals(0, flights.size());
+        assertEquals("again", flights.run("key", () -> "again"));
+    }
+
+    @Test
+    public void testDetachedComputationIsNotJoined() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flights.run("a", () -> {
+                started.countDown();
+                release.await();
+                return "before";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> waiting = flights.join("a", () -> "unused");
+
+            assertEquals(1, flights.detach("a"::equals));
+            assertEquals("after", flights.run("a", () -> "after"));
+
+            release.countDown();
+            assertEquals("before", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("before", waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(0, flights.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDifferentKeysRunIndependently() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        assertEquals(1, flights.run("a", () -> 1));
+        assertEquals(2, flights.run("b", () -> 2));
+    }
+}
@@ -48,6 +48,23 @@ public class StringUtilsTest {
         assertEquals("&lt;tag&gt;", StringUtils.escapeXml("<tag>"));
         assertEquals("&amp;&lt;&gt;&quot;&#39;", StringUtils.escapeXml("&<>\"'"));
         assertEquals("Hello &amp; goodbye", StringUtils.escapeXml("Hello & goodbye"));
+        assertEquals("a &lt;b&gt; c", StringUtils.escapeXml("a <b> c"));
+    }
+
+    @Test
+    public void testEscapeXmlReturnsInputWhenNothingToEscape() {
+        String plain = "Static Code Scanning";
+        assertSame(plain, StringUtils.escapeXml(plain));
     }
-}
 
+    @Test
+    public void testUnescapeXml() {
+        assertNull(StringUtils.unescapeXml(null));
+        assertEquals("test", StringUtils.unescapeXml("test"));
+        assertEquals("&<>\"'", StringUtils.unescapeXml("&amp;&lt;&gt;&quot;&#39;"));
+        assertEquals("&amp;", StringUtils.unescapeXml("&amp;amp;"));
+        assertEquals("R&D &copy; & more", StringUtils.unescapeXml("R&amp;D &copy; & more"));
+        String text = "<a href=\"x\">Tom's & Jerry's</a>";
+        assertEquals(text, StringUtils.unescapeXml(StringUtils.escapeXml(text)));
+    }
+}
@@ -0,0 +1,43 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SvgFragmentsTest {
+
+    private static String svg(String firstFill, String secondFill, String title) {
+        return "<svg><text>" + title + "</text>"
+                + "<g id=\"cmp_gov_0\" transform=\"translate(0,0)\"><rect fill=\"" + firstFill + "\"/></g>"
+                + "<g id=\"legend\"><g><rect/></g></g>"
+                + "<g id=\"cmp_dom_0_0\" transform=\"translate(9,9)\"><rect fill=\"" + secondFill + "\"/></g>"
+                + "</svg>";
+    }
+
+    @Test
+    public void testSplitsFlatPrefixedGroups() {
+        SvgFragments fragments = SvgFragments.split(svg("red", "green", "T"), "cmp_");
+
+        assertEquals(List.of("cmp_gov_0", "cmp_dom_0_0"), List.copyOf(fragments.elements().keySet()));
+        assertEquals("<g id=\"cmp_gov_0\" transform=\"translate(0,0)\"><rect fill=\"red\"/></g>",
+                fragments.elements().get("cmp_gov_0"));
+        assertTrue(fragments.frame().contains("<g id=\"cmp_gov_0\"/>"));
+        assertTrue(fragments.frame().contains("<g id=\"legend\"><g><rect/></g></g>"));
+    }
+
+    @Test
+    public void testChangedSince() {
+        SvgFragments before = SvgFragments.split(svg("red", "green", "T"), "cmp_");
+        SvgFragments after = SvgFragments.split(svg("red", "amber", "T"), "cmp_");
+
+        Map<String, String> changed = after.changedSince(before);
+        assertEquals(List.of("cmp_dom_0_0"), List.copyOf(changed.keySet()));
+        assertTrue(changed.get("cmp_dom_0_0").contains("amber"));
+        assertTrue(after.changedSince(after).isEmpty());
+
+        // A change outside the components cannot be sent as element updates
+        assertNull(SvgFragments.split(svg("red", "green", "Other"), "cmp_").changedSince(before));
+    }
+}
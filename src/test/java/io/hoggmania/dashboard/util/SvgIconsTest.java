@@ -0,0 +1,33 @@
+package io.hoggmania.dashboard.util;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SvgIconsTest {
+
+    @Test
+    public void testSymbolsReturnsOnlyRequestedIdsInSpriteOrder() {
+        String symbols = SvgIcons.symbols(List.of("icon-user", "icon-shield", "icon-unknown"));
+        assertTrue(symbols.startsWith("<symbol id=\"icon-shield\""));
+        assertTrue(symbols.contains("<symbol id=\"icon-user\""));
+        assertEquals(2, symbols.split("<symbol ", -1).length - 1);
+        assertTrue(symbols.endsWith("</symbol>"));
+    }
+
+    @Test
+    public void testSymbolsForNoIdsIsEmpty() {
+        assertEquals("", SvgIcons.symbols(List.of()));
+        assertEquals("", SvgIcons.symbols(null));
+    }
+
+    @Test
+    public void testSpriteDefinesEverySymbol() {
+        assertTrue(SvgIcons.contains("icon-gear"));
+        assertFalse(SvgIcons.contains("icon-unknown"));
+        assertTrue(SvgIcons.SPRITE.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\">"));
+        assertTrue(SvgIcons.SPRITE.contains(SvgIcons.SYMBOLS));
+        assertTrue(SvgIcons.VERSION.matches("[0-9a-f]{12}"));
+    }
+}
@@ -0,0 +1,109 @@
+package io.hoggmania.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedFairSchedulerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    public void testGrantsImmediatelyWhenPermitAvailable() throws InterruptedException {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler();
+        assertTrue(scheduler.acquire("host", "flow", 1, TIMEOUT, () -> true));
+        assertEquals(0, scheduler.waiting("host"));
+    }
+
+    @Test
+    public void testTimesOutWithoutPermit() throws InterruptedException {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler();
+        assertFalse(scheduler.acquire("host", "flow", 1, Duration.ofMillis(30), () -> false));
+        assertEquals(0, scheduler.waiting("host"));
+    }
+
+    @Test
+    public void testAbandonedCallStopsWaiting() throws InterruptedException {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler();
+        long started = System.nanoTime();
+        assertFalse(scheduler.acquire("host", "flow", 1, TIMEOUT, () -> false, () -> true));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(0, scheduler.waiting("host"));
+    }
+
+    @Test
+    public void testHeavierFlowServedMoreOften() throws Exception {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler();
+        AtomicBoolean open = new AtomicBoolean(false);
+        AtomicInteger slots = new AtomicInteger();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        int perFlow = 8;
+        CountDownLatch done = new CountDownLatch(perFlow * 2);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < perFlow; i++) {
+            threads.add(waiter(scheduler, "bulk", 1, open, slots, order, done));
+            threads.add(waiter(scheduler, "ui", 8, open, slots, order, done));
+        }
+        threads.forEach(Thread::start);
+        while (scheduler.waiting("host") < perFlow * 2) {
+            Thread.sleep(5);
+        }
+        // Hand out one slot at a time once every call is queued
+        open.set(true);
+        while (done.getCount() > 0) {
+            slots.incrementAndGet();
+            scheduler.signal("host");
+            Thread.sleep(2);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        long uiInFirstHalf = order.subList(0, perFlow).stream().filter("ui"::equals).count();
+        assertTrue(uiInFirstHalf >= perFlow - 1, "interactive flow should be served first: " + order);
+    }
+
+    @Test
+    public void testRefusedPermitDoesNotBlockOthers() throws Exception {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler();
+        CountDownLatch queued = new CountDownLatch(1);
+        Thread blocked = new Thread(() -> {
+            try {
+                queued.countDown();
+                scheduler.acquire("host", "bulk", 8, Duration.ofMillis(500), () -> false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blocked.start();
+        queued.await();
+        Thread.sleep(20);
+        assertTrue(scheduler.acquire("host", "ui", 1, Duration.ofMillis(200), () -> true));
+        blocked.join();
+    }
+
+    private static Thread waiter(WeightedFairScheduler scheduler, String flow, int weight, AtomicBoolean open,
+            AtomicInteger slots, List<String> order, CountDownLatch done) {
+        return new Thread(() -> {
+            try {
+                boolean granted = scheduler.acquire("host", flow, weight, TIMEOUT, () -> {
+                    if (open.get() && slots.get() > 0) {
+                        slots.decrementAndGet();
+                        order.add(flow);
+                        return true;
+                    }
+                    return false;
+                });
+                if (granted) {
+                    done.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+}